@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Runs QuizFlowLoadTest against the application twice, once on Tomcat's platform thread pool and once
+# on virtual threads, with the same takers, duration and seed.
+#
+# Usage: src/jmh/compare-virtual-threads.sh [load test args, e.g. takers=5000 duration=60]
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+PORT=${PORT:-8080}
+
+./mvnw -q -DskipTests package
+./mvnw -q -Pbenchmark test-compile
+JAR=$(ls target/quiz-app-*.jar | grep -v original | head -n 1)
+
+for virtual in false true; do
+    echo "=== spring.threads.virtual.enabled=$virtual ==="
+    java -jar "$JAR" --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" > "target/loadtest-server-$virtual.log" 2>&1 &
+    server=$!
+    trap 'kill $server 2>/dev/null' EXIT
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        sleep 1
+    done
+
+    ./mvnw -q -Pbenchmark exec:exec@loadtest -Dloadtest.args="url=http://localhost:$PORT $*"
+
+    kill "$server"
+    wait "$server" 2>/dev/null || true
+    if [ "$virtual" = true ]; then
+        grep -c "Virtual thread pinned" "target/loadtest-server-$virtual.log" | xargs echo "pinned warnings:" || true
+    fi
+done
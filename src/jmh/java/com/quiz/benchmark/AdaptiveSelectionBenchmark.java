@@ -0,0 +1,78 @@
+package com.quiz.benchmark;
+
+import com.quiz.catalog.ItemBank;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.service.QuizShuffler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of choosing adaptive questions with {@link ItemBank}: one choice and the answer that
+ * updates the ability estimate, and replaying a whole 30-question attempt from its answer sheet,
+ * which is what loading an adaptive attempt costs. Both should stay flat as the bank grows from
+ * 1,000 to 100,000 questions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdaptiveSelectionBenchmark {
+
+    private static final int TEST_LENGTH = 30;
+
+    @Param({"1000", "10000", "100000"})
+    public int bankSize;
+
+    private ItemBank bank;
+    private byte[] answerKey;
+    private byte[] answers;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Question> questions = new ArrayList<>(bankSize);
+        for (int i = 0; i < bankSize; i++) {
+            Question question = new Question(i + 1, "Bank question " + i + "?", List.of("A", "B", "C", "D"), "A");
+            question.setDifficulty(random.nextGaussian());
+            question.setDiscrimination(0.5 + random.nextDouble() * 1.5);
+            questions.add(question);
+        }
+        Quiz quiz = new Quiz(1, "Bank", null, questions);
+        quiz.setAdaptive(true);
+        quiz.setSampleSize(TEST_LENGTH);
+        bank = ItemBank.of(quiz);
+        answerKey = QuizCatalog.of(List.of(quiz)).answerKey(0);
+
+        // one attempt answered right and wrong at random, to replay
+        seed = QuizShuffler.newSeed();
+        answers = new byte[TEST_LENGTH];
+        ItemBank.Run run = bank.start(seed);
+        for (int i = 0; run.selectNext(); i++) {
+            boolean correct = random.nextBoolean();
+            answers[i] = (byte) (correct ? 0 : 1);
+            run.record(correct);
+        }
+    }
+
+    @Benchmark
+    public int firstChoice() {
+        ItemBank.Run run = bank.start(QuizShuffler.newSeed());
+        run.selectNext();
+        run.record(true);
+        return run.count();
+    }
+
+    @Benchmark
+    public int[] replayAttempt() {
+        return bank.replay(seed, answers, answerKey).items();
+    }
+}
@@ -0,0 +1,71 @@
+package com.quiz.benchmark;
+
+import com.quiz.analytics.QuizStats;
+import com.quiz.analytics.QuizStatsSnapshot;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.Grade;
+import com.quiz.model.Quiz;
+import com.quiz.service.AnswerGrader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording a submit in {@link QuizStats}, from one thread and from 64 threads recording
+ * into the same quiz, and of reading a snapshot while the other threads record. The group runs
+ * 63 recorders against one reader: the reader's time shows that snapshots do not wait for writers,
+ * and the recorders' time shows that a reader does not slow them down.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyticsBenchmark {
+
+    @Param({"10", "50"})
+    public int questionsPerQuiz;
+
+    private QuizStats stats;
+    private byte[] answers;
+    private Grade grade;
+
+    @Setup
+    public void setUp() {
+        Quiz quiz = SyntheticCatalog.quiz(1, questionsPerQuiz);
+        byte[] key = QuizCatalog.of(List.of(quiz)).answerKey(0);
+        stats = new QuizStats(quiz);
+        answers = AnswerGrader.newAnswerSheet(questionsPerQuiz);
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = (byte) (i % 4);
+        }
+        grade = AnswerGrader.grade(key, answers);
+    }
+
+    @Benchmark
+    public void record() {
+        stats.record(answers, grade, true);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void recordConcurrent() {
+        stats.record(answers, grade, true);
+    }
+
+    @Benchmark
+    @Group("readWhileRecording")
+    @GroupThreads(63)
+    public void recorder() {
+        stats.record(answers, grade, true);
+    }
+
+    @Benchmark
+    @Group("readWhileRecording")
+    @GroupThreads(1)
+    public QuizStatsSnapshot reader() {
+        return stats.snapshot();
+    }
+}
@@ -0,0 +1,72 @@
+package com.quiz.benchmark;
+
+import com.quiz.model.AttemptRecord;
+import com.quiz.store.AttemptLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Submit throughput of the {@link AttemptLog}: every operation appends one attempt and waits for
+ * its commit, from 1 or 64 threads, with and without fsync. With many submitters, one group commit
+ * covers many appends; the teardown prints the average group size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttemptLogBenchmark {
+
+    @Param({"10"})
+    public int questionsPerQuiz;
+
+    @Param({"true", "false"})
+    public boolean fsync;
+
+    private Path directory;
+    private AttemptLog attemptLog;
+    private byte[] answers;
+    private final AtomicLong nextId = new AtomicLong();
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("attempt-log-bench");
+        attemptLog = AttemptLog.open(directory, 64L << 20, fsync);
+        answers = new byte[questionsPerQuiz];
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        attemptLog.close();
+        System.out.printf("%n%d records in %d commits (%.1f per commit), %d bytes%n",
+                attemptLog.records(), attemptLog.commits(),
+                (double) attemptLog.records() / Math.max(1, attemptLog.commits()), attemptLog.bytes());
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void append() {
+        appendOne();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void appendConcurrent() {
+        appendOne();
+    }
+
+    private void appendOne() {
+        long now = System.currentTimeMillis();
+        attemptLog.append(new AttemptRecord(nextId.incrementAndGet(), 1, 42L, now - 60_000, now, 7, answers));
+    }
+}
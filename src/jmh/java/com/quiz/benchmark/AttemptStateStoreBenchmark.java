@@ -0,0 +1,122 @@
+package com.quiz.benchmark;
+
+import com.quiz.model.AttemptState;
+import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
+import com.quiz.service.AnswerGrader;
+import com.quiz.service.QuizShuffler;
+import com.quiz.store.AttemptStateStore;
+import com.quiz.store.FileAttemptStateStore;
+import com.quiz.store.StripedAttemptStateStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Attempt state encoding and store latency.
+ * <p>
+ * The setup prints the size of one encoded attempt next to the Java-serialized session attributes
+ * it replaces (shuffle permutation plus answer sheet). {@code readWrite} is one answer request: get,
+ * change one answer, put back; {@code readWriteContended} runs it from 8 threads over
+ * {@value #ATTEMPTS} live attempts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttemptStateStoreBenchmark {
+
+    private static final int ATTEMPTS = 10_000;
+
+    @Param({"10", "100"})
+    public int questionsPerQuiz;
+
+    @Param({"memory", "file"})
+    public String store;
+
+    private AttemptStateStore attemptStore;
+    private Path directory;
+    private AttemptState state;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Quiz quiz = SyntheticCatalog.quiz(1, questionsPerQuiz);
+        QuizPermutation shuffle = QuizShuffler.permutation(quiz, 42);
+        byte[] answers = AnswerGrader.newAnswerSheet(questionsPerQuiz);
+        state = new AttemptState(1, 1L, shuffle.getSeed(), System.currentTimeMillis(), 0, answers);
+        encoded = state.toBytes();
+
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(shuffle);
+            out.writeObject(answers);
+            out.writeObject(0);
+        }
+        System.out.printf("%n%d questions: encoded attempt %d bytes, serialized session attributes %d bytes%n",
+                questionsPerQuiz, encoded.length, serialized.size());
+
+        if (store.equals("file")) {
+            directory = Files.createTempDirectory("attempt-store-bench");
+            attemptStore = new FileAttemptStateStore(directory);
+        } else {
+            attemptStore = new StripedAttemptStateStore();
+        }
+        for (long id = 0; id < ATTEMPTS; id++) {
+            attemptStore.put(id, state);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return state.toBytes();
+    }
+
+    @Benchmark
+    public AttemptState decode() {
+        return AttemptState.fromBytes(encoded);
+    }
+
+    @Benchmark
+    public AttemptState get() {
+        return attemptStore.get(ThreadLocalRandom.current().nextInt(ATTEMPTS));
+    }
+
+    @Benchmark
+    public void readWrite() {
+        answer();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void readWriteContended() {
+        answer();
+    }
+
+    private void answer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = random.nextInt(ATTEMPTS);
+        AttemptState attempt = attemptStore.get(id);
+        attempt.getAnswers()[random.nextInt(questionsPerQuiz)] = (byte) random.nextInt(4);
+        attemptStore.put(id, attempt);
+    }
+}
@@ -0,0 +1,114 @@
+package com.quiz.benchmark;
+
+import com.quiz.model.AttemptState;
+import com.quiz.service.AnswerGrader;
+import com.quiz.store.AttemptStateStore;
+import com.quiz.store.FileAttemptStateStore;
+import com.quiz.store.WriteBehindAttemptStateStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Answer autosave against the file store, written on every answer ({@code direct}) or through
+ * {@link WriteBehindAttemptStateStore} ({@code write-behind}).
+ * <p>
+ * {@code attempt} is one whole attempt: every question answered (get, answer, put) and then
+ * submitted (get, remove); {@code answer} is a single answer to one of {@value #ATTEMPTS} live
+ * attempts from 8 threads. The teardown prints how many times each attempt was written to the file
+ * store; with write-behind an attempt answered and submitted within one flush interval is not
+ * written at all.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutosaveBenchmark {
+
+    private static final int ATTEMPTS = 1_000;
+
+    @Param({"10"})
+    public int questionsPerQuiz;
+
+    @Param({"direct", "write-behind"})
+    public String mode;
+
+    private Path directory;
+    private FileAttemptStateStore fileStore;
+    private AttemptStateStore store;
+    private final AtomicLong nextId = new AtomicLong(ATTEMPTS);
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong();
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("autosave-bench");
+        fileStore = new FileAttemptStateStore(directory);
+        store = mode.equals("write-behind")
+                ? new WriteBehindAttemptStateStore(fileStore, Duration.ofMillis(500), 256, 10_000)
+                : fileStore;
+        for (long id = 0; id < ATTEMPTS; id++) {
+            store.put(id, newState());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (store instanceof WriteBehindAttemptStateStore writeBehind) {
+            writeBehind.close();
+            System.out.printf("%nwrite-behind: %d puts, %d file writes (%d on the request thread), %.2f writes per attempt%n",
+                    writeBehind.puts(), writeBehind.writes(), writeBehind.writesThrough(),
+                    attempts.get() == 0 ? 0.0 : (double) writeBehind.writes() / attempts.get());
+        } else {
+            System.out.printf("%ndirect: %d puts, %d file writes, %.2f writes per attempt%n", puts.get(), puts.get(),
+                    attempts.get() == 0 ? 0.0 : (double) puts.get() / attempts.get());
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int attempt() {
+        long id = nextId.getAndIncrement();
+        store.put(id, newState());
+        for (int question = 0; question < questionsPerQuiz; question++) {
+            AttemptState state = store.get(id);
+            state.getAnswers()[question] = (byte) (question & 3);
+            state.setCurrentIndex(question);
+            store.put(id, state);
+        }
+        puts.addAndGet(questionsPerQuiz + 1);
+        attempts.incrementAndGet();
+
+        AttemptState submitted = store.get(id);
+        store.remove(id);
+        return AnswerGrader.answeredCount(submitted.getAnswers());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void answer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = random.nextInt(ATTEMPTS);
+        AttemptState state = store.get(id);
+        state.getAnswers()[random.nextInt(questionsPerQuiz)] = (byte) random.nextInt(4);
+        store.put(id, state);
+        puts.incrementAndGet();
+    }
+
+    private AttemptState newState() {
+        return new AttemptState(1, 1L, 42L, System.currentTimeMillis(), 0,
+                AnswerGrader.newAnswerSheet(questionsPerQuiz));
+    }
+}
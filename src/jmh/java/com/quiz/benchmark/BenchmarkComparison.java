@@ -0,0 +1,91 @@
+package com.quiz.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH result files written with {@code -rf json} and flags regressions.
+ * <p>
+ * Usage: {@code BenchmarkComparison <baseline.json> <current.json> [threshold percent, default 10]}.
+ * Results are matched by benchmark name and parameters. A result regresses when it is worse than
+ * the baseline by more than the threshold: lower for throughput, higher for time-based modes. A
+ * result in the baseline that the current run lacks, such as a benchmark that was renamed or
+ * failed, counts as a regression too. The process exits with status 1 if any result regressed,
+ * so it can fail a release build.
+ */
+public final class BenchmarkComparison {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [threshold percent]");
+            System.exit(2);
+        }
+        double threshold = args.length == 3 ? Double.parseDouble(args[2]) : 10;
+        Map<String, JsonNode> baseline = read(Paths.get(args[0]));
+        Map<String, JsonNode> current = read(Paths.get(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-72s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            double now = after.path("primaryMetric").path("score").asDouble();
+            if (before == null) {
+                System.out.printf("%-72s %14s %14.3f %9s  new (%s)%n", entry.getKey(), "-", now, "", unit);
+                continue;
+            }
+            double then = before.path("primaryMetric").path("score").asDouble();
+            double change = then == 0 ? 0 : (now - then) * 100 / then;
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            boolean regressed = higherIsBetter ? change < -threshold : change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-72s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), then, now, change, unit,
+                    regressed ? "  REGRESSION" : "");
+        }
+        int missing = 0;
+        for (Map.Entry<String, JsonNode> entry : baseline.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                missing++;
+                System.out.printf("%-72s %14.3f %14s %9s  %s  MISSING%n", entry.getKey(),
+                        entry.getValue().path("primaryMetric").path("score").asDouble(), "-", "",
+                        entry.getValue().path("primaryMetric").path("scoreUnit").asText());
+            }
+        }
+        System.out.printf("%d result(s) compared, %d regression(s) beyond %.1f%%, %d missing from the current run%n",
+                current.size(), regressions, threshold, missing);
+        if (regressions > 0 || missing > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads a JMH JSON result file, keyed by benchmark name and parameters.
+     */
+    static Map<String, JsonNode> read(Path file) throws IOException {
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode result : MAPPER.readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.quiz.benchmark.", ""));
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").properties().forEach(param -> params.put(param.getKey(), param.getValue().asText()));
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+            key.append(" [").append(result.path("mode").asText()).append(']');
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
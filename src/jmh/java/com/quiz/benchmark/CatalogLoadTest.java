@@ -0,0 +1,175 @@
+package com.quiz.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load test of the catalog-derived responses against a running application: many clients, each on
+ * its own virtual thread, repeatedly fetch the home page, the JSON catalog and a quiz preview.
+ * <p>
+ * Arguments ({@code key=value}, all optional): {@code url} (http://localhost:8080), {@code clients} (200),
+ * {@code quiz} (1), {@code encoding} (the {@code Accept-Encoding} to send, gzip; {@code identity} for none),
+ * {@code revalidate} (false; true sends the ETag of the first response back, as a browser with the
+ * page in its cache does), {@code warmup} (10 seconds), {@code duration} (30 seconds).
+ * <p>
+ * Besides throughput and latency per path, the report lists the bytes per response and the server's
+ * CPU time per request, from the {@code process.cpu.usage} and {@code system.cpu.count} actuator
+ * metrics sampled every second of the measurement. Compare a server started with
+ * {@code quiz.render.precompress=true} against one with {@code quiz.render.precompress=false} and
+ * {@code server.compression.enabled=true}, which compresses every response as it is sent.
+ */
+public final class CatalogLoadTest {
+
+    private static final Pattern VALUE = Pattern.compile("\"value\"\\s*:\\s*([-0-9.Ee+]+)");
+
+    private final HttpClient client;
+    private final String url;
+    private final String encoding;
+    private final boolean revalidate;
+    private final long measureFrom;
+    private final long deadline;
+    private final Map<String, QuizFlowLoadTest.LatencyHistogram> latencies = new LinkedHashMap<>();
+    private final Map<String, LongAdder> bytes = new HashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    private CatalogLoadTest(HttpClient client, String url, String[] paths, String encoding, boolean revalidate,
+                            long measureFrom, long deadline) {
+        this.client = client;
+        this.url = url;
+        this.encoding = encoding;
+        this.revalidate = revalidate;
+        this.measureFrom = measureFrom;
+        this.deadline = deadline;
+        for (String path : paths) {
+            latencies.put(path, new QuizFlowLoadTest.LatencyHistogram());
+            bytes.put(path, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "200"));
+        int quizId = Integer.parseInt(options.getOrDefault("quiz", "1"));
+        String encoding = options.getOrDefault("encoding", "gzip");
+        boolean revalidate = Boolean.parseBoolean(options.getOrDefault("revalidate", "false"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "10"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "30"));
+        String[] paths = {"/", "/api/quiz/catalog", "/api/quiz/catalog/" + quizId};
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(threads)
+                    .build();
+            long now = System.nanoTime();
+            CatalogLoadTest test = new CatalogLoadTest(client, url, paths, encoding, revalidate,
+                    now + Duration.ofSeconds(warmup).toNanos(), now + Duration.ofSeconds(warmup + duration).toNanos());
+
+            System.out.printf("%d clients at %s, Accept-Encoding %s, %s: %d s warmup, %d s measured%n",
+                    clients, url, encoding, revalidate ? "revalidating" : "full responses", warmup, duration);
+            for (int i = 0; i < clients; i++) {
+                threads.submit(test::runClient);
+            }
+            double cpuUsage = test.sampleCpuUsage(warmup, duration);
+            double cpuCount = test.metric("system.cpu.count");
+            threads.shutdown();
+            threads.awaitTermination(warmup + duration + 60, TimeUnit.SECONDS);
+            test.report(duration, cpuUsage * cpuCount);
+        }
+    }
+
+    private void runClient() {
+        Map<String, String> etags = new HashMap<>();
+        while (System.nanoTime() < deadline) {
+            for (String path : latencies.keySet()) {
+                try {
+                    fetch(path, etags);
+                } catch (Exception e) {
+                    errors.increment();
+                }
+            }
+        }
+    }
+
+    private void fetch(String path, Map<String, String> etags) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url + path)).GET()
+                .timeout(Duration.ofSeconds(30));
+        if (!encoding.equals("identity")) {
+            request.header("Accept-Encoding", encoding);
+        }
+        String etag = etags.get(path);
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        long started = System.nanoTime();
+        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200 && response.statusCode() != 304) {
+            throw new IllegalStateException(path + " returned " + response.statusCode());
+        }
+        if (started >= measureFrom) {
+            latencies.get(path).record(System.nanoTime() - started);
+            bytes.get(path).add(response.body().length);
+        }
+        if (revalidate) {
+            response.headers().firstValue("ETag").ifPresent(tag -> etags.put(path, tag));
+        }
+    }
+
+    /**
+     * Averages the server's CPU usage (share of all cores) over the measurement, sampled every second.
+     */
+    private double sampleCpuUsage(long warmup, long duration) throws Exception {
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmup));
+        double sum = 0;
+        int samples = 0;
+        while (System.nanoTime() < deadline - TimeUnit.SECONDS.toNanos(1)) {
+            Thread.sleep(1_000);
+            sum += metric("process.cpu.usage");
+            samples++;
+        }
+        return samples == 0 ? 0 : sum / samples;
+    }
+
+    private double metric(String name) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url + "/actuator/metrics/" + name))
+                .timeout(Duration.ofSeconds(10)).build(), HttpResponse.BodyHandlers.ofString());
+        Matcher value = VALUE.matcher(response.body());
+        if (response.statusCode() != 200 || !value.find()) {
+            throw new IllegalStateException("metric " + name + " returned " + response.statusCode());
+        }
+        return Double.parseDouble(value.group(1));
+    }
+
+    private void report(long seconds, double coresBusy) {
+        System.out.printf("%-24s %12s %10s %10s %12s%n", "path", "req/s", "p50 ms", "p99 ms", "bytes/resp");
+        long requests = 0;
+        for (Map.Entry<String, QuizFlowLoadTest.LatencyHistogram> entry : latencies.entrySet()) {
+            QuizFlowLoadTest.LatencyHistogram histogram = entry.getValue();
+            requests += histogram.count();
+            System.out.printf("%-24s %12.1f %10.2f %10.2f %12.0f%n", entry.getKey(), histogram.count() / (double) seconds,
+                    histogram.percentile(0.50) / 1e6, histogram.percentile(0.99) / 1e6,
+                    bytes.get(entry.getKey()).sum() / (double) Math.max(1, histogram.count()));
+        }
+        double perSecond = requests / (double) seconds;
+        System.out.printf("server CPU: %.2f cores busy, %.1f us per request; errors: %d%n",
+                coresBusy, perSecond == 0 ? 0 : coresBusy * 1e6 / perSecond, errors.sum());
+    }
+}
@@ -0,0 +1,82 @@
+package com.quiz.benchmark;
+
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.Quiz;
+import com.quiz.service.QuizLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old linear scans with the indexed {@link QuizCatalog} lookups.
+ * <p>
+ * The indexed variants should stay flat as {@code quizCount} and {@code questionsPerQuiz} grow,
+ * while the scans grow linearly with them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogLookupBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int quizCount;
+
+    @Param({"10", "100"})
+    public int questionsPerQuiz;
+
+    private List<Quiz> quizzes;
+    private QuizCatalog catalog;
+    private QuizLoader loader;
+
+    @Setup
+    public void setUp() {
+        quizzes = SyntheticCatalog.quizzes(quizCount, questionsPerQuiz);
+        catalog = QuizCatalog.of(quizzes);
+        loader = new QuizLoader();
+        loader.publish(catalog);
+    }
+
+    @Benchmark
+    public Quiz quizByIdIndexed() {
+        return catalog.getQuiz(randomQuizId());
+    }
+
+    @Benchmark
+    public Quiz quizByIdLoader() {
+        return loader.getQuizById(randomQuizId());
+    }
+
+    @Benchmark
+    public Quiz quizByIdLinearScan() {
+        int id = randomQuizId();
+        return quizzes.stream()
+                .filter(quiz -> quiz.getId() == id)
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Benchmark
+    public boolean questionExistsIndexed() {
+        return catalog.containsQuestion(randomQuizId(), randomQuestionId());
+    }
+
+    @Benchmark
+    public boolean questionExistsLinearScan() {
+        Quiz quiz = catalog.getQuiz(randomQuizId());
+        int questionId = randomQuestionId();
+        return quiz.getQuestions().stream().anyMatch(q -> q.getId() == questionId);
+    }
+
+    private int randomQuizId() {
+        return ThreadLocalRandom.current().nextInt(quizCount) + 1;
+    }
+
+    private int randomQuestionId() {
+        return ThreadLocalRandom.current().nextInt(questionsPerQuiz) + 1;
+    }
+}
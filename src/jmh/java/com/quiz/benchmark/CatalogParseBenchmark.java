@@ -0,0 +1,67 @@
+package com.quiz.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.catalog.CatalogLoadResult;
+import com.quiz.catalog.StreamingCatalogReader;
+import com.quiz.model.Quiz;
+import com.quiz.service.QuizLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old whole-document Jackson binding with the token-level {@link StreamingCatalogReader}.
+ * <p>
+ * Run with {@code -prof gc} to compare allocation per load; the streaming reader should allocate
+ * little beyond the quizzes it returns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogParseBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Param({"100", "1000"})
+    public int quizCount;
+
+    @Param({"100"})
+    public int questionsPerQuiz;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        json = SyntheticCatalog.json(quizCount, questionsPerQuiz);
+    }
+
+    @Benchmark
+    public List<Quiz> databind() throws IOException {
+        return MAPPER.readValue(new ByteArrayInputStream(json), QuizWrapper.class).quizzes;
+    }
+
+    @Benchmark
+    public CatalogLoadResult streaming() throws IOException {
+        return StreamingCatalogReader.read(new ByteArrayInputStream(json));
+    }
+
+    @Benchmark
+    public CatalogLoadResult loader() throws IOException {
+        return QuizLoader.readQuizzes(new ByteArrayInputStream(json));
+    }
+
+    /**
+     * The root wrapper the loader used to bind data.json into.
+     */
+    public static class QuizWrapper {
+        public List<Quiz> quizzes;
+    }
+}
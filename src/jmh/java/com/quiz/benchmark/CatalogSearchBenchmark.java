@@ -0,0 +1,160 @@
+package com.quiz.benchmark;
+
+import com.quiz.catalog.CatalogSearchIndex;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries against the {@link CatalogSearchIndex} of catalogs of 1,000 and 10,000 quizzes, with
+ * text drawn from a vocabulary of 20,000 words where a few words are common and most are rare:
+ * a rare word, a common one, a two-word query, a prefix being typed, a tag filter, and a page of
+ * the unfiltered list. {@code linearScan} searches the same word by scanning every quiz's text, the
+ * way a page without an index would. {@code rebuild} and {@code updateOneQuiz} compare indexing
+ * the whole catalog with updating it after one quiz changed. The estimated and measured heap of the
+ * index are printed after each trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogSearchBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+    private static final int TAGS = 50;
+
+    @Param({"1000", "10000"})
+    public int quizCount;
+
+    @Param({"20"})
+    public int questionsPerQuiz;
+
+    private final String[] words = new String[VOCABULARY];
+    private QuizCatalog catalog;
+    private QuizCatalog changed;
+    private CatalogSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int w = 0; w < VOCABULARY; w++) {
+            words[w] = word(w);
+        }
+        List<Quiz> quizzes = new ArrayList<>(quizCount);
+        for (int id = 1; id <= quizCount; id++) {
+            quizzes.add(quiz(id, random));
+        }
+        catalog = QuizCatalog.of(quizzes);
+        List<Quiz> edited = new ArrayList<>(quizzes);
+        edited.set(quizCount / 2, quiz(quizCount / 2 + 1, random));
+        changed = QuizCatalog.of(edited, 2);
+        index = CatalogSearchIndex.of(catalog);
+    }
+
+    @TearDown(Level.Trial)
+    public void reportFootprint() {
+        long measured = HeapFootprint.retainedBytes(() -> CatalogSearchIndex.of(catalog));
+        System.out.printf("%n  %d terms, estimated %d KB, measured %d KB%n",
+                index.termCount(), index.memoryBytes() / 1024, measured / 1024);
+    }
+
+    @Benchmark
+    public CatalogSearchIndex.Page rareWord() {
+        return index.search(words[VOCABULARY - 1] + " ", List.of(), 1, 20);
+    }
+
+    @Benchmark
+    public CatalogSearchIndex.Page commonWord() {
+        return index.search(words[0] + " ", List.of(), 1, 20);
+    }
+
+    @Benchmark
+    public CatalogSearchIndex.Page twoWords() {
+        return index.search(words[3] + " " + words[40] + " ", List.of(), 1, 20);
+    }
+
+    @Benchmark
+    public CatalogSearchIndex.Page typingPrefix() {
+        return index.search(words[10].substring(0, 3), List.of(), 1, 20);
+    }
+
+    @Benchmark
+    public CatalogSearchIndex.Page tagFilter() {
+        return index.search("", List.of("topic-7"), 2, 20);
+    }
+
+    @Benchmark
+    public CatalogSearchIndex.Page browse() {
+        return index.search("", List.of(), 3, 20);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        String word = words[VOCABULARY - 1];
+        int found = 0;
+        for (Quiz quiz : catalog.getQuizzes()) {
+            boolean match = quiz.getTitle().toLowerCase(Locale.ROOT).contains(word)
+                    || quiz.getDescription().toLowerCase(Locale.ROOT).contains(word);
+            for (int q = 0; !match && q < quiz.getQuestions().size(); q++) {
+                match = quiz.getQuestions().get(q).getQuestion().toLowerCase(Locale.ROOT).contains(word);
+            }
+            found += match ? 1 : 0;
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public CatalogSearchIndex rebuild() {
+        return CatalogSearchIndex.of(changed);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public CatalogSearchIndex updateOneQuiz() {
+        return CatalogSearchIndex.update(index, changed);
+    }
+
+    // distinct lower-case words of 4 to 9 letters
+    private static String word(int w) {
+        StringBuilder word = new StringBuilder();
+        int value = w;
+        do {
+            word.append((char) ('a' + value % 26));
+            value /= 26;
+        } while (value > 0);
+        while (word.length() < 4 + w % 6) {
+            word.append((char) ('a' + (w * 7 + word.length()) % 26));
+        }
+        return word.toString();
+    }
+
+    // text of n words with a skewed distribution: low word numbers are far more frequent
+    private String text(SplittableRandom random, int n) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            double u = random.nextDouble();
+            text.append(words[(int) (VOCABULARY * u * u * u)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private Quiz quiz(int id, SplittableRandom random) {
+        List<Question> questions = new ArrayList<>(questionsPerQuiz);
+        for (int q = 1; q <= questionsPerQuiz; q++) {
+            Question question = new Question(q, text(random, 12) + "?", List.of("A", "B", "C", "D"), "A");
+            question.setTag("topic-" + random.nextInt(TAGS));
+            questions.add(question);
+        }
+        return new Quiz(id, text(random, 3), text(random, 15), questions);
+    }
+}
@@ -0,0 +1,93 @@
+package com.quiz.benchmark;
+
+import com.quiz.catalog.CatalogSnapshot;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.catalog.StreamingCatalogReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cold catalog load: parsing the JSON catalog vs. memory-mapping the compiled {@link CatalogSnapshot}.
+ * Both variants end with the {@link QuizCatalog} that serves the first request.
+ * <p>
+ * Each fork measures single shots, so class loading and page cache effects of a real cold start
+ * are part of the first iteration. At the end of the trial the retained heap of one loaded catalog
+ * is printed for both formats, since the snapshot shares every repeated string.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(3)
+@State(Scope.Benchmark)
+public class CatalogStartupBenchmark {
+
+    @Param({"1000", "10000"})
+    public int quizCount;
+
+    @Param({"50"})
+    public int questionsPerQuiz;
+
+    private Path json;
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path directory = Files.createTempDirectory("catalog-startup");
+        json = Files.write(directory.resolve("catalog.json"), SyntheticCatalog.json(quizCount, questionsPerQuiz));
+        snapshot = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(SyntheticCatalog.quizzes(quizCount, questionsPerQuiz), snapshot);
+    }
+
+    @TearDown(Level.Trial)
+    public void reportFootprint() throws IOException {
+        System.out.printf("%n  json: %d bytes on disk, %d bytes retained heap%n",
+                Files.size(json), HeapFootprint.retainedBytes(unchecked(this::loadJson)));
+        System.out.printf("  snapshot: %d bytes on disk, %d bytes retained heap%n",
+                Files.size(snapshot), HeapFootprint.retainedBytes(unchecked(this::loadSnapshot)));
+        Files.delete(json);
+        Files.delete(snapshot);
+        Files.delete(json.getParent());
+    }
+
+    @Benchmark
+    public QuizCatalog json() throws IOException {
+        return loadJson();
+    }
+
+    @Benchmark
+    public QuizCatalog snapshot() throws IOException {
+        return loadSnapshot();
+    }
+
+    private QuizCatalog loadJson() throws IOException {
+        try (InputStream in = Files.newInputStream(json)) {
+            return QuizCatalog.of(StreamingCatalogReader.read(in).getQuizzes());
+        }
+    }
+
+    private QuizCatalog loadSnapshot() throws IOException {
+        return QuizCatalog.of(CatalogSnapshot.open(snapshot).toQuizzes());
+    }
+
+    private interface Loader {
+        QuizCatalog load() throws IOException;
+    }
+
+    private static Supplier<QuizCatalog> unchecked(Loader loader) {
+        return () -> {
+            try {
+                return loader.load();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
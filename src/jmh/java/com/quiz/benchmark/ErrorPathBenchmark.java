@@ -0,0 +1,78 @@
+package com.quiz.benchmark;
+
+import com.quiz.exception.QuizException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of throwing and catching the expected quiz errors.
+ * <p>
+ * The error is thrown {@code depth} frames below the catch, roughly the depth of a controller
+ * method under Tomcat and Spring MVC. {@code stackTrace} is the cost before errors were stackless
+ * (an exception that fills in its stack trace, as {@code QuizException} used to); {@code stackless}
+ * allocates a new {@link QuizException} with per-request details; {@code shared} throws one of the
+ * shared instances, as the controller does for "Session Expired".
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorPathBenchmark {
+
+    @Param({"100"})
+    public int depth;
+
+    private int questionId = 7;
+
+    @Benchmark
+    public String stackTrace() {
+        try {
+            return throwAt(depth, 0);
+        } catch (StackTraceException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String stackless() {
+        try {
+            return throwAt(depth, 1);
+        } catch (QuizException e) {
+            return e.getErrorDetails();
+        }
+    }
+
+    @Benchmark
+    public String shared() {
+        try {
+            return throwAt(depth, 2);
+        } catch (QuizException e) {
+            return e.getErrorDetails();
+        }
+    }
+
+    private String throwAt(int remaining, int kind) {
+        if (remaining > 0) {
+            return throwAt(remaining - 1, kind);
+        }
+        switch (kind) {
+            case 0 -> throw new StackTraceException("Question ID: " + questionId);
+            case 1 -> throw new QuizException("Invalid Question", "The question ID is invalid.",
+                    "Question ID: " + questionId);
+            default -> throw QuizException.SESSION_EXPIRED;
+        }
+    }
+
+    /**
+     * An exception that captures its stack trace, like {@code QuizException} before it was stackless.
+     */
+    private static class StackTraceException extends RuntimeException {
+
+        StackTraceException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.quiz.benchmark;
+
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.Grade;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.model.QuizResult;
+import com.quiz.service.AnswerGrader;
+import com.quiz.service.QuizService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading one attempt: {@link QuizService#evaluateQuiz} over a letter map vs. {@link AnswerGrader}
+ * over byte answer sheets. Run with {@code -prof gc}: {@code primitiveReusedMask} should show no
+ * allocation at all, {@code primitive} only the returned {@link Grade}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GradingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int questionsPerQuiz;
+
+    private final QuizService quizService = new QuizService();
+    private Quiz shuffled;
+    private Map<Integer, String> letterAnswers;
+    private byte[] answerKey;
+    private byte[] answerSheet;
+    private long[] mask;
+
+    @Setup
+    public void setUp() {
+        Quiz quiz = SyntheticCatalog.quiz(1, questionsPerQuiz);
+        shuffled = quizService.shuffleQuiz(quiz, 42);
+        answerKey = QuizCatalog.of(List.of(quiz)).answerKey(0);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        letterAnswers = new HashMap<>();
+        for (Question question : shuffled.getQuestions()) {
+            letterAnswers.put(question.getId(), String.valueOf((char) ('A' + random.nextInt(4))));
+        }
+        answerSheet = new byte[questionsPerQuiz];
+        for (int i = 0; i < answerSheet.length; i++) {
+            answerSheet[i] = (byte) random.nextInt(4);
+        }
+        mask = AnswerGrader.newMask(questionsPerQuiz);
+    }
+
+    @Benchmark
+    public QuizResult letterMap() {
+        return quizService.evaluateQuiz(shuffled, letterAnswers);
+    }
+
+    @Benchmark
+    public Grade primitive() {
+        return AnswerGrader.grade(answerKey, answerSheet);
+    }
+
+    @Benchmark
+    public int primitiveReusedMask() {
+        return AnswerGrader.grade(answerKey, answerSheet, mask);
+    }
+}
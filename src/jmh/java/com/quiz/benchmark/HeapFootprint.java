@@ -0,0 +1,28 @@
+package com.quiz.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.function.Supplier;
+
+/**
+ * Rough retained-heap measurement for the footprint reports printed by some benchmarks:
+ * the difference in used heap, after a full GC, before and after building an object graph.
+ */
+final class HeapFootprint {
+
+    private HeapFootprint() {
+    }
+
+    static long retainedBytes(Supplier<?> builder) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        Object graph = builder.get();
+        System.gc();
+        long after = memory.getHeapMemoryUsage().getUsed();
+        if (graph == null) {   // keeps the graph reachable until the second measurement
+            throw new IllegalStateException("Nothing was built");
+        }
+        return after - before;
+    }
+}
@@ -0,0 +1,108 @@
+package com.quiz.benchmark;
+
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.Quiz;
+import com.quiz.render.PageCache.Listing;
+import com.quiz.render.PageCache.QuizSummary;
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the home listing of a catalog of {@code quizCount} quizzes as the application does, one
+ * page of 50 {@code QuizSummary}s after a cursor, vs. rendering every quiz on one page.
+ * <p>
+ * {@code page} is the page after the quiz in the middle of the catalog, found by its cursor; it is
+ * what a request costs when the page is not cached yet, and bounds the time to its first byte, as the
+ * page is streamed while it renders. It should stay flat as the catalog grows, while
+ * {@code wholeCatalog} grows with it. {@code summaries} is the projection the pages are rendered from,
+ * built once per catalog version. The output is written to a discarding writer, as it would be to
+ * the response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HomeListingBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1000", "10000", "100000"})
+    public int quizCount;
+
+    private SpringTemplateEngine engine;
+    private QuizCatalog catalog;
+    private List<QuizSummary> summaries;
+    private int cursor;
+    private Context whole;
+
+    @Setup
+    public void setUp() {
+        engine = TemplateRenderBenchmark.templateEngine();
+        catalog = QuizCatalog.of(SyntheticCatalog.quizzes(quizCount, 10));
+        summaries = summaries();
+        cursor = summaries.get(quizCount / 2 - 1).id();
+        whole = new Context();
+        whole.setVariable("listing", new Listing(summaries, 0, quizCount, null));
+    }
+
+    @Benchmark
+    public List<QuizSummary> summaries() {
+        List<QuizSummary> summaries = new ArrayList<>(catalog.size());
+        for (Quiz quiz : catalog.getQuizzes()) {
+            summaries.add(QuizSummary.of(quiz));
+        }
+        return List.copyOf(summaries);
+    }
+
+    @Benchmark
+    public long page() {
+        int start = catalog.slotOf(cursor) + 1;
+        int end = Math.min(start + PAGE_SIZE, summaries.size());
+        Context context = new Context();
+        context.setVariable("listing", new Listing(summaries.subList(start, end), start, summaries.size(),
+                end < summaries.size() ? summaries.get(end - 1).id() : null));
+        return render(context);
+    }
+
+    @Benchmark
+    public long wholeCatalog() {
+        return render(whole);
+    }
+
+    private long render(Context context) {
+        Discard out = new Discard();
+        engine.process("home", context, out);
+        return out.count;
+    }
+
+    private static final class Discard extends Writer {
+
+        long count;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void write(String text, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
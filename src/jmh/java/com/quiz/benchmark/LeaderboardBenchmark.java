@@ -0,0 +1,70 @@
+package com.quiz.benchmark;
+
+import com.quiz.analytics.Leaderboard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of the {@link Leaderboard} operations on a board that already holds one million results:
+ * recording a result from 1 and 64 threads, ranking a score, and reading the top 10. Recorded
+ * results have random scores, so most fall below the top-K cutoff, as they do in production.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LeaderboardBenchmark {
+
+    @Param({"10", "100"})
+    public int questionsPerQuiz;
+
+    @Param({"100"})
+    public int topSize;
+
+    private Leaderboard board;
+    private final AtomicLong nextId = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        board = new Leaderboard(questionsPerQuiz, topSize);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 1_000_000; i++) {
+            board.record(new Leaderboard.Entry(nextId.incrementAndGet(), random.nextInt(questionsPerQuiz + 1),
+                    random.nextLong(600_000), i));
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        recordOne();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void recordConcurrent() {
+        recordOne();
+    }
+
+    @Benchmark
+    public Leaderboard.Standing standing() {
+        return board.standing(ThreadLocalRandom.current().nextInt(questionsPerQuiz + 1));
+    }
+
+    @Benchmark
+    public List<Leaderboard.Entry> top10() {
+        return board.top(10);
+    }
+
+    private void recordOne() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        board.record(new Leaderboard.Entry(nextId.incrementAndGet(), random.nextInt(questionsPerQuiz + 1),
+                random.nextLong(600_000), System.currentTimeMillis()));
+    }
+}
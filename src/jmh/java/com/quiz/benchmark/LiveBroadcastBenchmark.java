@@ -0,0 +1,106 @@
+package com.quiz.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.live.LiveSession;
+import com.quiz.model.Quiz;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Live sessions with {@code subscribers} clients following them in memory, so the numbers are
+ * the fan-out itself, without sockets.
+ * <p>
+ * {@code broadcast} opens the next question and waits until every subscriber has been handed the
+ * new frame: the time from the presenter's action to the last participant's write. With
+ * {@code slowSubscribers} of them taking 50ms per write, as clients whose connection is full
+ * would, the others should be served as fast as without them. {@code answerRound} has every
+ * subscriber answer the open question from 16 threads, as a room answering at once.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LiveBroadcastBenchmark {
+
+    // enough questions that a measurement iteration does not reach the end of the session
+    private static final int QUESTIONS = 10_000;
+
+    @Param({"1000", "10000"})
+    public int subscribers;
+
+    @Param({"0", "100"})
+    public int slowSubscribers;
+
+    private Quiz quiz;
+    private byte[] answerKey;
+    private LiveSession session;
+    private long[] participants;
+    private volatile CountDownLatch delivered;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        quiz = SyntheticCatalog.quiz(1, QUESTIONS);
+        answerKey = QuizCatalog.of(List.of(quiz)).answerKey(0);
+    }
+
+    @Setup(Level.Iteration)
+    public void openSession() {
+        session = new LiveSession(1, 2, quiz, answerKey, new ObjectMapper());
+        delivered = new CountDownLatch(subscribers);
+        for (int i = 0; i < subscribers; i++) {
+            session.subscribe(frame -> delivered.countDown());
+        }
+        for (int i = 0; i < slowSubscribers; i++) {
+            session.subscribe(frame -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        participants = new long[subscribers];
+        for (int i = 0; i < subscribers; i++) {
+            participants[i] = session.join();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void endSession() {
+        session.end();
+    }
+
+    @Benchmark
+    public long broadcast() throws InterruptedException {
+        // the subscribers count down the lobby frame while the session is set up
+        delivered.await();
+        CountDownLatch latch = new CountDownLatch(subscribers);
+        delivered = latch;
+        LiveSession.Frame frame = session.next();
+        latch.await();
+        return frame.seq();
+    }
+
+    @Benchmark
+    public long answerRound() {
+        int question = session.next().question();
+        return IntStream.range(0, 16).parallel()
+                .mapToLong(thread -> {
+                    long accepted = 0;
+                    for (int i = thread; i < participants.length; i += 16) {
+                        if (session.answer(participants[i], question, i & 3)) {
+                            accepted++;
+                        }
+                    }
+                    return accepted;
+                })
+                .sum();
+    }
+}
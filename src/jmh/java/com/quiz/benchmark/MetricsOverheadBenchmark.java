@@ -0,0 +1,83 @@
+package com.quiz.benchmark;
+
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.metrics.QuizMetrics;
+import com.quiz.model.Grade;
+import com.quiz.model.Quiz;
+import com.quiz.service.AnswerGrader;
+import com.quiz.service.QuizService;
+import com.quiz.service.QuizShuffler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@link QuizMetrics} instrumentation.
+ * <p>
+ * {@code bare} shuffles and grades without going through {@link QuizService}; {@code uninstrumented}
+ * goes through the service with {@link QuizMetrics#NONE}; {@code instrumented} records into a live
+ * registry. The difference between the last two is the per-request cost of the shuffle and grade
+ * timers. {@code recordEndpoint} is the cost the request interceptor adds per handler call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+
+    @Param({"10"})
+    public int questionsPerQuiz;
+
+    private Quiz quiz;
+    private byte[] answerKey;
+    private byte[] answers;
+    private QuizService uninstrumented;
+    private QuizService instrumented;
+    private QuizMetrics metrics;
+
+    @Setup
+    public void setUp() {
+        quiz = SyntheticCatalog.quiz(1, questionsPerQuiz);
+        answerKey = QuizCatalog.of(List.of(quiz)).answerKey(0);
+        answers = AnswerGrader.newAnswerSheet(questionsPerQuiz);
+
+        uninstrumented = new QuizService();
+        metrics = new QuizMetrics(new SimpleMeterRegistry());
+        instrumented = new QuizService();
+        ReflectionTestUtils.setField(instrumented, "metrics", metrics);
+    }
+
+    @Benchmark
+    public Grade bare() {
+        QuizShuffler.permutation(quiz, 42);
+        return AnswerGrader.grade(answerKey, answers);
+    }
+
+    @Benchmark
+    public Grade uninstrumented() {
+        uninstrumented.permute(quiz, 42);
+        return uninstrumented.grade(answerKey, answers);
+    }
+
+    @Benchmark
+    public Grade instrumented() {
+        instrumented.permute(quiz, 42);
+        return instrumented.grade(answerKey, answers);
+    }
+
+    @Benchmark
+    public void recordEndpoint() {
+        metrics.recordEndpoint("QuizController.showQuestion", true, 1_000);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void recordEndpointContended() {
+        metrics.recordEndpoint("QuizController.showQuestion", true, 1_000);
+    }
+}
@@ -0,0 +1,231 @@
+package com.quiz.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load test of the quiz flow against a running application: many simulated takers, each on its own
+ * virtual thread, repeatedly start a quiz, answer every question and submit.
+ * <p>
+ * Arguments ({@code key=value}, all optional): {@code url} (http://localhost:8080), {@code takers} (2000),
+ * {@code quiz} (1), {@code warmup} (10 seconds), {@code duration} (30 seconds), {@code seed} (42).
+ * Only requests completed after the warmup are measured. Answers are chosen from a seeded random per
+ * taker, so two runs send the same requests. The report lists throughput, p50, p99 and max latency
+ * per endpoint. Compare a server started with {@code spring.threads.virtual.enabled=false} against
+ * one started with {@code true}; {@code compare-virtual-threads.sh} does both runs.
+ */
+public final class QuizFlowLoadTest {
+
+    private static final Pattern QUESTION_ID = Pattern.compile("name=\"questionId\" value=\"(\\d+)\"");
+    private static final Pattern OPTION = Pattern.compile("name=\"answer\"");
+    private static final Pattern SESSION = Pattern.compile("JSESSIONID=([^;]+)");
+
+    private static final String[] ENDPOINTS = {"start", "question", "answer", "submit"};
+
+    private final HttpClient client;
+    private final String url;
+    private final int quizId;
+    private final long measureFrom;
+    private final long deadline;
+    private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder completedAttempts = new LongAdder();
+
+    private QuizFlowLoadTest(HttpClient client, String url, int quizId, long measureFrom, long deadline) {
+        this.client = client;
+        this.url = url;
+        this.quizId = quizId;
+        this.measureFrom = measureFrom;
+        this.deadline = deadline;
+        for (String endpoint : ENDPOINTS) {
+            latencies.put(endpoint, new LatencyHistogram());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        int takers = Integer.parseInt(options.getOrDefault("takers", "2000"));
+        int quizId = Integer.parseInt(options.getOrDefault("quiz", "1"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "10"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "30"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(threads)
+                    .build();
+            long now = System.nanoTime();
+            QuizFlowLoadTest test = new QuizFlowLoadTest(client, url, quizId,
+                    now + Duration.ofSeconds(warmup).toNanos(), now + Duration.ofSeconds(warmup + duration).toNanos());
+
+            System.out.printf("%d takers on quiz %d at %s: %d s warmup, %d s measured%n",
+                    takers, quizId, url, warmup, duration);
+            SplittableRandom seeds = new SplittableRandom(seed);
+            for (int i = 0; i < takers; i++) {
+                SplittableRandom random = seeds.split();
+                threads.submit(() -> test.runTaker(random));
+            }
+            threads.shutdown();
+            threads.awaitTermination(warmup + duration + 60, TimeUnit.SECONDS);
+            test.report(duration);
+        }
+    }
+
+    private void runTaker(SplittableRandom random) {
+        while (System.nanoTime() < deadline) {
+            try {
+                takeQuiz(random);
+            } catch (Exception e) {
+                errors.increment();
+            }
+        }
+    }
+
+    private void takeQuiz(SplittableRandom random) throws Exception {
+        HttpResponse<String> start = send("start", get("/quiz/start/" + quizId), null);
+        if (start.statusCode() != 302) {
+            throw new IllegalStateException("start returned " + start.statusCode());
+        }
+        Matcher session = SESSION.matcher(start.headers().firstValue("Set-Cookie").orElse(""));
+        if (!session.find()) {
+            throw new IllegalStateException("no session cookie");
+        }
+        String cookie = "JSESSIONID=" + session.group(1);
+
+        while (System.nanoTime() < deadline) {
+            HttpResponse<String> question = send("question", get("/quiz/question"), cookie);
+            Matcher questionId = QUESTION_ID.matcher(question.body());
+            if (question.statusCode() != 200 || !questionId.find()) {
+                throw new IllegalStateException("question returned " + question.statusCode());
+            }
+            int options = (int) OPTION.matcher(question.body()).results().count();
+            String form = "questionId=" + questionId.group(1) + "&answer=" + (char) ('A' + random.nextInt(options));
+
+            if (question.body().contains("formaction=\"/quiz/submit\"")) {
+                HttpResponse<String> result = send("submit", post("/quiz/submit", form), cookie);
+                if (result.statusCode() != 200) {
+                    throw new IllegalStateException("submit returned " + result.statusCode());
+                }
+                completedAttempts.increment();
+                return;
+            }
+            HttpResponse<String> answer = send("answer", post("/quiz/answer", form), cookie);
+            if (answer.statusCode() != 302) {
+                throw new IllegalStateException("answer returned " + answer.statusCode());
+            }
+        }
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(url + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String form) {
+        return HttpRequest.newBuilder(URI.create(url + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder request, String cookie) throws Exception {
+        if (cookie != null) {
+            request.header("Cookie", cookie);
+        }
+        long started = System.nanoTime();
+        HttpResponse<String> response = client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (started >= measureFrom) {
+            latencies.get(endpoint).record(System.nanoTime() - started);
+        }
+        return response;
+    }
+
+    private void report(long seconds) {
+        System.out.printf("%-10s %12s %10s %10s %10s%n", "endpoint", "req/s", "p50 ms", "p99 ms", "max ms");
+        latencies.forEach((endpoint, histogram) -> System.out.printf("%-10s %12.1f %10.2f %10.2f %10.2f%n",
+                endpoint, histogram.count() / (double) seconds,
+                histogram.percentile(0.50) / 1e6, histogram.percentile(0.99) / 1e6, histogram.max() / 1e6));
+        System.out.printf("attempts completed: %d, errors: %d%n", completedAttempts.sum(), errors.sum());
+    }
+
+    /**
+     * Lock-free log-linear latency histogram: 32 buckets per power of two (about 3% precision).
+     */
+    static final class LatencyHistogram {
+
+        private static final int SUB_BUCKETS = 32;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            buckets.incrementAndGet(index(nanos));
+            count.increment();
+            max.accumulateAndGet(nanos, Math::max);
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        long max() {
+            return max.get();
+        }
+
+        /**
+         * Returns the lower bound of the bucket holding the given quantile.
+         */
+        long percentile(double quantile) {
+            long target = (long) Math.ceil(quantile * count());
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= target && seen > 0) {
+                    return lowerBound(i);
+                }
+            }
+            return 0;
+        }
+
+        private static int index(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) Math.max(0, value);
+            }
+            int power = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (power - 5)) & (SUB_BUCKETS - 1);
+            return (power - 4) * SUB_BUCKETS + sub;
+        }
+
+        private static long lowerBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int power = index / SUB_BUCKETS + 4;
+            int sub = index % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + sub)) << (power - 5);
+        }
+    }
+}
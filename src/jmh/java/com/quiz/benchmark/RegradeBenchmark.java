@@ -0,0 +1,80 @@
+package com.quiz.benchmark;
+
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.AttemptRecord;
+import com.quiz.model.Quiz;
+import com.quiz.service.RegradeEngine;
+import com.quiz.service.RegradeReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk re-grading of one million stored attempts held in memory, with one worker vs. every core.
+ * Output goes to a null sink so only reading, grading and encoding are measured. Divide the
+ * attempt count by the reported time for attempts per second.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegradeBenchmark {
+
+    private static final int ATTEMPTS = 1_000_000;
+
+    @Param({"20", "100"})
+    public int questionsPerQuiz;
+
+    @Param({"1", "0"})   // 0 = one worker per core
+    public int parallelism;
+
+    private QuizCatalog catalog;
+    private byte[] attempts;
+    private ForkJoinPool pool;
+    private RegradeEngine engine;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Quiz> quizzes = SyntheticCatalog.quizzes(100, questionsPerQuiz);
+        catalog = QuizCatalog.of(quizzes);
+
+        SplittableRandom random = new SplittableRandom(42);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(ATTEMPTS * (AttemptRecord.HEADER_BYTES + questionsPerQuiz));
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int id = 0; id < ATTEMPTS; id++) {
+            byte[] answers = new byte[questionsPerQuiz];
+            for (int i = 0; i < answers.length; i++) {
+                answers[i] = (byte) (random.nextInt(5) - 1);
+            }
+            Quiz quiz = quizzes.get(random.nextInt(quizzes.size()));
+            new AttemptRecord(id, quiz.getId(), random.nextLong(), 0L, 0L, random.nextInt(questionsPerQuiz), answers)
+                    .write(out);
+        }
+        attempts = bytes.toByteArray();
+
+        pool = new ForkJoinPool(parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+        engine = new RegradeEngine(pool, RegradeEngine.DEFAULT_CHUNK_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public RegradeReport regradeMillion() throws IOException {
+        return engine.regrade(catalog, new ByteArrayInputStream(attempts), OutputStream.nullOutputStream(),
+                Writer.nullWriter());
+    }
+}
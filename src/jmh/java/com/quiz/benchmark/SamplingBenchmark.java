@@ -0,0 +1,78 @@
+package com.quiz.benchmark;
+
+import com.quiz.catalog.QuestionSampler;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.service.QuizShuffler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of drawing one attempt's questions from a pool: a plain and a stratified sample with
+ * {@link QuestionSampler}, against shuffling the whole pool and taking the first N positions,
+ * the obvious alternative. The sampler's cost should stay flat as the pool grows from 1,000 to
+ * 100,000 questions; the full shuffle grows with the pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SamplingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int poolSize;
+
+    @Param({"20", "50"})
+    public int sampleSize;
+
+    private QuestionSampler plain;
+    private QuestionSampler stratified;
+
+    @Setup
+    public void setUp() {
+        List<Question> questions = new ArrayList<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            Question question = new Question(i + 1, "Pooled question " + i + "?", List.of("A", "B", "C", "D"), "A");
+            question.setTag("topic-" + i % 8);
+            questions.add(question);
+        }
+        Quiz quiz = new Quiz(1, "Pool", null, questions);
+        quiz.setSampleSize(sampleSize);
+        plain = QuestionSampler.of(quiz);
+        quiz.setStratifyBy(QuestionSampler.STRATIFY_BY_TAG);
+        stratified = QuestionSampler.of(quiz);
+    }
+
+    @Benchmark
+    public int[] floyd() {
+        return plain.sample(QuizShuffler.newSeed());
+    }
+
+    @Benchmark
+    public int[] floydStratified() {
+        return stratified.sample(QuizShuffler.newSeed());
+    }
+
+    @Benchmark
+    public int[] shuffleWholePool() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] order = new int[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            order[i] = i;
+        }
+        for (int i = poolSize - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return Arrays.copyOf(order, sampleSize);
+    }
+}
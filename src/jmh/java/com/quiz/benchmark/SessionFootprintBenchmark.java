@@ -0,0 +1,68 @@
+package com.quiz.benchmark;
+
+import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
+import com.quiz.service.QuizService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a quiz attempt keeps in its session: a deep-copied shuffled {@link Quiz} vs. a {@link QuizPermutation}
+ * over the shared catalog quiz.
+ * <p>
+ * The benchmarks measure the cost of starting an attempt; at the end of the trial the retained heap per
+ * session is printed for both, measured over {@code sessions} concurrent attempts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionFootprintBenchmark {
+
+    @Param({"10", "100"})
+    public int questionsPerQuiz;
+
+    @Param({"50000"})
+    public int sessions;
+
+    private final QuizService quizService = new QuizService();
+    private Quiz quiz;
+
+    @Setup
+    public void setUp() {
+        quiz = SyntheticCatalog.quiz(1, questionsPerQuiz);
+    }
+
+    @TearDown(Level.Trial)
+    public void reportFootprint() {
+        long copies = HeapFootprint.retainedBytes(() -> {
+            Quiz[] held = new Quiz[sessions];
+            for (int i = 0; i < sessions; i++) {
+                held[i] = quizService.shuffleQuiz(quiz);
+            }
+            return held;
+        });
+        long permutations = HeapFootprint.retainedBytes(() -> {
+            QuizPermutation[] held = new QuizPermutation[sessions];
+            for (int i = 0; i < sessions; i++) {
+                held[i] = quizService.permute(quiz);
+            }
+            return held;
+        });
+        System.out.printf("%n  copied quiz: %d bytes per session%n  permutation: %d bytes per session%n",
+                copies / sessions, permutations / sessions);
+    }
+
+    @Benchmark
+    public Quiz startWithCopy() {
+        return quizService.shuffleQuiz(quiz);
+    }
+
+    @Benchmark
+    public QuizPermutation startWithPermutation() {
+        return quizService.permute(quiz);
+    }
+}
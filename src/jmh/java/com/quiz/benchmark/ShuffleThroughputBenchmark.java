@@ -0,0 +1,78 @@
+package com.quiz.benchmark;
+
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
+import com.quiz.service.QuizService;
+import com.quiz.service.QuizShuffler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shuffle throughput with many threads starting attempts at once.
+ * <p>
+ * {@code legacyShuffle} is the original {@code shuffleQuiz}: {@link Collections#shuffle(List)} on the
+ * shared global {@link Random} plus {@link HashSet} round trips. It is kept here only as the baseline.
+ * Run with {@code -t <threads>} to change the thread count.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class ShuffleThroughputBenchmark {
+
+    @Param({"10", "100"})
+    public int questionsPerQuiz;
+
+    private final QuizService quizService = new QuizService();
+    private Quiz quiz;
+
+    @Setup
+    public void setUp() {
+        quiz = SyntheticCatalog.quiz(1, questionsPerQuiz);
+    }
+
+    @Benchmark
+    public Quiz legacyShuffle() {
+        return legacyShuffleQuiz(quiz);
+    }
+
+    @Benchmark
+    public Quiz seededCopy() {
+        return quizService.shuffleQuiz(quiz);
+    }
+
+    @Benchmark
+    public QuizPermutation seededPermutation() {
+        return QuizShuffler.permutation(quiz, QuizShuffler.newSeed());
+    }
+
+    private static Quiz legacyShuffleQuiz(Quiz quiz) {
+        Quiz shuffledQuiz = new Quiz();
+        shuffledQuiz.setId(quiz.getId());
+        shuffledQuiz.setTitle(quiz.getTitle());
+        shuffledQuiz.setDescription(quiz.getDescription());
+
+        Set<Question> shuffledQuestions = new HashSet<>();
+        for (Question originalQuestion : quiz.getQuestions()) {
+            Question shuffledQuestion = new Question();
+            shuffledQuestion.setId(originalQuestion.getId());
+            shuffledQuestion.setQuestion(originalQuestion.getQuestion());
+
+            List<String> uniqueOptions = new ArrayList<>(new HashSet<>(originalQuestion.getOptions()));
+            Collections.shuffle(uniqueOptions);
+            shuffledQuestion.setOptions(uniqueOptions);
+            shuffledQuestion.setCorrectAnswer(String.valueOf((char) ('A' + uniqueOptions.indexOf(originalQuestion.getCorrectAnswer()))));
+            shuffledQuestions.add(shuffledQuestion);
+        }
+        List<Question> questionsToShuffle = new ArrayList<>(shuffledQuestions);
+        Collections.shuffle(questionsToShuffle);
+        shuffledQuiz.setQuestions(questionsToShuffle);
+        return shuffledQuiz;
+    }
+}
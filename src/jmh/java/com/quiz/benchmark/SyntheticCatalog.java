@@ -0,0 +1,50 @@
+package com.quiz.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates synthetic quiz catalogs of a configurable size for the benchmarks.
+ * Ids are sequential starting at 1, the same layout data.json uses.
+ */
+final class SyntheticCatalog {
+
+    private SyntheticCatalog() {
+    }
+
+    static List<Quiz> quizzes(int quizCount, int questionsPerQuiz) {
+        List<Quiz> quizzes = new ArrayList<>(quizCount);
+        for (int q = 1; q <= quizCount; q++) {
+            quizzes.add(quiz(q, questionsPerQuiz));
+        }
+        return quizzes;
+    }
+
+    static Quiz quiz(int id, int questionCount) {
+        List<Question> questions = new ArrayList<>(questionCount);
+        for (int i = 1; i <= questionCount; i++) {
+            List<String> options = List.of("Option A" + i, "Option B" + i, "Option C" + i, "Option D" + i);
+            questions.add(new Question(i, "Synthetic question " + i + " of quiz " + id + "?",
+                    options, options.get(i % options.size())));
+        }
+        return new Quiz(id, "Synthetic quiz " + id, "Generated quiz with " + questionCount + " questions", questions);
+    }
+
+    /**
+     * Serializes a synthetic catalog into the data.json layout.
+     */
+    static byte[] json(int quizCount, int questionsPerQuiz) {
+        try {
+            return new ObjectMapper().writeValueAsBytes(Map.of("quizzes", quizzes(quizCount, questionsPerQuiz)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.quiz.benchmark;
+
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.Grade;
+import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
+import com.quiz.model.QuizResult;
+import com.quiz.render.PageCache.Listing;
+import com.quiz.render.PageCache.QuizSummary;
+import com.quiz.render.QuizFragments;
+import com.quiz.service.AnswerGrader;
+import com.quiz.service.QuizShuffler;
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.linkbuilder.StandardLinkBuilder;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thymeleaf rendering of the home, question and result pages from {@code src/main/resources/templates},
+ * with the same Spring EL dialect and template cache the application uses. {@code quizCount} sizes the
+ * home page, {@code questionsPerQuiz} the question and result pages.
+ * <p>
+ * The home page lists every quiz here, as one page; the application shows 50 at a time and renders
+ * each page once per catalog version ({@code PageCache}), so {@code homePage} is what a request for a
+ * catalog of that size would cost without paging and the cache ({@code HomeListingBenchmark} has
+ * the paged listing). The question page is
+ * rendered with its texts from cached {@code QuizFragments}, as in the application.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateRenderBenchmark {
+
+    @Param({"10", "1000"})
+    public int quizCount;
+
+    @Param({"10", "100"})
+    public int questionsPerQuiz;
+
+    private SpringTemplateEngine engine;
+    private Context home;
+    private Context question;
+    private Context result;
+
+    @Setup
+    public void setUp() {
+        engine = templateEngine();
+
+        List<Quiz> quizzes = SyntheticCatalog.quizzes(quizCount, questionsPerQuiz);
+        QuizCatalog catalog = QuizCatalog.of(quizzes);
+        Quiz quiz = quizzes.get(0);
+        QuizPermutation shuffle = QuizShuffler.permutation(quiz, 42);
+
+        home = new Context();
+        home.setVariable("listing", new Listing(quizzes.stream().map(QuizSummary::of).toList(), 0, quizCount, null));
+
+        question = new Context();
+        question.setVariable("quiz", quiz);
+        question.setVariable("question", shuffle.question(quiz, questionsPerQuiz / 2));
+        question.setVariable("currentIndex", questionsPerQuiz / 2);
+        question.setVariable("totalQuestions", questionsPerQuiz);
+        QuizFragments fragments = QuizFragments.of(quiz);
+        question.setVariable("titleHtml", fragments.title());
+        question.setVariable("questionHtml", fragments.stem(shuffle.questionIndex(questionsPerQuiz / 2)));
+        question.setVariable("optionHtml", fragments.options(shuffle.questionIndex(questionsPerQuiz / 2),
+                shuffle.originalOptions(questionsPerQuiz / 2)));
+
+        SplittableRandom random = new SplittableRandom(42);
+        byte[] answers = AnswerGrader.newAnswerSheet(questionsPerQuiz);
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = (byte) random.nextInt(4);
+        }
+        Grade grade = AnswerGrader.grade(catalog.answerKey(0), answers);
+        result = new Context();
+        result.setVariable("result", new QuizResult(shuffle.apply(quiz), shuffle.letters(quiz, answers), grade));
+        result.setVariable("attemptSeed", Long.toHexString(shuffle.getSeed()));
+    }
+
+    @Benchmark
+    public String homePage() {
+        return engine.process("home", home);
+    }
+
+    @Benchmark
+    public String questionPage() {
+        return engine.process("quiz", question);
+    }
+
+    @Benchmark
+    public String resultPage() {
+        return engine.process("result", result);
+    }
+
+    /**
+     * A template engine reading the application's templates from the classpath, outside a web request.
+     * Context-relative links ({@code @{/quiz/...}}) are rendered as if the context path were empty.
+     */
+    static SpringTemplateEngine templateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        engine.setLinkBuilder(new StandardLinkBuilder() {
+            @Override
+            protected String computeContextPath(IExpressionContext context, String base, Map<String, Object> parameters) {
+                return "";
+            }
+        });
+        return engine;
+    }
+}
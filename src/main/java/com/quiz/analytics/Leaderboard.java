@@ -0,0 +1,141 @@
+package com.quiz.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Leaderboard of one quiz: the best {@code capacity} results, and the rank and percentile of any score.
+ * <p>
+ * Scores are bounded by the question count, so every result is counted in one of
+ * {@code totalQuestions + 1} score buckets, kept as a Fenwick tree of atomic counters. Recording a
+ * result adds to O(log questions) counters, and ranking a score reads as many, without locking;
+ * both costs are independent of the number of results.
+ * <p>
+ * The best results are kept in a bounded heap whose worst entry is at the head. Changes to the heap
+ * take a lock, but once it is full a result below its worst entry is rejected before the lock, so
+ * under load almost no submit takes it. Each change publishes a sorted copy, which {@link #top}
+ * reads without locking.
+ */
+public final class Leaderboard {
+
+    /**
+     * Ranking order, best first: higher score, then shorter time taken, then earlier submit.
+     */
+    public static final Comparator<Entry> BEST_FIRST = Comparator.comparingInt(Entry::score).reversed()
+            .thenComparingLong(Entry::durationMillis)
+            .thenComparingLong(Entry::submittedAt)
+            .thenComparingLong(Entry::attemptId);
+
+    /**
+     * One result on the leaderboard.
+     */
+    public record Entry(long attemptId, int score, long durationMillis, long submittedAt) {
+    }
+
+    /**
+     * Where a score stands among all results of the quiz.
+     *
+     * @param rank       1 plus the number of results with a higher score
+     * @param results    number of results of the quiz
+     * @param percentile share of the results with a lower score, 0 to 100
+     */
+    public record Standing(int score, long rank, long results, double percentile) {
+    }
+
+    private final int totalQuestions;
+    private final int capacity;
+    private final AtomicLongArray tree;     // Fenwick tree over scores 0..totalQuestions, 1-based
+
+    private final ReentrantLock topLock = new ReentrantLock();
+    private final PriorityQueue<Entry> heap; // worst entry at the head, guarded by topLock
+    private volatile List<Entry> top = List.of();
+    private volatile Entry cutoff;           // worst entry of the full heap, null until it is full
+
+    public Leaderboard(int totalQuestions, int capacity) {
+        if (totalQuestions < 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Invalid leaderboard size: " + totalQuestions + " questions, top " + capacity);
+        }
+        this.totalQuestions = totalQuestions;
+        this.capacity = capacity;
+        this.tree = new AtomicLongArray(totalQuestions + 2);
+        this.heap = new PriorityQueue<>(capacity + 1, BEST_FIRST.reversed());
+    }
+
+    public int getTotalQuestions() {
+        return totalQuestions;
+    }
+
+    /**
+     * Records a result.
+     */
+    public void record(Entry entry) {
+        int score = Math.clamp(entry.score(), 0, totalQuestions);
+        for (int i = score + 1; i < tree.length(); i += i & -i) {
+            tree.getAndIncrement(i);
+        }
+
+        Entry worst = cutoff;
+        if (worst != null && BEST_FIRST.compare(entry, worst) >= 0) {
+            return;
+        }
+        topLock.lock();
+        try {
+            if (heap.size() == capacity && BEST_FIRST.compare(entry, heap.peek()) >= 0) {
+                return;
+            }
+            heap.offer(entry);
+            if (heap.size() > capacity) {
+                heap.poll();
+            }
+            List<Entry> sorted = new ArrayList<>(heap);
+            sorted.sort(BEST_FIRST);
+            top = List.copyOf(sorted);
+            if (heap.size() == capacity) {
+                cutoff = heap.peek();
+            }
+        } finally {
+            topLock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} of the best results, best first.
+     */
+    public List<Entry> top(int limit) {
+        List<Entry> current = top;
+        return current.subList(0, Math.clamp(limit, 0, current.size()));
+    }
+
+    /**
+     * Number of results recorded.
+     */
+    public long results() {
+        return countBelow(totalQuestions + 1);
+    }
+
+    /**
+     * Returns where the score stands among the recorded results. Read while results are being
+     * recorded, the counts may include part of them.
+     */
+    public Standing standing(int score) {
+        int clamped = Math.clamp(score, 0, totalQuestions);
+        long below = countBelow(clamped);
+        long atOrBelow = countBelow(clamped + 1);
+        long results = results();
+        long above = Math.max(0, results - atOrBelow);
+        return new Standing(score, above + 1, results, results == 0 ? 0 : below * 100.0 / results);
+    }
+
+    // number of results with a score lower than the given one
+    private long countBelow(int score) {
+        long count = 0;
+        for (int i = score; i > 0; i -= i & -i) {
+            count += tree.get(i);
+        }
+        return count;
+    }
+}
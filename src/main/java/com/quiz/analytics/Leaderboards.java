@@ -0,0 +1,92 @@
+package com.quiz.analytics;
+
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.AttemptRecord;
+import com.quiz.model.Quiz;
+import com.quiz.service.QuizLoader;
+import com.quiz.store.AttemptLog;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-quiz {@link Leaderboard}s of submitted attempts, recorded by {@code AttemptService} on every submit.
+ * <p>
+ * Each leaderboard keeps the best {@code quiz.leaderboard.size} results (100 by default) and ranks
+ * any score against all results. When the attempt log is enabled, the leaderboards are rebuilt
+ * from it at startup, so they cover every attempt the log holds; otherwise they start empty. A
+ * quiz whose number of questions per attempt changes in a catalog reload gets a new, empty leaderboard.
+ */
+@Component
+public class Leaderboards {
+
+    private static final Logger log = LoggerFactory.getLogger(Leaderboards.class);
+
+    @Autowired
+    private QuizLoader quizLoader;
+
+    @Autowired(required = false)
+    private AttemptLog attemptLog;
+
+    @Value("${quiz.leaderboard.size:100}")
+    private int size = 100;
+
+    private final ConcurrentMap<Integer, Leaderboard> boards = new ConcurrentHashMap<>();
+
+    /**
+     * Rebuilds the leaderboards from the attempt log. Attempts of quizzes that are no longer in the
+     * catalog, or whose number of questions per attempt has changed, are skipped.
+     */
+    @PostConstruct
+    public void rebuild() throws IOException {
+        if (attemptLog == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        QuizCatalog catalog = quizLoader.getCatalog();
+        long replayed = attemptLog.replay(record -> {
+            Quiz quiz = catalog.getQuiz(record.getQuizId());
+            if (quiz != null && quiz.getQuestionsPerAttempt() == record.getAnswers().length) {
+                record(record);
+            }
+        });
+        log.info("Rebuilt {} leaderboards from {} logged attempts in {} ms",
+                boards.size(), replayed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Records a submitted attempt on its quiz's leaderboard.
+     */
+    public void record(AttemptRecord record) {
+        int totalQuestions = record.getAnswers().length;
+        Leaderboard board = boards.get(record.getQuizId());
+        if (board == null || board.getTotalQuestions() != totalQuestions) {
+            board = boards.compute(record.getQuizId(), (id, current) ->
+                    current != null && current.getTotalQuestions() == totalQuestions
+                            ? current : new Leaderboard(totalQuestions, size));
+        }
+        board.record(new Leaderboard.Entry(record.getAttemptId(), record.getScore(),
+                record.getSubmittedAt() - record.getStartedAt(), record.getSubmittedAt()));
+    }
+
+    /**
+     * Returns the leaderboard of a quiz of the current catalog, empty if it has no results yet,
+     * or {@code null} if there is no such quiz.
+     */
+    public Leaderboard get(int quizId) {
+        Quiz quiz = quizLoader.getCatalog().getQuiz(quizId);
+        if (quiz == null) {
+            return null;
+        }
+        Leaderboard board = boards.get(quizId);
+        return board != null && board.getTotalQuestions() == quiz.getQuestionsPerAttempt()
+                ? board : new Leaderboard(quiz.getQuestionsPerAttempt(), 1);
+    }
+}
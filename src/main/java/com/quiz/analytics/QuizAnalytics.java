@@ -0,0 +1,72 @@
+package com.quiz.analytics;
+
+import com.quiz.model.Grade;
+import com.quiz.model.Quiz;
+import com.quiz.service.QuizLoader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Live per-quiz analytics: attempts, pass rate, score histogram, option selections and question
+ * difficulty, recorded by {@code AttemptService} on every submit.
+ * <p>
+ * Recording is lock-free (see {@link QuizStats}), and snapshots are read while submits keep
+ * recording, so the dashboard and the analytics API never hold up a submit. The statistics are
+ * kept in memory since the last start; when a catalog reload changes a quiz's questions, options
+ * or correct answers, its statistics start over.
+ */
+@Component
+public class QuizAnalytics {
+
+    @Autowired
+    private QuizLoader quizLoader;
+
+    private final ConcurrentMap<Integer, QuizStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Records one graded attempt of the quiz.
+     *
+     * @param quiz    the catalog quiz the attempt was graded against
+     * @param sample  catalog positions of the questions the attempt was asked, or null for all of them
+     * @param answers answer sheet in catalog order, one entry per question asked
+     */
+    public void record(Quiz quiz, int[] sample, byte[] answers, Grade grade, boolean passed) {
+        QuizStats quizStats = stats.get(quiz.getId());
+        if (quizStats == null || !quizStats.matches(quiz)) {
+            quizStats = stats.compute(quiz.getId(),
+                    (id, current) -> current != null && current.matches(quiz) ? current : new QuizStats(quiz));
+        }
+        quizStats.record(sample, answers, grade, passed);
+    }
+
+    /**
+     * Returns the statistics of one quiz of the current catalog, or {@code null} if there is no such quiz.
+     */
+    public QuizStatsSnapshot snapshot(int quizId) {
+        Quiz quiz = quizLoader.getCatalog().getQuiz(quizId);
+        return quiz == null ? null : snapshot(quiz);
+    }
+
+    /**
+     * Returns the statistics of every quiz of the current catalog, in catalog order.
+     */
+    public List<QuizStatsSnapshot> snapshots() {
+        List<Quiz> quizzes = quizLoader.getCatalog().getQuizzes();
+        List<QuizStatsSnapshot> snapshots = new ArrayList<>(quizzes.size());
+        for (Quiz quiz : quizzes) {
+            snapshots.add(snapshot(quiz));
+        }
+        return snapshots;
+    }
+
+    private QuizStatsSnapshot snapshot(Quiz quiz) {
+        QuizStats quizStats = stats.get(quiz.getId());
+        // a quiz with no attempts (or none since its questions changed) reads as all zeros
+        return quizStats != null && quizStats.matches(quiz) ? quizStats.snapshot() : QuizStatsSnapshot.empty(quiz);
+    }
+}
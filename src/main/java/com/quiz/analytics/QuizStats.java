@@ -0,0 +1,195 @@
+package com.quiz.analytics;
+
+import com.quiz.model.Grade;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live statistics of one quiz, updated on every submit.
+ * <p>
+ * Every counter is a {@link LongAdder}, so concurrent submits add to separate cells instead of
+ * contending on one value, and {@link #snapshot()} reads without locking. A snapshot taken during
+ * submits may count part of an attempt that is still being recorded; each counter is exact once
+ * the submits have finished.
+ * <p>
+ * Per-question counters are indexed by the question's position in the catalog quiz, and options
+ * by their original index, as in the answer sheets of {@code AnswerGrader}. For a quiz whose
+ * attempts are asked a sample of its questions, each question also counts the attempts it was
+ * asked in, and its rates are taken over those.
+ * <p>
+ * The statistics belong to one content of the quiz, identified by a fingerprint of its questions,
+ * options and correct answers. A reload that keeps the content keeps the statistics; one that
+ * changes a question, an option or an answer, even without changing any count, starts them over.
+ */
+public final class QuizStats {
+
+    private final Quiz quiz;
+    private final long fingerprint;
+    private volatile Quiz lastMatched;      // a later catalog's instance with the same content
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder scoreSum = new LongAdder();
+    private final LongAdder[] scores;       // attempts per score, 0..questions per attempt
+    private final LongAdder[] asked;        // per question, attempts it was asked in; null if not sampled
+    private final LongAdder[] correct;      // per question
+    private final LongAdder[] unanswered;   // per question
+    private final LongAdder[] selections;   // per question and option, flattened
+    private final int[] optionStart;        // first selection counter of each question
+
+    public QuizStats(Quiz quiz) {
+        this.quiz = quiz;
+        this.fingerprint = fingerprint(quiz);
+        List<Question> questions = quiz.getQuestions();
+        scores = adders(quiz.getQuestionsPerAttempt() + 1);
+        asked = quiz.getQuestionsPerAttempt() < questions.size() ? adders(questions.size()) : null;
+        correct = adders(questions.size());
+        unanswered = adders(questions.size());
+        optionStart = new int[questions.size() + 1];
+        for (int q = 0; q < questions.size(); q++) {
+            optionStart[q + 1] = optionStart[q] + questions.get(q).getOptions().size();
+        }
+        selections = adders(optionStart[questions.size()]);
+    }
+
+    /**
+     * Whether these statistics were built for a quiz with the same questions, options and correct
+     * answers as the given one, so its answer sheets can be recorded here. The content is hashed
+     * once per quiz instance, so calling this on every submit costs a reference comparison.
+     */
+    public boolean matches(Quiz other) {
+        if (other == quiz || other == lastMatched) {
+            return true;
+        }
+        if (fingerprint(other) != fingerprint) {
+            return false;
+        }
+        lastMatched = other;
+        return true;
+    }
+
+    /**
+     * Records one graded attempt that was asked every question.
+     *
+     * @param answers answer sheet in catalog order (original option index, or -1)
+     */
+    public void record(byte[] answers, Grade grade, boolean passedAttempt) {
+        record(null, answers, grade, passedAttempt);
+    }
+
+    /**
+     * Records one graded attempt.
+     *
+     * @param sample  catalog positions of the questions the attempt was asked, in answer sheet order,
+     *                or null for all of them
+     * @param answers answer sheet, one entry per question asked (original option index, or -1)
+     */
+    public void record(int[] sample, byte[] answers, Grade grade, boolean passedAttempt) {
+        attempts.increment();
+        if (passedAttempt) {
+            passed.increment();
+        }
+        scoreSum.add(grade.getScore());
+        scores[Math.min(grade.getScore(), scores.length - 1)].increment();
+        // an adaptive attempt submitted early was asked fewer questions than its sheet holds
+        int askedCount = sample == null ? answers.length : sample.length;
+        for (int i = 0; i < askedCount; i++) {
+            int q = sample == null ? i : sample[i];
+            if (asked != null) {
+                asked[q].increment();
+            }
+            int option = answers[i];
+            if (option < 0) {
+                unanswered[q].increment();
+                continue;
+            }
+            if (option < optionStart[q + 1] - optionStart[q]) {
+                selections[optionStart[q] + option].increment();
+            }
+            if (grade.isCorrect(i)) {
+                correct[q].increment();
+            }
+        }
+    }
+
+    public long attempts() {
+        return attempts.sum();
+    }
+
+    /**
+     * Reads the counters into an immutable snapshot, without blocking submits.
+     */
+    public QuizStatsSnapshot snapshot() {
+        long attemptCount = attempts.sum();
+        long[] histogram = sums(scores, 0, scores.length);
+
+        List<Question> questions = quiz.getQuestions();
+        List<QuizStatsSnapshot.QuestionStats> questionStats = new ArrayList<>(questions.size());
+        for (int q = 0; q < questions.size(); q++) {
+            Question question = questions.get(q);
+            long askedCount = asked == null ? attemptCount : asked[q].sum();
+            double correctRate = rate(correct[q].sum(), askedCount);
+            questionStats.add(new QuizStatsSnapshot.QuestionStats(question.getId(), question.getQuestion(),
+                    question.getOptions(), sums(selections, optionStart[q], optionStart[q + 1]),
+                    unanswered[q].sum(), correctRate, askedCount == 0 ? 0 : 1 - correctRate));
+        }
+        return new QuizStatsSnapshot(quiz.getId(), quiz.getTitle(), scores.length - 1, attemptCount,
+                rate(passed.sum(), attemptCount), rate(scoreSum.sum(), attemptCount), histogram, questionStats);
+    }
+
+    // 64-bit FNV-1a over everything the counters are laid out by or graded against
+    private static long fingerprint(Quiz quiz) {
+        long hash = 0xCBF29CE484222325L;
+        hash = fingerprint(hash, quiz.getQuestionsPerAttempt());
+        for (Question question : quiz.getQuestions()) {
+            hash = fingerprint(hash, question.getId());
+            hash = fingerprint(hash, question.getQuestion());
+            hash = fingerprint(hash, question.getOptions().size());
+            for (String option : question.getOptions()) {
+                hash = fingerprint(hash, option);
+            }
+            hash = fingerprint(hash, question.getCorrectAnswer());
+        }
+        return hash;
+    }
+
+    private static long fingerprint(long hash, String text) {
+        if (text != null) {
+            for (int i = 0; i < text.length(); i++) {
+                hash = (hash ^ text.charAt(i)) * 0x100000001B3L;
+            }
+        }
+        // a separator, so that moving text from one field to the next changes the fingerprint
+        return (hash ^ 0xFFFF) * 0x100000001B3L;
+    }
+
+    private static long fingerprint(long hash, int value) {
+        for (int shift = 0; shift < Integer.SIZE; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] sums(LongAdder[] adders, int from, int to) {
+        long[] sums = new long[to - from];
+        for (int i = from; i < to; i++) {
+            sums[i - from] = adders[i].sum();
+        }
+        return sums;
+    }
+
+    private static double rate(long count, long total) {
+        return total == 0 ? 0 : (double) count / total;
+    }
+}
@@ -0,0 +1,53 @@
+package com.quiz.analytics;
+
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statistics of one quiz at one moment, as read from {@link QuizStats}.
+ *
+ * @param totalQuestions questions asked per attempt, the highest possible score
+ * @param passRate       share of attempts that passed, 0 to 1
+ * @param averageScore   average number of correct answers
+ * @param scoreHistogram number of attempts per score, indexed by score
+ */
+public record QuizStatsSnapshot(int quizId, String title, int totalQuestions, long attempts, double passRate,
+                                double averageScore, long[] scoreHistogram, List<QuestionStats> questions) {
+
+    /**
+     * Returns the statistics of a quiz that has no recorded attempts: all zeros, read from the
+     * quiz alone without the counters of a {@link QuizStats}.
+     */
+    public static QuizStatsSnapshot empty(Quiz quiz) {
+        List<Question> questions = quiz.getQuestions();
+        List<QuestionStats> questionStats = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            questionStats.add(new QuestionStats(question.getId(), question.getQuestion(), question.getOptions(),
+                    new long[question.getOptions().size()], 0, 0, 0));
+        }
+        return new QuizStatsSnapshot(quiz.getId(), quiz.getTitle(), quiz.getQuestionsPerAttempt(), 0, 0, 0,
+                new long[quiz.getQuestionsPerAttempt() + 1], questionStats);
+    }
+
+    /**
+     * Average score as a percentage of the questions.
+     */
+    public double averagePercentage() {
+        return totalQuestions == 0 ? 0 : averageScore * 100 / totalQuestions;
+    }
+
+    /**
+     * Statistics of one question, in catalog order.
+     *
+     * @param selections  number of attempts that chose each option, in catalog option order
+     * @param correctRate share of the attempts asked the question that answered correctly, 0 to 1
+     * @param difficulty  share of the attempts asked the question that did not answer correctly
+     *                    (wrong or unanswered)
+     */
+    public record QuestionStats(int questionId, String question, List<String> options, long[] selections,
+                                long unanswered, double correctRate, double difficulty) {
+    }
+}
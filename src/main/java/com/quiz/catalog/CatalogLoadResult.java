@@ -0,0 +1,98 @@
+package com.quiz.catalog;
+
+import com.quiz.model.Quiz;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outcome of reading a catalog with {@link StreamingCatalogReader}: the quizzes that were
+ * accepted, plus a report of the records that were rejected.
+ * <p>
+ * Only the first {@value #MAX_REPORTED_REJECTIONS} rejection messages are kept, the rest are
+ * only counted, so a file full of bad records cannot blow up the report itself.
+ */
+public final class CatalogLoadResult {
+
+    static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private final List<Quiz> quizzes = new ArrayList<>();
+    private final Set<Integer> quizIds = new HashSet<>();
+    private final List<String> rejections = new ArrayList<>();
+    private int rejectedCount;
+    private long bytesRead;
+
+    CatalogLoadResult() {
+    }
+
+    /**
+     * Adds a quiz that passed validation.
+     *
+     * @return false if a quiz with the same id was accepted before, in which case the quiz is rejected
+     */
+    boolean accept(Quiz quiz) {
+        if (!quizIds.add(quiz.getId())) {
+            reject("Duplicate quiz id " + quiz.getId());
+            return false;
+        }
+        quizzes.add(quiz);
+        return true;
+    }
+
+    void reject(String problem) {
+        if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+            rejections.add(problem);
+        }
+        rejectedCount++;
+    }
+
+    void addBytesRead(long bytes) {
+        bytesRead += bytes;
+    }
+
+    /**
+     * Appends the quizzes of another result (a shard) to this one. Quizzes whose id was
+     * already accepted are rejected, so the first shard wins.
+     */
+    void merge(CatalogLoadResult shard) {
+        for (Quiz quiz : shard.quizzes) {
+            accept(quiz);
+        }
+        for (String problem : shard.rejections) {
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(problem);
+            }
+        }
+        rejectedCount += shard.rejectedCount;
+        bytesRead += shard.bytesRead;
+    }
+
+    /**
+     * Returns the accepted quizzes in the order they were read.
+     */
+    public List<Quiz> getQuizzes() {
+        return quizzes;
+    }
+
+    public int getAcceptedCount() {
+        return quizzes.size();
+    }
+
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Returns human readable reasons for the rejected records, capped at {@value #MAX_REPORTED_REJECTIONS}.
+     */
+    public List<String> getRejections() {
+        return Collections.unmodifiableList(rejections);
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+}
@@ -0,0 +1,635 @@
+package com.quiz.catalog;
+
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable inverted index over the text of a {@link QuizCatalog}, for searching and filtering the quizzes.
+ * <p>
+ * The title, description, question texts and question tags of every quiz are split into terms:
+ * runs of letters and digits, lower-cased, of at least {@value #MIN_TERM_LENGTH} characters and cut
+ * to {@value #MAX_TERM_LENGTH}. The distinct terms are kept in one sorted array, and the quizzes of
+ * each term in one shared array of slot numbers: first the quizzes with the term in their title,
+ * then the others, each run ascending. An exact term is found by binary search, a prefix by two
+ * binary searches over the same sorted terms. Tags are kept whole in a second index of the same
+ * layout, for filtering.
+ * <p>
+ * A query matches the quizzes that hold every one of its terms and every tag filter. Its last term
+ * also matches longer terms it is a prefix of, unless the query ends with a space, so results can
+ * follow the user's typing. Quizzes with every term in their title come first, then the others,
+ * each group in catalog order. A single term or tag is answered straight from its runs, so a page
+ * costs the same however many quizzes match. Several are intersected by walking the quizzes of the
+ * rarest one and seeking the others, so the cost follows the rarest, not the catalog.
+ * <p>
+ * The index only grows with what it indexes: at most {@value #MAX_TERMS_PER_QUIZ} distinct terms
+ * are kept per quiz (title, description and tags first), so a quiz adds at most that many entries
+ * whatever the size of its questions. {@link #memoryBytes()} estimates the heap the index holds.
+ * <p>
+ * When the catalog changes, {@link #update} builds the index of the new catalog from the previous
+ * one. A quiz with the same id and the same text fingerprint is not split into terms again: its
+ * entries are carried over by renumbering the previous index's slots, so only new and changed
+ * quizzes cost text processing.
+ */
+public final class CatalogSearchIndex {
+
+    public static final int MIN_TERM_LENGTH = 2;
+    public static final int MAX_TERM_LENGTH = 32;
+    public static final int MAX_TERMS_PER_QUIZ = 4096;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MAX_QUERY_TERMS = 16;
+
+    private static final Inverted EMPTY = new Inverted(new String[0], new int[1], new int[1], new int[0]);
+    private static final Match NO_MATCH = new Match(new int[0], 0, 0, 0);
+
+    private final QuizCatalog catalog;
+    private final long[] fingerprints;   // slot -> fingerprint of the quiz text, to find unchanged quizzes
+    private final Inverted text;         // terms -> quiz slots
+    private final Inverted tagged;       // lower-case tags -> quiz slots, all in the second run
+    private final int reused;
+    private final long memoryBytes;
+
+    /**
+     * A tag and the number of quizzes with at least one question carrying it.
+     */
+    public record TagCount(String tag, int quizzes) {
+    }
+
+    /**
+     * One page of the quizzes matching a search.
+     *
+     * @param total    number of matching quizzes over all pages
+     * @param page     page number, from 1
+     * @param pageSize quizzes per page
+     */
+    public record Page(List<Quiz> quizzes, int total, int page, int pageSize) {
+
+        public int pages() {
+            return Math.max(1, (total + pageSize - 1) / pageSize);
+        }
+
+        public boolean hasPrevious() {
+            return page > 1;
+        }
+
+        public boolean hasNext() {
+            return page < pages();
+        }
+    }
+
+    // sorted keys; the slots of key k are slots[start[k], start[k + 1]), the title run up to split[k]
+    private record Inverted(String[] keys, int[] start, int[] split, int[] slots) {
+
+        Match match(int k) {
+            return new Match(slots, start[k], split[k], start[k + 1]);
+        }
+    }
+
+    // slots[from, split) have the term in their title, then slots[split, to); each run ascending
+    private record Match(int[] slots, int from, int split, int to) {
+
+        int size() {
+            return to - from;
+        }
+    }
+
+    // the quizzes matching a query of several terms or tags, in ascending slot order
+    private record Hits(int[] titled, int titledCount, int[] others, int otherCount) {
+    }
+
+    private CatalogSearchIndex(QuizCatalog catalog, long[] fingerprints, Inverted text, Inverted tagged, int reused) {
+        this.catalog = catalog;
+        this.fingerprints = fingerprints;
+        this.text = text;
+        this.tagged = tagged;
+        this.reused = reused;
+        this.memoryBytes = array(fingerprints.length, 8) + memoryOf(text) + memoryOf(tagged);
+    }
+
+    /**
+     * Builds the index of a catalog from scratch.
+     */
+    public static CatalogSearchIndex of(QuizCatalog catalog) {
+        return update(null, catalog);
+    }
+
+    /**
+     * Builds the index of a catalog, carrying over the entries of every quiz that is unchanged since
+     * the previous index.
+     *
+     * @param previous index of an earlier catalog, or {@code null}
+     */
+    public static CatalogSearchIndex update(CatalogSearchIndex previous, QuizCatalog catalog) {
+        List<Quiz> quizzes = catalog.getQuizzes();
+        long[] fingerprints = new long[quizzes.size()];
+        int[] renumber = new int[previous == null ? 0 : previous.fingerprints.length];   // old slot -> new slot, or -1
+        Arrays.fill(renumber, -1);
+        boolean ordered = true;    // kept quizzes are in their old order, so renumbered runs stay ascending
+        int lastKept = -1;
+        int reused = 0;
+
+        Map<String, Postings> freshTerms = new HashMap<>();
+        Map<String, Postings> freshTags = new HashMap<>();
+        char[] buffer = new char[MAX_TERM_LENGTH];
+        for (int slot = 0; slot < fingerprints.length; slot++) {
+            Quiz quiz = quizzes.get(slot);
+            fingerprints[slot] = fingerprint(quiz);
+            int old = previous == null ? -1 : previous.catalog.slotOf(quiz.getId());
+            if (old >= 0 && renumber[old] < 0 && previous.fingerprints[old] == fingerprints[slot]) {
+                renumber[old] = slot;
+                ordered &= old > lastKept;
+                lastKept = old;
+                reused++;
+            } else {
+                index(quiz, slot, freshTerms, freshTags, buffer);
+            }
+        }
+
+        Inverted text = merge(previous == null ? EMPTY : previous.text, freshTerms, renumber, ordered);
+        Inverted tagged = merge(previous == null ? EMPTY : previous.tagged, freshTags, renumber, ordered);
+        return new CatalogSearchIndex(catalog, fingerprints, text, tagged, reused);
+    }
+
+    /**
+     * The catalog this index was built over; the quizzes of its results come from it.
+     */
+    public QuizCatalog catalog() {
+        return catalog;
+    }
+
+    /**
+     * Number of distinct terms.
+     */
+    public int termCount() {
+        return text.keys().length;
+    }
+
+    /**
+     * Number of quizzes whose entries were carried over from the previous index.
+     */
+    public int reusedCount() {
+        return reused;
+    }
+
+    /**
+     * Estimated heap held by the index, in bytes, not counting the catalog itself.
+     */
+    public long memoryBytes() {
+        return memoryBytes;
+    }
+
+    /**
+     * Every tag of the catalog, in alphabetical order, with its number of quizzes.
+     */
+    public List<TagCount> tags() {
+        List<TagCount> counts = new ArrayList<>(tagged.keys().length);
+        for (int t = 0; t < tagged.keys().length; t++) {
+            counts.add(new TagCount(tagged.keys()[t], tagged.start()[t + 1] - tagged.start()[t]));
+        }
+        return counts;
+    }
+
+    /**
+     * Returns a page of the quizzes matching a query and tag filters. With neither, every quiz
+     * matches, in catalog order.
+     *
+     * @param query    words to search for, may be blank
+     * @param tags     tags every result must have, may be empty
+     * @param page     page number, from 1
+     * @param pageSize quizzes per page, at most {@value #MAX_PAGE_SIZE}
+     */
+    public Page search(String query, Collection<String> tags, int page, int pageSize) {
+        page = Math.max(1, page);
+        pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, pageSize));
+        List<Quiz> quizzes = catalog.getQuizzes();
+        long from = (long) (page - 1) * pageSize;
+
+        List<String> words = query == null ? List.of() : terms(query);
+        if (words.size() > MAX_QUERY_TERMS) {
+            words = words.subList(0, MAX_QUERY_TERMS);
+        }
+        if (words.isEmpty() && (tags == null || tags.isEmpty())) {
+            int first = (int) Math.min(quizzes.size(), from);
+            return new Page(quizzes.subList(first, Math.min(quizzes.size(), first + pageSize)), quizzes.size(), page, pageSize);
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            boolean typing = i == words.size() - 1 && !Character.isWhitespace(query.charAt(query.length() - 1));
+            matches.add(typing ? prefix(words.get(i)) : exact(words.get(i)));
+        }
+        int textMatches = matches.size();
+        if (tags != null) {
+            for (String tag : tags) {
+                int t = Arrays.binarySearch(tagged.keys(), normalizeTag(tag));
+                matches.add(t < 0 ? NO_MATCH : tagged.match(t));
+            }
+        }
+
+        if (matches.size() == 1) {
+            // the runs are already in result order: title hits, then the others
+            Match match = matches.get(0);
+            List<Quiz> results = new ArrayList<>();
+            for (long r = match.from() + from; r < match.to() && results.size() < pageSize; r++) {
+                results.add(quizzes.get(match.slots()[(int) r]));
+            }
+            return new Page(results, match.size(), page, pageSize);
+        }
+
+        Hits hits = intersect(matches, textMatches);
+        int total = hits.titledCount() + hits.otherCount();
+        List<Quiz> results = new ArrayList<>();
+        for (long r = from; r < total && results.size() < pageSize; r++) {
+            int i = (int) r;
+            results.add(quizzes.get(i < hits.titledCount() ? hits.titled()[i] : hits.others()[i - hits.titledCount()]));
+        }
+        return new Page(results, total, page, pageSize);
+    }
+
+    /**
+     * Splits text into index terms: runs of letters and digits, lower-cased, of at least
+     * {@value #MIN_TERM_LENGTH} characters, cut to {@value #MAX_TERM_LENGTH}.
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        split(text, new char[MAX_TERM_LENGTH], terms::add);
+        return terms;
+    }
+
+    // passes every term of the text to the sink; letters outside the Basic Multilingual Plane split terms
+    private static void split(String text, char[] buffer, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        int length = 0;    // characters kept in the buffer
+        int run = 0;       // characters in the current term, including those cut off
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            char lower;
+            if (c < 0x80) {
+                lower = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A'))
+                        : (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') ? c : 0;
+            } else {
+                lower = Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : 0;
+            }
+            if (lower != 0) {
+                if (length < MAX_TERM_LENGTH) {
+                    buffer[length++] = lower;
+                }
+                run++;
+            } else {
+                if (run >= MIN_TERM_LENGTH) {
+                    sink.accept(new String(buffer, 0, length));
+                }
+                length = 0;
+                run = 0;
+            }
+        }
+    }
+
+    // the slots in every match, those with every term in their title apart
+    private static Hits intersect(List<Match> matches, int textMatches) {
+        int rarest = 0;
+        for (int m = 1; m < matches.size(); m++) {
+            if (matches.get(m).size() < matches.get(rarest).size()) {
+                rarest = m;
+            }
+        }
+        Match driver = matches.get(rarest);
+        int[] titleCursor = new int[matches.size()];
+        int[] otherCursor = new int[matches.size()];
+        for (int m = 0; m < matches.size(); m++) {
+            titleCursor[m] = matches.get(m).from();
+            otherCursor[m] = matches.get(m).split();
+        }
+
+        int[] titled = new int[driver.size()];
+        int[] others = new int[driver.size()];
+        int titledCount = 0;
+        int otherCount = 0;
+        int[] slots = driver.slots();
+        int a = driver.from();
+        int b = driver.split();
+        candidates:
+        while (a < driver.split() || b < driver.to()) {
+            // the driver's two runs merged, so candidates come in ascending order
+            boolean fromTitle = b == driver.to() || (a < driver.split() && slots[a] < slots[b]);
+            int slot = fromTitle ? slots[a++] : slots[b++];
+            boolean inTitle = textMatches > 0 && (rarest >= textMatches || fromTitle);
+            for (int m = 0; m < matches.size(); m++) {
+                if (m == rarest) {
+                    continue;
+                }
+                Match match = matches.get(m);
+                int t = titleCursor[m] = seek(match.slots(), titleCursor[m], match.split(), slot);
+                if (t < match.split() && match.slots()[t] == slot) {
+                    continue;
+                }
+                int o = otherCursor[m] = seek(match.slots(), otherCursor[m], match.to(), slot);
+                if (o < match.to() && match.slots()[o] == slot) {
+                    inTitle &= m >= textMatches;
+                    continue;
+                }
+                if (t == match.split() && o == match.to()) {
+                    break candidates;    // this match has no later quizzes
+                }
+                continue candidates;
+            }
+            if (inTitle) {
+                titled[titledCount++] = slot;
+            } else {
+                others[otherCount++] = slot;
+            }
+        }
+        return new Hits(titled, titledCount, others, otherCount);
+    }
+
+    // first index in [from, to) whose slot is at least the given one; gallops, then binary search
+    private static int seek(int[] slots, int from, int to, int slot) {
+        int step = 1;
+        int hi = from;
+        while (hi < to && slots[hi] < slot) {
+            from = hi + 1;
+            hi += step;
+            step <<= 1;
+        }
+        hi = Math.min(hi, to);
+        while (from < hi) {
+            int mid = (from + hi) >>> 1;
+            if (slots[mid] < slot) {
+                from = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return from;
+    }
+
+    private Match exact(String term) {
+        int t = Arrays.binarySearch(text.keys(), term);
+        return t < 0 ? NO_MATCH : text.match(t);
+    }
+
+    // every quiz holding a term that starts with the prefix; a title hit if any of those terms is in its title
+    private Match prefix(String prefix) {
+        int first = lowerBound(prefix);
+        int last = lowerBound(prefix + Character.MAX_VALUE);
+        if (last - first <= 1) {
+            return last == first ? NO_MATCH : text.match(first);
+        }
+
+        int[] start = text.start();
+        int[] split = text.split();
+        int[] slots = text.slots();
+        byte[] seen = new byte[catalog.size()];    // 2 in a title, 1 elsewhere
+        int entries = start[last] - start[first];
+        // few entries are sorted; many are gathered by a pass over the catalog instead
+        int[] found = entries < seen.length / 8 ? new int[entries] : null;
+        int count = 0;
+        int titleCount = 0;
+        for (int t = first; t < last; t++) {
+            for (int r = start[t]; r < start[t + 1]; r++) {
+                int slot = slots[r];
+                byte mark = (byte) (r < split[t] ? 2 : 1);
+                if (seen[slot] == 0) {
+                    if (found != null) {
+                        found[count] = slot;
+                    }
+                    count++;
+                }
+                if (seen[slot] < mark) {
+                    titleCount += mark - 1;
+                    seen[slot] = mark;
+                }
+            }
+        }
+        if (found != null) {
+            Arrays.sort(found, 0, count);
+        }
+
+        int[] merged = new int[count];
+        int titled = 0;
+        int other = titleCount;
+        for (int i = 0; i < (found != null ? count : seen.length); i++) {
+            int slot = found != null ? found[i] : i;
+            if (seen[slot] == 2) {
+                merged[titled++] = slot;
+            } else if (seen[slot] == 1) {
+                merged[other++] = slot;
+            }
+        }
+        return new Match(merged, 0, titleCount, count);
+    }
+
+    private int lowerBound(String term) {
+        int t = Arrays.binarySearch(text.keys(), term);
+        return t < 0 ? -t - 1 : t;
+    }
+
+    // splits a new or changed quiz into terms, title first, and adds it to the fresh entries
+    private static void index(Quiz quiz, int slot, Map<String, Postings> terms, Map<String, Postings> tags, char[] buffer) {
+        QuizTerms sink = new QuizTerms(terms, slot);
+        sink.inTitle = true;
+        split(quiz.getTitle(), buffer, sink);
+        sink.inTitle = false;
+        split(quiz.getDescription(), buffer, sink);
+        List<Question> questions = quiz.getQuestions() == null ? List.of() : quiz.getQuestions();
+        for (Question question : questions) {
+            if (question.getTag() != null && !question.getTag().isBlank()) {
+                tags.computeIfAbsent(normalizeTag(question.getTag()), tag -> new Postings()).add(slot, false);
+                split(question.getTag(), buffer, sink);
+            }
+        }
+        for (Question question : questions) {
+            split(question.getQuestion(), buffer, sink);
+        }
+    }
+
+    // the previous entries of kept quizzes, renumbered, merged key by key with the fresh ones
+    private static Inverted merge(Inverted previous, Map<String, Postings> fresh, int[] renumber, boolean ordered) {
+        String[] freshKeys = fresh.keySet().toArray(new String[0]);
+        Arrays.sort(freshKeys);
+        int bound = previous.slots().length;
+        for (Postings postings : fresh.values()) {
+            bound += postings.titleCount + postings.otherCount;
+        }
+
+        String[] oldKeys = previous.keys();
+        int keyBound = oldKeys.length + freshKeys.length;
+        String[] keys = new String[keyBound];
+        int[] start = new int[keyBound + 1];
+        int[] split = new int[keyBound + 1];
+        int[] slots = new int[bound];
+        int[] kept = new int[renumber.length];
+        int k = 0;
+        int at = 0;
+        for (int i = 0, j = 0; i < oldKeys.length || j < freshKeys.length; ) {
+            int order = i == oldKeys.length ? 1 : j == freshKeys.length ? -1 : oldKeys[i].compareTo(freshKeys[j]);
+            Postings postings = order >= 0 ? fresh.get(freshKeys[j]) : null;
+            int begin = at;
+            if (order <= 0) {
+                at = append(slots, at, previous.slots(), previous.start()[i], previous.split()[i], renumber, ordered, kept,
+                        postings == null ? null : postings.title, postings == null ? 0 : postings.titleCount);
+            } else {
+                at = append(slots, at, null, 0, 0, renumber, ordered, kept, postings.title, postings.titleCount);
+            }
+            int middle = at;
+            if (order <= 0) {
+                at = append(slots, at, previous.slots(), previous.split()[i], previous.start()[i + 1], renumber, ordered, kept,
+                        postings == null ? null : postings.other, postings == null ? 0 : postings.otherCount);
+            } else {
+                at = append(slots, at, null, 0, 0, renumber, ordered, kept, postings.other, postings.otherCount);
+            }
+            if (at > begin) {    // a key left without quizzes is dropped
+                keys[k] = order <= 0 ? oldKeys[i] : freshKeys[j];
+                split[k] = middle;
+                start[++k] = at;
+            }
+            if (order <= 0) {
+                i++;
+            }
+            if (order >= 0) {
+                j++;
+            }
+        }
+        return new Inverted(Arrays.copyOf(keys, k), Arrays.copyOf(start, k + 1), Arrays.copyOf(split, k + 1),
+                Arrays.copyOf(slots, at));
+    }
+
+    // appends the renumbered kept slots of an old run and a fresh run, merged in ascending order
+    private static int append(int[] out, int at, int[] oldSlots, int from, int to, int[] renumber, boolean ordered,
+                              int[] kept, int[] fresh, int freshCount) {
+        int keptCount = 0;
+        for (int r = from; r < to; r++) {
+            int slot = renumber[oldSlots[r]];
+            if (slot >= 0) {
+                kept[keptCount++] = slot;
+            }
+        }
+        if (!ordered) {
+            Arrays.sort(kept, 0, keptCount);
+        }
+        int a = 0;
+        int b = 0;
+        while (a < keptCount && b < freshCount) {
+            out[at++] = kept[a] < fresh[b] ? kept[a++] : fresh[b++];
+        }
+        while (a < keptCount) {
+            out[at++] = kept[a++];
+        }
+        while (b < freshCount) {
+            out[at++] = fresh[b++];
+        }
+        return at;
+    }
+
+    private static String normalizeTag(String tag) {
+        return tag.strip().toLowerCase(Locale.ROOT);
+    }
+
+    // 64-bit FNV-1a over the indexed text; a quiz whose fingerprint is unchanged keeps its entries
+    private static long fingerprint(Quiz quiz) {
+        long hash = 0xCBF29CE484222325L;
+        hash = fingerprint(hash, quiz.getTitle());
+        hash = fingerprint(hash, quiz.getDescription());
+        if (quiz.getQuestions() != null) {
+            for (Question question : quiz.getQuestions()) {
+                hash = fingerprint(hash, question.getQuestion());
+                hash = fingerprint(hash, question.getTag());
+            }
+        }
+        return hash;
+    }
+
+    private static long fingerprint(long hash, String text) {
+        if (text != null) {
+            for (int i = 0; i < text.length(); i++) {
+                hash = (hash ^ text.charAt(i)) * 0x100000001B3L;
+            }
+        }
+        // a separator, so that moving text from one field to the next changes the fingerprint
+        return (hash ^ 0xFFFF) * 0x100000001B3L;
+    }
+
+    private static long memoryOf(Inverted inverted) {
+        long bytes = array(inverted.keys().length, 4) + array(inverted.start().length, 4)
+                + array(inverted.split().length, 4) + array(inverted.slots().length, 4);
+        for (String key : inverted.keys()) {
+            bytes += 24 + array(key.length(), 1);    // Latin-1 strings; other scripts take twice the bytes
+        }
+        return bytes;
+    }
+
+    private static long array(int length, int elementBytes) {
+        return (16 + (long) length * elementBytes + 7) & ~7L;
+    }
+
+    /**
+     * The quizzes of one term or tag among the quizzes split in this build, in ascending slot order.
+     */
+    private static final class Postings {
+
+        private int[] title = new int[0];
+        private int[] other = new int[0];
+        private int titleCount;
+        private int otherCount;
+        private int lastSlot = -1;
+
+        void add(int slot, boolean inTitle) {
+            if (slot == lastSlot) {
+                return;
+            }
+            lastSlot = slot;
+            if (inTitle) {
+                if (titleCount == title.length) {
+                    title = Arrays.copyOf(title, Math.max(4, titleCount * 2));
+                }
+                title[titleCount++] = slot;
+            } else {
+                if (otherCount == other.length) {
+                    other = Arrays.copyOf(other, Math.max(4, otherCount * 2));
+                }
+                other[otherCount++] = slot;
+            }
+        }
+    }
+
+    /**
+     * Adds the terms of one quiz to the fresh entries, up to {@value #MAX_TERMS_PER_QUIZ} distinct terms.
+     */
+    private static final class QuizTerms implements Consumer<String> {
+
+        private final Map<String, Postings> terms;
+        private final int slot;
+        private boolean inTitle;
+        private int count;
+
+        QuizTerms(Map<String, Postings> terms, int slot) {
+            this.terms = terms;
+            this.slot = slot;
+        }
+
+        @Override
+        public void accept(String term) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.lastSlot == slot || count == MAX_TERMS_PER_QUIZ) {
+                return;
+            }
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(term, postings);
+            }
+            postings.add(slot, inTitle);
+            count++;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.quiz.catalog;
+
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of a quiz catalog, read straight from a memory-mapped file.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ *   header    magic "QZCS", format version, string count, quiz count, question count, option count
+ *   strings   string count + 1 offsets into the string data
+ *   quizzes   per quiz:     id, title ref, description ref, first question, question count,
+ *                           sample size, stratify-by ref, flags (bit 0: adaptive)  (8 ints)
+ *   questions per question: id, text ref, first option, tag ref (ints), difficulty, discrimination
+ *                           (doubles, NaN if unset), option count (byte), answer index (byte)
+ *   options   per option:   string ref
+ *   data      UTF-8 bytes of every distinct string
+ * </pre>
+ * Every distinct string (titles, question text, options) is stored once and referenced by index,
+ * and the correct answer is stored as the index of the matching option. Ids, references and
+ * counts are read with absolute gets on the mapped buffer, so nothing is copied out of the file
+ * until {@link #toQuizzes()} builds the model objects; that decodes each distinct string once and
+ * shares the instance everywhere it is used.
+ * <p>
+ * Opening a snapshot checks every count, offset and reference against the size of the file, so a
+ * truncated or corrupt file fails with an {@link IOException} before anything is decoded.
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x515A4353;   // "QZCS"
+    private static final int FORMAT_VERSION = 3;
+    private static final int NULL_REF = -1;
+    private static final int FLAG_ADAPTIVE = 1;
+
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+    private static final int QUIZ_BYTES = 8 * Integer.BYTES;
+    private static final int QUESTION_BYTES = 4 * Integer.BYTES + 2 * Double.BYTES + 2;
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int quizCount;
+    private final int questionCount;
+    private final int optionCount;
+    private final int offsetsStart;
+    private final int quizzesStart;
+    private final int questionsStart;
+    private final int optionsStart;
+    private final int dataStart;
+
+    private CatalogSnapshot(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a quiz catalog snapshot");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported catalog snapshot version " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.stringCount = buffer.getInt(8);
+        this.quizCount = buffer.getInt(12);
+        this.questionCount = buffer.getInt(16);
+        this.optionCount = buffer.getInt(20);
+        if (stringCount < 0 || quizCount < 0 || questionCount < 0 || optionCount < 0) {
+            throw corrupt("negative count in the header");
+        }
+
+        // in longs, so counts from a corrupt header cannot overflow into offsets that look valid
+        long tablesEnd = HEADER_BYTES + (stringCount + 1L) * Integer.BYTES + (long) quizCount * QUIZ_BYTES
+                + (long) questionCount * QUESTION_BYTES + (long) optionCount * Integer.BYTES;
+        if (tablesEnd > buffer.limit()) {
+            throw corrupt("the header counts more records than the file holds");
+        }
+        this.offsetsStart = HEADER_BYTES;
+        this.quizzesStart = offsetsStart + (stringCount + 1) * Integer.BYTES;
+        this.questionsStart = quizzesStart + quizCount * QUIZ_BYTES;
+        this.optionsStart = questionsStart + questionCount * QUESTION_BYTES;
+        this.dataStart = optionsStart + optionCount * Integer.BYTES;
+        verify();
+    }
+
+    /**
+     * Checks every offset, reference and index in the tables against the file, so that decoding
+     * cannot read outside it. Only ints are read; nothing is decoded.
+     */
+    private void verify() throws IOException {
+        int dataBytes = buffer.limit() - dataStart;
+        int previous = 0;
+        for (int i = 0; i <= stringCount; i++) {
+            int offset = buffer.getInt(offsetsStart + i * Integer.BYTES);
+            if (offset < previous || offset > dataBytes || (i == 0 && offset != 0)) {
+                throw corrupt("string " + i + " lies outside the string data");
+            }
+            previous = offset;
+        }
+        if (previous != dataBytes) {
+            throw corrupt("the string data does not end the file");
+        }
+        for (int slot = 0; slot < quizCount; slot++) {
+            int quizAt = quizzesStart + slot * QUIZ_BYTES;
+            int firstQuestion = buffer.getInt(quizAt + 12);
+            int questions = buffer.getInt(quizAt + 16);
+            if (firstQuestion < 0 || questions < 0 || (long) firstQuestion + questions > questionCount) {
+                throw corrupt("quiz " + slot + " has questions outside the question table");
+            }
+            checkRef(buffer.getInt(quizAt + 4));
+            checkRef(buffer.getInt(quizAt + 8));
+            checkRef(buffer.getInt(quizAt + 24));
+        }
+        for (int index = 0; index < questionCount; index++) {
+            int questionAt = questionsStart + index * QUESTION_BYTES;
+            int firstOption = buffer.getInt(questionAt + 8);
+            int options = buffer.get(questionAt + 32) & 0xFF;
+            int answer = buffer.get(questionAt + 33);
+            if (firstOption < 0 || (long) firstOption + options > optionCount || answer < NULL_REF || answer >= options) {
+                throw corrupt("question " + index + " has options outside the option table");
+            }
+            checkRef(buffer.getInt(questionAt + 4));
+            checkRef(buffer.getInt(questionAt + 12));
+        }
+        for (int option = 0; option < optionCount; option++) {
+            checkRef(buffer.getInt(optionsStart + option * Integer.BYTES));
+        }
+    }
+
+    private void checkRef(int ref) throws IOException {
+        if (ref < NULL_REF || ref >= stringCount) {
+            throw corrupt("string reference " + ref + " of " + stringCount + " strings");
+        }
+    }
+
+    private static IOException corrupt(String problem) {
+        return new IOException("Truncated or corrupt catalog snapshot: " + problem);
+    }
+
+    /**
+     * Memory-maps a snapshot file read-only.
+     */
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return new CatalogSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Wraps snapshot bytes that are already in memory.
+     */
+    public static CatalogSnapshot wrap(byte[] bytes) throws IOException {
+        return new CatalogSnapshot(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+    }
+
+    /**
+     * Compiles quizzes into a snapshot file, replacing the file if it exists.
+     */
+    public static void write(List<Quiz> quizzes, Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, toBytes(quizzes));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Compiles quizzes into snapshot bytes. The quizzes are expected to have passed
+     * {@link CatalogValidator}; a correct answer that is not among the options is stored as "no answer".
+     */
+    public static byte[] toBytes(List<Quiz> quizzes) {
+        StringTable strings = new StringTable();
+        int questionCount = 0;
+        int optionCount = 0;
+        for (Quiz quiz : quizzes) {
+            for (Question question : questions(quiz)) {
+                questionCount++;
+                optionCount += options(question).size();
+            }
+        }
+
+        int[] quizTable = new int[quizzes.size() * 8];
+        ByteBuffer questionTable = ByteBuffer.allocate(questionCount * QUESTION_BYTES);
+        int[] optionTable = new int[optionCount];
+        int question = 0;
+        int option = 0;
+        for (int q = 0; q < quizzes.size(); q++) {
+            Quiz quiz = quizzes.get(q);
+            List<Question> questions = questions(quiz);
+            quizTable[q * 8] = quiz.getId();
+            quizTable[q * 8 + 1] = strings.ref(quiz.getTitle());
+            quizTable[q * 8 + 2] = strings.ref(quiz.getDescription());
+            quizTable[q * 8 + 3] = question;
+            quizTable[q * 8 + 4] = questions.size();
+            quizTable[q * 8 + 5] = quiz.getSampleSize();
+            quizTable[q * 8 + 6] = strings.ref(quiz.getStratifyBy());
+            quizTable[q * 8 + 7] = quiz.isAdaptive() ? FLAG_ADAPTIVE : 0;
+
+            for (Question current : questions) {
+                List<String> options = options(current);
+                questionTable.putInt(current.getId())
+                        .putInt(strings.ref(current.getQuestion()))
+                        .putInt(option)
+                        .putInt(strings.ref(current.getTag()))
+                        .putDouble(current.getDifficulty() == null ? Double.NaN : current.getDifficulty())
+                        .putDouble(current.getDiscrimination() == null ? Double.NaN : current.getDiscrimination())
+                        .put((byte) options.size())
+                        .put((byte) options.indexOf(current.getCorrectAnswer()));
+                for (String text : options) {
+                    optionTable[option++] = strings.ref(text);
+                }
+                question++;
+            }
+        }
+
+        int dataBytes = strings.offsets[strings.size];
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + (strings.size + 1) * Integer.BYTES
+                + quizTable.length * Integer.BYTES + questionTable.capacity()
+                + optionTable.length * Integer.BYTES + dataBytes);
+        out.putInt(MAGIC).putInt(FORMAT_VERSION)
+                .putInt(strings.size).putInt(quizzes.size()).putInt(questionCount).putInt(optionCount);
+        for (int i = 0; i <= strings.size; i++) {
+            out.putInt(strings.offsets[i]);
+        }
+        for (int value : quizTable) {
+            out.putInt(value);
+        }
+        out.put(questionTable.array());
+        for (int value : optionTable) {
+            out.putInt(value);
+        }
+        for (int i = 0; i < strings.size; i++) {
+            out.put(strings.bytes[i]);
+        }
+        return out.array();
+    }
+
+    public int quizCount() {
+        return quizCount;
+    }
+
+    public int questionCount() {
+        return questionCount;
+    }
+
+    public int stringCount() {
+        return stringCount;
+    }
+
+    /**
+     * Size of the snapshot in bytes.
+     */
+    public int byteSize() {
+        return buffer.limit();
+    }
+
+    public int quizId(int slot) {
+        return buffer.getInt(quizzesStart + slot * QUIZ_BYTES);
+    }
+
+    public int questionCount(int slot) {
+        return buffer.getInt(quizzesStart + slot * QUIZ_BYTES + 16);
+    }
+
+    /**
+     * Builds the model objects of every quiz. Each distinct string is decoded once and the
+     * same instance is shared by every quiz, question and option that uses it.
+     * <p>
+     * The whole catalog is built at once: {@code QuizCatalog}, its search index and the samplers
+     * hold every quiz as model objects, so decoding lazily would only move the work to the first
+     * request. What the snapshot saves at startup is the JSON parsing and the duplicate strings.
+     */
+    public List<Quiz> toQuizzes() {
+        String[] decoded = new String[stringCount];
+        List<Quiz> quizzes = new ArrayList<>(quizCount);
+        for (int slot = 0; slot < quizCount; slot++) {
+            int quizAt = quizzesStart + slot * QUIZ_BYTES;
+            int firstQuestion = buffer.getInt(quizAt + 12);
+            int questions = buffer.getInt(quizAt + 16);
+
+            List<Question> quizQuestions = new ArrayList<>(questions);
+            for (int q = firstQuestion; q < firstQuestion + questions; q++) {
+                quizQuestions.add(question(q, decoded));
+            }
+            Quiz quiz = new Quiz(buffer.getInt(quizAt), string(buffer.getInt(quizAt + 4), decoded),
+                    string(buffer.getInt(quizAt + 8), decoded), quizQuestions);
+            quiz.setSampleSize(buffer.getInt(quizAt + 20));
+            quiz.setStratifyBy(string(buffer.getInt(quizAt + 24), decoded));
+            quiz.setAdaptive((buffer.getInt(quizAt + 28) & FLAG_ADAPTIVE) != 0);
+            quizzes.add(quiz);
+        }
+        return quizzes;
+    }
+
+    private Question question(int index, String[] decoded) {
+        int questionAt = questionsStart + index * QUESTION_BYTES;
+        int firstOption = buffer.getInt(questionAt + 8);
+        double difficulty = buffer.getDouble(questionAt + 16);
+        double discrimination = buffer.getDouble(questionAt + 24);
+        int optionCount = buffer.get(questionAt + 32) & 0xFF;
+        int answer = buffer.get(questionAt + 33);
+
+        String[] options = new String[optionCount];
+        for (int o = 0; o < optionCount; o++) {
+            options[o] = string(buffer.getInt(optionsStart + (firstOption + o) * Integer.BYTES), decoded);
+        }
+        Question question = new Question(buffer.getInt(questionAt), string(buffer.getInt(questionAt + 4), decoded),
+                Arrays.asList(options), answer < 0 ? null : options[answer]);
+        question.setTag(string(buffer.getInt(questionAt + 12), decoded));
+        question.setDifficulty(Double.isNaN(difficulty) ? null : difficulty);
+        question.setDiscrimination(Double.isNaN(discrimination) ? null : discrimination);
+        return question;
+    }
+
+    private String string(int ref, String[] decoded) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        String value = decoded[ref];
+        if (value == null) {
+            int start = buffer.getInt(offsetsStart + ref * Integer.BYTES);
+            int end = buffer.getInt(offsetsStart + (ref + 1) * Integer.BYTES);
+            byte[] utf8 = new byte[end - start];
+            buffer.get(dataStart + start, utf8);
+            value = new String(utf8, StandardCharsets.UTF_8);
+            decoded[ref] = value;
+        }
+        return value;
+    }
+
+    private static List<Question> questions(Quiz quiz) {
+        return quiz.getQuestions() == null ? List.of() : quiz.getQuestions();
+    }
+
+    private static List<String> options(Question question) {
+        return question.getOptions() == null ? List.of() : question.getOptions();
+    }
+
+    /**
+     * Interns strings while a snapshot is written and keeps their UTF-8 bytes and offsets.
+     */
+    private static final class StringTable {
+
+        private final Map<String, Integer> refs = new HashMap<>();
+        private byte[][] bytes = new byte[64][];
+        private int[] offsets = new int[65];
+        private int size;
+
+        int ref(String value) {
+            if (value == null) {
+                return NULL_REF;
+            }
+            Integer existing = refs.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2 + 1);
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            bytes[size] = utf8;
+            offsets[size + 1] = offsets[size] + utf8.length;
+            refs.put(value, size);
+            return size++;
+        }
+    }
+}
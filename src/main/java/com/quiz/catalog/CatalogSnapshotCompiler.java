@@ -0,0 +1,63 @@
+package com.quiz.catalog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Command line step that compiles a JSON catalog into a {@link CatalogSnapshot} file.
+ * <p>
+ * Usage: {@code CatalogSnapshotCompiler <catalog.json or directory> <snapshot file>}. A directory
+ * is read like {@link com.quiz.service.CatalogReloadService} reads it: every *.json file, in name
+ * order. Invalid quiz records are skipped and listed. The {@code catalog-snapshot} Maven profile
+ * runs this step during the build.
+ */
+public final class CatalogSnapshotCompiler {
+
+    private CatalogSnapshotCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CatalogSnapshotCompiler <catalog.json or directory> <snapshot file>");
+            System.exit(2);
+        }
+        Path source = Paths.get(args[0]);
+        Path target = Paths.get(args[1]);
+
+        CatalogLoadResult result = compile(source, target);
+
+        System.out.printf("Compiled %d quizzes from %s into %s (%d -> %d bytes)%n",
+                result.getAcceptedCount(), source, target, result.getBytesRead(), Files.size(target));
+        if (result.getRejectedCount() > 0) {
+            System.out.printf("Skipped %d invalid record(s):%n", result.getRejectedCount());
+            result.getRejections().forEach(problem -> System.out.println("  " + problem));
+        }
+    }
+
+    /**
+     * Reads a JSON catalog file or directory and writes its valid quizzes as a snapshot.
+     */
+    public static CatalogLoadResult compile(Path source, Path target) throws IOException {
+        CatalogLoadResult result;
+        if (Files.isDirectory(source)) {
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(source)) {
+                files = listing.filter(file -> file.getFileName().toString().endsWith(".json")).sorted().toList();
+            }
+            result = StreamingCatalogReader.readShards(files, Runtime.getRuntime().availableProcessors(),
+                    StreamingCatalogReader.ProgressListener.NONE);
+        } else {
+            result = StreamingCatalogReader.readFile(source, StreamingCatalogReader.ProgressListener.NONE);
+        }
+
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        CatalogSnapshot.write(result.getQuizzes(), target);
+        return result;
+    }
+}
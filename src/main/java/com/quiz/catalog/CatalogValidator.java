@@ -0,0 +1,118 @@
+package com.quiz.catalog;
+
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks a freshly parsed set of quizzes before it is allowed to replace the live catalog.
+ * <p>
+ * The rules mirror what the controllers and {@link com.quiz.service.QuizService} rely on:
+ * ids must be positive and unique, every quiz needs at least one question, and every
+ * question needs options that contain its correct answer exactly once. Answers are graded by the
+ * index of the correct option, found by its text, so a second option with the same text would be
+ * graded wrong.
+ */
+public final class CatalogValidator {
+
+    private CatalogValidator() {
+    }
+
+    /**
+     * Validates a whole catalog.
+     *
+     * @return a list of human readable problems, empty if the catalog is valid
+     */
+    public static List<String> validate(List<Quiz> quizzes) {
+        List<String> problems = new ArrayList<>();
+        if (quizzes == null || quizzes.isEmpty()) {
+            problems.add("Catalog contains no quizzes");
+            return problems;
+        }
+
+        Set<Integer> quizIds = new HashSet<>();
+        for (Quiz quiz : quizzes) {
+            if (quiz == null) {
+                problems.add("Catalog contains an empty quiz entry");
+                continue;
+            }
+            if (!quizIds.add(quiz.getId())) {
+                problems.add("Duplicate quiz id " + quiz.getId());
+            }
+            problems.addAll(validate(quiz));
+        }
+        return problems;
+    }
+
+    /**
+     * Validates a single quiz and its questions.
+     *
+     * @return a list of human readable problems, empty if the quiz is valid
+     */
+    public static List<String> validate(Quiz quiz) {
+        List<String> problems = new ArrayList<>();
+        String prefix = "Quiz " + quiz.getId() + ": ";
+
+        if (quiz.getId() <= 0) {
+            problems.add(prefix + "id must be positive");
+        }
+        if (quiz.getTitle() == null || quiz.getTitle().isBlank()) {
+            problems.add(prefix + "title is missing");
+        }
+        if (quiz.getSampleSize() < 0) {
+            problems.add(prefix + "sample size must not be negative");
+        }
+        if (quiz.getStratifyBy() != null && !QuestionSampler.STRATIFY_BY_TAG.equals(quiz.getStratifyBy())
+                && !QuestionSampler.STRATIFY_BY_DIFFICULTY.equals(quiz.getStratifyBy())) {
+            problems.add(prefix + "can only be stratified by \"" + QuestionSampler.STRATIFY_BY_TAG
+                    + "\" or \"" + QuestionSampler.STRATIFY_BY_DIFFICULTY + "\"");
+        }
+        if (quiz.isAdaptive() && quiz.getStratifyBy() != null) {
+            problems.add(prefix + "is adaptive and cannot also be stratified");
+        }
+        if (quiz.getQuestions() == null || quiz.getQuestions().isEmpty()) {
+            problems.add(prefix + "has no questions");
+            return problems;
+        }
+
+        Set<Integer> questionIds = new HashSet<>();
+        for (Question question : quiz.getQuestions()) {
+            if (question == null) {
+                problems.add(prefix + "contains an empty question entry");
+                continue;
+            }
+            String questionPrefix = prefix + "question " + question.getId() + " ";
+            if (question.getId() <= 0) {
+                problems.add(questionPrefix + "id must be positive");
+            }
+            if (!questionIds.add(question.getId())) {
+                problems.add(questionPrefix + "is duplicated");
+            }
+            if (question.getQuestion() == null || question.getQuestion().isBlank()) {
+                problems.add(questionPrefix + "has no text");
+            }
+            if (question.getOptions() == null || question.getOptions().size() < 2) {
+                problems.add(questionPrefix + "needs at least two options");
+            } else if (question.getOptions().size() > 26) {
+                problems.add(questionPrefix + "has more than 26 options");   // answers are letters A-Z
+            } else if (!question.getOptions().contains(question.getCorrectAnswer())) {
+                problems.add(questionPrefix + "correct answer is not one of its options");
+            } else if (question.getOptions().indexOf(question.getCorrectAnswer())
+                    != question.getOptions().lastIndexOf(question.getCorrectAnswer())) {
+                problems.add(questionPrefix + "correct answer is more than one of its options");
+            }
+            if (question.getDifficulty() != null && !Double.isFinite(question.getDifficulty())) {
+                problems.add(questionPrefix + "difficulty is not a finite number");
+            }
+            if (question.getDiscrimination() != null
+                    && !(question.getDiscrimination() > 0 && Double.isFinite(question.getDiscrimination()))) {
+                problems.add(questionPrefix + "discrimination must be a positive number");
+            }
+        }
+        return problems;
+    }
+}
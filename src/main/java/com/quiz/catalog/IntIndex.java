@@ -0,0 +1,85 @@
+package com.quiz.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Immutable open-addressing hash index from primitive {@code int} keys to their position
+ * in the key array the index was built from.
+ * <p>
+ * Used by {@link QuizCatalog} to resolve quiz ids and question ids in constant time
+ * without boxing every key into an {@link Integer}. When a key occurs more than once,
+ * the first position wins, which matches the old {@code stream().filter().findFirst()} lookups.
+ */
+public final class IntIndex {
+
+    private static final int EMPTY = -1;
+
+    private static final IntIndex EMPTY_INDEX = new IntIndex(new int[0]);
+
+    private final int[] keys;      // key stored in each slot
+    private final int[] positions; // position of the key in the source array, EMPTY if slot is free
+    private final int mask;
+    private final int size;
+
+    private IntIndex(int[] source) {
+        // keep the load factor at or below 0.5 so probe chains stay short
+        int capacity = Integer.highestOneBit(Math.max(2, source.length) * 2 - 1) << 1;
+        this.keys = new int[capacity];
+        this.positions = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(positions, EMPTY);
+
+        int stored = 0;
+        for (int i = 0; i < source.length; i++) {
+            int slot = slot(source[i]);
+            while (positions[slot] != EMPTY && keys[slot] != source[i]) {
+                slot = (slot + 1) & mask;
+            }
+            if (positions[slot] == EMPTY) {   // first occurrence wins
+                keys[slot] = source[i];
+                positions[slot] = i;
+                stored++;
+            }
+        }
+        this.size = stored;
+    }
+
+    /**
+     * Builds an index over the given keys. The array is not retained.
+     */
+    public static IntIndex of(int[] keys) {
+        return keys.length == 0 ? EMPTY_INDEX : new IntIndex(keys);
+    }
+
+    /**
+     * Returns the position of the key in the source array, or -1 if the key is not present.
+     */
+    public int indexOf(int key) {
+        int slot = slot(key);
+        int position;
+        while ((position = positions[slot]) != EMPTY) {
+            if (keys[slot] == key) {
+                return position;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    public boolean contains(int key) {
+        return indexOf(key) != EMPTY;
+    }
+
+    /**
+     * Number of distinct keys in the index.
+     */
+    public int size() {
+        return size;
+    }
+
+    private int slot(int key) {
+        // Fibonacci hashing spreads sequential ids across the table
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,189 @@
+package com.quiz.catalog;
+
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Draws the questions of one attempt from a quiz's question pool.
+ * <p>
+ * A sample of N questions is drawn with Floyd's algorithm, which picks N distinct positions with
+ * exactly N random draws and remembers only the positions picked so far. Drawing a sample costs
+ * time and memory in proportion to N, whether the pool holds a hundred questions or a hundred
+ * thousand. The sample is returned as pool positions in catalog order.
+ * <p>
+ * With stratification, the pool is split into strata (by tag, or by difficulty rounded to a whole
+ * number; questions without one form a stratum of their own). Each stratum is allotted a share of
+ * the sample in proportion to its share of the pool, rounded by largest remainder, and sampled on
+ * its own. The strata and their quotas are computed once, when the catalog is built.
+ * <p>
+ * The random generator is seeded from the attempt's seed, so the sample of an attempt is rebuilt
+ * exactly from its seed, like its shuffle (see {@link com.quiz.service.QuizShuffler}).
+ */
+public final class QuestionSampler {
+
+    public static final String STRATIFY_BY_TAG = "tag";
+    public static final String STRATIFY_BY_DIFFICULTY = "difficulty";
+
+    // keeps the sample's random stream apart from the shuffle's, which uses the seed itself
+    private static final long SAMPLE_SEED_MIX = 0x9E3779B97F4A7C15L;
+
+    private final int sampleSize;
+    private final int[] positions;      // pool positions grouped by stratum, catalog order within each
+    private final int[] stratumStart;   // stratum -> first index into positions; one extra entry at the end
+    private final int[] quota;          // stratum -> questions drawn from it per attempt
+
+    private QuestionSampler(int sampleSize, int[] positions, int[] stratumStart, int[] quota) {
+        this.sampleSize = sampleSize;
+        this.positions = positions;
+        this.stratumStart = stratumStart;
+        this.quota = quota;
+    }
+
+    /**
+     * Builds the sampler of a quiz, or returns {@code null} if every attempt of the quiz is asked
+     * every question, or the quiz is adaptive and chooses its questions with an {@link ItemBank}.
+     */
+    public static QuestionSampler of(Quiz quiz) {
+        int pool = quiz.getTotalQuestions();
+        int sampleSize = quiz.getQuestionsPerAttempt();
+        if (sampleSize >= pool || quiz.isAdaptive()) {
+            return null;
+        }
+
+        // group the pool positions by stratum, strata in order of first appearance
+        Map<Object, List<Integer>> strata = new LinkedHashMap<>();
+        List<Question> questions = quiz.getQuestions();
+        for (int position = 0; position < pool; position++) {
+            strata.computeIfAbsent(stratum(quiz.getStratifyBy(), questions.get(position)), key -> new ArrayList<>())
+                    .add(position);
+        }
+
+        int[] positions = new int[pool];
+        int[] stratumStart = new int[strata.size() + 1];
+        int s = 0;
+        for (List<Integer> members : strata.values()) {
+            int start = stratumStart[s];
+            for (int i = 0; i < members.size(); i++) {
+                positions[start + i] = members.get(i);
+            }
+            stratumStart[++s] = start + members.size();
+        }
+        return new QuestionSampler(sampleSize, positions, stratumStart, quotas(stratumStart, pool, sampleSize));
+    }
+
+    /**
+     * Number of questions in every sample.
+     */
+    public int sampleSize() {
+        return sampleSize;
+    }
+
+    /**
+     * Returns the sample drawn for the given attempt seed: {@link #sampleSize()} distinct pool
+     * positions in ascending order.
+     */
+    public int[] sample(long seed) {
+        SplittableRandom random = new SplittableRandom(seed * SAMPLE_SEED_MIX + 1);
+        int[] sample = new int[sampleSize];
+        PositionSet picked = new PositionSet(sampleSize);
+        int size = 0;
+        for (int s = 0; s < quota.length; s++) {
+            int start = stratumStart[s];
+            int stratumSize = stratumStart[s + 1] - start;
+            // Floyd: for j in [n - k, n), pick t in [0, j]; if t is taken, j cannot be, so take j
+            for (int j = stratumSize - quota[s]; j < stratumSize; j++) {
+                int candidate = positions[start + random.nextInt(j + 1)];
+                if (!picked.add(candidate)) {
+                    candidate = positions[start + j];
+                    picked.add(candidate);
+                }
+                sample[size++] = candidate;
+            }
+        }
+        Arrays.sort(sample);
+        return sample;
+    }
+
+    /**
+     * Returns the questions of a sample, in sample order, as a quiz of their own.
+     */
+    public static Quiz view(Quiz quiz, int[] sample) {
+        List<Question> pool = quiz.getQuestions();
+        Question[] questions = new Question[sample.length];
+        for (int i = 0; i < sample.length; i++) {
+            questions[i] = pool.get(sample[i]);
+        }
+        return new Quiz(quiz.getId(), quiz.getTitle(), quiz.getDescription(), List.of(questions));
+    }
+
+    private static Object stratum(String stratifyBy, Question question) {
+        if (STRATIFY_BY_TAG.equals(stratifyBy)) {
+            return question.getTag() == null ? "" : question.getTag();
+        }
+        if (STRATIFY_BY_DIFFICULTY.equals(stratifyBy)) {
+            return question.getDifficulty() == null ? "" : Math.round(question.getDifficulty());
+        }
+        return "";
+    }
+
+    // proportional quotas, rounded down, with the questions left over going to the largest remainders
+    private static int[] quotas(int[] stratumStart, int pool, int sampleSize) {
+        int strata = stratumStart.length - 1;
+        int[] quota = new int[strata];
+        long[] remainder = new long[strata];
+        int assigned = 0;
+        for (int s = 0; s < strata; s++) {
+            long share = (long) sampleSize * (stratumStart[s + 1] - stratumStart[s]);
+            quota[s] = (int) (share / pool);
+            remainder[s] = share % pool;
+            assigned += quota[s];
+        }
+        for (; assigned < sampleSize; assigned++) {
+            int largest = 0;
+            for (int s = 1; s < strata; s++) {
+                if (remainder[s] > remainder[largest]) {
+                    largest = s;
+                }
+            }
+            quota[largest]++;
+            remainder[largest] = -1;
+        }
+        return quota;
+    }
+
+    /**
+     * Open-addressing set of pool positions, sized for one sample.
+     */
+    private static final class PositionSet {
+
+        private final int[] slots;   // position + 1, 0 for empty
+        private final int mask;
+        private final int shift;
+
+        PositionSet(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(2, expected) * 2 - 1) << 1;
+            slots = new int[capacity];
+            mask = capacity - 1;
+            shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        }
+
+        boolean add(int position) {
+            int i = (position * 0x9E3779B9) >>> shift;   // Fibonacci hashing: the top bits of the product
+            while (slots[i] != 0) {
+                if (slots[i] == position + 1) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            slots[i] = position + 1;
+            return true;
+        }
+    }
+}
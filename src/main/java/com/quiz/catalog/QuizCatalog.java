@@ -0,0 +1,267 @@
+package com.quiz.catalog;
+
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, indexed view of every quiz loaded by {@link com.quiz.service.QuizLoader}.
+ * <p>
+ * The catalog is built once at load time. Quiz ids and the question ids of every quiz
+ * are indexed with primitive {@link IntIndex} tables, so the lookups on the hot request
+ * paths ({@code /quiz/start/{quizId}} and {@code /quiz/answer}) are constant time no matter
+ * how many quizzes or questions the catalog holds.
+ * <p>
+ * Quizzes are kept in the order they were loaded; each quiz is addressed internally by its
+ * "slot", its position in that order.
+ * <p>
+ * For grading, every quiz also has a precomputed answer key: one byte per question holding the
+ * index of the correct option (see {@link com.quiz.service.AnswerGrader}). A quiz that asks each
+ * attempt a sample of its questions also has a {@link QuestionSampler}, and an adaptive quiz an
+ * {@link ItemBank}.
+ * <p>
+ * Every catalog carries a version. When the catalog is reloaded a new instance replaces the old
+ * one as a whole; an existing instance never changes, so a reference held by a quiz attempt keeps
+ * seeing exactly the data the attempt started with. The version is a fingerprint of the content,
+ * so the same quizzes get the same version on every node and after every restart, and an attempt
+ * state that names a version names the same questions wherever it is read.
+ */
+public final class QuizCatalog {
+
+    private static final QuizCatalog EMPTY = new QuizCatalog(Collections.emptyList(), 0);
+
+    // versions are kept to 53 bits, which the quiz.catalog.version gauge (a double) shows exactly
+    private static final long VERSION_MASK = (1L << 53) - 1;
+
+    private final long version;
+    private final Instant createdAt;
+    private final List<Quiz> quizzes;          // read-only, load order
+    private final IntIndex quizIndex;          // quiz id -> slot
+    private final IntIndex[] questionIndexes;  // slot -> (question id -> position in quiz)
+    private final byte[][] answerKeys;         // slot -> (position in quiz -> index of the correct option)
+    private final QuestionSampler[] samplers;  // slot -> sampler, null if every attempt gets every question
+    private final ItemBank[] itemBanks;        // slot -> item bank, null if the quiz is not adaptive
+
+    private QuizCatalog(List<Quiz> source, long version) {
+        Quiz[] slots = source.toArray(new Quiz[0]);
+        int[] quizIds = new int[slots.length];
+        IntIndex[] perQuiz = new IntIndex[slots.length];
+        byte[][] keys = new byte[slots.length][];
+        QuestionSampler[] quizSamplers = new QuestionSampler[slots.length];
+        ItemBank[] banks = new ItemBank[slots.length];
+
+        for (int slot = 0; slot < slots.length; slot++) {
+            Quiz quiz = slots[slot];
+            quizIds[slot] = quiz.getId();
+            perQuiz[slot] = IntIndex.of(questionIds(quiz.getQuestions()));
+            keys[slot] = answerKeyOf(quiz.getQuestions());
+            quizSamplers[slot] = QuestionSampler.of(quiz);
+            banks[slot] = ItemBank.of(quiz);
+        }
+
+        this.version = version;
+        this.createdAt = Instant.now();
+        this.quizzes = List.of(slots);
+        this.quizIndex = IntIndex.of(quizIds);
+        this.questionIndexes = perQuiz;
+        this.answerKeys = keys;
+        this.samplers = quizSamplers;
+        this.itemBanks = banks;
+    }
+
+    /**
+     * Builds a catalog over the given quizzes, versioned by their content. The list is copied, so
+     * later changes to it are not visible through the catalog.
+     */
+    public static QuizCatalog of(List<Quiz> quizzes) {
+        return of(quizzes, versionOf(quizzes == null ? Collections.emptyList() : quizzes));
+    }
+
+    /**
+     * Builds a catalog with an explicit version, for tests and benchmarks that compare versions.
+     */
+    public static QuizCatalog of(List<Quiz> quizzes, long version) {
+        return new QuizCatalog(quizzes == null ? Collections.emptyList() : quizzes, version);
+    }
+
+    public static QuizCatalog empty() {
+        return EMPTY;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Returns every quiz in load order as a read-only list.
+     */
+    public List<Quiz> getQuizzes() {
+        return quizzes;
+    }
+
+    public int size() {
+        return quizzes.size();
+    }
+
+    /**
+     * Returns the slot of the quiz with the given id, or -1 if the catalog has no such quiz.
+     */
+    public int slotOf(int quizId) {
+        return quizIndex.indexOf(quizId);
+    }
+
+    /**
+     * Retrieves a quiz by its id in constant time.
+     *
+     * @return the quiz, or null if no quiz with that id exists
+     */
+    public Quiz getQuiz(int quizId) {
+        int slot = quizIndex.indexOf(quizId);
+        return slot < 0 ? null : quizzes.get(slot);
+    }
+
+    /**
+     * Returns the position of a question inside its quiz's question list,
+     * or -1 if either the quiz or the question does not exist.
+     */
+    public int indexOfQuestion(int quizId, int questionId) {
+        int slot = quizIndex.indexOf(quizId);
+        return slot < 0 ? -1 : questionIndexes[slot].indexOf(questionId);
+    }
+
+    public boolean containsQuestion(int quizId, int questionId) {
+        return indexOfQuestion(quizId, questionId) >= 0;
+    }
+
+    /**
+     * Retrieves a question of a quiz by its id in constant time.
+     *
+     * @return the question, or null if either the quiz or the question does not exist
+     */
+    public Question getQuestion(int quizId, int questionId) {
+        int slot = quizIndex.indexOf(quizId);
+        if (slot < 0) {
+            return null;
+        }
+        int position = questionIndexes[slot].indexOf(questionId);
+        return position < 0 ? null : quizzes.get(slot).getQuestions().get(position);
+    }
+
+    /**
+     * Returns the answer key of the quiz in the given slot: for each question, in quiz order, the
+     * index of its correct option, or -1 if it has none. The array is shared and must not be modified.
+     */
+    public byte[] answerKey(int slot) {
+        return answerKeys[slot];
+    }
+
+    /**
+     * Returns the answer key of a sample of the quiz in the given slot: for each sampled pool
+     * position, in sample order, the index of its correct option.
+     */
+    public byte[] answerKey(int slot, int[] sample) {
+        byte[] key = answerKeys[slot];
+        byte[] sampled = new byte[sample.length];
+        for (int i = 0; i < sample.length; i++) {
+            sampled[i] = key[sample[i]];
+        }
+        return sampled;
+    }
+
+    /**
+     * Returns the sampler of the quiz in the given slot, or null if every attempt of the quiz is
+     * asked every question.
+     */
+    public QuestionSampler sampler(int slot) {
+        return samplers[slot];
+    }
+
+    /**
+     * Returns the item bank of the quiz in the given slot, or null if the quiz is not adaptive.
+     */
+    public ItemBank itemBank(int slot) {
+        return itemBanks[slot];
+    }
+
+    /**
+     * Returns the version of a catalog of the given quizzes: a 64-bit FNV-1a hash of everything in
+     * them, in order, cut to 53 bits. It is never 0, the version of the empty catalog.
+     */
+    public static long versionOf(List<Quiz> quizzes) {
+        long hash = 0xCBF29CE484222325L;
+        for (Quiz quiz : quizzes) {
+            hash = hash(hash, quiz.getId());
+            hash = hash(hash, quiz.getTitle());
+            hash = hash(hash, quiz.getDescription());
+            hash = hash(hash, quiz.getSampleSize());
+            hash = hash(hash, quiz.getStratifyBy());
+            hash = hash(hash, quiz.isAdaptive() ? 1 : 0);
+            List<Question> questions = quiz.getQuestions() == null ? List.of() : quiz.getQuestions();
+            hash = hash(hash, questions.size());
+            for (Question question : questions) {
+                hash = hash(hash, question.getId());
+                hash = hash(hash, question.getQuestion());
+                List<String> options = question.getOptions() == null ? List.of() : question.getOptions();
+                hash = hash(hash, options.size());
+                for (String option : options) {
+                    hash = hash(hash, option);
+                }
+                hash = hash(hash, question.getCorrectAnswer());
+                hash = hash(hash, question.getTag());
+                hash = hash(hash, question.getDifficulty() == null ? Long.MIN_VALUE : Double.doubleToLongBits(question.getDifficulty()));
+                hash = hash(hash, question.getDiscrimination() == null ? Long.MIN_VALUE : Double.doubleToLongBits(question.getDiscrimination()));
+            }
+        }
+        long version = hash & VERSION_MASK;
+        return version == 0 ? 1 : version;
+    }
+
+    private static long hash(long hash, String text) {
+        if (text == null) {
+            return hash(hash, -1);
+        }
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001B3L;
+        }
+        // a separator, so that moving text from one field to the next changes the hash
+        return (hash ^ 0xFFFF) * 0x100000001B3L;
+    }
+
+    private static long hash(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static byte[] answerKeyOf(List<Question> questions) {
+        if (questions == null) {
+            return new byte[0];
+        }
+        byte[] key = new byte[questions.size()];
+        // the validator allows the correct text in one option only, so its first index is the answer
+        for (int i = 0; i < key.length; i++) {
+            Question question = questions.get(i);
+            key[i] = (byte) (question.getOptions() == null ? -1 : question.getOptions().indexOf(question.getCorrectAnswer()));
+        }
+        return key;
+    }
+
+    private static int[] questionIds(List<Question> questions) {
+        if (questions == null) {
+            return new int[0];
+        }
+        int[] ids = new int[questions.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = questions.get(i).getId();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,315 @@
+package com.quiz.catalog;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads JSON quiz catalogs with Jackson's token-level {@link JsonParser}.
+ * <p>
+ * The root {@code "quizzes"} array is walked token by token and one {@link Quiz} is built at a
+ * time, so no intermediate tree of the whole document is ever held in memory. Each quiz is
+ * checked with {@link CatalogValidator} as soon as it is complete; a bad record is skipped and
+ * reported in the {@link CatalogLoadResult} instead of failing the whole catalog. Only a broken
+ * JSON document (a syntax error the parser cannot resync from) fails the read.
+ * <p>
+ * Several files ("shards") can be read in parallel with {@link #readShards}; their quizzes are
+ * merged in shard order.
+ */
+public final class StreamingCatalogReader {
+
+    /**
+     * Receives progress while a catalog is read. With {@link #readShards} it is called from
+     * several threads at once, one source per thread.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        ProgressListener NONE = (source, bytesRead, totalBytes, accepted, rejected) -> {
+        };
+
+        /**
+         * @param totalBytes size of the source, or -1 if it is not known
+         */
+        void onProgress(String source, long bytesRead, long totalBytes, int accepted, int rejected);
+    }
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final int PROGRESS_INTERVAL = 1000;   // records between two progress callbacks
+
+    private StreamingCatalogReader() {
+    }
+
+    /**
+     * Reads a catalog document with a root "quizzes" array.
+     */
+    public static CatalogLoadResult read(InputStream in) throws IOException {
+        return read(in, "catalog", -1, ProgressListener.NONE);
+    }
+
+    /**
+     * Reads a catalog document with a root "quizzes" array, reporting progress as it goes.
+     *
+     * @param source     name of the source, passed through to the listener
+     * @param totalBytes size of the source if known, otherwise -1
+     */
+    public static CatalogLoadResult read(InputStream in, String source, long totalBytes,
+                                         ProgressListener listener) throws IOException {
+        CatalogLoadResult result = new CatalogLoadResult();
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Catalog must be a JSON object with a \"quizzes\" array");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"quizzes".equals(field)) {
+                    parser.skipChildren();
+                } else if (value == JsonToken.START_ARRAY) {
+                    readQuizArray(parser, source, totalBytes, listener, result);
+                } else if (value != JsonToken.VALUE_NULL) {
+                    throw new JsonParseException(parser, "\"quizzes\" must be an array");
+                }
+            }
+            result.addBytesRead(bytesRead(parser));
+        }
+        listener.onProgress(source, result.getBytesRead(), totalBytes, result.getAcceptedCount(), result.getRejectedCount());
+        return result;
+    }
+
+    /**
+     * Reads a single catalog file.
+     */
+    public static CatalogLoadResult readFile(Path file, ProgressListener listener) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in, file.getFileName().toString(), Files.size(file), listener);
+        }
+    }
+
+    /**
+     * Reads several catalog files on up to {@code parallelism} threads and merges them in the
+     * given order. If two shards contain the same quiz id, the earlier shard wins and the later
+     * record is reported as rejected.
+     */
+    public static CatalogLoadResult readShards(List<Path> shards, int parallelism,
+                                               ProgressListener listener) throws IOException {
+        CatalogLoadResult merged = new CatalogLoadResult();
+        int threads = Math.min(parallelism, shards.size());
+        if (threads <= 1) {
+            for (Path shard : shards) {
+                merged.merge(readFile(shard, listener));
+            }
+            return merged;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-load-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<CatalogLoadResult>> pending = new ArrayList<>(shards.size());
+            for (Path shard : shards) {
+                pending.add(executor.submit(() -> readFile(shard, listener)));
+            }
+            for (Future<CatalogLoadResult> shard : pending) {
+                merged.merge(await(shard));
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static CatalogLoadResult await(Future<CatalogLoadResult> shard) throws IOException {
+        try {
+            return shard.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading catalog shards");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static void readQuizArray(JsonParser parser, String source, long totalBytes,
+                                      ProgressListener listener, CatalogLoadResult result) throws IOException {
+        JsonStreamContext array = parser.getParsingContext();
+        int record = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            try {
+                Quiz quiz = readQuiz(parser);
+                List<String> problems = CatalogValidator.validate(quiz);
+                if (problems.isEmpty()) {
+                    result.accept(quiz);
+                } else {
+                    result.reject(source + " record " + record + ": " + String.join("; ", problems));
+                }
+            } catch (InvalidRecordException e) {
+                result.reject(source + " record " + record + ": " + e.getMessage());
+                skipToEndOfRecord(parser, array);
+            }
+
+            if (++record % PROGRESS_INTERVAL == 0) {
+                listener.onProgress(source, bytesRead(parser), totalBytes, result.getAcceptedCount(), result.getRejectedCount());
+            }
+        }
+    }
+
+    private static Quiz readQuiz(JsonParser parser) throws IOException, InvalidRecordException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new InvalidRecordException("quiz is not a JSON object");
+        }
+        Quiz quiz = new Quiz();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> quiz.setId(intValue(parser, field));
+                case "title" -> quiz.setTitle(textValue(parser, field));
+                case "description" -> quiz.setDescription(textValue(parser, field));
+                case "questions" -> quiz.setQuestions(readQuestions(parser));
+                case "sampleSize" -> quiz.setSampleSize(intValue(parser, field));
+                case "stratifyBy" -> quiz.setStratifyBy(textValue(parser, field));
+                case "adaptive" -> quiz.setAdaptive(booleanValue(parser, field));
+                default -> parser.skipChildren();
+            }
+        }
+        return quiz;
+    }
+
+    private static List<Question> readQuestions(JsonParser parser) throws IOException, InvalidRecordException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new InvalidRecordException("\"questions\" is not an array");
+        }
+        List<Question> questions = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            questions.add(readQuestion(parser));
+        }
+        return questions;
+    }
+
+    private static Question readQuestion(JsonParser parser) throws IOException, InvalidRecordException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new InvalidRecordException("question is not a JSON object");
+        }
+        Question question = new Question();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> question.setId(intValue(parser, field));
+                case "question" -> question.setQuestion(textValue(parser, field));
+                case "options" -> question.setOptions(readOptions(parser));
+                case "correctAnswer" -> question.setCorrectAnswer(textValue(parser, field));
+                case "tag" -> question.setTag(textValue(parser, field));
+                case "difficulty" -> question.setDifficulty(doubleValue(parser, field));
+                case "discrimination" -> question.setDiscrimination(doubleValue(parser, field));
+                default -> parser.skipChildren();
+            }
+        }
+        return question;
+    }
+
+    private static List<String> readOptions(JsonParser parser) throws IOException, InvalidRecordException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new InvalidRecordException("\"options\" is not an array");
+        }
+        List<String> options = new ArrayList<>(4);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            options.add(textValue(parser, "options"));
+        }
+        return options;
+    }
+
+    private static int intValue(JsonParser parser, String field) throws IOException, InvalidRecordException {
+        if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() != JsonParser.NumberType.INT) {
+            throw new InvalidRecordException("\"" + field + "\" is not an int");
+        }
+        return parser.getIntValue();
+    }
+
+    private static boolean booleanValue(JsonParser parser, String field) throws IOException, InvalidRecordException {
+        return switch (parser.currentToken()) {
+            case VALUE_TRUE -> true;
+            case VALUE_FALSE, VALUE_NULL -> false;
+            default -> throw new InvalidRecordException("\"" + field + "\" is not a boolean");
+        };
+    }
+
+    private static Double doubleValue(JsonParser parser, String field) throws IOException, InvalidRecordException {
+        return switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_NULL -> null;
+            default -> throw new InvalidRecordException("\"" + field + "\" is not a number");
+        };
+    }
+
+    private static String textValue(JsonParser parser, String field) throws IOException, InvalidRecordException {
+        return switch (parser.currentToken()) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NULL -> null;
+            default -> throw new InvalidRecordException("\"" + field + "\" is not a string");
+        };
+    }
+
+    /**
+     * Advances the parser past the rest of a rejected record, back to the quizzes array.
+     */
+    private static void skipToEndOfRecord(JsonParser parser, JsonStreamContext array) throws IOException {
+        while (parser.getParsingContext() != array) {
+            if (parser.nextToken() == null) {
+                throw new JsonParseException(parser, "Unexpected end of catalog");
+            }
+        }
+    }
+
+    private static long bytesRead(JsonParser parser) {
+        return Math.max(0, parser.currentLocation().getByteOffset());
+    }
+
+    /**
+     * A single record that cannot be turned into a quiz. Thrown without a stack trace, since it
+     * never leaves this class and can occur once per record.
+     */
+    private static final class InvalidRecordException extends Exception {
+
+        InvalidRecordException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
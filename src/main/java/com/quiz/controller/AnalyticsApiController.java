@@ -0,0 +1,87 @@
+package com.quiz.controller;
+
+import com.quiz.analytics.Leaderboard;
+import com.quiz.analytics.Leaderboards;
+import com.quiz.analytics.QuizAnalytics;
+import com.quiz.analytics.QuizStatsSnapshot;
+import com.quiz.exception.QuizException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON API for the live quiz analytics and leaderboards. Every call reads a fresh snapshot of the
+ * counters; reading never holds up the submits being recorded.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsApiController {
+
+    @Autowired
+    private QuizAnalytics analytics;
+
+    @Autowired
+    private Leaderboards leaderboards;
+
+    /**
+     * The best results of a quiz, best first.
+     */
+    public record LeaderboardView(int quizId, long results, List<EntryView> top) {
+    }
+
+    public record EntryView(int rank, String attemptId, int score, long durationMillis, long submittedAt) {
+    }
+
+    /**
+     * Returns the statistics of every quiz in the catalog.
+     */
+    @GetMapping("/quizzes")
+    public List<QuizStatsSnapshot> quizzes() {
+        return analytics.snapshots();
+    }
+
+    /**
+     * Returns the statistics of one quiz, with its per-question difficulty and option selections.
+     */
+    @GetMapping("/quizzes/{quizId}")
+    public QuizStatsSnapshot quiz(@PathVariable int quizId) {
+        QuizStatsSnapshot snapshot = analytics.snapshot(quizId);
+        if (snapshot == null) {
+            throw QuizException.quizNotFound(quizId);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns up to {@code limit} of the best results of a quiz.
+     */
+    @GetMapping("/quizzes/{quizId}/leaderboard")
+    public LeaderboardView leaderboard(@PathVariable int quizId, @RequestParam(defaultValue = "10") int limit) {
+        Leaderboard board = leaderboard(quizId);
+        List<Leaderboard.Entry> top = board.top(limit);
+        List<EntryView> entries = new ArrayList<>(top.size());
+        for (Leaderboard.Entry entry : top) {
+            entries.add(new EntryView(entries.size() + 1, Long.toHexString(entry.attemptId()), entry.score(),
+                    entry.durationMillis(), entry.submittedAt()));
+        }
+        return new LeaderboardView(quizId, board.results(), entries);
+    }
+
+    /**
+     * Returns the rank and percentile of a score among all results of a quiz.
+     */
+    @GetMapping("/quizzes/{quizId}/standing")
+    public Leaderboard.Standing standing(@PathVariable int quizId, @RequestParam int score) {
+        return leaderboard(quizId).standing(score);
+    }
+
+    private Leaderboard leaderboard(int quizId) {
+        Leaderboard board = leaderboards.get(quizId);
+        if (board == null) {
+            throw QuizException.quizNotFound(quizId);
+        }
+        return board;
+    }
+}
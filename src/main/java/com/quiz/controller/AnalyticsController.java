@@ -0,0 +1,46 @@
+package com.quiz.controller;
+
+import com.quiz.analytics.QuizAnalytics;
+import com.quiz.analytics.QuizStatsSnapshot;
+import com.quiz.exception.QuizException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+/**
+ * Controller for the analytics dashboard: attempts, pass rate and score distribution of every quiz,
+ * and the difficulty and option selections of each question of one quiz.
+ * <p>
+ * The page shows a snapshot taken when it is rendered; reload it for fresh numbers.
+ */
+@Controller
+public class AnalyticsController {
+
+    @Autowired
+    private QuizAnalytics analytics;
+
+    /**
+     * Displays the statistics of every quiz.
+     */
+    @GetMapping("/analytics")
+    public String dashboard(Model model) {
+        model.addAttribute("quizzes", analytics.snapshots());
+        return "analytics";
+    }
+
+    /**
+     * Displays the statistics of every quiz, with the per-question statistics of the given quiz.
+     */
+    @GetMapping("/analytics/{quizId}")
+    public String quiz(@PathVariable int quizId, Model model) {
+        QuizStatsSnapshot snapshot = analytics.snapshot(quizId);
+        if (snapshot == null) {
+            throw QuizException.quizNotFound(quizId);
+        }
+        model.addAttribute("quizzes", analytics.snapshots());
+        model.addAttribute("selected", snapshot);
+        return "analytics";
+    }
+}
@@ -1,47 +1,101 @@
 package com.quiz.controller;
 
+import com.quiz.catalog.CatalogSearchIndex;
+import com.quiz.render.PageCache;
+import com.quiz.render.PageCache.QuizSummary;
 import com.quiz.service.QuizLoader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.util.List;
 
 /**
  * Controller class responsible for handling home page requests and displaying available quizzes.
  * <p>
  * This controller serves as the entry point to the quiz application, presenting users
- * with a list of all available quizzes that they can select to begin taking.
+ * with a list of all available quizzes that they can select to begin taking, and a search over
+ * them by text and tag.
  */
 @Controller
 public class HomeController {
 
+    // Home pages rendered once per catalog version
+    @Autowired
+    private PageCache pageCache;
 
-    // Service component responsible for loading quiz data from the data source
+    // owns the search index of the current catalog
     @Autowired
     private QuizLoader quizLoader;
 
+    // quizzes per page of search results
+    @Value("${quiz.search.page-size:20}")
+    private int searchPageSize = 20;
+
     /**
      * Handles HTTP GET requests to the application root and displays the home page.
      *
-     * <p>This method serves as the landing page for the quiz application. It retrieves
-     * all available quizzes from the data source using the {@link QuizLoader} service
-     * and makes them available to the view through the Spring MVC {@link Model}.</p>
+     * <p>This method serves as the landing page for the quiz application. The page lists the
+     * quizzes of the {@link QuizLoader} catalog one page at a time and only changes when the
+     * catalog does, so each page is rendered from {@code home.html} once per catalog version by
+     * the {@link PageCache} and the rendered bytes are served to every visitor.</p>
      *
      * <p><strong>Request Processing Flow:</strong></p>
      * <ol>
-     *   <li>User navigates to the root URL ("/") of the application</li>
+     *   <li>User navigates to the root URL ("/") of the application, or follows a "Next"
+     *       link to {@code /?after=<id of the last quiz shown>}</li>
      *   <li>Spring MVC routes the request to this method</li>
-     *   <li>Method calls QuizLoader to retrieve all available quizzes</li>
-     *   <li>Quiz data is added to the Model with attribute name "quizzes"</li>
-     *   <li>Method returns view name "home" for rendering</li>
-     *   <li>ViewResolver resolves "home" to the appropriate template (e.g., home.html)</li>
-     *   <li>View renders with the quiz data available</li>
+     *   <li>If the page is cached, it is returned as it was encoded, gzip-compressed if the
+     *       request accepts it, with its ETag and Last-Modified; {@code Cache-Control: no-cache}
+     *       makes browsers revalidate it on every visit</li>
+     *   <li>Otherwise the PageCache renders the "home" template with the quiz summaries of the
+     *       page, streaming it to the response, and returns null as the response is complete</li>
+     *   <li>If the request's If-None-Match or If-Modified-Since still matches, the response is
+     *       304 Not Modified without a body</li>
      * </ol>
+     *
+     * @param after id of the last quiz of the previous page; the first page when absent or unknown
      */
     @GetMapping("/")
-    public String home(Model model) {
-        model.addAttribute("quizzes", quizLoader.getAllQuizzes());
+    public ResponseEntity<byte[]> home(@RequestParam(required = false) Integer after, ServletWebRequest webRequest,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+            throws IOException {
+        return pageCache.home(after, webRequest, acceptEncoding);
+    }
 
-        return "home";
+    /**
+     * Searches the quizzes by the words of their title, description, questions and tags, and
+     * shows one page of the results.
+     *
+     * <p>The search runs on the {@link CatalogSearchIndex} of the current catalog, so it costs a few
+     * microseconds however large the catalog is. Unlike the home page, the results page depends on
+     * the query and is rendered for every request.</p>
+     *
+     * @param q    words to search for; the last one also matches words it begins
+     * @param tags tags every result must have ({@code tag} may be repeated)
+     * @param page page of results, from 1
+     */
+    @GetMapping("/search")
+    public String search(@RequestParam(defaultValue = "") String q,
+                         @RequestParam(name = "tag", required = false) List<String> tags,
+                         @RequestParam(defaultValue = "1") int page,
+                         Model model) {
+        CatalogSearchIndex index = quizLoader.getSearchIndex();
+        List<String> selected = tags == null ? List.of() : tags;
+        CatalogSearchIndex.Page results = index.search(q, selected, page, searchPageSize);
+        model.addAttribute("query", q);
+        model.addAttribute("selectedTags", selected);
+        model.addAttribute("tags", index.tags());
+        model.addAttribute("results", results);
+        model.addAttribute("quizzes", results.quizzes().stream().map(QuizSummary::of).toList());
+        return "search";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,210 @@
+package com.quiz.controller;
+
+import com.quiz.exception.QuizException;
+import com.quiz.live.LiveSession;
+import com.quiz.live.LiveSession.Frame;
+import com.quiz.live.LiveSessions;
+import com.quiz.live.LiveSubscriber;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * JSON API for hosted live sessions, where a presenter moves every participant through the
+ * questions of a quiz together.
+ * <p>
+ * Participants follow the session on {@code GET /api/live/sessions/{id}/events}, a server-sent
+ * event stream with one {@code state} event per change: the open question, and once revealed, its
+ * answer and the number of answers per option. Each event is serialized once per change and the
+ * same bytes are written to every stream (see {@link LiveSession}); a slow stream skips to the
+ * latest state instead of buffering the ones it missed. Browsers reconnect an {@code EventSource}
+ * on their own, and a new stream starts with the current state.
+ * <p>
+ * The presenter's calls carry the presenter key returned when the session is created, in the
+ * {@code X-Presenter-Key} header. Errors are returned as JSON by {@code ApiExceptionHandler}.
+ */
+@RestController
+@RequestMapping("/api/live/sessions")
+public class LiveApiController {
+
+    private static final String PRESENTER_KEY = "X-Presenter-Key";
+
+    @Autowired
+    private LiveSessions liveSessions;
+
+    // how long an event stream stays open; clients reconnect after it
+    @Value("${quiz.live.stream-timeout:30m}")
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Starts a live session of a quiz and returns its presenter key.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public SessionView create(@RequestBody CreateRequest request) {
+        LiveSession session = liveSessions.create(request.quizId());
+        return new SessionView(Long.toHexString(session.id()), Long.toHexString(session.presenterKey()),
+                session.quiz().getId(), session.quiz().getTitle(), session.quiz().getTotalQuestions());
+    }
+
+    /**
+     * Joins a session as a participant.
+     */
+    @PostMapping("/{sessionId}/participants")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ParticipantView join(@PathVariable String sessionId) {
+        return new ParticipantView(Long.toHexString(session(sessionId).join()));
+    }
+
+    /**
+     * Streams the state of the session as server-sent events, starting with the current state,
+     * until the session ends.
+     */
+    @GetMapping("/{sessionId}/events")
+    public ResponseEntity<ResponseBodyEmitter> events(@PathVariable String sessionId) {
+        LiveSession session = session(sessionId);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(streamTimeout.toMillis());
+        LiveSubscriber subscriber = session.subscribe(new LiveSubscriber.Sink() {
+            @Override
+            public void send(byte[] frame) throws IOException {
+                emitter.send(frame, MediaType.TEXT_EVENT_STREAM);
+            }
+
+            @Override
+            public void complete() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .cacheControl(CacheControl.noStore())
+                .body(emitter);
+    }
+
+    /**
+     * Answers the open question. The answer is counted once per participant and question, and only
+     * while the question is open; {@code accepted} says whether it was.
+     */
+    @PostMapping("/{sessionId}/answers")
+    public AnswerView answer(@PathVariable String sessionId, @RequestBody AnswerRequest request) {
+        LiveSession session = session(sessionId);
+        String answer = request.answer();
+        if (answer == null || answer.length() != 1) {
+            throw QuizException.EMPTY_ANSWER;
+        }
+        int option = Character.toUpperCase(answer.charAt(0)) - 'A';
+        return new AnswerView(session.answer(parseId(request.participantId(), QuizException.PARTICIPANT_NOT_FOUND),
+                request.questionIndex(), option));
+    }
+
+    /**
+     * Returns a participant's number of correct answers so far.
+     */
+    @GetMapping("/{sessionId}/participants/{participantId}")
+    public ScoreView score(@PathVariable String sessionId, @PathVariable String participantId) {
+        return new ScoreView(session(sessionId).score(parseId(participantId, QuizException.PARTICIPANT_NOT_FOUND)));
+    }
+
+    /**
+     * Opens the next question, or ends the session after the last one.
+     */
+    @PostMapping("/{sessionId}/next")
+    public ControlView next(@PathVariable String sessionId, @RequestHeader(value = PRESENTER_KEY, required = false) String key) {
+        LiveSession session = presenter(sessionId, key);
+        return view(session, liveSessions.next(session));
+    }
+
+    /**
+     * Closes the open question and sends its answer and counts to every participant.
+     */
+    @PostMapping("/{sessionId}/reveal")
+    public ControlView reveal(@PathVariable String sessionId, @RequestHeader(value = PRESENTER_KEY, required = false) String key) {
+        LiveSession session = presenter(sessionId, key);
+        return view(session, session.reveal());
+    }
+
+    /**
+     * Ends the session.
+     */
+    @PostMapping("/{sessionId}/end")
+    public ControlView end(@PathVariable String sessionId, @RequestHeader(value = PRESENTER_KEY, required = false) String key) {
+        LiveSession session = presenter(sessionId, key);
+        return view(session, liveSessions.end(session));
+    }
+
+    /**
+     * Returns the answers so far to the question shown, for the presenter.
+     */
+    @GetMapping("/{sessionId}/tally")
+    public LiveSession.Tally tally(@PathVariable String sessionId, @RequestHeader(value = PRESENTER_KEY, required = false) String key) {
+        return presenter(sessionId, key).tally();
+    }
+
+    private LiveSession session(String sessionId) {
+        return liveSessions.get(parseId(sessionId, QuizException.LIVE_SESSION_NOT_FOUND));
+    }
+
+    private LiveSession presenter(String sessionId, String key) {
+        LiveSession session = session(sessionId);
+        session.checkPresenter(key == null ? 0 : parseId(key, QuizException.NOT_THE_PRESENTER));
+        return session;
+    }
+
+    private static ControlView view(LiveSession session, Frame frame) {
+        return new ControlView(frame.seq(), frame.phase(), frame.question(), session.participantCount(),
+                session.subscriberCount());
+    }
+
+    /**
+     * Session, participant and presenter ids are sent as hex; one that does not parse names nothing.
+     */
+    private static long parseId(String id, QuizException unknown) {
+        try {
+            return Long.parseLong(id, 16);
+        } catch (NumberFormatException e) {
+            throw unknown;
+        }
+    }
+
+    public record CreateRequest(int quizId) {
+    }
+
+    /**
+     * A new session. Only the presenter should get {@code presenterKey}.
+     */
+    public record SessionView(String sessionId, String presenterKey, int quizId, String title, int questionCount) {
+    }
+
+    public record ParticipantView(String participantId) {
+    }
+
+    /**
+     * An answer: the position of the question answered, as in the state events, and the letter of
+     * the chosen option.
+     */
+    public record AnswerRequest(String participantId, int questionIndex, String answer) {
+    }
+
+    public record AnswerView(boolean accepted) {
+    }
+
+    public record ScoreView(int score) {
+    }
+
+    /**
+     * The state after a presenter action, with the number of participants and open event streams.
+     */
+    public record ControlView(long seq, LiveSession.Phase phase, int questionIndex, int participants, int subscribers) {
+    }
+}
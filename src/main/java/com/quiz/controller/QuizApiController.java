@@ -0,0 +1,264 @@
+package com.quiz.controller;
+
+import com.quiz.catalog.CatalogSearchIndex;
+import com.quiz.exception.QuizException;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
+import com.quiz.model.QuizResult;
+import com.quiz.render.PageCache;
+import com.quiz.render.PageCache.QuizSummary;
+import com.quiz.render.RenderedPage;
+import com.quiz.service.AnswerGrader;
+import com.quiz.service.AttemptService;
+import com.quiz.service.AttemptService.Attempt;
+import com.quiz.service.QuizLoader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * JSON API for the quiz flow, for single-page and mobile clients.
+ * <p>
+ * It runs the same attempts as {@link QuizController} but without the session: the client keeps the
+ * attempt id returned by {@code POST /api/quiz/attempts} and sends it in the path. Every call that
+ * changes the attempt answers with the question to show next, so taking a quiz of N questions
+ * takes N + 1 requests (start, one per answer with the last answer sent along with submit) instead
+ * of a POST, a redirect and a page render per answer. Answers can also be sent several at a time.
+ * <p>
+ * Questions are sent without their correct answer; the result of the submit has them. In an
+ * adaptive quiz, each answer decides the question that follows it, which the response carries;
+ * {@code totalQuestions} is the length of the test, of which only the questions so far can be shown.
+ * Errors are returned as JSON by {@code ApiExceptionHandler}.
+ * <p>
+ * The catalog listing and quiz previews are the same for every client until the catalog changes,
+ * so they come pre-encoded (and pre-compressed) from the {@link PageCache}. Searches run on the
+ * catalog's {@link CatalogSearchIndex} and are answered per request.
+ */
+@RestController
+@RequestMapping("/api/quiz")
+public class QuizApiController {
+
+    @Autowired
+    private AttemptService attemptService;
+
+    @Autowired
+    private PageCache pageCache;
+
+    @Autowired
+    private QuizLoader quizLoader;
+
+    /**
+     * Returns the quizzes of the catalog: id, title, description and question count.
+     */
+    @GetMapping("/catalog")
+    public ResponseEntity<byte[]> catalog(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return pageCache.catalogJson().toResponse(acceptEncoding);
+    }
+
+    /**
+     * Returns a quiz with its questions and options, without the correct answers.
+     */
+    @GetMapping("/catalog/{quizId}")
+    public ResponseEntity<byte[]> quiz(@PathVariable int quizId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        RenderedPage page = pageCache.quizJson(quizId);
+        if (page == null) {
+            throw QuizException.quizNotFound(quizId);
+        }
+        return page.toResponse(acceptEncoding);
+    }
+
+    /**
+     * Returns a page of the quizzes matching the words of {@code q} (the last word also matches words
+     * it begins) and every {@code tag}, quizzes with the words in their title first.
+     */
+    @GetMapping("/search")
+    public SearchView search(@RequestParam(defaultValue = "") String q,
+                             @RequestParam(name = "tag", required = false) List<String> tags,
+                             @RequestParam(defaultValue = "1") int page,
+                             @RequestParam(defaultValue = "20") int size) {
+        CatalogSearchIndex.Page results = quizLoader.getSearchIndex()
+                .search(q, tags == null ? List.of() : tags, page, size);
+        return new SearchView(q, results.total(), results.page(), results.pageSize(), results.pages(),
+                results.quizzes().stream().map(QuizSummary::of).toList());
+    }
+
+    /**
+     * Returns every tag of the catalog with its number of quizzes, for the search filters.
+     */
+    @GetMapping("/tags")
+    public List<CatalogSearchIndex.TagCount> tags() {
+        return quizLoader.getSearchIndex().tags();
+    }
+
+    /**
+     * Starts an attempt and returns it with its first question.
+     */
+    @PostMapping("/attempts")
+    @ResponseStatus(HttpStatus.CREATED)
+    public AttemptView start(@RequestBody StartRequest request) {
+        return view(attemptService.start(request.quizId()));
+    }
+
+    /**
+     * Returns the attempt with the question it is on.
+     */
+    @GetMapping("/attempts/{attemptId}")
+    public AttemptView get(@PathVariable String attemptId) {
+        return view(attemptService.load(parseId(attemptId)));
+    }
+
+    /**
+     * Records a batch of answers and moves the attempt to {@code index}, or when no index is given,
+     * to the question after the last one answered. The batch is applied only if every answer in it
+     * is valid. Batches sent at the same time for one attempt are all kept (see {@link AttemptService#update}).
+     */
+    @PostMapping("/attempts/{attemptId}/answers")
+    public AttemptView answer(@PathVariable String attemptId, @RequestBody AnswerBatch batch) {
+        return view(attemptService.update(parseId(attemptId), attempt -> {
+            int last = record(attempt, batch);
+            if (batch.index() != null) {
+                attemptService.moveTo(attempt, batch.index());
+            } else if (last >= 0) {
+                attemptService.moveTo(attempt, Math.min(last + 1, attempt.shuffle().size() - 1));
+            }
+        }));
+    }
+
+    /**
+     * Moves the attempt to the question at the given display position, to go back or skip ahead.
+     */
+    @PutMapping("/attempts/{attemptId}/position")
+    public AttemptView move(@PathVariable String attemptId, @RequestBody MoveRequest request) {
+        return view(attemptService.update(parseId(attemptId), attempt -> attemptService.moveTo(attempt, request.index())));
+    }
+
+    /**
+     * Records the optional last answers, grades the attempt and ends it.
+     */
+    @PostMapping("/attempts/{attemptId}/submit")
+    public ResultView submit(@PathVariable String attemptId, @RequestBody(required = false) AnswerBatch batch) {
+        Attempt attempt = attemptService.load(parseId(attemptId));
+        if (batch != null) {
+            record(attempt, batch);
+        }
+        QuizResult result = attemptService.submit(attempt);
+
+        List<QuestionResult> questions = new ArrayList<>(result.getTotalQuestions());
+        for (Question question : result.getQuiz().getQuestions()) {
+            String answer = result.getUserAnswers().get(question.getId());
+            questions.add(new QuestionResult(question.getId(), answer, question.getCorrectAnswer(),
+                    Objects.equals(question.getCorrectAnswer(), answer)));
+        }
+        return new ResultView(attempt.quiz().getId(), result.getScore(), result.getTotalQuestions(),
+                result.getPercentage(), result.isPassed(), result.getMessage(),
+                Long.toHexString(attempt.shuffle().getSeed()), questions, attempt.ability());
+    }
+
+    /**
+     * Abandons the attempt.
+     */
+    @DeleteMapping("/attempts/{attemptId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void discard(@PathVariable String attemptId) {
+        attemptService.discard(parseId(attemptId));
+    }
+
+    /**
+     * Records every answer of the batch and returns the highest display position answered, or -1.
+     */
+    private int record(Attempt attempt, AnswerBatch batch) {
+        List<AnswerRequest> answers = batch.answers() == null ? List.of() : batch.answers();
+        if (answers.size() > attempt.questionCount()) {
+            throw new QuizException(
+                "Too Many Answers",
+                "The batch has more answers than the quiz has questions.",
+                "Answers: " + answers.size() + ", questions: " + attempt.questionCount()
+            );
+        }
+        int last = -1;
+        for (AnswerRequest answer : answers) {
+            last = Math.max(last, attemptService.recordAnswer(attempt, answer.questionId(), answer.answer()));
+        }
+        return last;
+    }
+
+    private static AttemptView view(Attempt attempt) {
+        Quiz quiz = attempt.quiz();
+        QuizPermutation shuffle = attempt.shuffle();
+        byte[] answers = attempt.state().getAnswers();
+        int index = Math.min(attempt.state().getCurrentIndex(), shuffle.size() - 1);
+        Question question = shuffle.question(quiz, index);
+        return new AttemptView(Long.toHexString(attempt.id()), quiz.getId(), quiz.getTitle(), attempt.questionCount(),
+                index, AnswerGrader.answeredCount(answers), shuffle.letters(quiz, answers),
+                new QuestionView(question.getId(), question.getQuestion(), question.getOptions()));
+    }
+
+    /**
+     * Attempt ids are sent as hex; an id that does not parse cannot name an attempt.
+     */
+    private static long parseId(String attemptId) {
+        try {
+            return Long.parseLong(attemptId, 16);
+        } catch (NumberFormatException e) {
+            throw QuizException.SESSION_EXPIRED;
+        }
+    }
+
+    /**
+     * One page of search results; {@code total} counts the matching quizzes over all pages.
+     */
+    public record SearchView(String query, int total, int page, int size, int pages, List<QuizSummary> quizzes) {
+    }
+
+    public record StartRequest(int quizId) {
+    }
+
+    /**
+     * An answer: the question id and the letter of the chosen option, as shown in the attempt.
+     */
+    public record AnswerRequest(int questionId, String answer) {
+    }
+
+    /**
+     * Answers to record, and optionally the position to move to afterwards.
+     */
+    public record AnswerBatch(List<AnswerRequest> answers, Integer index) {
+    }
+
+    public record MoveRequest(int index) {
+    }
+
+    /**
+     * A question as shown in the attempt, without its correct answer.
+     */
+    public record QuestionView(int id, String question, List<String> options) {
+    }
+
+    /**
+     * An attempt in progress: its answers so far (letters by question id) and the question it is on.
+     */
+    public record AttemptView(String attemptId, int quizId, String title, int totalQuestions, int currentIndex,
+                              int answered, Map<Integer, String> answers, QuestionView question) {
+    }
+
+    public record QuestionResult(int questionId, String answer, String correctAnswer, boolean correct) {
+    }
+
+    /**
+     * A graded attempt. The questions are in the order the attempt showed them. {@code ability} is
+     * the ability estimate of an adaptive attempt, null for other quizzes.
+     */
+    public record ResultView(int quizId, int score, int totalQuestions, double percentage, boolean passed,
+                             String message, String attemptSeed, List<QuestionResult> questions, Double ability) {
+    }
+}
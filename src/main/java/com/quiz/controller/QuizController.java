@@ -1,19 +1,24 @@
 package com.quiz.controller;
 
+import com.quiz.analytics.Leaderboard;
+import com.quiz.analytics.Leaderboards;
 import com.quiz.exception.QuizException;
+import com.quiz.model.AttemptState;
 import com.quiz.model.Question;
 import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
 import com.quiz.model.QuizResult;
-import com.quiz.service.QuizLoader;
-import com.quiz.service.QuizService;
+import com.quiz.render.PageCache;
+import com.quiz.render.QuizFragments;
+import com.quiz.service.AttemptService;
+import com.quiz.service.AttemptService.Attempt;
+import com.quiz.store.AttemptStateStore;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Controller class responsible for managing quiz-related HTTP request and user interactions
@@ -30,19 +35,20 @@ import java.util.Map;
 public class QuizController {
 
     /**
-     * Service component for loading quiz data from the data source.
+     * Service running the attempts (start, answer, submit) against the attempt state store;
+     * the session only keeps the attempt id.
      * Injected via Spring's dependency injection.
      */
     @Autowired
-    private QuizLoader quizLoader;
+    private AttemptService attemptService;
 
-    /**
-     * Service component for quiz business logic operations such as
-     * shuffling questions and evaluating quiz results.
-     * Injected via Spring's dependency injection.
-     */
+    // leaderboards, for the rank shown with the result
+    @Autowired
+    private Leaderboards leaderboards;
+
+    // escaped question and option texts, cached per catalog version
     @Autowired
-    private QuizService quizService;
+    private PageCache pageCache;
 
 
     /**
@@ -52,46 +58,23 @@ public class QuizController {
      * Validates quiz existence
      * Shuffles questions for randomization
      * Initializes session attributes for quiz state management
+     * <p>
+     * The attempt itself (quiz id, shuffle seed, current index and answer sheet) is kept in the
+     * {@link AttemptStateStore}; the session only keeps its id. The shuffle order is rebuilt from the
+     * seed and the questions are read from the shared catalog quiz on every request.
      * Redirects to the first question
      */
     @GetMapping("/start/{quizId}")
     public String startQuiz(@PathVariable int quizId, HttpSession session) {
-        // Validate quiz ID is positive
-        if (quizId <= 0) {
-            throw new QuizException(
-                "Invalid Quiz ID",
-                "The quiz ID must be a positive number.",
-                "Received quiz ID: " + quizId
-            );
-        }
-
-        Quiz quiz = quizLoader.getQuizById(quizId);  //retrieves us the quiz by the id
-        if (quiz == null) {    // if quiz does not exist, throw exception
-            throw new QuizException(
-                "Quiz Not Found",
-                "The requested quiz could not be found.",
-                "Quiz ID " + quizId + " does not exist in the system."
-            );
-        }
+        // Validates the quiz, shuffles its questions and stores the new attempt
+        Attempt attempt = attemptService.start(quizId);
 
-        // Validate quiz has questions
-        if (quiz.getQuestions() == null || quiz.getQuestions().isEmpty()) {
-            throw new QuizException(
-                "Invalid Quiz",
-                "This quiz has no questions.",
-                "Quiz ID: " + quizId
-            );
+        // An attempt already running in this session is replaced by the new one
+        Long previousAttempt = (Long) session.getAttribute("attemptId");
+        if (previousAttempt != null) {
+            attemptService.discard(previousAttempt);
         }
-
-        Quiz shuffledQuiz = quizService.shuffleQuiz(quiz);   // we shuffle the question to any random order
-
-        // Initialize session state for the new quiz attempt
-        // Store the shuffled quiz for use throughout the session
-        session.setAttribute("currentQuiz", shuffledQuiz);
-        // Set question index to 0 to start from the first question
-        session.setAttribute("currentQuestionIndex", 0);
-        // Initialize empty map to store user's answers (questionId -> answer)
-        session.setAttribute("userAnswers", new HashMap<Integer, String>());
+        session.setAttribute("attemptId", attempt.id());
 
         return "redirect:/quiz/question";  //brings us back to the first question
     }
@@ -107,17 +90,9 @@ public class QuizController {
      */
     @GetMapping("/question")
     public String showQuestion(HttpSession session, Model model) {
-        Quiz quiz = (Quiz) session.getAttribute("currentQuiz");  // retrieves quiz and current question index from current session
-        Integer currentIndex = (Integer) session.getAttribute("currentQuestionIndex");
-
-        // Validate session state
-        if (quiz == null || currentIndex == null) {
-            throw new QuizException(
-                "Session Expired",
-                "Your quiz session has expired or is invalid.",
-                "Please start a new quiz from the home page."
-            );
-        }
+        Attempt attempt = loadAttempt(session);  // retrieves the shuffle and current question index of this session's attempt
+        QuizPermutation shuffle = attempt.shuffle();
+        int currentIndex = attempt.state().getCurrentIndex();
 
         // Validate question index is within bounds
         if (currentIndex < 0) {
@@ -128,19 +103,23 @@ public class QuizController {
             );
         }
 
-        if (currentIndex >= quiz.getQuestions().size()) {  // if you complete all questions, we go to the submit page
-            throw new QuizException(
-                "Quiz Completed",
-                "You have already answered all questions.",
-                "Please submit your quiz to see the results."
-            );
+        if (currentIndex >= shuffle.size()) {  // if you complete all questions, we go to the submit page
+            throw QuizException.QUIZ_COMPLETED;
         }
 
-        Question currentQuestion = quiz.getQuestions().get(currentIndex);   // we get the current question and pass to the view
+        Quiz quiz = attempt.quiz();
+        Question currentQuestion = shuffle.question(quiz, currentIndex);   // we get the current question in shuffled form and pass to the view
+        // the title, question and option texts come pre-escaped from the fragment cache, which holds
+        // every question of the catalog quiz
+        QuizFragments fragments = pageCache.fragments(attempt.catalog(), quiz.getId());
+        int position = attempt.catalogPosition(shuffle.questionIndex(currentIndex));
         model.addAttribute("quiz", quiz);
         model.addAttribute("question", currentQuestion);
+        model.addAttribute("titleHtml", fragments.title());
+        model.addAttribute("questionHtml", fragments.stem(position));
+        model.addAttribute("optionHtml", fragments.options(position, shuffle.originalOptions(currentIndex)));
         model.addAttribute("currentIndex", currentIndex);
-        model.addAttribute("totalQuestions", quiz.getQuestions().size());
+        model.addAttribute("totalQuestions", attempt.questionCount());   // an adaptive attempt shows them one by one
 
         return "quiz";  // returns html view temp we created
     }
@@ -155,58 +134,26 @@ public class QuizController {
                              @RequestParam String answer,
                              HttpSession session) {
         // Validate session state
-        Quiz quiz = (Quiz) session.getAttribute("currentQuiz");
-        Integer currentIndex = (Integer) session.getAttribute("currentQuestionIndex");
-        Map<Integer, String> userAnswers = (Map<Integer, String>) session.getAttribute("userAnswers");
-
-        if (quiz == null || currentIndex == null || userAnswers == null) {
-            throw new QuizException(
-                "Session Expired",
-                "Your quiz session has expired.",
-                "Please start a new quiz from the home page."
-            );
-        }
+        Attempt attempt = loadAttempt(session);
+        AttemptState state = attempt.state();
+        int currentIndex = state.getCurrentIndex();
 
         // Validate answer is not empty
         if (answer == null || answer.trim().isEmpty()) {
-            throw new QuizException(
-                "Invalid Answer",
-                "Please select an answer before proceeding.",
-                "Answer cannot be empty."
-            );
-        }
-
-        // Validate question ID is valid
-        if (questionId <= 0) {
-            throw new QuizException(
-                "Invalid Question",
-                "The question ID is invalid.",
-                "Question ID: " + questionId
-            );
-        }
-
-        // Validate question exists in current quiz
-        boolean questionExists = quiz.getQuestions().stream()
-            .anyMatch(q -> q.getId() == questionId);
-        if (!questionExists) {
-            throw new QuizException(
-                "Question Not Found",
-                "The specified question does not exist in this quiz.",
-                "Question ID: " + questionId
-            );
+            throw QuizException.EMPTY_ANSWER;
         }
 
-        // map of our answers from current session and store the new one
-        userAnswers.put(questionId, answer);
-        session.setAttribute("userAnswers", userAnswers);
+        // record the answer on the attempt's answer sheet (validates the question id and the letter)
+        attemptService.recordAnswer(attempt, questionId, answer);
 
         // moves to next question if we are not at the last one '10'
         // Check if there are more questions remaining
         // Only increment index if not on the last question (size - 1)
         // This allows users to stay on the last question to review/resubmit
-        if (currentIndex < quiz.getQuestions().size() - 1) {
-            session.setAttribute("currentQuestionIndex", currentIndex + 1);
+        if (currentIndex < attempt.shuffle().size() - 1) {
+            state.setCurrentIndex(currentIndex + 1);
         }
+        attemptService.save(attempt);
 
         return "redirect:/quiz/question";
     }
@@ -221,31 +168,20 @@ public class QuizController {
      */
     @PostMapping("/previous")
     public String previousQuestion(HttpSession session) {  // goes back to previous quetion unless we are at the first one
-        Integer currentIndex = (Integer) session.getAttribute("currentQuestionIndex");
-        Quiz quiz = (Quiz) session.getAttribute("currentQuiz");
-
         // Validate session state
-        if (quiz == null || currentIndex == null) {
-            throw new QuizException(
-                "Session Expired",
-                "Your quiz session has expired.",
-                "Please start a new quiz from the home page."
-            );
-        }
+        Attempt attempt = loadAttempt(session);
+        int currentIndex = attempt.state().getCurrentIndex();
 
         // Validate we're not at the first question
         if (currentIndex <= 0) {
-            throw new QuizException(
-                "Cannot Go Back",
-                "You are already at the first question.",
-                "Current question index: " + currentIndex
-            );
+            throw QuizException.CANNOT_GO_BACK;   // the index is unsigned, so it is 0 here
         }
 
         // Only decrement if not at the first question (index > 0)
         // This prevents negative index values and navigation errors
         if (currentIndex > 0) {
-            session.setAttribute("currentQuestionIndex", currentIndex - 1);
+            attempt.state().setCurrentIndex(currentIndex - 1);
+            attemptService.save(attempt);
         }
         return "redirect:/quiz/question";
     }
@@ -257,7 +193,7 @@ public class QuizController {
      * Retrieves quiz and all user answers from session
      * Validates session state
      * Evaluates the quiz using the QuizService
-     * Adds results to the model
+     * Adds results to the model, with the rank of the score and the quiz's best results
      * Cleans up session attributes
      * Displays the results page
      */
@@ -266,64 +202,57 @@ public class QuizController {
                              @RequestParam(required = false) String answer,
                              HttpSession session,
                              Model model) {
-        // gets us the quiz aqnd answers from the session
-        Quiz quiz = (Quiz) session.getAttribute("currentQuiz");
-        Map<Integer, String> userAnswers = (Map<Integer, String>) session.getAttribute("userAnswers");
-
+        // gets us the shuffle and answers of this session's attempt
         // Validation: Check for session expiration or invalid state
-        if (quiz == null || userAnswers == null) {
-            throw new QuizException(
-                "Session Expired",
-                "Your quiz session has expired.",
-                "Please start a new quiz from the home page."
-            );
-        }
+        Attempt attempt = loadAttempt(session);
 
         //saves the last answered questin
         if (questionId != null && answer != null) {
-            // Validate question ID is valid
-            if (questionId <= 0) {
-                throw new QuizException(
-                    "Invalid Question",
-                    "The question ID is invalid.",
-                    "Question ID: " + questionId
-                );
-            }
-
             // Validate answer is not empty
             if (answer.trim().isEmpty()) {
-                throw new QuizException(
-                    "Invalid Answer",
-                    "Please select an answer before submitting.",
-                    "Answer cannot be empty."
-                );
+                throw QuizException.EMPTY_ANSWER_ON_SUBMIT;
             }
 
-            userAnswers.put(questionId, answer);
-            session.setAttribute("userAnswers", userAnswers);
-        }
-
-        // Validate user has answered at least one question
-        if (userAnswers.isEmpty()) {
-            throw new QuizException(
-                "No Answers Submitted",
-                "You must answer at least one question before submitting.",
-                "Please answer the quiz questions."
-            );
+            attemptService.recordAnswer(attempt, questionId, answer);
+            attemptService.save(attempt);
         }
 
-        // Evaluate the quiz by comparing user answers with correct answers
-        // The QuizService calculates score, percentage, and other metrics
-        QuizResult result = quizService.evaluateQuiz(quiz, userAnswers);
+        // Grades the answer sheet against the catalog's answer key and clears the attempt after finishing
+        QuizResult result = attemptService.submit(attempt);
         model.addAttribute("result", result);  // we pass result to our html file result
-        // clears the sess after finishing
-        session.removeAttribute("currentQuiz");
-        session.removeAttribute("currentQuestionIndex");
-        session.removeAttribute("userAnswers");
+        // the shuffle seed identifies exactly which order this attempt showed, in case the result is disputed
+        model.addAttribute("attemptSeed", Long.toHexString(attempt.shuffle().getSeed()));
+        // an adaptive quiz also estimates the candidate's ability from the answers (null otherwise)
+        model.addAttribute("ability", attempt.ability());
+        // where this score stands among all results of the quiz, and the best results
+        Leaderboard leaderboard = leaderboards.get(attempt.quiz().getId());
+        if (leaderboard != null) {
+            model.addAttribute("standing", leaderboard.standing(result.getScore()));
+            model.addAttribute("leaders", leaderboard.top(10));
+            model.addAttribute("attemptId", attempt.id());
+        }
+        session.removeAttribute("attemptId");
 
         return "result";
     }
 
+    /**
+     * Loads the attempt of this session from the store; see {@link AttemptService#load}.
+     * If the attempt has expired or can no longer continue, it is dropped from the session too.
+     */
+    private Attempt loadAttempt(HttpSession session) {
+        Long attemptId = (Long) session.getAttribute("attemptId");
+        if (attemptId == null) {
+            throw QuizException.SESSION_EXPIRED;
+        }
+        try {
+            return attemptService.load(attemptId);
+        } catch (QuizException e) {
+            session.removeAttribute("attemptId");
+            throw e;
+        }
+    }
+
     /**
      * Allows a user to retake a quiz by invalidating the current session and starting fresh
      * <p>
@@ -341,7 +270,11 @@ public class QuizController {
             );
         }
 
-        // Invalidate the entire session to ensure a completely clean state
+        // Drop the unfinished attempt, then invalidate the entire session to ensure a completely clean state
+        Long attemptId = (Long) session.getAttribute("attemptId");
+        if (attemptId != null) {
+            attemptService.discard(attemptId);
+        }
         // This removes all session attributes, not just quiz-related ones
         session.invalidate();
 
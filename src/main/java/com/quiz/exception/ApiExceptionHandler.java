@@ -0,0 +1,72 @@
+package com.quiz.exception;
+
+import com.quiz.controller.AnalyticsApiController;
+import com.quiz.controller.LiveApiController;
+import com.quiz.controller.QuizApiController;
+import com.quiz.metrics.QuizMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+/**
+ * Exception handler for the JSON API: returns errors as {@link ApiError} bodies with a matching
+ * status instead of the error page {@link GlobalExceptionHandler} renders for the other controllers.
+ */
+@RestControllerAdvice(assignableTypes = {QuizApiController.class, AnalyticsApiController.class, LiveApiController.class})
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ApiExceptionHandler {
+
+    @Autowired
+    private QuizMetrics metrics;
+
+    /**
+     * An error as returned by the API.
+     */
+    public record ApiError(int status, String errorTitle, String errorMessage, String errorDetails) {
+    }
+
+    /**
+     * Handles QuizException with the status set where the error is declared: an unknown or expired
+     * attempt, an unknown quiz, live session or participant are 404, an attempt whose quiz changed
+     * is 409, a live session action without the presenter key is 403, too many live sessions is 503,
+     * anything else is 400
+     */
+    @ExceptionHandler(QuizException.class)
+    public ResponseEntity<ApiError> handleQuizException(QuizException ex) {
+        metrics.recordError(ex.getErrorTitle());
+        return error(ex.getStatus(), ex.getErrorTitle(), ex.getMessage(), ex.getErrorDetails());
+    }
+
+    /**
+     * Handles request bodies and path variables that cannot be read
+     */
+    @ExceptionHandler({HttpMessageNotReadableException.class, MethodArgumentTypeMismatchException.class,
+            IllegalArgumentException.class})
+    public ResponseEntity<ApiError> handleInvalidInput(Exception ex) {
+        metrics.recordError("Invalid Input");
+        return error(HttpStatus.BAD_REQUEST, "Invalid Input", "The request could not be read.",
+                "Please check the request body and parameters.");
+    }
+
+    /**
+     * Handles all other exceptions, logged with their stack trace as on the pages
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiError> handleGenericException(Exception ex, HttpServletRequest request) {
+        metrics.recordUnexpectedError(ex);
+        GlobalExceptionHandler.logUnexpected(ex, request);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected Error",
+                "An unexpected error occurred. Please try again later.", null);
+    }
+
+    private static ResponseEntity<ApiError> error(HttpStatus status, String title, String message, String details) {
+        return ResponseEntity.status(status).body(new ApiError(status.value(), title, message, details));
+    }
+}
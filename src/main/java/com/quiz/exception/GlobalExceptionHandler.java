@@ -1,6 +1,11 @@
 package com.quiz.exception;
 
+import com.quiz.metrics.QuizMetrics;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -15,12 +20,20 @@ import org.springframework.web.servlet.ModelAndView;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    // error counters by title (quiz.errors) and by exception type for unexpected errors
+    @Autowired
+    private QuizMetrics metrics;
+
     /**
-     * Handles QuizException - custom exceptions thrown by quiz operations
+     * Handles QuizException - custom exceptions thrown by quiz operations.
+     * These are expected (expired sessions, invalid answers), so they are counted but not logged
      */
     @ExceptionHandler(QuizException.class)
     public ModelAndView handleQuizException(QuizException ex, HttpServletRequest request) {
         ModelAndView mav = new ModelAndView("error");
+        metrics.recordError(ex.getErrorTitle());
 
         // Set error attributes from the custom exception
         mav.addObject("errorTitle", ex.getErrorTitle());
@@ -37,6 +50,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(IllegalArgumentException.class)
     public ModelAndView handleIllegalArgumentException(IllegalArgumentException ex, HttpServletRequest request) {
         ModelAndView mav = new ModelAndView("error");
+        metrics.recordError("Invalid Input");
 
         mav.addObject("errorTitle", "Invalid Input");
         mav.addObject("errorMessage", ex.getMessage());
@@ -52,6 +66,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(IllegalStateException.class)
     public ModelAndView handleIllegalStateException(IllegalStateException ex, HttpServletRequest request) {
         ModelAndView mav = new ModelAndView("error");
+        metrics.recordError("Invalid Operation");
 
         mav.addObject("errorTitle", "Invalid Operation");
         mav.addObject("errorMessage", ex.getMessage());
@@ -74,9 +89,31 @@ public class GlobalExceptionHandler {
         mav.addObject("errorDetails", ex.getClass().getSimpleName() + ": " + ex.getMessage());
         mav.addObject("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
 
-        // In production, you might want to log the full stack trace here
-        ex.printStackTrace();
+        metrics.recordUnexpectedError(ex);
+        logUnexpected(ex, request);
 
         return mav;
     }
+
+    /**
+     * Logs an unexpected error with its full stack trace. The request fields are key/values, so they
+     * become separate fields when structured logging (logging.structured.format.console) is on
+     */
+    static void logUnexpected(Exception ex, HttpServletRequest request) {
+        log.atError()
+                .setCause(ex)
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("uri", request.getRequestURI())
+                .addKeyValue("exception", ex.getClass().getName())
+                .addKeyValue("attemptId", attemptId(request))
+                .log("Unexpected error on {} {}", request.getMethod(), request.getRequestURI());
+    }
+
+    /**
+     * Returns the attempt id of the request's session, or null if it has none, without creating a session
+     */
+    private static Object attemptId(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        return session == null ? null : session.getAttribute("attemptId");
+    }
 }
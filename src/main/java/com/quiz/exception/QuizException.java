@@ -1,11 +1,82 @@
 package com.quiz.exception;
 
+import org.springframework.http.HttpStatus;
+
 /**
  * Custom exception class for quiz-related errors.
  * This exception is thrown when validation fails or invalid operations are attempted.
+ * <p>
+ * These are expected errors shown to the user on the error page, not bugs, so no stack trace is
+ * captured: throwing one costs about as much as allocating it. Errors whose text never changes are
+ * kept as shared instances below and can be thrown as they are; they cannot carry a cause or
+ * suppressed exceptions, so sharing them across requests is safe.
+ * <p>
+ * Every error carries the HTTP status the JSON API answers it with, set where the error is
+ * declared; errors created without one are {@link HttpStatus#BAD_REQUEST}.
  */
 public class QuizException extends RuntimeException {
 
+    public static final QuizException SESSION_EXPIRED = new QuizException(HttpStatus.NOT_FOUND,
+            "Session Expired",
+            "Your quiz session has expired.",
+            "Please start a new quiz from the home page.");
+
+    public static final QuizException QUIZ_COMPLETED = new QuizException(
+            "Quiz Completed",
+            "You have already answered all questions.",
+            "Please submit your quiz to see the results.");
+
+    public static final QuizException CANNOT_GO_BACK = new QuizException(
+            "Cannot Go Back",
+            "You are already at the first question.",
+            "Current question index: 0");
+
+    public static final QuizException EMPTY_ANSWER = new QuizException(
+            "Invalid Answer",
+            "Please select an answer before proceeding.",
+            "Answer cannot be empty.");
+
+    public static final QuizException EMPTY_ANSWER_ON_SUBMIT = new QuizException(
+            "Invalid Answer",
+            "Please select an answer before submitting.",
+            "Answer cannot be empty.");
+
+    public static final QuizException NO_ANSWERS = new QuizException(
+            "No Answers Submitted",
+            "You must answer at least one question before submitting.",
+            "Please answer the quiz questions.");
+
+    public static final QuizException ATTEMPT_CHANGED = new QuizException(HttpStatus.CONFLICT,
+            "Attempt Changed",
+            "Your quiz was changed by another request at the same time.",
+            "Please reload the question and try again.");
+
+    public static final QuizException LIVE_SESSION_NOT_FOUND = new QuizException(HttpStatus.NOT_FOUND,
+            "Live Session Not Found",
+            "The live session could not be found.",
+            "It may have ended, or the session id is wrong.");
+
+    public static final QuizException PARTICIPANT_NOT_FOUND = new QuizException(HttpStatus.NOT_FOUND,
+            "Participant Not Found",
+            "You have not joined this live session.",
+            "Please join the session before answering.");
+
+    public static final QuizException NOT_THE_PRESENTER = new QuizException(HttpStatus.FORBIDDEN,
+            "Not The Presenter",
+            "Only the presenter can run the live session.",
+            "The presenter key is missing or wrong.");
+
+    public static final QuizException LIVE_SESSION_FULL = new QuizException(HttpStatus.SERVICE_UNAVAILABLE,
+            "Live Session Full",
+            "This live session cannot take more participants.",
+            "Ask the presenter to start another session.");
+
+    public static final QuizException TOO_MANY_SUBSCRIBERS = new QuizException(HttpStatus.SERVICE_UNAVAILABLE,
+            "Too Many Subscribers",
+            "This live session cannot be followed by more clients right now.",
+            "Close another stream of the session, or try again later.");
+
+    private final HttpStatus status;
     private final String errorTitle;
     private final String errorDetails;
 
@@ -13,29 +84,60 @@ public class QuizException extends RuntimeException {
      * Constructor with message only
      */
     public QuizException(String message) {
-        super(message);
-        this.errorTitle = "Quiz Error";
-        this.errorDetails = null;
+        this("Quiz Error", message, null);
     }
 
     /**
      * Constructor with message and title
      */
     public QuizException(String errorTitle, String message) {
-        super(message);
-        this.errorTitle = errorTitle;
-        this.errorDetails = null;
+        this(errorTitle, message, null);
     }
 
     /**
      * Constructor with full details
      */
     public QuizException(String errorTitle, String message, String errorDetails) {
-        super(message);
+        this(HttpStatus.BAD_REQUEST, errorTitle, message, errorDetails);
+    }
+
+    /**
+     * Constructor with full details and the status the API answers with
+     */
+    public QuizException(HttpStatus status, String errorTitle, String message, String errorDetails) {
+        // null cause (so initCause cannot change a shared instance), no suppression, no stack trace
+        super(message, null, false, false);
+        this.status = status;
         this.errorTitle = errorTitle;
         this.errorDetails = errorDetails;
     }
 
+    /**
+     * The error for a quiz id that is not in the catalog.
+     */
+    public static QuizException quizNotFound(int quizId) {
+        return new QuizException(HttpStatus.NOT_FOUND,
+            "Quiz Not Found",
+            "The requested quiz could not be found.",
+            "Quiz ID " + quizId + " does not exist in the system."
+        );
+    }
+
+    /**
+     * The error for an attempt whose quiz changed, or was removed, since the attempt started.
+     */
+    public static QuizException quizUpdated(int quizId) {
+        return new QuizException(HttpStatus.CONFLICT,
+            "Quiz Updated",
+            "This quiz was changed while you were taking it.",
+            "Please start the quiz again. Quiz ID: " + quizId
+        );
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
     public String getErrorTitle() {
         return errorTitle;
     }
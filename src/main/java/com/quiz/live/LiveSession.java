@@ -0,0 +1,394 @@
+package com.quiz.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.exception.QuizException;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.store.AttemptIds;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A hosted live session: a presenter moves every participant through the questions of one quiz
+ * together, and participants answer the question that is open.
+ * <p>
+ * What every participant sees is one {@link Frame}: the phase, the open question and, once it is
+ * revealed, its answer and how the participants answered. Each change is serialized once, as a
+ * complete server-sent event, and the same bytes are written to every subscriber. A frame holds
+ * the whole state, so a subscriber that falls behind skips to the latest frame instead of queueing
+ * the ones it missed (see {@link LiveSubscriber}).
+ * <p>
+ * Answers are recorded without locking: a participant's answer to the open question is accepted
+ * once, by a compare-and-set on the participant, and counted in a {@link LongAdder} per option, so
+ * thousands of participants answering at once do not contend. An answer sent as the presenter
+ * reveals the question may still be counted. Presenter actions are rare and change the state
+ * under a lock.
+ * <p>
+ * Every question is asked, in catalog order with the options in catalog order; a pool's sample
+ * size and adaptive choice do not apply to live sessions.
+ * <p>
+ * A session takes at most {@code maxParticipants} participants and {@code maxSubscribers} open
+ * streams, each of which holds a virtual thread; joining or subscribing beyond them fails with
+ * {@link QuizException#LIVE_SESSION_FULL} or {@link QuizException#TOO_MANY_SUBSCRIBERS}.
+ */
+public final class LiveSession {
+
+    public enum Phase {
+        LOBBY, OPEN, REVEALED, ENDED
+    }
+
+    /**
+     * One state of the session, as sent to subscribers.
+     *
+     * @param seq      increases with every state, from 1
+     * @param question catalog position of the question shown, -1 before the first one
+     * @param bytes    the state as a server-sent event, UTF-8; shared, must not be modified
+     */
+    public record Frame(long seq, Phase phase, int question, byte[] bytes) {
+    }
+
+    /**
+     * The state as sent to participants. {@code correctAnswer} and {@code counts} (answers per
+     * option) are only set once the question is revealed.
+     */
+    public record StateView(String sessionId, long seq, Phase phase, String title, int questionIndex,
+                            int questionCount, QuestionView question, String correctAnswer, long[] counts) {
+    }
+
+    /**
+     * A question as shown to participants, without its correct answer.
+     */
+    public record QuestionView(int id, String question, List<String> options) {
+    }
+
+    /**
+     * Answers so far to the question shown, per option, read while answers keep coming in.
+     */
+    public record Tally(long seq, int questionIndex, long answers, long[] counts, int participants) {
+    }
+
+    private static final class Participant {
+
+        final AtomicInteger answered = new AtomicInteger(-1);   // position of the last question answered
+        final AtomicInteger score = new AtomicInteger();
+    }
+
+    private final long id;
+    private final long presenterKey;
+    private final Quiz quiz;
+    private final byte[] answerKey;
+    private final ObjectMapper objectMapper;
+    private final int maxParticipants;
+    private final int maxSubscribers;
+    private final long startedAt = System.currentTimeMillis();
+    private final LongAdder[][] counts;   // per question and option
+    private final ConcurrentMap<Long, Participant> participants = new ConcurrentHashMap<>();
+    private final Set<LiveSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // places taken, reserved before a participant or subscriber is added so the limits hold under races
+    private final AtomicInteger joined = new AtomicInteger();
+    private final AtomicInteger subscribed = new AtomicInteger();
+    private final ReentrantLock controlLock = new ReentrantLock();
+    private volatile Frame frame;
+    private volatile long lastActive = startedAt;
+
+    /**
+     * Opens a session in the lobby, without limits on participants and subscribers.
+     *
+     * @param answerKey original index of the correct option of each question, as in
+     *                  {@code QuizCatalog.answerKey}
+     */
+    public LiveSession(long id, long presenterKey, Quiz quiz, byte[] answerKey, ObjectMapper objectMapper) {
+        this(id, presenterKey, quiz, answerKey, objectMapper, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Opens a session in the lobby.
+     *
+     * @param answerKey       original index of the correct option of each question, as in
+     *                        {@code QuizCatalog.answerKey}
+     * @param maxParticipants participants that can join
+     * @param maxSubscribers  event streams that can be open at once
+     */
+    public LiveSession(long id, long presenterKey, Quiz quiz, byte[] answerKey, ObjectMapper objectMapper,
+                       int maxParticipants, int maxSubscribers) {
+        this.id = id;
+        this.presenterKey = presenterKey;
+        this.quiz = quiz;
+        this.answerKey = answerKey;
+        this.objectMapper = objectMapper;
+        this.maxParticipants = maxParticipants;
+        this.maxSubscribers = maxSubscribers;
+        List<Question> questions = quiz.getQuestions();
+        counts = new LongAdder[questions.size()][];
+        for (int q = 0; q < counts.length; q++) {
+            counts[q] = new LongAdder[questions.get(q).getOptions().size()];
+            for (int o = 0; o < counts[q].length; o++) {
+                counts[q][o] = new LongAdder();
+            }
+        }
+        publish(Phase.LOBBY, -1);
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public long presenterKey() {
+        return presenterKey;
+    }
+
+    public Quiz quiz() {
+        return quiz;
+    }
+
+    /**
+     * The current state.
+     */
+    public Frame frame() {
+        return frame;
+    }
+
+    /**
+     * When the session was opened, in epoch milliseconds.
+     */
+    public long startedAt() {
+        return startedAt;
+    }
+
+    /**
+     * When the presenter last changed the state or a participant last joined, in epoch milliseconds.
+     */
+    public long lastActive() {
+        return lastActive;
+    }
+
+    /**
+     * Adds a participant and returns its id, which it sends with its answers.
+     *
+     * @throws QuizException {@link QuizException#LIVE_SESSION_FULL} if the session has all the
+     *                       participants it takes
+     */
+    public long join() {
+        if (!reserve(joined, maxParticipants)) {
+            throw QuizException.LIVE_SESSION_FULL;
+        }
+        long participantId = AttemptIds.next();
+        participants.put(participantId, new Participant());
+        lastActive = System.currentTimeMillis();
+        return participantId;
+    }
+
+    public int participantCount() {
+        return participants.size();
+    }
+
+    /**
+     * Records a participant's answer to the open question.
+     *
+     * @param question catalog position of the question answered, as in the frame
+     * @param option   index of the chosen option
+     * @return whether the answer was counted: false if the question is no longer open, or the
+     *         participant already answered it
+     */
+    public boolean answer(long participantId, int question, int option) {
+        Participant participant = participants.get(participantId);
+        if (participant == null) {
+            throw QuizException.PARTICIPANT_NOT_FOUND;
+        }
+        Frame current = frame;
+        if (current.phase() != Phase.OPEN || current.question() != question) {
+            return false;
+        }
+        if (option < 0 || option >= counts[question].length) {
+            throw new QuizException(
+                "Invalid Answer",
+                "The answer is not one of the options.",
+                "Question " + question + " has " + counts[question].length + " options."
+            );
+        }
+        int last;
+        do {
+            last = participant.answered.get();
+            if (last >= question) {
+                return false;
+            }
+        } while (!participant.answered.compareAndSet(last, question));
+        counts[question][option].increment();
+        if (option == answerKey[question]) {
+            participant.score.incrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Returns a participant's number of correct answers so far.
+     */
+    public int score(long participantId) {
+        Participant participant = participants.get(participantId);
+        if (participant == null) {
+            throw QuizException.PARTICIPANT_NOT_FOUND;
+        }
+        return participant.score.get();
+    }
+
+    /**
+     * Fails unless {@code key} is this session's presenter key.
+     */
+    public void checkPresenter(long key) {
+        if (key != presenterKey) {
+            throw QuizException.NOT_THE_PRESENTER;
+        }
+    }
+
+    /**
+     * Opens the next question, or ends the session after the last one.
+     */
+    public Frame next() {
+        controlLock.lock();
+        try {
+            Frame current = frame;
+            if (current.phase() == Phase.ENDED) {
+                return current;
+            }
+            int question = current.question() + 1;
+            return question < counts.length ? publish(Phase.OPEN, question) : publish(Phase.ENDED, current.question());
+        } finally {
+            controlLock.unlock();
+        }
+    }
+
+    /**
+     * Closes the open question and shows its answer and counts.
+     */
+    public Frame reveal() {
+        controlLock.lock();
+        try {
+            Frame current = frame;
+            return current.phase() == Phase.OPEN ? publish(Phase.REVEALED, current.question()) : current;
+        } finally {
+            controlLock.unlock();
+        }
+    }
+
+    /**
+     * Ends the session. Subscribers are sent the final frame and their streams are completed.
+     */
+    public Frame end() {
+        controlLock.lock();
+        try {
+            Frame current = frame;
+            return current.phase() == Phase.ENDED ? current : publish(Phase.ENDED, current.question());
+        } finally {
+            controlLock.unlock();
+        }
+    }
+
+    /**
+     * Reads the answers to the question shown without blocking the answers coming in.
+     */
+    public Tally tally() {
+        Frame current = frame;
+        int question = current.question();
+        long[] optionCounts = question < 0 ? new long[0] : sum(counts[question]);
+        long answers = 0;
+        for (long count : optionCounts) {
+            answers += count;
+        }
+        return new Tally(current.seq(), question, answers, optionCounts, participants.size());
+    }
+
+    /**
+     * Starts sending the frames of this session to {@code sink}, from the current one, until the
+     * session ends or the subscriber is closed.
+     *
+     * @throws QuizException {@link QuizException#TOO_MANY_SUBSCRIBERS} if the session has all the
+     *                       streams it takes open
+     */
+    public LiveSubscriber subscribe(LiveSubscriber.Sink sink) {
+        if (!reserve(subscribed, maxSubscribers)) {
+            throw QuizException.TOO_MANY_SUBSCRIBERS;
+        }
+        LiveSubscriber subscriber = new LiveSubscriber(this, sink);
+        subscribers.add(subscriber);
+        subscriber.start();
+        return subscriber;
+    }
+
+    void unsubscribe(LiveSubscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscribed.decrementAndGet();
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // called with the control lock held, or from the constructor
+    private Frame publish(Phase phase, int question) {
+        Frame previous = frame;
+        long seq = previous == null ? 1 : previous.seq() + 1;
+        QuestionView questionView = null;
+        String correctAnswer = null;
+        long[] optionCounts = null;
+        if (question >= 0 && phase != Phase.ENDED) {
+            Question shown = quiz.getQuestions().get(question);
+            questionView = new QuestionView(shown.getId(), shown.getQuestion(), shown.getOptions());
+            if (phase == Phase.REVEALED) {
+                correctAnswer = String.valueOf((char) ('A' + answerKey[question]));
+                optionCounts = sum(counts[question]);
+            }
+        }
+        StateView view = new StateView(Long.toHexString(id), seq, phase, quiz.getTitle(), question,
+                counts.length, questionView, correctAnswer, optionCounts);
+        Frame next = new Frame(seq, phase, question, event(seq, view));
+        frame = next;
+        lastActive = System.currentTimeMillis();
+        for (LiveSubscriber subscriber : subscribers) {
+            subscriber.wake();
+        }
+        return next;
+    }
+
+    // the whole server-sent event, so writing it to a subscriber is a single copy
+    private byte[] event(long seq, StateView view) {
+        try {
+            byte[] data = objectMapper.writeValueAsBytes(view);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length + 40);
+            out.writeBytes(("id: " + seq + "\nevent: state\ndata: ").getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(data);
+            out.writeBytes(new byte[]{'\n', '\n'});
+            return out.toByteArray();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write the live session state", e);
+        }
+    }
+
+    private static boolean reserve(AtomicInteger taken, int limit) {
+        int current;
+        do {
+            current = taken.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!taken.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private static long[] sum(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+}
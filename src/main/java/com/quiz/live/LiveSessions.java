@@ -0,0 +1,185 @@
+package com.quiz.live;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.exception.QuizException;
+import com.quiz.model.Quiz;
+import com.quiz.service.QuizLoader;
+import com.quiz.store.AttemptIds;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The live sessions being hosted, by id.
+ * <p>
+ * A session is created for a quiz of the current catalog and keeps that quiz until it ends, even
+ * if a reload changes it. Sessions are held in memory; at most {@code quiz.live.max-sessions} run
+ * at once, and a session is dropped when its presenter ends it. A session the presenter has left
+ * is ended by a sweeper once a minute: when nothing happened in it for
+ * {@code quiz.live.idle-timeout}, or when it has run for {@code quiz.live.max-age}.
+ */
+@Component
+public class LiveSessions {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveSessions.class);
+
+    @Autowired
+    private QuizLoader quizLoader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${quiz.live.max-sessions:100}")
+    private int maxSessions = 100;
+
+    @Value("${quiz.live.max-participants:10000}")
+    private int maxParticipants = 10_000;
+
+    @Value("${quiz.live.max-subscribers:10000}")
+    private int maxSubscribers = 10_000;
+
+    @Value("${quiz.live.idle-timeout:30m}")
+    private Duration idleTimeout = Duration.ofMinutes(30);
+
+    @Value("${quiz.live.max-age:12h}")
+    private Duration maxAge = Duration.ofHours(12);
+
+    private final ConcurrentMap<Long, LiveSession> sessions = new ConcurrentHashMap<>();
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    void start() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, 1, 1, TimeUnit.MINUTES);
+        if (meterRegistry == null) {
+            return;
+        }
+        Gauge.builder("quiz.live.sessions", sessions, ConcurrentMap::size)
+                .description("Live sessions running")
+                .register(meterRegistry);
+        Gauge.builder("quiz.live.subscribers", this, LiveSessions::subscriberCount)
+                .description("Clients receiving the state of a live session")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a session of a quiz of the current catalog, in the lobby.
+     */
+    public LiveSession create(int quizId) {
+        QuizCatalog catalog = quizLoader.getCatalog();
+        Quiz quiz = catalog.getQuiz(quizId);
+        if (quiz == null) {
+            throw QuizException.quizNotFound(quizId);
+        }
+        if (sessions.size() >= maxSessions) {
+            throw new QuizException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Too Many Live Sessions",
+                "No more live sessions can be started right now.",
+                "At most " + maxSessions + " live sessions can run at once."
+            );
+        }
+        LiveSession session = new LiveSession(AttemptIds.next(), AttemptIds.next(), quiz,
+                catalog.answerKey(catalog.slotOf(quizId)), objectMapper, maxParticipants, maxSubscribers);
+        sessions.put(session.id(), session);
+        log.info("Live session {} started for quiz {}", Long.toHexString(session.id()), quizId);
+        return session;
+    }
+
+    /**
+     * Returns a running session.
+     */
+    public LiveSession get(long sessionId) {
+        LiveSession session = sessions.get(sessionId);
+        if (session == null) {
+            throw QuizException.LIVE_SESSION_NOT_FOUND;
+        }
+        return session;
+    }
+
+    /**
+     * Opens the next question of a session, or ends it after the last one.
+     */
+    public LiveSession.Frame next(LiveSession session) {
+        LiveSession.Frame frame = session.next();
+        return frame.phase() == LiveSession.Phase.ENDED ? end(session) : frame;
+    }
+
+    /**
+     * Ends a session: its subscribers get the final state and it can no longer be found.
+     */
+    public LiveSession.Frame end(LiveSession session) {
+        LiveSession.Frame frame = session.end();
+        if (sessions.remove(session.id()) != null) {
+            log.info("Live session {} ended with {} participants", Long.toHexString(session.id()),
+                    session.participantCount());
+        }
+        return frame;
+    }
+
+    /**
+     * Ends the sessions in which nothing happened for {@code maxIdle}, and those that have run for
+     * {@code maxAge}.
+     *
+     * @return the number of sessions ended
+     */
+    public int expire(Duration maxIdle, Duration maxAge) {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (LiveSession session : sessions.values()) {
+            if (now - session.lastActive() >= maxIdle.toMillis() || now - session.startedAt() >= maxAge.toMillis()) {
+                session.end();
+                if (sessions.remove(session.id(), session)) {
+                    log.info("Live session {} expired with {} participants", Long.toHexString(session.id()),
+                            session.participantCount());
+                    expired++;
+                }
+            }
+        }
+        return expired;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private void sweep() {
+        try {
+            expire(idleTimeout, maxAge);
+        } catch (RuntimeException e) {
+            log.warn("Could not expire live sessions", e);   // keep the sweeper running
+        }
+    }
+
+    private int subscriberCount() {
+        int count = 0;
+        for (LiveSession session : sessions.values()) {
+            count += session.subscriberCount();
+        }
+        return count;
+    }
+}
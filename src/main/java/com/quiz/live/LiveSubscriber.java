@@ -0,0 +1,119 @@
+package com.quiz.live;
+
+import com.quiz.live.LiveSession.Frame;
+import com.quiz.live.LiveSession.Phase;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends the frames of a {@link LiveSession} to one client, on a virtual thread of its own.
+ * <p>
+ * The subscriber has no queue: when woken, it sends the session's current frame if it has not
+ * sent it yet, then waits for the next change. While a write to a slow client blocks, only this
+ * subscriber's virtual thread waits, and the frames published meanwhile are skipped in favour of
+ * the latest one, which holds the whole state. A slow client therefore costs one parked thread
+ * and no memory that grows, never holds up the presenter or the other subscribers, and catches up
+ * as soon as its connection drains. A client that disconnects makes the write fail, which ends
+ * the subscription.
+ */
+public final class LiveSubscriber implements Runnable {
+
+    /**
+     * Where the frames go, e.g. an HTTP response kept open for server-sent events.
+     */
+    public interface Sink {
+
+        /**
+         * Writes one frame and flushes it to the client; may block while the client is slow.
+         */
+        void send(byte[] frame) throws IOException;
+
+        /**
+         * Called once after the last frame was sent.
+         */
+        default void complete() {
+        }
+    }
+
+    private final LiveSession session;
+    private final Sink sink;
+    private volatile Thread thread;
+    private volatile boolean closed;
+    private volatile long delivered;
+    private volatile long skipped;
+
+    LiveSubscriber(LiveSession session, Sink sink) {
+        this.session = session;
+        this.sink = sink;
+    }
+
+    void start() {
+        // assigned before the thread runs, so a wake-up cannot be lost between starting and parking
+        Thread sender = Thread.ofVirtual().name("live-" + Long.toHexString(session.id())).unstarted(this);
+        thread = sender;
+        sender.start();
+    }
+
+    void wake() {
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Stops sending; the subscriber leaves the session once its write in progress, if any, returns.
+     */
+    public void close() {
+        closed = true;
+        wake();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Sequence number of the last frame sent, 0 before the first.
+     */
+    public long delivered() {
+        return delivered;
+    }
+
+    /**
+     * Frames this subscriber skipped because a newer one was published while it was writing.
+     */
+    public long skipped() {
+        return skipped;
+    }
+
+    @Override
+    public void run() {
+        boolean ended = false;
+        try {
+            while (!closed) {
+                Frame frame = session.frame();
+                long last = delivered;
+                if (frame.seq() == last) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                sink.send(frame.bytes());
+                if (last > 0) {
+                    skipped += frame.seq() - last - 1;
+                }
+                delivered = frame.seq();
+                if (frame.phase() == Phase.ENDED) {
+                    ended = true;
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // the client went away or its stream timed out; the container finishes the response
+        } finally {
+            closed = true;
+            session.unsubscribe(this);
+        }
+        if (ended) {
+            sink.complete();
+        }
+    }
+}
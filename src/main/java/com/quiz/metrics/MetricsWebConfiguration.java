@@ -0,0 +1,21 @@
+package com.quiz.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers {@link QuizMetricsInterceptor} for every controller.
+ */
+@Configuration
+public class MetricsWebConfiguration implements WebMvcConfigurer {
+
+    @Autowired
+    private QuizMetrics metrics;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QuizMetricsInterceptor(metrics));
+    }
+}
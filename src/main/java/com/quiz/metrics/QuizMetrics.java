@@ -0,0 +1,129 @@
+package com.quiz.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application's own meters, registered once and shared by the controllers and services.
+ * <p>
+ * Meters with a tag taken from the request (endpoint, view, error title) are created on first use
+ * and cached, so recording on the hot path is one map lookup plus the meter update. Every tag value
+ * comes from a small fixed set (handler method names, view names, the titles used in the code), so
+ * the number of meters stays bounded.
+ * <p>
+ * Meters:
+ * <ul>
+ *   <li>{@code quiz.endpoint} - timer per controller handler ({@code endpoint}) and {@code outcome}</li>
+ *   <li>{@code quiz.render} - timer of template rendering per {@code view}</li>
+ *   <li>{@code quiz.shuffle}, {@code quiz.grade} - timers of building a shuffle and grading an attempt</li>
+ *   <li>{@code quiz.catalog.lookups} - quiz lookups by {@code result} (hit or miss)</li>
+ *   <li>{@code quiz.attempts.started}, {@code quiz.attempts.submitted} - attempt counters</li>
+ *   <li>{@code quiz.attempt.state.bytes} - encoded size of the attempt state written per request</li>
+ *   <li>{@code quiz.errors} - quiz errors shown to users, by {@code title}</li>
+ *   <li>{@code quiz.errors.unexpected} - unexpected exceptions, by {@code exception} class</li>
+ * </ul>
+ */
+@Component
+public class QuizMetrics {
+
+    /**
+     * Metrics that record nothing, for code constructed outside the application context.
+     */
+    public static final QuizMetrics NONE = new QuizMetrics(new CompositeMeterRegistry());
+
+    private final MeterRegistry registry;
+
+    private final Timer shuffleTimer;
+    private final Timer gradeTimer;
+    private final Counter lookupHits;
+    private final Counter lookupMisses;
+    private final Counter attemptsStarted;
+    private final Counter attemptsSubmitted;
+    private final DistributionSummary attemptStateBytes;
+
+    private final Map<String, Timer> endpointTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> renderTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> unexpectedCounters = new ConcurrentHashMap<>();
+
+    public QuizMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        shuffleTimer = Timer.builder("quiz.shuffle")
+                .description("Building the shuffle of an attempt")
+                .register(registry);
+        gradeTimer = Timer.builder("quiz.grade")
+                .description("Grading an answer sheet")
+                .register(registry);
+        lookupHits = Counter.builder("quiz.catalog.lookups").tag("result", "hit").register(registry);
+        lookupMisses = Counter.builder("quiz.catalog.lookups").tag("result", "miss").register(registry);
+        attemptsStarted = Counter.builder("quiz.attempts.started").register(registry);
+        attemptsSubmitted = Counter.builder("quiz.attempts.submitted").register(registry);
+        attemptStateBytes = DistributionSummary.builder("quiz.attempt.state.bytes")
+                .description("Encoded size of the attempt state written per request")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public void recordShuffle(long nanos) {
+        shuffleTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordGrade(long nanos) {
+        gradeTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLookup(boolean found) {
+        (found ? lookupHits : lookupMisses).increment();
+    }
+
+    public void attemptStarted() {
+        attemptsStarted.increment();
+    }
+
+    public void attemptSubmitted() {
+        attemptsSubmitted.increment();
+    }
+
+    public void recordAttemptState(int bytes) {
+        attemptStateBytes.record(bytes);
+    }
+
+    public void recordEndpoint(String endpoint, boolean success, long nanos) {
+        String outcome = success ? "success" : "error";
+        endpointTimers.computeIfAbsent(endpoint + '/' + outcome, key -> Timer.builder("quiz.endpoint")
+                        .tag("endpoint", endpoint)
+                        .tag("outcome", outcome)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRender(String view, long nanos) {
+        renderTimers.computeIfAbsent(view, key -> Timer.builder("quiz.render")
+                        .tag("view", view)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordError(String title) {
+        errorCounters.computeIfAbsent(title, key -> Counter.builder("quiz.errors")
+                        .tag("title", title)
+                        .register(registry))
+                .increment();
+    }
+
+    public void recordUnexpectedError(Throwable error) {
+        String type = error.getClass().getName();
+        unexpectedCounters.computeIfAbsent(type, key -> Counter.builder("quiz.errors.unexpected")
+                        .tag("exception", type)
+                        .register(registry))
+                .increment();
+    }
+}
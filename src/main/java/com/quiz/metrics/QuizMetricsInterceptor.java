@@ -0,0 +1,80 @@
+package com.quiz.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Times every controller handler and the rendering of the view it returns.
+ * <p>
+ * The handler time runs from {@code preHandle} to {@code postHandle}; the render time from
+ * {@code postHandle} to {@code afterCompletion}, which Spring MVC calls once the view has been
+ * written. A handler that throws never reaches {@code postHandle} and is recorded with the error
+ * outcome; the error page it leads to is rendered by the exception handler, outside this timing.
+ * <p>
+ * Handlers are tagged with the controller's simple name and the method name, e.g.
+ * {@code QuizApiController.submit}, so handlers of the same name in different controllers get
+ * timers of their own.
+ */
+public class QuizMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String STARTED = QuizMetricsInterceptor.class.getName() + ".started";
+    private static final String RENDERING = QuizMetricsInterceptor.class.getName() + ".rendering";
+    private static final String VIEW = QuizMetricsInterceptor.class.getName() + ".view";
+
+    private final QuizMetrics metrics;
+    private final ConcurrentMap<Method, String> endpoints = new ConcurrentHashMap<>();
+
+    public QuizMetricsInterceptor(QuizMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(STARTED, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        Object started = request.getAttribute(STARTED);
+        if (!(started instanceof Long start) || !(handler instanceof HandlerMethod method)) {
+            return;
+        }
+        long now = System.nanoTime();
+        metrics.recordEndpoint(endpoint(method), true, now - start);
+        request.removeAttribute(STARTED);
+
+        String view = modelAndView == null ? null : modelAndView.getViewName();
+        if (view != null && !view.startsWith("redirect:")) {
+            request.setAttribute(RENDERING, now);
+            request.setAttribute(VIEW, view);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        long now = System.nanoTime();
+        if (request.getAttribute(STARTED) instanceof Long start && handler instanceof HandlerMethod method) {
+            metrics.recordEndpoint(endpoint(method), false, now - start);   // postHandle was skipped
+        } else if (request.getAttribute(RENDERING) instanceof Long rendering
+                && request.getAttribute(VIEW) instanceof String view) {
+            metrics.recordRender(view, now - rendering);
+        }
+    }
+
+    private String endpoint(HandlerMethod method) {
+        return endpoints.computeIfAbsent(method.getMethod(),
+                key -> method.getBeanType().getSimpleName() + '.' + key.getName());
+    }
+}
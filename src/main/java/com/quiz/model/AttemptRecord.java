@@ -0,0 +1,123 @@
+package com.quiz.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Stored form of one submitted quiz attempt: enough to re-grade it or to rebuild exactly what the
+ * candidate saw (quiz id plus shuffle seed), without keeping the quiz itself.
+ * <p>
+ * Answers use the answer sheet layout of {@code AnswerGrader}: one byte per question of the quiz in
+ * catalog order, holding the original index of the chosen option or -1.
+ * <p>
+ * Binary form (big-endian, {@value #HEADER_BYTES} bytes plus one per answer):
+ * attempt id (long), quiz id (int), seed (long), started at (long, epoch millis),
+ * submitted at (long, epoch millis), score (int), answer count (unsigned short), answers.
+ */
+public class AttemptRecord {
+
+    public static final int HEADER_BYTES = 8 + 4 + 8 + 8 + 8 + 4 + 2;
+
+    private final long attemptId;
+    private final int quizId;
+    private final long seed;
+    private final long startedAt;
+    private final long submittedAt;
+    private final int score;
+    private final byte[] answers;
+
+    public AttemptRecord(long attemptId, int quizId, long seed, long startedAt, long submittedAt,
+                         int score, byte[] answers) {
+        if (answers.length > 0xFFFF) {
+            throw new IllegalArgumentException("An attempt can hold at most 65535 answers");
+        }
+        this.attemptId = attemptId;
+        this.quizId = quizId;
+        this.seed = seed;
+        this.startedAt = startedAt;
+        this.submittedAt = submittedAt;
+        this.score = score;
+        this.answers = answers;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the record, or null if the input ended cleanly before a new record
+     * @throws EOFException if the input ends in the middle of a record
+     */
+    public static AttemptRecord read(DataInput in) throws IOException {
+        long attemptId;
+        try {
+            attemptId = in.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+        int quizId = in.readInt();
+        long seed = in.readLong();
+        long startedAt = in.readLong();
+        long submittedAt = in.readLong();
+        int score = in.readInt();
+        byte[] answers = new byte[in.readUnsignedShort()];
+        in.readFully(answers);
+        return new AttemptRecord(attemptId, quizId, seed, startedAt, submittedAt, score, answers);
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(attemptId);
+        out.writeInt(quizId);
+        out.writeLong(seed);
+        out.writeLong(startedAt);
+        out.writeLong(submittedAt);
+        out.writeInt(score);
+        out.writeShort(answers.length);
+        out.write(answers);
+    }
+
+    /**
+     * Size of the binary form of this record in bytes.
+     */
+    public int byteSize() {
+        return HEADER_BYTES + answers.length;
+    }
+
+    /**
+     * Returns a copy of this record with a different score, used when an attempt is re-graded.
+     */
+    public AttemptRecord withScore(int newScore) {
+        return new AttemptRecord(attemptId, quizId, seed, startedAt, submittedAt, newScore, answers);
+    }
+
+    public long getAttemptId() {
+        return attemptId;
+    }
+
+    public int getQuizId() {
+        return quizId;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the answer sheet. The array is shared, not copied, and must not be modified.
+     */
+    public byte[] getAnswers() {
+        return answers;
+    }
+}
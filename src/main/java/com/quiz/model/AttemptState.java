@@ -0,0 +1,135 @@
+package com.quiz.model;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * State of one quiz attempt in progress, as kept by an {@code AttemptStateStore}.
+ * <p>
+ * Only primitives are kept: the shuffle is rebuilt from the seed, and the quiz is read from the
+ * catalog, so an attempt encodes to {@value #HEADER_BYTES} bytes plus one byte per question and
+ * can be served by any node that has the same catalog.
+ * <p>
+ * Binary form (big-endian): format (byte), quiz id (int), catalog version (long), seed (long),
+ * started at (long, epoch millis), current index (unsigned short), answer count (unsigned short),
+ * answers (one byte per question, as in {@link AttemptRecord}).
+ */
+public class AttemptState {
+
+    public static final int HEADER_BYTES = 1 + 4 + 8 + 8 + 8 + 2 + 2;
+
+    private static final byte FORMAT = 1;
+
+    private final int quizId;
+    private final long catalogVersion;
+    private final long seed;
+    private final long startedAt;
+    private final byte[] answers;
+    private int currentIndex;
+
+    public AttemptState(int quizId, long catalogVersion, long seed, long startedAt, int currentIndex, byte[] answers) {
+        if (answers.length > 0xFFFF) {
+            throw new IllegalArgumentException("An attempt can hold at most 65535 answers");
+        }
+        this.quizId = quizId;
+        this.catalogVersion = catalogVersion;
+        this.seed = seed;
+        this.startedAt = startedAt;
+        this.currentIndex = currentIndex;
+        this.answers = answers;
+    }
+
+    /**
+     * Decodes the binary form written by {@link #toBytes()}.
+     *
+     * @throws IllegalArgumentException if the bytes are not an encoded attempt
+     */
+    public static AttemptState fromBytes(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            byte format = buffer.get();
+            if (format != FORMAT) {
+                throw new IllegalArgumentException("Unsupported attempt state format " + format);
+            }
+            int quizId = buffer.getInt();
+            long catalogVersion = buffer.getLong();
+            long seed = buffer.getLong();
+            long startedAt = buffer.getLong();
+            int currentIndex = Short.toUnsignedInt(buffer.getShort());
+            byte[] answers = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(answers);
+            return new AttemptState(quizId, catalogVersion, seed, startedAt, currentIndex, answers);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated attempt state (" + bytes.length + " bytes)", e);
+        }
+    }
+
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(HEADER_BYTES + answers.length)
+                .put(FORMAT)
+                .putInt(quizId)
+                .putLong(catalogVersion)
+                .putLong(seed)
+                .putLong(startedAt)
+                .putShort((short) currentIndex)
+                .putShort((short) answers.length)
+                .put(answers)
+                .array();
+    }
+
+    /**
+     * Returns a copy with its own answer sheet, e.g. to keep the state as it was read from a store
+     * while this one is changed.
+     */
+    public AttemptState copy() {
+        return new AttemptState(quizId, catalogVersion, seed, startedAt, currentIndex, answers.clone());
+    }
+
+    /**
+     * Size of the binary form of this state in bytes.
+     */
+    public int byteSize() {
+        return HEADER_BYTES + answers.length;
+    }
+
+    public int getQuizId() {
+        return quizId;
+    }
+
+    /**
+     * Version of the catalog the attempt was started with.
+     */
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * Seed of the attempt's shuffle; see {@code QuizShuffler.permutation}.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Display position of the question the attempt is on.
+     */
+    public int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    public void setCurrentIndex(int currentIndex) {
+        this.currentIndex = currentIndex;
+    }
+
+    /**
+     * Returns the answer sheet (catalog order, see {@code AnswerGrader}). Changes to it are kept
+     * once the state is put back into the store.
+     */
+    public byte[] getAnswers() {
+        return answers;
+    }
+}
@@ -0,0 +1,44 @@
+package com.quiz.model;
+
+import java.io.Serializable;
+
+/**
+ * Compact outcome of grading one attempt: the score and one correctness bit per question.
+ * <p>
+ * Bit {@code i} of the mask belongs to the question at position {@code i} of the graded
+ * question list (catalog order for the primitive grading path, the shuffled order for
+ * {@code QuizService.evaluateQuiz}).
+ */
+public class Grade implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int score;
+    private final int totalQuestions;
+    private final long[] correct;   // 64 questions per word
+
+    public Grade(int score, int totalQuestions, long[] correct) {
+        this.score = score;
+        this.totalQuestions = totalQuestions;
+        this.correct = correct;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getTotalQuestions() {
+        return totalQuestions;
+    }
+
+    public boolean isCorrect(int position) {
+        return (correct[position >>> 6] & (1L << position)) != 0;
+    }
+
+    /**
+     * Returns the correctness mask. The array is shared, not copied, and must not be modified.
+     */
+    public long[] getCorrectMask() {
+        return correct;
+    }
+}
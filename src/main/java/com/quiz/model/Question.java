@@ -11,6 +11,9 @@ public class Question {
     private String question;
     private List<String> options;
     private String correctAnswer;
+    private String tag;            // optional topic, used to stratify samples
+    private Double difficulty;     // optional, null if unrated; on the ability scale of adaptive quizzes
+    private Double discrimination; // optional, how sharply the question separates abilities; null for 1
 
 
     // Default no-argument constructor required by javaBean spec
@@ -57,6 +60,30 @@ public class Question {
         this.correctAnswer = correctAnswer;
     }
 
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    public Double getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(Double difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public Double getDiscrimination() {
+        return discrimination;
+    }
+
+    public void setDiscrimination(Double discrimination) {
+        this.discrimination = discrimination;
+    }
+
     public boolean isCorrectAnswer(String answer) {
         return this.correctAnswer.equals(answer);
     }
@@ -4,13 +4,24 @@ import java.util.List;
 
 /**
  * Represents a complete quiz containing multiple questions
- *
+ * <p>
+ * A quiz with a {@code sampleSize} is a question pool: every attempt is asked that many of its
+ * questions, drawn at random when the attempt starts. With {@code stratifyBy} set to
+ * {@code "tag"} or {@code "difficulty"}, each tag or difficulty level gets its share of the
+ * sample in proportion to its share of the pool.
+ * <p>
+ * An {@code adaptive} quiz instead picks each question from the answers given so far, by the
+ * difficulty and discrimination of its questions (see {@code com.quiz.catalog.ItemBank}); the
+ * sample size is then the length of the test.
  */
 public class Quiz {
     private int id;
     private String title;
     private String description;
     private List<Question> questions;
+    private int sampleSize;        // questions per attempt, 0 for all of them
+    private String stratifyBy;     // "tag", "difficulty", or null for a plain random sample
+    private boolean adaptive;      // questions chosen one at a time from the answers so far
 
     public Quiz() {}
 
@@ -56,4 +67,37 @@ public class Quiz {
     public int getTotalQuestions() {
         return questions != null ? questions.size() : 0;
     }
+
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    public void setSampleSize(int sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+
+    public String getStratifyBy() {
+        return stratifyBy;
+    }
+
+    public void setStratifyBy(String stratifyBy) {
+        this.stratifyBy = stratifyBy;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * Number of questions one attempt is asked: the sample size, or every question if the quiz
+     * is not sampled or its pool is not larger than the sample.
+     */
+    public int getQuestionsPerAttempt() {
+        int total = getTotalQuestions();
+        return sampleSize > 0 && sampleSize < total ? sampleSize : total;
+    }
 }
\ No newline at end of file
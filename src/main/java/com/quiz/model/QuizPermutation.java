@@ -0,0 +1,166 @@
+package com.quiz.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The order in which one quiz attempt shows the questions of a quiz and the options of each question.
+ * <p>
+ * An attempt keeps this permutation in its session instead of a shuffled copy of the quiz. The quiz
+ * itself stays the shared catalog instance; the shuffled question and its lettered options are
+ * mapped on the fly when a question is rendered or graded. For a quiz with n questions of k options
+ * the permutation costs 3n ints plus n * k bytes: the orders, and the display position of each
+ * question and the start of its options, so that mapping either way is a lookup.
+ * <p>
+ * The seed the permutation was generated from is kept with it, so the exact order an attempt showed
+ * can be rebuilt later from the seed alone.
+ */
+public class QuizPermutation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int quizId;
+    private final long seed;
+    private final int[] questionOrder;   // display position -> position of the question in the quiz
+    private final byte[] optionOrder;    // per displayed question, in display order: display option -> original option
+    private final int[] optionStarts;    // display position -> index of its first option in optionOrder, then the total
+    private final int[] displayOrder;    // position of the question in the quiz -> display position, -1 if not shown
+
+    /**
+     * @param optionStarts for each display position, the index in {@code optionOrder} where the
+     *                     options of its question start, followed by the length of {@code optionOrder}
+     */
+    public QuizPermutation(int quizId, long seed, int[] questionOrder, byte[] optionOrder, int[] optionStarts) {
+        this.quizId = quizId;
+        this.seed = seed;
+        this.questionOrder = questionOrder;
+        this.optionOrder = optionOrder;
+        this.optionStarts = optionStarts;
+        int positions = 0;
+        for (int position : questionOrder) {
+            positions = Math.max(positions, position + 1);
+        }
+        displayOrder = new int[positions];
+        Arrays.fill(displayOrder, -1);
+        for (int d = 0; d < questionOrder.length; d++) {
+            displayOrder[questionOrder[d]] = d;
+        }
+    }
+
+    public int getQuizId() {
+        return quizId;
+    }
+
+    /**
+     * Returns the seed this permutation was generated from.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Number of questions the attempt shows.
+     */
+    public int size() {
+        return questionOrder.length;
+    }
+
+    /**
+     * Returns the position in the quiz of the question shown at the given display position.
+     */
+    public int questionIndex(int position) {
+        return questionOrder[position];
+    }
+
+    /**
+     * Returns the display position of the question at the given position of the quiz, or -1 if the
+     * attempt does not show it.
+     */
+    public int displayPosition(int questionPosition) {
+        return questionPosition >= 0 && questionPosition < displayOrder.length ? displayOrder[questionPosition] : -1;
+    }
+
+    /**
+     * Returns the question shown at the given display position, with its options in display order
+     * and its correct answer converted to the letter of the matching option.
+     */
+    public Question question(Quiz quiz, int position) {
+        return view(quiz.getQuestions().get(questionOrder[position]), optionStarts[position]);
+    }
+
+    /**
+     * Returns the original index of each option of the question shown at the given display
+     * position, in display order.
+     */
+    public int[] originalOptions(int position) {
+        int start = optionStarts[position];
+        int[] options = new int[optionStarts[position + 1] - start];
+        for (int i = 0; i < options.length; i++) {
+            options[i] = optionOrder[start + i];
+        }
+        return options;
+    }
+
+    /**
+     * Builds the full shuffled quiz, in the same form {@code QuizService.shuffleQuiz} returns.
+     * Used once per attempt for grading and the result page, never stored in the session.
+     */
+    public Quiz apply(Quiz quiz) {
+        List<Question> questions = new ArrayList<>(questionOrder.length);
+        for (int d = 0; d < questionOrder.length; d++) {
+            questions.add(view(quiz.getQuestions().get(questionOrder[d]), optionStarts[d]));
+        }
+        return new Quiz(quiz.getId(), quiz.getTitle(), quiz.getDescription(), questions);
+    }
+
+    /**
+     * Maps an option the attempt showed back to the quiz: for the question at the given position of
+     * the quiz, returns the original index of the option displayed at {@code displayOption}, or -1 if
+     * the question has no such option.
+     */
+    public int originalOption(int questionPosition, int displayOption) {
+        int d = displayPosition(questionPosition);
+        if (d < 0) {
+            return -1;
+        }
+        int start = optionStarts[d];
+        return displayOption >= 0 && displayOption < optionStarts[d + 1] - start ? optionOrder[start + displayOption] : -1;
+    }
+
+    /**
+     * Converts an answer sheet (original option index per question, in quiz order, -1 if unanswered)
+     * into the letters the attempt showed, keyed by question id, as the result page expects.
+     */
+    public Map<Integer, String> letters(Quiz quiz, byte[] answers) {
+        Map<Integer, String> letters = new HashMap<>();
+        for (int d = 0; d < questionOrder.length; d++) {
+            int position = questionOrder[d];
+            for (int o = optionStarts[d]; answers[position] >= 0 && o < optionStarts[d + 1]; o++) {
+                if (optionOrder[o] == answers[position]) {
+                    letters.put(quiz.getQuestions().get(position).getId(), String.valueOf((char) ('A' + o - optionStarts[d])));
+                }
+            }
+        }
+        return letters;
+    }
+
+    private Question view(Question original, int start) {
+        List<String> originalOptions = original.getOptions();
+        int correct = originalOptions.indexOf(original.getCorrectAnswer());
+
+        String[] options = new String[originalOptions.size()];
+        String correctLetter = null;
+        for (int d = 0; d < options.length; d++) {
+            int source = optionOrder[start + d];
+            options[d] = originalOptions.get(source);
+            if (source == correct) {
+                correctLetter = String.valueOf((char) ('A' + d));
+            }
+        }
+        return new Question(original.getId(), original.getQuestion(), Arrays.asList(options), correctLetter);
+    }
+}
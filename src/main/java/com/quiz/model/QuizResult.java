@@ -4,16 +4,24 @@ import java.util.Map;
 
 /**
  * Represents the results and statistics of a completed quiz attempt
- *
+ * <p>
+ * When the attempt was graded through the primitive path the result is a view over its
+ * compact {@link Grade}, with the quiz and answers kept only for rendering the result page.
  */
 public class QuizResult {
     private Quiz quiz;
     private Map<Integer, String> userAnswers;
     private int score;
     private int totalQuestions;
+    private Grade grade;
 
     public QuizResult() {}
 
+    public QuizResult(Quiz quiz, Map<Integer, String> userAnswers, Grade grade) {
+        this(quiz, userAnswers, grade.getScore(), grade.getTotalQuestions());
+        this.grade = grade;
+    }
+
     public QuizResult(Quiz quiz, Map<Integer, String> userAnswers, int score, int totalQuestions) {
         this.quiz = quiz;
         this.userAnswers = userAnswers;
@@ -53,6 +61,10 @@ public class QuizResult {
         this.totalQuestions = totalQuestions;
     }
 
+    public Grade getGrade() {
+        return grade;
+    }
+
     public double getPercentage() {
         if (totalQuestions == 0) return 0;
         return (score * 100.0) / totalQuestions;
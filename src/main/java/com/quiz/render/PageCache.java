@@ -0,0 +1,349 @@
+package com.quiz.render;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.metrics.QuizMetrics;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.service.QuizLoader;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Output rendered from the catalog, kept until the catalog version changes.
+ * <p>
+ * The home page and the JSON catalog ({@code /api/quiz/catalog}) depend only on the catalog, so
+ * they are built once per catalog version as {@link RenderedPage}s: UTF-8 bytes plus a gzip copy
+ * when {@code quiz.render.precompress} is on (the default). Every other request gets the same
+ * bytes with the page's ETag and Last-Modified, so a repeat visitor's conditional GET is answered
+ * with 304.
+ * <p>
+ * Both list the catalog's {@link QuizSummary} projection, built once per catalog version, so
+ * neither touches a question. The home page shows {@code quiz.home.page-size} quizzes at a time,
+ * each page after a cursor (the id of the last quiz of the page before). A page that is not cached
+ * yet is streamed to its client as Thymeleaf renders it, and the bytes sent are kept as the cached
+ * page; time to first byte therefore depends on the page size, not on the size of the catalog.
+ * <p>
+ * The question page changes with every attempt, so only its per-quiz parts are cached, as
+ * {@link QuizFragments}. An attempt is shown from the catalog it started with, so fragments are
+ * also kept for the replaced catalogs that {@link QuizLoader} still retains, apart from the live
+ * catalog's entries: a request for an older version never drops those of the live one.
+ */
+@Component
+public class PageCache {
+
+    private static final MediaType HTML = MediaType.parseMediaType("text/html;charset=UTF-8");
+    private static final MediaType JSON = MediaType.parseMediaType("application/json");
+
+    @Autowired
+    private QuizLoader quizLoader;
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QuizMetrics metrics;
+
+    // build gzip copies of the cached bodies; off leaves compression to server.compression
+    @Value("${quiz.render.precompress:true}")
+    private boolean precompress = true;
+
+    // quizzes per home page
+    @Value("${quiz.home.page-size:50}")
+    private int homePageSize = 50;
+
+    private volatile CatalogEntries entries = new CatalogEntries(-1, List.of());
+
+    // entries of replaced catalogs still retained by the loader, by version
+    private final ConcurrentMap<Long, CatalogEntries> retiredEntries = new ConcurrentHashMap<>();
+
+    /**
+     * A quiz as listed on the home page and in the JSON catalog. {@code questionsPerAttempt} is less
+     * than {@code totalQuestions} when every attempt is asked a sample of the questions.
+     */
+    public record QuizSummary(int id, String title, String description, int totalQuestions, int questionsPerAttempt) {
+
+        public static QuizSummary of(Quiz quiz) {
+            return new QuizSummary(quiz.getId(), quiz.getTitle(), quiz.getDescription(),
+                    quiz.getTotalQuestions(), quiz.getQuestionsPerAttempt());
+        }
+    }
+
+    /**
+     * One page of the home listing: the quizzes from catalog position {@code start}, of {@code total},
+     * and the cursor of the next page, or null on the last page.
+     */
+    public record Listing(List<QuizSummary> quizzes, int start, int total, Integer next) {
+
+        public boolean hasPrevious() {
+            return start > 0;
+        }
+    }
+
+    /**
+     * A quiz with its questions and options in catalog order, without the correct answers.
+     */
+    public record QuizPreview(int id, String title, String description, List<QuestionPreview> questions) {
+    }
+
+    public record QuestionPreview(int id, String question, List<String> options) {
+    }
+
+    // entries built per quiz, dropped together when the catalog version changes
+    private record CatalogEntries(long version, List<QuizSummary> summaries, RenderedPage catalogJson,
+                                  ConcurrentMap<Integer, RenderedPage> homePages,
+                                  ConcurrentMap<Integer, QuizFragments> fragments,
+                                  ConcurrentMap<Integer, RenderedPage> quizJson) {
+
+        CatalogEntries(long version, List<QuizSummary> summaries) {
+            this(version, summaries, null, new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Answers a request for the home page after the quiz with id {@code after}, or the first page
+     * when {@code after} is null or no longer in the catalog.
+     * <p>
+     * A cached page is returned as a response with its validators. Otherwise the page is written
+     * to the response while it is rendered and {@code null} is returned, as it is when a
+     * conditional GET is answered with 304. Only the pages reached from the first one by their
+     * "Next" cursors are cached, so a catalog of N quizzes caches at most N / page size pages; a
+     * page starting elsewhere (a cursor kept across a reload) is rendered for every request.
+     */
+    public ResponseEntity<byte[]> home(Integer after, ServletWebRequest webRequest, String acceptEncoding)
+            throws IOException {
+        QuizCatalog catalog = quizLoader.getCatalog();
+        CatalogEntries current = entries(catalog);
+        int start = after == null ? 0 : catalog.slotOf(after) + 1;
+        RenderedPage page = current.homePages().get(start);
+        if (page != null) {
+            return page.toResponse(acceptEncoding);
+        }
+        // the body is not known before it is sent, so the tag names the page instead of its checksum;
+        // the publication time changes the tags when a restart may have changed the templates
+        String etag = "\"" + Long.toHexString(catalog.getVersion()) + "-"
+                + Long.toHexString(catalog.getCreatedAt().toEpochMilli()) + "-p" + start + "\"";
+        Instant lastModified = catalog.getCreatedAt().truncatedTo(ChronoUnit.SECONDS);
+        if (webRequest.checkNotModified(etag, lastModified.toEpochMilli())) {
+            return null;
+        }
+
+        HttpServletResponse response = webRequest.getResponse();
+        response.setContentType(HTML.toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ByteArrayOutputStream copy = new ByteArrayOutputStream(8192);
+        long began = System.nanoTime();
+        // no Content-Length: the servlet container sends each buffer it fills as a chunk
+        Writer out = new OutputStreamWriter(new Tee(response.getOutputStream(), copy), StandardCharsets.UTF_8);
+        templateEngine.process("home", context(webRequest.getRequest(), response,
+                Map.of("listing", listing(current.summaries(), start))), out);
+        out.flush();
+        metrics.recordRender("home", System.nanoTime() - began);
+
+        if (start % homePageSize == 0) {
+            // a racing request may have streamed the same page; either copy will do
+            current.homePages().putIfAbsent(start, RenderedPage.of(catalog.getVersion(), catalog.getCreatedAt(),
+                    HTML, copy.toByteArray(), precompress, etag));
+        }
+        return null;
+    }
+
+    /**
+     * Returns the summaries of the quizzes of the given catalog, in catalog order.
+     */
+    public List<QuizSummary> summaries(QuizCatalog catalog) {
+        return entries(catalog).summaries();
+    }
+
+    private Listing listing(List<QuizSummary> summaries, int start) {
+        int end = Math.min(start + homePageSize, summaries.size());
+        List<QuizSummary> quizzes = summaries.subList(Math.min(start, end), end);
+        Integer next = end < summaries.size() ? summaries.get(end - 1).id() : null;
+        return new Listing(quizzes, start, summaries.size(), next);
+    }
+
+    /**
+     * Returns the JSON list of the quizzes of the current catalog.
+     */
+    public RenderedPage catalogJson() {
+        QuizCatalog catalog = quizLoader.getCatalog();
+        CatalogEntries current = entries(catalog);
+        if (current.catalogJson() != null) {
+            return current.catalogJson();
+        }
+        RenderedPage page = json(catalog, current.summaries());
+        // publish the list with the entries built so far; a racing request may build the same list again
+        CatalogEntries updated = new CatalogEntries(current.version(), current.summaries(), page,
+                current.homePages(), current.fragments(), current.quizJson());
+        if (entries == current) {
+            entries = updated;
+        }
+        return page;
+    }
+
+    /**
+     * Returns the JSON preview of a quiz of the current catalog, or {@code null} if there is no such quiz.
+     */
+    public RenderedPage quizJson(int quizId) {
+        QuizCatalog catalog = quizLoader.getCatalog();
+        Quiz quiz = catalog.getQuiz(quizId);
+        if (quiz == null) {
+            return null;
+        }
+        return entries(catalog).quizJson().computeIfAbsent(quizId, id -> {
+            List<QuestionPreview> questions = new ArrayList<>(quiz.getTotalQuestions());
+            for (Question question : quiz.getQuestions()) {
+                questions.add(new QuestionPreview(question.getId(), question.getQuestion(), question.getOptions()));
+            }
+            return json(catalog, new QuizPreview(quiz.getId(), quiz.getTitle(), quiz.getDescription(), questions));
+        });
+    }
+
+    /**
+     * Returns the cached fragments of a quiz of the given catalog, indexed by catalog position.
+     */
+    public QuizFragments fragments(QuizCatalog catalog, int quizId) {
+        return entries(catalog).fragments().computeIfAbsent(quizId, id -> QuizFragments.of(catalog.getQuiz(id)));
+    }
+
+    private CatalogEntries entries(QuizCatalog catalog) {
+        CatalogEntries current = entries;
+        if (current.version() == catalog.getVersion()) {
+            return current;
+        }
+        if (quizLoader.getCatalog().getVersion() != catalog.getVersion()) {
+            return retiredEntries(catalog);
+        }
+        // the live catalog changed; a racing request may build the same entries again
+        current = new CatalogEntries(catalog.getVersion(), summariesOf(catalog));
+        entries = current;
+        dropUnretained();
+        return current;
+    }
+
+    private CatalogEntries retiredEntries(QuizCatalog catalog) {
+        CatalogEntries retired = retiredEntries.get(catalog.getVersion());
+        if (retired != null) {
+            return retired;
+        }
+        retired = new CatalogEntries(catalog.getVersion(), summariesOf(catalog));
+        if (quizLoader.getCatalog(catalog.getVersion()) == null) {
+            // no longer retained, so no other attempt can ask for it: build the entries for this request only
+            return retired;
+        }
+        CatalogEntries raced = retiredEntries.putIfAbsent(catalog.getVersion(), retired);
+        dropUnretained();
+        return raced != null ? raced : retired;
+    }
+
+    // keeps the map within the versions the loader retains
+    private void dropUnretained() {
+        long live = quizLoader.getCatalog().getVersion();
+        retiredEntries.keySet().removeIf(version -> version == live || quizLoader.getCatalog(version) == null);
+    }
+
+    private static List<QuizSummary> summariesOf(QuizCatalog catalog) {
+        List<QuizSummary> summaries = new ArrayList<>(catalog.size());
+        for (Quiz quiz : catalog.getQuizzes()) {
+            summaries.add(QuizSummary.of(quiz));
+        }
+        return List.copyOf(summaries);
+    }
+
+    private WebContext context(HttpServletRequest request, HttpServletResponse response, Map<String, Object> variables) {
+        // the page is shared by every visitor, so links must not carry this visitor's session id
+        return new WebContext(
+                JakartaServletWebApplication.buildApplication(request.getServletContext())
+                        .buildExchange(request, new NoUrlRewriting(response)),
+                request.getLocale(),
+                variables);
+    }
+
+    private RenderedPage json(QuizCatalog catalog, Object value) {
+        try {
+            return RenderedPage.of(catalog.getVersion(), catalog.getCreatedAt(), JSON,
+                    objectMapper.writeValueAsBytes(value), precompress);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write the catalog as JSON", e);
+        }
+    }
+
+    /**
+     * Writes the page to the client and to the copy that will be cached.
+     */
+    private static final class Tee extends OutputStream {
+
+        private final OutputStream client;
+        private final ByteArrayOutputStream copy;
+
+        Tee(OutputStream client, ByteArrayOutputStream copy) {
+            this.client = client;
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            client.write(b);
+            copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            client.write(b, off, len);
+            copy.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            client.flush();
+        }
+    }
+
+    private static final class NoUrlRewriting extends HttpServletResponseWrapper {
+
+        NoUrlRewriting(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public String encodeURL(String url) {
+            return url;
+        }
+
+        @Override
+        public String encodeRedirectURL(String url) {
+            return url;
+        }
+    }
+}
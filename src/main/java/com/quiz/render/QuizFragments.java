@@ -0,0 +1,77 @@
+package com.quiz.render;
+
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
+import org.unbescape.html.HtmlEscape;
+
+import java.util.List;
+
+/**
+ * The parts of a quiz's question page that are the same for every attempt: the quiz title, the
+ * question stems and the option texts, HTML-escaped once per catalog version and inserted
+ * unescaped by {@code quiz.html}.
+ * <p>
+ * Options are shown in a different order in every attempt, so they are kept per option and put in
+ * the attempt's display order with {@link #options}. Escaping is the one Thymeleaf applies to
+ * {@code th:text}, so the page is the same as when the text is escaped on every render.
+ */
+public final class QuizFragments {
+
+    private final String title;
+    private final String[] stems;       // position in quiz -> escaped question
+    private final String[][] options;   // position in quiz -> original option index -> escaped option
+
+    private QuizFragments(String title, String[] stems, String[][] options) {
+        this.title = title;
+        this.stems = stems;
+        this.options = options;
+    }
+
+    public static QuizFragments of(Quiz quiz) {
+        List<Question> questions = quiz.getQuestions();
+        String[] stems = new String[questions.size()];
+        String[][] options = new String[questions.size()][];
+        for (int q = 0; q < questions.size(); q++) {
+            Question question = questions.get(q);
+            stems[q] = escape(question.getQuestion());
+            List<String> texts = question.getOptions();
+            options[q] = new String[texts.size()];
+            for (int o = 0; o < texts.size(); o++) {
+                options[q][o] = escape(texts.get(o));
+            }
+        }
+        return new QuizFragments(escape(quiz.getTitle()), stems, options);
+    }
+
+    public String title() {
+        return title;
+    }
+
+    /**
+     * Returns the escaped text of the question at the given position of the quiz.
+     */
+    public String stem(int position) {
+        return stems[position];
+    }
+
+    /**
+     * Returns the escaped options of the question at the given position of the quiz, in the order
+     * an attempt shows them.
+     *
+     * @param order original option index of each option in display order, see
+     *              {@link QuizPermutation#originalOptions}
+     */
+    public String[] options(int position, int[] order) {
+        String[] byOriginal = options[position];
+        String[] shown = new String[order.length];
+        for (int i = 0; i < order.length; i++) {
+            shown[i] = byOriginal[order[i]];
+        }
+        return shown;
+    }
+
+    private static String escape(String text) {
+        return text == null ? "" : HtmlEscape.escapeHtml4Xml(text);
+    }
+}
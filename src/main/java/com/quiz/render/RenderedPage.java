@@ -0,0 +1,131 @@
+package com.quiz.render;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body built once for one catalog version and served as is until the catalog changes,
+ * already encoded: UTF-8 bytes, plus a gzip copy compressed at the highest level when that is smaller.
+ * Serving it costs no rendering, character encoding or compression; the shared bytes are written
+ * to the response as they are.
+ *
+ * @param catalogVersion version of the catalog the body was built from
+ * @param contentType    media type of the body, with its charset
+ * @param body           the body, UTF-8 encoded; shared, must not be modified
+ * @param gzipBody       the body gzip-compressed, or null; shared, must not be modified
+ * @param etag           strong entity tag of {@code body}: the catalog version and a checksum of the body,
+ *                       or a tag the page was already sent with
+ * @param lastModified   when the catalog was published, in whole seconds as HTTP dates carry them
+ */
+public record RenderedPage(long catalogVersion, MediaType contentType, byte[] body, byte[] gzipBody,
+                           String etag, Instant lastModified) {
+
+    /**
+     * Builds a page from its encoded body, compressing it once if {@code precompress} is set.
+     */
+    public static RenderedPage of(long catalogVersion, Instant catalogCreatedAt, MediaType contentType,
+                                  byte[] body, boolean precompress) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(body);
+        String etag = "\"" + Long.toHexString(catalogVersion) + "-" + Long.toHexString(checksum.getValue()) + "\"";
+        return of(catalogVersion, catalogCreatedAt, contentType, body, precompress, etag);
+    }
+
+    /**
+     * Builds a page whose entity tag was chosen before its body was complete, for a page that was
+     * streamed to its first client while being rendered.
+     */
+    public static RenderedPage of(long catalogVersion, Instant catalogCreatedAt, MediaType contentType,
+                                  byte[] body, boolean precompress, String etag) {
+        byte[] gzipBody = precompress ? gzip(body) : null;
+        return new RenderedPage(catalogVersion, contentType, body,
+                gzipBody != null && gzipBody.length < body.length ? gzipBody : null,
+                etag, catalogCreatedAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Entity tag of the gzip body. A strong tag belongs to one representation, so it differs from
+     * {@link #etag()}.
+     */
+    public String gzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    /**
+     * Builds the response for a request with the given {@code Accept-Encoding}: the gzip body if
+     * the client accepts it and there is one, the plain body otherwise. The response carries the
+     * validators of the chosen body and {@code Cache-Control: no-cache}, so clients revalidate and
+     * Spring MVC answers a matching conditional GET with 304.
+     */
+    public ResponseEntity<byte[]> toResponse(String acceptEncoding) {
+        boolean gzip = gzipBody != null && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .cacheControl(CacheControl.noCache())
+                .lastModified(lastModified)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").eTag(gzipEtag()).body(gzipBody);
+        }
+        return response.eTag(etag).body(body);
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header accepts gzip: listed (or {@code x-gzip}) with a
+     * non-zero quality, or not listed while {@code *} is accepted.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                return quality > 0;
+            }
+            if (name.equals("*")) {
+                wildcard = quality > 0;
+            }
+        }
+        return wildcard;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
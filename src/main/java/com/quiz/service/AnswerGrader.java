@@ -0,0 +1,97 @@
+package com.quiz.service;
+
+import com.quiz.model.Grade;
+
+import java.util.Arrays;
+
+/**
+ * Grades answers held in primitive arrays.
+ * <p>
+ * An answer sheet is a {@code byte[]} with one entry per question of the quiz, in catalog order:
+ * the index of the chosen option in the question's original option list, or {@link #NO_ANSWER}.
+ * The answer key has the same layout (see {@code QuizCatalog.answerKey}). Grading compares the
+ * two arrays byte by byte and packs the outcome into a {@code long[]} mask, so nothing is boxed
+ * or allocated per question.
+ */
+public final class AnswerGrader {
+
+    /**
+     * Marks a question that was not answered, or a key entry without a correct option.
+     */
+    public static final byte NO_ANSWER = -1;
+
+    private AnswerGrader() {
+    }
+
+    /**
+     * Returns a new answer sheet for a quiz with the given number of questions, with nothing answered yet.
+     */
+    public static byte[] newAnswerSheet(int questionCount) {
+        byte[] answers = new byte[questionCount];
+        Arrays.fill(answers, NO_ANSWER);
+        return answers;
+    }
+
+    /**
+     * Returns a correctness mask large enough for the given number of questions.
+     */
+    public static long[] newMask(int questionCount) {
+        return new long[(questionCount + 63) >>> 6];
+    }
+
+    /**
+     * Grades an answer sheet into a new {@link Grade}.
+     */
+    public static Grade grade(byte[] answerKey, byte[] answers) {
+        long[] correct = newMask(answerKey.length);
+        return new Grade(grade(answerKey, answers, correct), answerKey.length, correct);
+    }
+
+    /**
+     * Grades an answer sheet into a caller-supplied mask and returns the score. Allocates nothing,
+     * so the same mask can be reused when grading many attempts in a row.
+     *
+     * @param correct mask of at least {@code newMask(answerKey.length).length} words; every word is overwritten
+     */
+    public static int grade(byte[] answerKey, byte[] answers, long[] correct) {
+        if (answers.length != answerKey.length) {
+            throw new IllegalArgumentException("Answer sheet has " + answers.length
+                    + " entries but the quiz has " + answerKey.length + " questions");
+        }
+        int score = 0;
+        int length = answerKey.length;
+        for (int word = 0, base = 0; base < length; word++, base += 64) {
+            int end = Math.min(length, base + 64);
+            long bits = 0;
+            for (int i = base; i < end; i++) {
+                byte answer = answers[i];
+                if (answer == answerKey[i] && answer != NO_ANSWER) {
+                    bits |= 1L << (i - base);
+                }
+            }
+            correct[word] = bits;
+            score += Long.bitCount(bits);
+        }
+        return score;
+    }
+
+    /**
+     * Sets the bit of one question in a correctness mask.
+     */
+    public static void markCorrect(long[] correct, int position) {
+        correct[position >>> 6] |= 1L << position;
+    }
+
+    /**
+     * Number of questions that have an answer on the sheet.
+     */
+    public static int answeredCount(byte[] answers) {
+        int answered = 0;
+        for (byte answer : answers) {
+            if (answer != NO_ANSWER) {
+                answered++;
+            }
+        }
+        return answered;
+    }
+}
@@ -0,0 +1,467 @@
+package com.quiz.service;
+
+import com.quiz.analytics.Leaderboards;
+import com.quiz.analytics.QuizAnalytics;
+import com.quiz.catalog.ItemBank;
+import com.quiz.catalog.QuestionSampler;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.exception.QuizException;
+import com.quiz.metrics.QuizMetrics;
+import com.quiz.model.AttemptRecord;
+import com.quiz.model.AttemptState;
+import com.quiz.model.Grade;
+import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
+import com.quiz.model.QuizResult;
+import com.quiz.store.AttemptIds;
+import com.quiz.store.AttemptLog;
+import com.quiz.store.AttemptStateStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Runs quiz attempts against the {@link AttemptStateStore}: starting, loading, answering and
+ * submitting. Shared by the page flow ({@code QuizController}, which keeps the attempt id in the
+ * session) and the JSON API ({@code QuizApiController}, where the client holds the id).
+ * <p>
+ * An attempt loaded here is a private copy of the stored state; changes are kept once it is
+ * {@link #save saved}. Saving checks that no other request saved the attempt since it was loaded,
+ * so concurrent requests cannot undo each other's answers, and {@link #update} applies a change
+ * again on top of a concurrent one. Submitting claims the attempt first, so it is graded, logged
+ * and ranked once however many submits race.
+ * <p>
+ * An attempt of a quiz with a sample size is asked a sample of the quiz's questions, drawn by the
+ * quiz's {@link QuestionSampler} from the attempt's seed. Only the seed is stored: the sample is
+ * drawn again whenever the attempt is loaded, and the answer sheet has one entry per sampled question.
+ * An attempt of an adaptive quiz gets its questions one at a time from the quiz's {@link ItemBank};
+ * they follow from the seed and the answers, so they are chosen again whenever it is loaded.
+ */
+@Service
+public class AttemptService {
+
+    // times a change is applied before a conflict with concurrent requests is given up on
+    private static final int UPDATE_TRIES = 8;
+
+    @Autowired
+    private QuizLoader quizLoader;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private AttemptStateStore attemptStore;
+
+    @Autowired
+    private QuizMetrics metrics;
+
+    @Autowired
+    private QuizAnalytics analytics;
+
+    @Autowired
+    private Leaderboards leaderboards;
+
+    // log of submitted attempts, when quiz.attempt.log.directory is set
+    @Autowired(required = false)
+    private AttemptLog attemptLog;
+
+    /**
+     * An attempt loaded for one request: its stored state plus the quiz and shuffle it is read against.
+     * {@link #quiz()} holds the questions the attempt is asked, in the order of its answer sheet:
+     * the catalog quiz, or the questions of its sample. {@link #sample()} holds their positions in
+     * the catalog quiz, or is null if the attempt is asked every question.
+     * <p>
+     * An adaptive attempt is asked its questions one at a time: its quiz holds the questions
+     * chosen so far, in the order they were chosen, and grows by one question with every answer.
+     */
+    public static final class Attempt {
+
+        private final long id;
+        private final AttemptState state;
+        private AttemptState stored;   // the state as last read from or written to the store, unchanged
+        private final QuizCatalog catalog;
+        private Quiz quiz;
+        private QuizPermutation shuffle;
+        private int[] sample;
+        private ItemBank.Run run;   // questions chosen and ability estimate, for an adaptive attempt
+
+        Attempt(long id, AttemptState state, QuizCatalog catalog, Quiz quiz, QuizPermutation shuffle, int[] sample) {
+            this.id = id;
+            this.state = state;
+            this.stored = state.copy();
+            this.catalog = catalog;
+            this.quiz = quiz;
+            this.shuffle = shuffle;
+            this.sample = sample;
+        }
+
+        public long id() {
+            return id;
+        }
+
+        public AttemptState state() {
+            return state;
+        }
+
+        public QuizCatalog catalog() {
+            return catalog;
+        }
+
+        public Quiz quiz() {
+            return quiz;
+        }
+
+        public QuizPermutation shuffle() {
+            return shuffle;
+        }
+
+        public int[] sample() {
+            return sample;
+        }
+
+        public boolean isAdaptive() {
+            return run != null;
+        }
+
+        /**
+         * Number of questions the attempt is asked, the length of its answer sheet. An adaptive
+         * attempt may not have been shown all of them yet.
+         */
+        public int questionCount() {
+            return state.getAnswers().length;
+        }
+
+        /**
+         * The ability estimate of an adaptive attempt from its answers so far, or null if the
+         * attempt is not adaptive.
+         */
+        public Double ability() {
+            return run == null ? null : run.ability();
+        }
+
+        /**
+         * Returns the position in the catalog quiz of the question at the given position of the answer sheet.
+         */
+        public int catalogPosition(int position) {
+            return sample == null ? position : sample[position];
+        }
+
+        /**
+         * Returns the answer sheet position of the question at the given position of the catalog
+         * quiz, or -1 if the attempt is not asked that question.
+         */
+        public int sheetPosition(int catalogPosition) {
+            if (sample == null) {
+                return catalogPosition;
+            }
+            if (run != null) {
+                // in the order the questions were chosen, at most one per answer
+                for (int i = 0; i < sample.length; i++) {
+                    if (sample[i] == catalogPosition) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+            int position = Arrays.binarySearch(sample, catalogPosition);
+            return position < 0 ? -1 : position;
+        }
+    }
+
+    /**
+     * Starts a new attempt of the quiz with a fresh shuffle and an empty answer sheet, and stores it.
+     */
+    public Attempt start(int quizId) {
+        // Validate quiz ID is positive
+        if (quizId <= 0) {
+            throw new QuizException(
+                "Invalid Quiz ID",
+                "The quiz ID must be a positive number.",
+                "Received quiz ID: " + quizId
+            );
+        }
+
+        QuizCatalog catalog = quizLoader.getCatalog();
+        Quiz quiz = catalog.getQuiz(quizId);
+        metrics.recordLookup(quiz != null);
+        if (quiz == null) {
+            throw QuizException.quizNotFound(quizId);
+        }
+
+        // Validate quiz has questions
+        if (quiz.getQuestions() == null || quiz.getQuestions().isEmpty()) {
+            throw new QuizException(
+                "Invalid Quiz",
+                "This quiz has no questions.",
+                "Quiz ID: " + quizId
+            );
+        }
+
+        // The shuffle seed, question index 0 to start from the first question, and an empty answer
+        // sheet (one chosen option index per question asked, in catalog order)
+        AttemptState state = new AttemptState(quizId, catalog.getVersion(), QuizShuffler.newSeed(),
+                System.currentTimeMillis(), 0, AnswerGrader.newAnswerSheet(quiz.getQuestionsPerAttempt()));
+        Attempt attempt = open(AttemptIds.next(), state, catalog, quiz);
+        attemptStore.put(attempt.id(), state);
+        metrics.recordAttemptState(state.byteSize());
+        metrics.attemptStarted();
+        return attempt;
+    }
+
+    /**
+     * Loads an attempt from the store and rebuilds its sample and shuffle from the seed.
+     * The attempt is read against the catalog version it started with, so a reload does not change
+     * the questions, options or answers it is graded on. Once that version is no longer kept
+     * (see {@link QuizLoader#getCatalog(long)}), the attempt cannot continue here. Its state is
+     * left in the store: the store may be shared with nodes that still keep that version, and the
+     * state expires with the store's TTL otherwise.
+     *
+     * @throws QuizException {@link QuizException#SESSION_EXPIRED} if there is no such attempt, or
+     *                       "Quiz Updated" if its catalog version is gone
+     */
+    public Attempt load(long attemptId) {
+        AttemptState state = attemptStore.get(attemptId);
+        if (state == null) {
+            throw QuizException.SESSION_EXPIRED;
+        }
+
+        QuizCatalog catalog = quizLoader.getCatalog(state.getCatalogVersion());
+        Quiz quiz = catalog == null ? null : catalog.getQuiz(state.getQuizId());
+        metrics.recordLookup(quiz != null);
+        if (quiz == null || quiz.getQuestionsPerAttempt() != state.getAnswers().length) {
+            throw QuizException.quizUpdated(state.getQuizId());
+        }
+        return open(attemptId, state, catalog, quiz);
+    }
+
+    // draws the attempt's sample, if its quiz has one, and shuffles the questions asked; an adaptive
+    // attempt replays its choices from its answers instead
+    private Attempt open(long attemptId, AttemptState state, QuizCatalog catalog, Quiz quiz) {
+        int slot = catalog.slotOf(quiz.getId());
+        ItemBank bank = catalog.itemBank(slot);
+        if (bank != null) {
+            Attempt attempt = new Attempt(attemptId, state, catalog, null, null, null);
+            showChosen(attempt, bank.replay(state.getSeed(), state.getAnswers(), catalog.answerKey(slot)));
+            return attempt;
+        }
+        QuestionSampler sampler = catalog.sampler(slot);
+        int[] sample = sampler == null ? null : sampler.sample(state.getSeed());
+        Quiz asked = sample == null ? quiz : QuestionSampler.view(quiz, sample);
+        return new Attempt(attemptId, state, catalog, asked, quizService.permute(asked, state.getSeed()), sample);
+    }
+
+    // points an adaptive attempt at the questions chosen so far
+    private void showChosen(Attempt attempt, ItemBank.Run run) {
+        Quiz quiz = attempt.catalog().getQuiz(attempt.state().getQuizId());
+        int[] chosen = run.items();
+        attempt.run = run;
+        attempt.sample = chosen;
+        attempt.quiz = QuestionSampler.view(quiz, chosen);
+        attempt.shuffle = quizService.permuteOptions(attempt.quiz, attempt.state().getSeed());
+    }
+
+    /**
+     * Records an answer on the attempt's answer sheet and returns the display position of the question.
+     * The answer is the letter the user picked; it is mapped back to the option's original index
+     * through the attempt's shuffle, so the sheet can be graded against the catalog's answer key.
+     * <p>
+     * In an adaptive attempt only the newest question can be answered, since the answers decide
+     * which questions follow; the answer updates the ability estimate and chooses the next question.
+     */
+    public int recordAnswer(Attempt attempt, int questionId, String answer) {
+        // Validate question ID is valid
+        if (questionId <= 0) {
+            throw new QuizException(
+                "Invalid Question",
+                "The question ID is invalid.",
+                "Question ID: " + questionId
+            );
+        }
+
+        // Validate question exists in current quiz (indexed lookup, no scan over the questions)
+        // and is one this attempt is asked
+        int position = attempt.catalog().indexOfQuestion(attempt.state().getQuizId(), questionId);
+        if (position >= 0) {
+            position = attempt.sheetPosition(position);
+        }
+        if (position < 0) {
+            throw new QuizException(
+                "Question Not Found",
+                "The specified question does not exist in this quiz.",
+                "Question ID: " + questionId
+            );
+        }
+
+        // Validate the answer is the letter of one of the question's options
+        String letter = answer == null ? "" : answer.trim();
+        int option = letter.length() == 1
+                ? attempt.shuffle().originalOption(position, letter.charAt(0) - 'A')
+                : -1;
+        if (option < 0) {
+            throw new QuizException(
+                "Invalid Answer",
+                "The selected answer is not one of the options.",
+                "Answer: " + answer
+            );
+        }
+
+        if (attempt.isAdaptive() && position != attempt.sample().length - 1) {
+            throw new QuizException(
+                "Answer Locked",
+                "This quiz chooses its questions from your answers, so earlier answers cannot be changed.",
+                "Question ID: " + questionId
+            );
+        }
+
+        byte[] answers = attempt.state().getAnswers();
+        boolean firstAnswer = answers[position] == AnswerGrader.NO_ANSWER;
+        answers[position] = (byte) option;
+        if (attempt.isAdaptive()) {
+            QuizCatalog catalog = attempt.catalog();
+            int slot = catalog.slotOf(attempt.state().getQuizId());
+            if (firstAnswer) {
+                attempt.run.record(option == catalog.answerKey(slot)[attempt.catalogPosition(position)]);
+                if (attempt.run.selectNext()) {
+                    showChosen(attempt, attempt.run);
+                }
+            } else {
+                // the last question of a complete test, answered again: estimate from the sheet as it is now
+                attempt.run = catalog.itemBank(slot).replay(attempt.state().getSeed(), answers, catalog.answerKey(slot));
+            }
+        }
+        return attempt.shuffle().displayPosition(position);
+    }
+
+    /**
+     * Moves the attempt to the question at the given display position.
+     */
+    public void moveTo(Attempt attempt, int index) {
+        if (index < 0 || index >= attempt.shuffle().size()) {
+            throw new QuizException(
+                "Invalid Question Index",
+                "There is no question at this position.",
+                "Question index: " + index + " of " + attempt.shuffle().size()
+            );
+        }
+        attempt.state().setCurrentIndex(index);
+    }
+
+    /**
+     * Loads the attempt, applies the change to it and saves it. If another request saved the attempt
+     * in between, the change is applied again to the attempt as that request left it, so concurrent
+     * answers to one attempt are all kept.
+     *
+     * @throws QuizException {@link QuizException#ATTEMPT_CHANGED} if the attempt kept changing
+     */
+    public Attempt update(long attemptId, Consumer<Attempt> change) {
+        for (int i = 0; i < UPDATE_TRIES; i++) {
+            Attempt attempt = load(attemptId);
+            change.accept(attempt);
+            if (trySave(attempt)) {
+                return attempt;
+            }
+        }
+        throw QuizException.ATTEMPT_CHANGED;
+    }
+
+    /**
+     * Writes the attempt back to the store, unless another request saved a different state since it
+     * was loaded. Saving the state already stored, as a repeated request does, succeeds.
+     *
+     * @throws QuizException {@link QuizException#ATTEMPT_CHANGED} if another request changed the attempt
+     */
+    public void save(Attempt attempt) {
+        if (!trySave(attempt)) {
+            throw QuizException.ATTEMPT_CHANGED;
+        }
+    }
+
+    private boolean trySave(Attempt attempt) {
+        AttemptState state = attempt.state();
+        if (!attemptStore.replace(attempt.id(), attempt.stored, state)) {
+            AttemptState current = attemptStore.get(attempt.id());
+            if (current == null) {
+                throw QuizException.SESSION_EXPIRED;   // submitted, discarded or evicted meanwhile
+            }
+            if (!Arrays.equals(current.toBytes(), state.toBytes())) {
+                return false;
+            }
+        }
+        attempt.stored = state.copy();
+        metrics.recordAttemptState(state.byteSize());
+        return true;
+    }
+
+    /**
+     * Grades the attempt, removes it from the store, appends it to the attempt log if there is one,
+     * and records it in the live analytics and on the leaderboard.
+     * <p>
+     * The attempt is claimed by removing it only if it is still stored as it was loaded: of several
+     * concurrent submits, only the one that removed it logs and records it. If the append fails, the
+     * attempt is put back with its answers, so the submit can be retried.
+     *
+     * @throws QuizException {@link QuizException#NO_ANSWERS} if no question has been answered,
+     *                       {@link QuizException#SESSION_EXPIRED} if it was submitted meanwhile
+     */
+    public QuizResult submit(Attempt attempt) {
+        byte[] answers = attempt.state().getAnswers();
+
+        // Validate user has answered at least one question
+        if (AnswerGrader.answeredCount(answers) == 0) {
+            throw QuizException.NO_ANSWERS;
+        }
+
+        // Grade the answer sheet against the catalog's answer key (primitive arrays, no per-question
+        // allocation), or against the key of the questions the attempt was asked
+        QuizCatalog catalog = attempt.catalog();
+        QuizPermutation shuffle = attempt.shuffle();
+        Grade grade = quizService.grade(answerKey(attempt), answers);
+
+        // Build the shuffled quiz and the chosen letters once, for the result
+        Quiz quiz = attempt.quiz();
+        QuizResult result = new QuizResult(shuffle.apply(quiz), shuffle.letters(quiz, answers), grade);
+        AttemptState state = attempt.state();
+        AttemptRecord record = new AttemptRecord(attempt.id(), state.getQuizId(), state.getSeed(),
+                state.getStartedAt(), System.currentTimeMillis(), grade.getScore(), answers);
+        if (!attemptStore.remove(attempt.id(), attempt.stored)) {
+            throw attemptStore.get(attempt.id()) == null ? QuizException.SESSION_EXPIRED : QuizException.ATTEMPT_CHANGED;
+        }
+        if (attemptLog != null) {
+            try {
+                attemptLog.append(record);
+            } catch (RuntimeException e) {
+                attemptStore.put(attempt.id(), state);
+                throw e;
+            }
+        }
+        analytics.record(catalog.getQuiz(state.getQuizId()), attempt.sample(), answers, grade, result.isPassed());
+        leaderboards.record(record);
+        metrics.attemptSubmitted();
+        return result;
+    }
+
+    /**
+     * Drops an unfinished attempt.
+     */
+    public void discard(long attemptId) {
+        attemptStore.remove(attemptId);
+    }
+
+    // the key of the questions asked, by answer sheet position; questions an adaptive attempt did not
+    // reach have no correct answer
+    private static byte[] answerKey(Attempt attempt) {
+        QuizCatalog catalog = attempt.catalog();
+        int slot = catalog.slotOf(attempt.state().getQuizId());
+        if (attempt.sample() == null) {
+            return catalog.answerKey(slot);
+        }
+        byte[] key = catalog.answerKey(slot, attempt.sample());
+        if (key.length < attempt.questionCount()) {
+            key = Arrays.copyOf(key, attempt.questionCount());
+            Arrays.fill(key, attempt.sample().length, key.length, AnswerGrader.NO_ANSWER);
+        }
+        return key;
+    }
+}
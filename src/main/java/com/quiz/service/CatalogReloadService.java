@@ -0,0 +1,252 @@
+package com.quiz.service;
+
+import com.quiz.catalog.CatalogLoadResult;
+import com.quiz.catalog.CatalogValidator;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.catalog.StreamingCatalogReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Service that keeps the quiz catalog in sync with an external file or directory.
+ * <p>
+ * Enabled with {@code quiz.catalog.reload.enabled=true}. The catalog at {@code quiz.catalog.location}
+ * (a single JSON file, or a directory whose *.json files are merged in name order) is loaded once
+ * at startup and then watched for changes. Each change is parsed and validated on a background
+ * thread; only a valid catalog is published to {@link QuizLoader}, as a new immutable
+ * {@link QuizCatalog}. An invalid catalog is logged and the current one stays in place.
+ * <p>
+ * Files are read with {@link StreamingCatalogReader}. The files of a directory are treated as
+ * shards and parsed in parallel ({@code quiz.catalog.load.parallelism}); a single bad quiz
+ * record is skipped and counted, it does not reject the rest of the catalog.
+ * <p>
+ * Metrics:
+ * <ul>
+ *   <li>{@code quiz.catalog.reload} - timer of every reload, tagged with its outcome</li>
+ *   <li>{@code quiz.catalog.last.swap.time} - epoch seconds of the last successful swap</li>
+ *   <li>{@code quiz.catalog.version} - version of the live catalog, a fingerprint of its content</li>
+ *   <li>{@code quiz.catalog.load.rejected.records} - quiz records skipped because they were invalid</li>
+ * </ul>
+ */
+@Service
+@ConditionalOnProperty(name = "quiz.catalog.reload.enabled", havingValue = "true")
+public class CatalogReloadService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogReloadService.class);
+
+    @Autowired
+    private QuizLoader quizLoader;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // external catalog file or directory
+    @Value("${quiz.catalog.location}")
+    private String location;
+
+    // quiet period after the last file event before a reload starts, so editors writing in several steps trigger one reload
+    @Value("${quiz.catalog.reload.debounce:500ms}")
+    private Duration debounce;
+
+    // number of shard files parsed at the same time, 0 means one per available processor
+    @Value("${quiz.catalog.load.parallelism:0}")
+    private int parallelism;
+
+    private Path path;
+    private Timer successTimer;
+    private Timer failureTimer;
+    private Counter rejectedCounter;
+    private Counter rejectedRecordCounter;
+    private final AtomicLong lastSwapEpochMillis = new AtomicLong();
+    // a lock rather than a synchronized method: a reload reads files while holding it, which would pin a virtual thread
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private ScheduledExecutorService executor;
+    private WatchService watchService;
+    private ScheduledFuture<?> pendingReload;
+
+    @PostConstruct
+    void start() throws IOException {
+        path = Paths.get(location).toAbsolutePath().normalize();
+
+        successTimer = Timer.builder("quiz.catalog.reload").tag("outcome", "success").register(meterRegistry);
+        failureTimer = Timer.builder("quiz.catalog.reload").tag("outcome", "failure").register(meterRegistry);
+        rejectedCounter = Counter.builder("quiz.catalog.reload.rejected")
+                .description("Reloads rejected because the new catalog failed validation")
+                .register(meterRegistry);
+        rejectedRecordCounter = Counter.builder("quiz.catalog.load.rejected.records")
+                .description("Quiz records skipped during a reload because they were invalid")
+                .register(meterRegistry);
+        Gauge.builder("quiz.catalog.last.swap.time", lastSwapEpochMillis, millis -> millis.get() / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("quiz.catalog.version", quizLoader, loader -> loader.getCatalog().getVersion())
+                .register(meterRegistry);
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        reload();   // the external catalog replaces the bundled data.json right away
+
+        watchService = FileSystems.getDefault().newWatchService();
+        Path directory = Files.isDirectory(path) ? path : path.getParent();
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+        Thread watcher = new Thread(this::watch, "catalog-watch");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching quiz catalog at {}", path);
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();   // ends the watcher thread
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Parses, validates and publishes the external catalog.
+     *
+     * @return true if a new catalog was published
+     */
+    public boolean reload() {
+        reloadLock.lock();
+        try {
+            return doReload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private boolean doReload() {
+        long start = System.nanoTime();
+        try {
+            CatalogLoadResult loaded = readCatalog();
+            rejectedRecordCounter.increment(loaded.getRejectedCount());
+            QuizLoader.logRejections(path, loaded);
+
+            List<String> problems = CatalogValidator.validate(loaded.getQuizzes());
+            if (!problems.isEmpty()) {
+                rejectedCounter.increment();
+                failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.warn("Rejected quiz catalog {} with {} problem(s), keeping version {}: {}",
+                        path, problems.size(), quizLoader.getCatalog().getVersion(), problems);
+                return false;
+            }
+
+            // the new catalog is fully built before anyone can see it
+            QuizCatalog next = QuizCatalog.of(loaded.getQuizzes());   // versioned by its content
+            quizLoader.publish(next);
+            lastSwapEpochMillis.set(System.currentTimeMillis());
+
+            long elapsed = System.nanoTime() - start;
+            successTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Published quiz catalog version {} with {} quizzes ({} bytes, {} skipped) in {} ms",
+                    next.getVersion(), next.size(), loaded.getBytesRead(), loaded.getRejectedCount(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+            return true;
+
+        } catch (IOException | RuntimeException e) {
+            failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.warn("Could not reload quiz catalog {}, keeping version {}",
+                    path, quizLoader.getCatalog().getVersion(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Epoch milliseconds of the last successful swap, or 0 if none happened yet.
+     */
+    public long getLastSwapEpochMillis() {
+        return lastSwapEpochMillis.get();
+    }
+
+    private CatalogLoadResult readCatalog() throws IOException {
+        if (!Files.isDirectory(path)) {
+            return StreamingCatalogReader.readFile(path, this::logProgress);
+        }
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(path)) {
+            files = listing.filter(this::isCatalogFile).sorted().toList();
+        }
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return StreamingCatalogReader.readShards(files, threads, this::logProgress);
+    }
+
+    private void logProgress(String source, long bytesRead, long totalBytes, int accepted, int rejected) {
+        log.debug("Loading {}: {} of {} bytes, {} quizzes accepted, {} rejected",
+                source, bytesRead, totalBytes, accepted, rejected);
+    }
+
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            boolean relevant = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                        || event.context() instanceof Path changed && isCatalogFile(changed)) {
+                    relevant = true;
+                }
+            }
+            key.reset();
+
+            if (relevant) {
+                scheduleReload();
+            }
+        }
+    }
+
+    private synchronized void scheduleReload() {
+        // restart the quiet period on every event so a burst of writes causes one reload
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+        pendingReload = executor.schedule(this::reload, debounce.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private boolean isCatalogFile(Path file) {
+        if (Files.isDirectory(path)) {
+            return file.getFileName().toString().endsWith(".json");
+        }
+        return file.getFileName().equals(path.getFileName());
+    }
+}
@@ -1,80 +1,262 @@
 package com.quiz.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.catalog.CatalogLoadResult;
+import com.quiz.catalog.CatalogSearchIndex;
+import com.quiz.catalog.CatalogSnapshot;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.catalog.StreamingCatalogReader;
+import com.quiz.metrics.QuizMetrics;
 import com.quiz.model.Quiz;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service class responsible for loading and managing quiz data from a JSON file.
  * This class reads quiz data from the classpath resource "data.json" and provides
  * methods to retrieve quiz information.
+ * <p>
+ * The loaded quizzes are kept in an immutable, indexed {@link QuizCatalog}, so id lookups
+ * do not scan the quiz list. The catalog can be replaced at runtime by {@link CatalogReloadService};
+ * the swap is a single volatile write, so readers never block and never see a half-built catalog.
+ * The last {@code quiz.catalog.retained-versions} catalogs it replaced stay addressable by
+ * {@link #getCatalog(long) version}, so a quiz attempt keeps the questions it started with.
+ * <p>
+ * The JSON is read with {@link StreamingCatalogReader}, one quiz at a time; invalid quiz records
+ * are skipped and logged instead of discarding the whole file.
+ * <p>
+ * When {@code quiz.catalog.snapshot} points to a compiled {@link CatalogSnapshot}, that file is
+ * memory-mapped at startup instead of parsing data.json, which shortens cold start and shares
+ * every repeated string of the catalog.
+ * <p>
+ * Every catalog also gets a {@link CatalogSearchIndex} for searching and filtering its quizzes. A
+ * published catalog is indexed from the previous index, so only new and changed quizzes are split
+ * into terms again. The index size is reported as {@code quiz.search.index.bytes} and
+ * {@code quiz.search.index.terms}.
  */
 @Service
 public class QuizLoader {
 
-    private List<Quiz> quizzes;    // list that holds of all the quizzes loaded from our json file
+    private static final Logger log = LoggerFactory.getLogger(QuizLoader.class);
+
+    private volatile QuizCatalog catalog;    // indexed catalog of all the quizzes loaded from our json file
+    private volatile CatalogSearchIndex searchIndex;    // search index of the catalog, built on first use
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private volatile List<QuizCatalog> retired = List.of();    // catalogs replaced by a reload, newest first
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    // how many replaced catalogs are kept for the attempts started on them
+    @Value("${quiz.catalog.retained-versions:4}")
+    private int retainedVersions = 4;
+
+    // lookup counters; records nothing when the loader is created outside the application context
+    @Autowired(required = false)
+    private QuizMetrics metrics = QuizMetrics.NONE;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
 
     public QuizLoader() {
         loadQuizzes();
     }
 
+    /**
+     * Loads the compiled snapshot at the given location, or data.json if no location is configured.
+     * Falls back to data.json if the snapshot cannot be read.
+     */
+    @Autowired
+    public QuizLoader(@Value("${quiz.catalog.snapshot:}") String snapshotLocation) {
+        if (snapshotLocation == null || snapshotLocation.isBlank() || !loadSnapshot(Paths.get(snapshotLocation))) {
+            loadQuizzes();
+        }
+    }
+
+    @PostConstruct
+    void registerMeters() {
+        if (meterRegistry == null) {
+            return;
+        }
+        Gauge.builder("quiz.search.index.bytes", this, loader -> loader.getSearchIndex().memoryBytes())
+                .description("Estimated heap held by the catalog search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("quiz.search.index.terms", this, loader -> loader.getSearchIndex().termCount())
+                .description("Distinct terms in the catalog search index")
+                .register(meterRegistry);
+    }
+
     /**
      * Loads quiz data from the data.json file located in the classpath.
-     * Uses Jackson ObjectMapper to deserialize JSON into Quiz objects.
-     * If an error occurs during loading, initializes an empty list to prevent application crash.
+     * Streams the JSON into Quiz objects one quiz at a time; records that fail validation are skipped and logged.
+     * If the file cannot be read at all, initializes an empty catalog to prevent application crash.
      */
     private void loadQuizzes() {
         try {
-            ObjectMapper mapper = new ObjectMapper();   // converts between json and java objects
             ClassPathResource resource = new ClassPathResource("data.json");    // directs us to the exact chosen from us file
-            InputStream inputStream = resource.getInputStream();   //opens stream to reads content of the json file
-
-            QuizWrapper wrapper = mapper.readValue(inputStream, QuizWrapper.class);  // converts json to java
-            this.quizzes = wrapper.getQuizzes();
+            try (InputStream inputStream = resource.getInputStream()) {   //opens stream to reads content of the json file
+                CatalogLoadResult result = readQuizzes(inputStream);
+                logRejections("data.json", result);
+                this.catalog = QuizCatalog.of(result.getQuizzes());   // builds the id indexes once
+            }
 
         } catch (IOException e) {
-            e.printStackTrace();
-            this.quizzes = Arrays.asList();  // returns empty list to prevent app crash
+            log.error("Could not load quiz catalog data.json, starting with an empty catalog", e);
+            this.catalog = QuizCatalog.empty();  // empty catalog to prevent app crash
         }
     }
 
-    public List<Quiz> getAllQuizzes() {
-        return quizzes;    // simply returns all the quizzes
+    /**
+     * Memory-maps a compiled catalog snapshot and builds the catalog from it.
+     *
+     * @return false if the snapshot could not be read
+     */
+    private boolean loadSnapshot(Path snapshot) {
+        try {
+            long start = System.nanoTime();
+            CatalogSnapshot mapped = CatalogSnapshot.open(snapshot);
+            this.catalog = QuizCatalog.of(mapped.toQuizzes());
+            log.info("Loaded {} quizzes from catalog snapshot {} in {} ms",
+                    mapped.quizCount(), snapshot, (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not load catalog snapshot {}, falling back to data.json", snapshot, e);
+            return false;
+        }
     }
 
     /**
-     * Retrieves a specific quiz by its ID.
+     * Reads the quizzes of a JSON document with a root "quizzes" array.
+     * Invalid quiz records are left out of the result and listed in its rejections.
+     */
+    public static CatalogLoadResult readQuizzes(InputStream inputStream) throws IOException {
+        return StreamingCatalogReader.read(inputStream);
+    }
+
+    /**
+     * Logs the records a load had to skip, if any.
+     */
+    static void logRejections(Object source, CatalogLoadResult result) {
+        if (result.getRejectedCount() > 0) {
+            log.warn("Skipped {} invalid quiz record(s) in {}: {}",
+                    result.getRejectedCount(), source, result.getRejections());
+        }
+    }
+
+    /**
+     * Returns the current indexed catalog, used for constant-time quiz and question lookups.
+     * <p>
+     * Callers that need a stable view across several requests (such as a quiz attempt)
+     * should keep the returned instance instead of calling this method again.
+     */
+    public QuizCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Returns the catalog with the given version: the current one, or one of the last
+     * {@code quiz.catalog.retained-versions} it replaced.
      *
-     * @param id the unique identifier of the quiz to retrieve
-     * @return the Quiz object with the matching ID, or null if no quiz is found
+     * @return the catalog, or null if no catalog with that version is kept
      */
-    public Quiz getQuizById(int id) {
-        return quizzes.stream()
-                .filter(quiz -> quiz.getId() == id)
-                .findFirst()
-                .orElse(null);
+    public QuizCatalog getCatalog(long version) {
+        QuizCatalog current = catalog;
+        if (current.getVersion() == version) {
+            return current;
+        }
+        for (QuizCatalog replaced : retired) {
+            if (replaced.getVersion() == version) {
+                return replaced;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Atomically replaces the current catalog. Requests that already hold the previous
+     * catalog keep using it; new requests see the replacement. The previous catalog is kept
+     * addressable by its version, and the oldest kept catalog is dropped.
+     */
+    public void publish(QuizCatalog newCatalog) {
+        publishLock.lock();
+        try {
+            QuizCatalog previous = catalog;
+            if (previous != null && previous.getVersion() != newCatalog.getVersion()) {
+                List<QuizCatalog> kept = new ArrayList<>(retainedVersions);
+                if (retainedVersions > 0) {
+                    kept.add(previous);
+                }
+                for (QuizCatalog replaced : retired) {
+                    if (kept.size() >= retainedVersions) {
+                        break;
+                    }
+                    // a reload back to an earlier content makes that version current again
+                    if (replaced.getVersion() != newCatalog.getVersion()) {
+                        kept.add(replaced);
+                    }
+                }
+                retired = List.copyOf(kept);
+            }
+            this.catalog = newCatalog;
+        } finally {
+            publishLock.unlock();
+        }
+        getSearchIndex();   // indexed right away rather than by the first search
     }
 
     /**
-     * Wrapper class used for JSON deserialization.
-     * Maps the root JSON structure containing a "quizzes" array.
+     * Returns the search index of the current catalog, building it from the index of the previous
+     * catalog if the catalog changed since. Concurrent callers wait for one build.
      */
-    private static class QuizWrapper {
-        // list of quizzes from the json file
-        private List<Quiz> quizzes;
-        // gets the list of quizzes and returns the list of Quiz Objects
-        public List<Quiz> getQuizzes() {
-            return quizzes;
+    public CatalogSearchIndex getSearchIndex() {
+        CatalogSearchIndex index = searchIndex;
+        if (index != null && index.catalog() == catalog) {
+            return index;
         }
-        // sets the list of quizzes
-        public void setQuizzes(List<Quiz> quizzes) {
-            this.quizzes = quizzes;
+        indexLock.lock();
+        try {
+            QuizCatalog current = catalog;    // read again, so an index never goes back to an older catalog
+            index = searchIndex;
+            if (index == null || index.catalog() != current) {
+                long start = System.nanoTime();
+                index = CatalogSearchIndex.update(index, current);
+                searchIndex = index;
+                log.info("Indexed {} quizzes of catalog version {} for search ({} reused, {} terms, {} KB) in {} ms",
+                        current.size(), current.getVersion(), index.reusedCount(), index.termCount(),
+                        index.memoryBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+            }
+            return index;
+        } finally {
+            indexLock.unlock();
         }
     }
+
+    public List<Quiz> getAllQuizzes() {
+        return catalog.getQuizzes();    // simply returns all the quizzes
+    }
+
+    /**
+     * Retrieves a specific quiz by its ID.
+     *
+     * @param id the unique identifier of the quiz to retrieve
+     * @return the Quiz object with the matching ID, or null if no quiz is found
+     */
+    public Quiz getQuizById(int id) {
+        Quiz quiz = catalog.getQuiz(id);
+        metrics.recordLookup(quiz != null);
+        return quiz;
+    }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.quiz.service;
 
+import com.quiz.metrics.QuizMetrics;
+import com.quiz.model.Grade;
 import com.quiz.model.Question;
 import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
 import com.quiz.model.QuizResult;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -11,10 +15,15 @@ import java.util.*;
  * Service class responsible for quiz manipulation and evaluation.
  * Provides functionality to randomize quiz questions and their options,
  * and evaluate user responses against correct answers.
+ * Shuffling is seeded per attempt and reproducible, see {@link QuizShuffler}.
  */
 @Service
 public class QuizService {
 
+    // shuffle and grade timers; records nothing when the service is created outside the application context
+    @Autowired(required = false)
+    private QuizMetrics metrics = QuizMetrics.NONE;
+
     /**
      * Shuffles both the order of questions and the order of options within each question.
      * Creates a new Quiz instance to preserve the original quiz data.
@@ -22,39 +31,44 @@ public class QuizService {
      * to a letter position (e.g., "C") based on where the correct answer ended up.
      */
     public Quiz shuffleQuiz(Quiz quiz) {
-        // creates a copy to preserve the original one
-        Quiz shuffledQuiz = new Quiz();
-        shuffledQuiz.setId(quiz.getId());
-        shuffledQuiz.setTitle(quiz.getTitle());
-        shuffledQuiz.setDescription(quiz.getDescription());
-
-        Set<Question> shuffledQuestions = new HashSet<>(); //list to hold shuffled questions
-
-        for (Question originalQuestion : quiz.getQuestions()) {  // loops through each question
-
-            Question shuffledQuestion = new Question();  // we create a copy of current question
-            shuffledQuestion.setId(originalQuestion.getId());
-            shuffledQuestion.setQuestion(originalQuestion.getQuestion());
-
-            String correctAnswerValue = originalQuestion.getCorrectAnswer(); // saves 'Paris'
-
-            Set<String> options = new HashSet<>(originalQuestion.getOptions());
-            List<String> uniqueOptions = new ArrayList<>(options);
-            Collections.shuffle(uniqueOptions);  // shuffles London, Paris,Berlin and Madrid
-            shuffledQuestion.setOptions(uniqueOptions);
+        return shuffleQuiz(quiz, QuizShuffler.newSeed());
+    }
 
-            int newIndex = uniqueOptions.indexOf(correctAnswerValue);  // finds at which index 'Paris' went
+    /**
+     * Shuffles the quiz in the order the given seed produces; the same seed always gives the same quiz.
+     */
+    public Quiz shuffleQuiz(Quiz quiz, long seed) {
+        return QuizShuffler.permutation(quiz, seed).apply(quiz);   // creates a copy to preserve the original one
+    }
 
-            String newCorrectLetter = String.valueOf((char) ('A' + newIndex)); //converts the index to a letter
-            shuffledQuestion.setCorrectAnswer(newCorrectLetter);
+    /**
+     * Creates a random order of the questions and of the options within each question,
+     * without copying the quiz. The attempt keeps only this permutation and reads the
+     * questions from the shared quiz; see {@link QuizPermutation#question(Quiz, int)}.
+     */
+    public QuizPermutation permute(Quiz quiz) {
+        return permute(quiz, QuizShuffler.newSeed());
+    }
 
-            shuffledQuestions.add(shuffledQuestion); //adds the shuffled questions to new list
-        }
-       List<Question> questionsToShuffle = new ArrayList<>(shuffledQuestions);
-        Collections.shuffle(questionsToShuffle);  //shuffles the order of questions, not answers
-        shuffledQuiz.setQuestions(questionsToShuffle);  //assigns the shuffled list back to quiz
+    /**
+     * Rebuilds the permutation of an attempt from its seed.
+     */
+    public QuizPermutation permute(Quiz quiz, long seed) {
+        long start = System.nanoTime();
+        QuizPermutation permutation = QuizShuffler.permutation(quiz, seed);
+        metrics.recordShuffle(System.nanoTime() - start);
+        return permutation;
+    }
 
-        return shuffledQuiz;
+    /**
+     * Rebuilds the option shuffle of an adaptive attempt from its seed. Its questions are shown in
+     * the order they were chosen, so only their options are shuffled.
+     */
+    public QuizPermutation permuteOptions(Quiz quiz, long seed) {
+        long start = System.nanoTime();
+        QuizPermutation permutation = QuizShuffler.permutation(quiz, seed, false);
+        metrics.recordShuffle(System.nanoTime() - start);
+        return permutation;
     }
 
     /**
@@ -64,15 +78,29 @@ public class QuizService {
      */
     public QuizResult evaluateQuiz(Quiz quiz, Map<Integer, String> userAnswers) {
         int score = 0;
-        int totalQuestions = quiz.getQuestions().size();
+        List<Question> questions = quiz.getQuestions();
+        long[] correct = AnswerGrader.newMask(questions.size());
 // goes through each question and gets users answers , if the asnwer matches , increment the score
-        for (Question question : quiz.getQuestions()) {
+        for (int i = 0; i < questions.size(); i++) {
+            Question question = questions.get(i);
             String userAnswer = userAnswers.get(question.getId());  //get what the user selected
             if (userAnswer != null && userAnswer.equals(question.getCorrectAnswer())) {
                 score++; // correct answer -> adds a point
+                AnswerGrader.markCorrect(correct, i);
             }
         }
 
-        return new QuizResult(quiz, userAnswers, score, totalQuestions);  //cre3ates and returns quiz details
+        return new QuizResult(quiz, userAnswers, new Grade(score, questions.size(), correct));  //cre3ates and returns quiz details
+    }
+
+    /**
+     * Grades an answer sheet against a quiz's answer key without boxing or per-question allocation.
+     * Both arrays hold one option index per question in catalog order; see {@link AnswerGrader}.
+     */
+    public Grade grade(byte[] answerKey, byte[] answers) {
+        long start = System.nanoTime();
+        Grade grade = AnswerGrader.grade(answerKey, answers);
+        metrics.recordGrade(System.nanoTime() - start);
+        return grade;
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.quiz.service;
+
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Deterministic shuffle engine: turns a quiz and a 64-bit seed into a {@link QuizPermutation}.
+ * <p>
+ * Every attempt gets its own seed from {@link #newSeed()} and its own {@link SplittableRandom}
+ * seeded with it, so no random generator is shared between threads. The same seed over the same
+ * quiz (same catalog version) always gives the same question and option order; an attempt can be
+ * rebuilt exactly from its seed, for example when a candidate disputes a result.
+ * <p>
+ * The questions are ordered first, then the options of each question in display order, both with
+ * a Fisher-Yates shuffle. Duplicate options are kept, never merged.
+ */
+public final class QuizShuffler {
+
+    private QuizShuffler() {
+    }
+
+    /**
+     * Draws a seed for a new attempt from the calling thread's generator.
+     */
+    public static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Returns the permutation the given seed produces for the quiz.
+     */
+    public static QuizPermutation permutation(Quiz quiz, long seed) {
+        return permutation(quiz, seed, true);
+    }
+
+    /**
+     * Returns the permutation the given seed produces for the quiz, with the questions kept in quiz
+     * order if {@code shuffleQuestions} is false. Then only the options are shuffled, and the option
+     * order of a question depends only on the questions before it, so it stays the same when
+     * questions are appended to the quiz, as an adaptive attempt does.
+     */
+    public static QuizPermutation permutation(Quiz quiz, long seed, boolean shuffleQuestions) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Question> questions = quiz.getQuestions();
+
+        int[] questionOrder = new int[questions.size()];
+        for (int i = 0; i < questionOrder.length; i++) {
+            questionOrder[i] = i;
+        }
+        for (int i = shuffleQuestions ? questionOrder.length - 1 : 0; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = questionOrder[i];
+            questionOrder[i] = questionOrder[j];
+            questionOrder[j] = swap;
+        }
+
+        int optionTotal = 0;
+        for (Question question : questions) {
+            optionTotal += question.getOptions().size();
+        }
+        byte[] optionOrder = new byte[optionTotal];
+        int[] optionStarts = new int[questionOrder.length + 1];
+        int start = 0;
+        for (int d = 0; d < questionOrder.length; d++) {   // option orders are laid out in display order
+            optionStarts[d] = start;
+            int count = questions.get(questionOrder[d]).getOptions().size();
+            for (int i = 0; i < count; i++) {
+                optionOrder[start + i] = (byte) i;
+            }
+            for (int i = count - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                byte swap = optionOrder[start + i];
+                optionOrder[start + i] = optionOrder[start + j];
+                optionOrder[start + j] = swap;
+            }
+            start += count;
+        }
+        optionStarts[questionOrder.length] = start;
+
+        return new QuizPermutation(quiz.getId(), seed, questionOrder, optionOrder, optionStarts);
+    }
+}
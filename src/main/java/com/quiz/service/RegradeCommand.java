@@ -0,0 +1,68 @@
+package com.quiz.service;
+
+import com.quiz.catalog.CatalogSnapshot;
+import com.quiz.catalog.CatalogSnapshotCompiler;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.catalog.StreamingCatalogReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Command line step that re-grades a file of stored attempts with {@link RegradeEngine}.
+ * <p>
+ * Usage: {@code RegradeCommand <catalog> <attempts in> <attempts out> <diff.csv> [quizId]}. The
+ * catalog is either a JSON file or a snapshot written by {@link CatalogSnapshotCompiler}. The
+ * corrected attempts are written next to the target and moved into place once complete, so the
+ * input and output may be the same file.
+ */
+public final class RegradeCommand {
+
+    private RegradeCommand() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4 && args.length != 5) {
+            System.err.println("Usage: RegradeCommand <catalog> <attempts in> <attempts out> <diff.csv> [quizId]");
+            System.exit(2);
+        }
+        QuizCatalog catalog = loadCatalog(Paths.get(args[0]));
+        int quizId = args.length == 5 ? Integer.parseInt(args[4]) : RegradeEngine.ALL_QUIZZES;
+
+        RegradeReport report = run(new RegradeEngine(), catalog, quizId,
+                Paths.get(args[1]), Paths.get(args[2]), Paths.get(args[3]));
+
+        System.out.println("Regraded " + report);
+    }
+
+    /**
+     * Re-grades an attempt file into a new file and writes the diff report.
+     */
+    public static RegradeReport run(RegradeEngine engine, QuizCatalog catalog, int quizId,
+                                    Path attempts, Path corrected, Path diff) throws IOException {
+        Path tmp = corrected.resolveSibling(corrected.getFileName() + ".tmp");
+        RegradeReport report;
+        try (InputStream in = Files.newInputStream(attempts);
+             OutputStream out = Files.newOutputStream(tmp);
+             Writer csv = Files.newBufferedWriter(diff, StandardCharsets.UTF_8)) {
+            report = engine.regrade(catalog, quizId, in, out, csv);
+        }
+        Files.move(tmp, corrected, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return report;
+    }
+
+    private static QuizCatalog loadCatalog(Path source) throws IOException {
+        if (source.getFileName().toString().endsWith(".json")) {
+            return QuizCatalog.of(StreamingCatalogReader.readFile(source,
+                    StreamingCatalogReader.ProgressListener.NONE).getQuizzes());
+        }
+        return QuizCatalog.of(CatalogSnapshot.open(source).toQuizzes());
+    }
+}
@@ -0,0 +1,184 @@
+package com.quiz.service;
+
+import com.quiz.catalog.QuestionSampler;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.AttemptRecord;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Re-scores stored attempts against the answer keys of a catalog, e.g. after a wrong answer key
+ * has been fixed.
+ * <p>
+ * Attempts are streamed from an {@link AttemptRecord} stream in chunks of a fixed size, so memory
+ * stays bounded however many attempts there are. Each chunk is graded on a {@link ForkJoinPool},
+ * split into ranges of {@value #LEAF_SIZE} attempts that each reuse one correctness mask, and then
+ * written out in input order: every record with its corrected score, and one CSV line
+ * ({@code attemptId,quizId,oldScore,newScore}) per attempt whose score changed.
+ * <p>
+ * Attempts of quizzes the catalog does not contain, of adaptive quizzes, or whose answer sheet no
+ * longer matches the quiz's question count, are copied unchanged and counted as skipped. An attempt
+ * of a sampled quiz is graded against the sample its seed draws.
+ */
+public class RegradeEngine {
+
+    public static final int DEFAULT_CHUNK_SIZE = 65_536;
+
+    static final int LEAF_SIZE = 2_048;
+
+    /**
+     * Quiz filter that re-grades the attempts of every quiz.
+     */
+    public static final int ALL_QUIZZES = -1;
+
+    private static final int SKIPPED = -1;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public RegradeEngine() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public RegradeEngine(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Re-grades the attempts of every quiz.
+     */
+    public RegradeReport regrade(QuizCatalog catalog, InputStream attempts, OutputStream corrected, Writer diff)
+            throws IOException {
+        return regrade(catalog, ALL_QUIZZES, attempts, corrected, diff);
+    }
+
+    /**
+     * Re-grades the attempts of one quiz, or of every quiz for {@link #ALL_QUIZZES}. Attempts of other
+     * quizzes are copied unchanged.
+     *
+     * @param corrected receives every input record, re-scored where applicable; flushed, not closed
+     * @param diff      receives the CSV diff report, header included; flushed, not closed
+     */
+    public RegradeReport regrade(QuizCatalog catalog, int quizId, InputStream attempts, OutputStream corrected,
+                                 Writer diff) throws IOException {
+        long started = System.nanoTime();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(attempts, 1 << 16));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(corrected, 1 << 16));
+        diff.write("attemptId,quizId,oldScore,newScore\n");
+
+        AttemptRecord[] chunk = new AttemptRecord[chunkSize];
+        int[] scores = new int[chunkSize];
+        long total = 0, regraded = 0, raised = 0, lowered = 0;
+
+        int count;
+        while ((count = fill(in, chunk)) > 0) {
+            pool.invoke(new GradeTask(catalog, quizId, chunk, scores, 0, count));
+
+            for (int i = 0; i < count; i++) {
+                AttemptRecord record = chunk[i];
+                int score = scores[i];
+                if (score == SKIPPED || score == record.getScore()) {
+                    record.write(out);
+                } else {
+                    record.withScore(score).write(out);
+                    diff.write(record.getAttemptId() + "," + record.getQuizId() + ","
+                            + record.getScore() + "," + score + "\n");
+                    if (score > record.getScore()) {
+                        raised++;
+                    } else {
+                        lowered++;
+                    }
+                }
+                if (score != SKIPPED) {
+                    regraded++;
+                }
+                chunk[i] = null;
+            }
+            total += count;
+        }
+        out.flush();
+        diff.flush();
+        return new RegradeReport(total, regraded, raised, lowered, total - regraded, System.nanoTime() - started);
+    }
+
+    private static int fill(DataInputStream in, AttemptRecord[] chunk) throws IOException {
+        int count = 0;
+        AttemptRecord record;
+        while (count < chunk.length && (record = AttemptRecord.read(in)) != null) {
+            chunk[count++] = record;
+        }
+        return count;
+    }
+
+    private static final class GradeTask extends RecursiveAction {
+
+        private final QuizCatalog catalog;
+        private final int quizId;
+        private final AttemptRecord[] records;
+        private final int[] scores;
+        private final int from;
+        private final int to;
+        private long[] mask = new long[1];   // reused by every attempt of a leaf, grown for long quizzes
+
+        GradeTask(QuizCatalog catalog, int quizId, AttemptRecord[] records, int[] scores, int from, int to) {
+            this.catalog = catalog;
+            this.quizId = quizId;
+            this.records = records;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GradeTask(catalog, quizId, records, scores, from, middle),
+                        new GradeTask(catalog, quizId, records, scores, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                scores[i] = grade(records[i]);
+            }
+        }
+
+        private int grade(AttemptRecord record) {
+            if (quizId != ALL_QUIZZES && record.getQuizId() != quizId) {
+                return SKIPPED;
+            }
+            int slot = catalog.slotOf(record.getQuizId());
+            if (slot < 0) {
+                return SKIPPED;
+            }
+            // the questions of an adaptive attempt were chosen by the key it was graded with, so a
+            // corrected key cannot tell which questions it was asked
+            if (catalog.itemBank(slot) != null) {
+                return SKIPPED;
+            }
+            // a sampled attempt is graded against the key of the sample its seed draws
+            QuestionSampler sampler = catalog.sampler(slot);
+            byte[] key = sampler == null
+                    ? catalog.answerKey(slot) : catalog.answerKey(slot, sampler.sample(record.getSeed()));
+            if (key.length != record.getAnswers().length) {
+                return SKIPPED;
+            }
+            if (mask.length < (key.length + 63) >>> 6) {
+                mask = AnswerGrader.newMask(key.length);
+            }
+            return AnswerGrader.grade(key, record.getAnswers(), mask);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.quiz.service;
+
+/**
+ * Summary of a {@link RegradeEngine} run.
+ */
+public class RegradeReport {
+
+    private final long total;
+    private final long regraded;
+    private final long raised;
+    private final long lowered;
+    private final long skipped;
+    private final long elapsedNanos;
+
+    public RegradeReport(long total, long regraded, long raised, long lowered, long skipped, long elapsedNanos) {
+        this.total = total;
+        this.regraded = regraded;
+        this.raised = raised;
+        this.lowered = lowered;
+        this.skipped = skipped;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Number of attempts read.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Number of attempts graded against the catalog's answer key.
+     */
+    public long getRegraded() {
+        return regraded;
+    }
+
+    /**
+     * Number of attempts whose score changed.
+     */
+    public long getChanged() {
+        return raised + lowered;
+    }
+
+    public long getRaised() {
+        return raised;
+    }
+
+    public long getLowered() {
+        return lowered;
+    }
+
+    /**
+     * Number of attempts copied unchanged: filtered out, for a quiz the catalog does not have, or
+     * with an answer sheet that no longer matches the quiz's question count.
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getAttemptsPerSecond() {
+        return elapsedNanos == 0 ? 0 : total * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d attempts, %d regraded, %d changed (%d raised, %d lowered), %d skipped, %.0f attempts/s",
+                total, regraded, getChanged(), raised, lowered, skipped, getAttemptsPerSecond());
+    }
+}
@@ -0,0 +1,26 @@
+package com.quiz.store;
+
+import java.security.SecureRandom;
+
+/**
+ * Generates attempt ids. Ids are random and hard to guess, so an attempt can be identified by its
+ * id alone, outside the session.
+ */
+public final class AttemptIds {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private AttemptIds() {
+    }
+
+    /**
+     * Returns a new positive attempt id.
+     */
+    public static long next() {
+        long id;
+        do {
+            id = RANDOM.nextLong() & Long.MAX_VALUE;
+        } while (id == 0);
+        return id;
+    }
+}
@@ -0,0 +1,472 @@
+package com.quiz.store;
+
+import com.quiz.model.AttemptRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of submitted attempts on local disk, split into segment files.
+ * <p>
+ * Each segment starts with a 4-byte magic number followed by frames of
+ * {@code length (int), CRC32C of the record (int), record}, where the record is the binary
+ * {@link AttemptRecord}. Segments are named {@code attempts-<sequence>.log} and a new one is started
+ * once the current one reaches the segment size.
+ * <p>
+ * Appends use group commit: {@link #append} queues the record and waits, while a single writer
+ * thread writes everything queued since its last commit with one channel write and one
+ * {@code force}. Under load, one fsync covers many submits. When {@link #append} returns, the
+ * record is on disk (in the page cache only, if {@code fsync} is off).
+ * <p>
+ * A crash can leave a partly written frame at the end of the last segment. {@link #open} scans
+ * that segment and truncates it after the last complete frame whose checksum matches. Readers stop
+ * at such a frame too.
+ * <p>
+ * A commit that fails is rolled back before the next one: the segment it started in is truncated
+ * to where the commit began, and segments it started are deleted. If that fails too, the log can no
+ * longer tell where its last good frame ends, so it fails every append until it is reopened, which
+ * recovers the segment as after a crash.
+ */
+public class AttemptLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptLog.class);
+
+    static final int MAGIC = 0x51414C31;   // "QAL1"
+    static final int SEGMENT_HEADER_BYTES = 4;
+    static final int FRAME_HEADER_BYTES = 8;
+
+    private static final String PREFIX = "attempts-";
+    private static final String SUFFIX = ".log";
+    private static final int MAX_RECORD_BYTES = AttemptRecord.HEADER_BYTES + 0xFFFF;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final SegmentOpener opener;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition queued = lock.newCondition();
+    private Batch current = new Batch();   // guarded by lock
+    private boolean closed;                // guarded by lock
+    private Throwable failure;             // guarded by lock; a commit that could not be rolled back
+    private final Thread writer;
+
+    // owned by the writer thread
+    private FileChannel channel;
+    private long sequence;
+    private long position;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+    private final CRC32C crc = new CRC32C();
+
+    private final LongAdder records = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    /**
+     * Opens the file channel of a segment; {@code FileChannel::open} unless a test injects failures.
+     */
+    @FunctionalInterface
+    public interface SegmentOpener {
+        FileChannel open(Path segment, OpenOption... options) throws IOException;
+    }
+
+    private AttemptLog(Path directory, long segmentBytes, boolean fsync, SegmentOpener opener, long sequence,
+                       FileChannel channel) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.opener = opener;
+        this.sequence = sequence;
+        this.channel = channel;
+        this.position = channel.size();
+        writer = new Thread(this::writeLoop, "attempt-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens the log in the directory for appending, creating it if needed and truncating an
+     * incomplete frame left at the end of the last segment by a crash.
+     *
+     * @param segmentBytes size at which a new segment is started
+     * @param fsync        whether each commit is forced to the device
+     */
+    public static AttemptLog open(Path directory, long segmentBytes, boolean fsync) throws IOException {
+        return open(directory, segmentBytes, fsync, FileChannel::open);
+    }
+
+    /**
+     * Opens the log as {@link #open(Path, long, boolean)} does, with segment files opened by the given opener.
+     */
+    public static AttemptLog open(Path directory, long segmentBytes, boolean fsync, SegmentOpener opener)
+            throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = segments(directory);
+        long sequence = segments.isEmpty() ? 0 : sequenceOf(segments.get(segments.size() - 1));
+        FileChannel channel = opener.open(segment(directory, sequence),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            recover(channel, segment(directory, sequence));
+            return new AttemptLog(directory, segmentBytes, fsync, opener, sequence, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the record and waits until it has been committed.
+     *
+     * @throws UncheckedIOException if the commit failed
+     * @throws IllegalStateException if the log has been closed, or has failed (see the class comment)
+     */
+    public void append(AttemptRecord record) {
+        byte[] encoded = encode(record);
+        Batch batch;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Attempt log is closed");
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Attempt log in " + directory + " failed and must be reopened", failure);
+            }
+            batch = current;
+            batch.records.add(encoded);
+            queued.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            batch.committed.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof IOException io
+                    ? new UncheckedIOException("Could not append attempt " + record.getAttemptId(), io)
+                    : e;
+        }
+    }
+
+    /**
+     * Reads every committed record of the log in the directory, oldest first, and returns how many
+     * were read. Reading stops at the first incomplete or corrupt frame.
+     */
+    public static long replay(Path directory, Consumer<AttemptRecord> consumer) throws IOException {
+        long count = 0;
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        for (Path segment : segments(directory)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment), 1 << 16))) {
+                if (!readMagic(in)) {
+                    continue;
+                }
+                byte[] frame;
+                while ((frame = readFrame(in)) != null) {
+                    consumer.accept(AttemptRecord.read(new DataInputStream(new ByteArrayInputStream(frame))));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads every committed record of this log; see {@link #replay(Path, Consumer)}.
+     */
+    public long replay(Consumer<AttemptRecord> consumer) throws IOException {
+        return replay(directory, consumer);
+    }
+
+    /**
+     * Number of records appended since the log was opened.
+     */
+    public long records() {
+        return records.sum();
+    }
+
+    /**
+     * Number of group commits since the log was opened; {@code records() / commits()} is the
+     * average group size.
+     */
+    public long commits() {
+        return commits.sum();
+    }
+
+    /**
+     * Bytes written since the log was opened.
+     */
+    public long bytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * Commits what is queued and closes the current segment.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            queued.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void writeLoop() {
+        while (true) {
+            Batch batch;
+            lock.lock();
+            try {
+                while (current.records.isEmpty() && !closed) {
+                    queued.awaitUninterruptibly();
+                }
+                if (current.records.isEmpty()) {
+                    return;   // closed and nothing left
+                }
+                batch = current;
+                current = new Batch();
+            } finally {
+                lock.unlock();
+            }
+            // anything thrown completes the batch, so its appends never wait on a writer that is gone
+            try {
+                Throwable failed = failure();
+                if (failed != null) {
+                    throw new IllegalStateException("Attempt log in " + directory + " failed and must be reopened", failed);
+                }
+                write(batch.records);
+                batch.committed.complete(null);
+            } catch (Throwable e) {
+                log.error("Could not commit {} attempt records to {}", batch.records.size(), directory, e);
+                batch.committed.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void write(List<byte[]> batch) throws IOException {
+        long startSequence = sequence;
+        long start = position;
+        try {
+            writeFrames(batch);
+        } catch (Throwable e) {
+            rollBack(startSequence, start, e);
+            throw e;
+        }
+        records.add(batch.size());
+        commits.increment();
+    }
+
+    /**
+     * Drops what a failed commit wrote, so later commits do not follow a torn frame: deletes the
+     * segments it started and truncates the one it started in. If that fails, the log is marked failed.
+     */
+    private void rollBack(long startSequence, long start, Throwable cause) {
+        try {
+            if (sequence != startSequence || !channel.isOpen()) {
+                channel.close();
+                for (long started = sequence; started > startSequence; started--) {
+                    Files.deleteIfExists(segment(directory, started));
+                }
+                sequence = startSequence;
+                channel = opener.open(segment(directory, startSequence), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            channel.truncate(start);
+            if (fsync) {
+                channel.force(true);
+            }
+            position = start;
+        } catch (IOException | RuntimeException rollbackFailed) {
+            cause.addSuppressed(rollbackFailed);
+            lock.lock();
+            try {
+                failure = cause;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Throwable failure() {
+        lock.lock();
+        try {
+            return failure;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeFrames(List<byte[]> batch) throws IOException {
+        buffer.clear();
+        for (byte[] record : batch) {
+            int frameBytes = FRAME_HEADER_BYTES + record.length;
+            if (position + buffer.position() + frameBytes > segmentBytes && position + buffer.position() > SEGMENT_HEADER_BYTES) {
+                drain();
+                rotate();
+            }
+            if (buffer.remaining() < frameBytes) {
+                drain();
+            }
+            crc.reset();
+            crc.update(record);
+            buffer.putInt(record.length).putInt((int) crc.getValue()).put(record);
+        }
+        drain();
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        int written = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        bytes.add(written);
+        buffer.clear();
+    }
+
+    private void rotate() throws IOException {
+        if (fsync) {
+            channel.force(false);
+        }
+        channel.close();
+        // the sequence moves on only once the segment is ours, so a rollback never deletes a file it did not create
+        FileChannel next = opener.open(segment(directory, sequence + 1),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        sequence++;
+        channel = next;
+        position = 0;
+        recover(channel, segment(directory, sequence));   // writes the header
+        position = channel.size();
+        log.debug("Started attempt log segment {}", sequence);
+    }
+
+    /**
+     * Checks the segment behind the channel and truncates it after its last good frame; an empty
+     * segment gets its header.
+     */
+    private static void recover(FileChannel channel, Path segment) throws IOException {
+        long size = channel.size();
+        if (size < SEGMENT_HEADER_BYTES) {
+            channel.truncate(0);
+            channel.write(ByteBuffer.allocate(SEGMENT_HEADER_BYTES).putInt(0, MAGIC), 0);
+            return;
+        }
+        long end;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment), 1 << 16))) {
+            if (!readMagic(in)) {
+                throw new IOException(segment + " is not an attempt log segment");
+            }
+            end = SEGMENT_HEADER_BYTES;
+            byte[] frame;
+            while ((frame = readFrame(in)) != null) {
+                end += FRAME_HEADER_BYTES + frame.length;
+            }
+        }
+        if (end < size) {
+            log.warn("Truncating attempt log segment {} from {} to {} bytes after an incomplete write", segment, size, end);
+            channel.truncate(end);
+            channel.force(true);
+        }
+    }
+
+    private static boolean readMagic(DataInputStream in) throws IOException {
+        try {
+            return in.readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;   // a segment that was being created
+        }
+    }
+
+    /**
+     * Reads the next frame and returns its record bytes, or null at the end of the segment or at a
+     * frame that is incomplete or fails its checksum.
+     */
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length < AttemptRecord.HEADER_BYTES || length > MAX_RECORD_BYTES) {
+                return null;
+            }
+            byte[] record = new byte[length];
+            in.readFully(record);
+            CRC32C crc = new CRC32C();
+            crc.update(record);
+            return (int) crc.getValue() == checksum ? record : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static byte[] encode(AttemptRecord record) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(record.byteSize());
+        try {
+            record.write(new DataOutputStream(out));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);   // not thrown by an in-memory stream
+        }
+        return out.toByteArray();
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()   // fixed-width sequence numbers sort by name
+                    .toList();
+        }
+    }
+
+    private static Path segment(Path directory, long sequence) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Records queued for one group commit.
+     */
+    private static final class Batch {
+        final List<byte[]> records = new ArrayList<>();
+        final CompletableFuture<Void> committed = new CompletableFuture<>();
+    }
+}
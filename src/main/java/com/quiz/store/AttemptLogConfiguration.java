@@ -0,0 +1,53 @@
+package com.quiz.store;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Opens the {@link AttemptLog} that every submitted attempt is appended to.
+ * <p>
+ * Active when {@code quiz.attempt.log.directory} is set. Segments are rotated at
+ * {@code quiz.attempt.log.segment-size}; {@code quiz.attempt.log.fsync=false} leaves flushing to the
+ * operating system, trading the last commits before a power loss for submit latency. Appended
+ * records, group commits and bytes are published as {@code quiz.attempt.log.records},
+ * {@code quiz.attempt.log.commits} and {@code quiz.attempt.log.bytes}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "quiz.attempt.log.directory")
+public class AttemptLogConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptLogConfiguration.class);
+
+    @Bean(destroyMethod = "close")
+    public AttemptLog attemptLog(@Value("${quiz.attempt.log.directory}") String directory,
+                                 @Value("${quiz.attempt.log.segment-size:64MB}") DataSize segmentSize,
+                                 @Value("${quiz.attempt.log.fsync:true}") boolean fsync,
+                                 MeterRegistry meterRegistry) throws IOException {
+        Path path = Paths.get(directory);
+        AttemptLog attemptLog = AttemptLog.open(path, segmentSize.toBytes(), fsync);
+        log.info("Submitted attempts are logged to {} ({} segments, fsync {})", path.toAbsolutePath(), segmentSize, fsync);
+
+        FunctionCounter.builder("quiz.attempt.log.records", attemptLog, AttemptLog::records)
+                .description("Attempts appended to the attempt log")
+                .register(meterRegistry);
+        FunctionCounter.builder("quiz.attempt.log.commits", attemptLog, AttemptLog::commits)
+                .description("Group commits of the attempt log")
+                .register(meterRegistry);
+        FunctionCounter.builder("quiz.attempt.log.bytes", attemptLog, AttemptLog::bytes)
+                .description("Bytes written to the attempt log")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return attemptLog;
+    }
+}
@@ -0,0 +1,63 @@
+package com.quiz.store;
+
+import com.quiz.model.AttemptState;
+
+import java.time.Duration;
+
+/**
+ * Keeps the state of quiz attempts in progress, keyed by attempt id, outside the HTTP session.
+ * <p>
+ * Implementations hold attempts in their binary form ({@link AttemptState#toBytes()}), so a state
+ * returned by {@link #get} is a private copy: changes to it are only kept once it is {@link #put}
+ * back. Implementations are thread-safe.
+ * <p>
+ * Two requests for the same attempt can both read it, change it and write it back. To keep the
+ * second write from undoing the first, a changed attempt is written with {@link #replace}, which
+ * only succeeds while the attempt is still stored as it was read; {@link #remove(long, AttemptState)}
+ * likewise lets exactly one of several concurrent submits claim the attempt.
+ * <p>
+ * Attempt ids come from {@link AttemptIds}. The implementation is chosen with
+ * {@code quiz.attempt.store} (see {@link AttemptStoreConfiguration}).
+ */
+public interface AttemptStateStore {
+
+    /**
+     * Returns the attempt, or null if it does not exist or has been evicted.
+     */
+    AttemptState get(long attemptId);
+
+    /**
+     * Stores the attempt, replacing any previous state for the id.
+     */
+    void put(long attemptId, AttemptState state);
+
+    /**
+     * Replaces the attempt only if it is still stored exactly as {@code expected}, the state it was
+     * read as before being changed. The comparison and the write are atomic.
+     *
+     * @return false, without writing, if the attempt was changed or removed since it was read
+     */
+    boolean replace(long attemptId, AttemptState expected, AttemptState state);
+
+    void remove(long attemptId);
+
+    /**
+     * Removes the attempt only if it is still stored exactly as {@code expected}. Of several callers
+     * that read the same attempt, at most one removes it.
+     *
+     * @return true if this call removed the attempt, false if it was changed or removed since it was read
+     */
+    boolean remove(long attemptId, AttemptState expected);
+
+    /**
+     * Number of attempts currently stored.
+     */
+    int size();
+
+    /**
+     * Removes every attempt that has not been written for longer than the given time.
+     *
+     * @return the number of attempts removed
+     */
+    int evictIdle(Duration maxIdle);
+}
@@ -0,0 +1,125 @@
+package com.quiz.store;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses the {@link AttemptStateStore} and evicts abandoned attempts from it.
+ * <p>
+ * {@code quiz.attempt.store} selects the implementation:
+ * <ul>
+ *   <li>{@code memory} (default) - {@link StripedAttemptStateStore}, attempts live on this node only</li>
+ *   <li>{@code file} - {@link FileAttemptStateStore} in {@code quiz.attempt.store.directory}</li>
+ * </ul>
+ * With {@code quiz.attempt.store.write-behind=true} the store is wrapped in a
+ * {@link WriteBehindAttemptStateStore}, which buffers answers and writes them in batches (worth it
+ * for the file store, where every write is a file replace). The
+ * {@code quiz.attempt.store.write-behind.*} properties set how often and how many attempts are
+ * written, and how many may wait in memory.
+ * <p>
+ * Attempts that have not been written for {@code quiz.attempt.store.ttl} are removed once a minute,
+ * so attempts that are never submitted do not pile up. The number of stored attempts is published
+ * as the {@code quiz.attempt.store.size} gauge; with write-behind, {@code quiz.attempt.store.puts}
+ * against {@code quiz.attempt.store.writes} shows how many writes were saved, and
+ * {@code quiz.attempt.store.pending} how many attempts are waiting.
+ */
+@Configuration
+public class AttemptStoreConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptStoreConfiguration.class);
+
+    private ScheduledExecutorService sweeper;
+    private WriteBehindAttemptStateStore writeBehind;
+
+    @Bean
+    public AttemptStateStore attemptStateStore(@Value("${quiz.attempt.store:memory}") String type,
+                                               @Value("${quiz.attempt.store.directory:}") String directory,
+                                               @Value("${quiz.attempt.store.ttl:30m}") Duration ttl,
+                                               @Value("${quiz.attempt.store.write-behind:false}") boolean writeBehindEnabled,
+                                               @Value("${quiz.attempt.store.write-behind.interval:500ms}") Duration interval,
+                                               @Value("${quiz.attempt.store.write-behind.batch-size:256}") int batchSize,
+                                               @Value("${quiz.attempt.store.write-behind.capacity:10000}") int capacity,
+                                               MeterRegistry meterRegistry) throws IOException {
+        AttemptStateStore backing = switch (type) {
+            case "memory" -> new StripedAttemptStateStore();
+            case "file" -> {
+                if (directory.isBlank()) {
+                    throw new IllegalStateException("quiz.attempt.store=file needs quiz.attempt.store.directory");
+                }
+                yield new FileAttemptStateStore(Paths.get(directory));
+            }
+            default -> throw new IllegalStateException("Unknown quiz.attempt.store '" + type + "', expected memory or file");
+        };
+        log.info("Quiz attempts are kept in {} store", type);
+
+        AttemptStateStore store = writeBehindEnabled
+                ? writeBehind(backing, interval, batchSize, capacity, meterRegistry)
+                : backing;
+
+        Gauge.builder("quiz.attempt.store.size", store, AttemptStateStore::size)
+                .description("Quiz attempts in progress")
+                .register(meterRegistry);
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "attempt-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> evict(store, ttl), 1, 1, TimeUnit.MINUTES);
+        return store;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        if (writeBehind != null) {
+            writeBehind.close();   // writes every buffered attempt
+        }
+    }
+
+    private AttemptStateStore writeBehind(AttemptStateStore backing, Duration interval, int batchSize, int capacity,
+                                          MeterRegistry meterRegistry) {
+        writeBehind = new WriteBehindAttemptStateStore(backing, interval, batchSize, capacity);
+        log.info("Attempt writes are buffered and written every {} or {} attempts", interval, batchSize);
+        FunctionCounter.builder("quiz.attempt.store.puts", writeBehind, WriteBehindAttemptStateStore::puts)
+                .description("Attempt state writes requested")
+                .register(meterRegistry);
+        FunctionCounter.builder("quiz.attempt.store.writes", writeBehind, WriteBehindAttemptStateStore::writes)
+                .description("Attempt state writes to the backing store")
+                .register(meterRegistry);
+        FunctionCounter.builder("quiz.attempt.store.writes.through", writeBehind, WriteBehindAttemptStateStore::writesThrough)
+                .description("Attempt state writes made on the request thread because the buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("quiz.attempt.store.pending", writeBehind, WriteBehindAttemptStateStore::pending)
+                .description("Attempts waiting to be written")
+                .register(meterRegistry);
+        return writeBehind;
+    }
+
+    private static void evict(AttemptStateStore store, Duration ttl) {
+        try {
+            int evicted = store.evictIdle(ttl);
+            if (evicted > 0) {
+                log.debug("Evicted {} idle quiz attempts", evicted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not evict idle quiz attempts", e);   // keep the sweeper running
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.quiz.store;
+
+import com.quiz.model.AttemptState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link AttemptStateStore} that keeps one small file per attempt in a directory.
+ * <p>
+ * Pointing several nodes at the same shared directory lets any node serve any attempt; on a
+ * single machine it stands in for an external store and keeps attempts across restarts. Each
+ * write goes to a temporary file that is then atomically moved over the attempt's file, so a
+ * reader never sees a half-written attempt.
+ * <p>
+ * {@link #replace}, {@link #remove(long, AttemptState)}, {@link #remove(long)} and
+ * {@link #evictIdle} compare and write under a lock per stripe of attempt ids: a
+ * {@link ReentrantLock} within this process, and a lock on one byte of the directory's lock file
+ * across the processes sharing the directory. A removal therefore never lands between the compare
+ * and the write of a save on another node.
+ */
+public class FileAttemptStateStore implements AttemptStateStore {
+
+    private static final String SUFFIX = ".attempt";
+    private static final String LOCK_FILE = "attempts.lock";
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path directory;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public FileAttemptStateStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public AttemptState get(long attemptId) {
+        try {
+            byte[] bytes = read(attemptId);
+            return bytes == null ? null : AttemptState.fromBytes(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read attempt " + attemptId, e);
+        }
+    }
+
+    @Override
+    public void put(long attemptId, AttemptState state) {
+        try {
+            write(attemptId, state.toBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write attempt " + attemptId, e);
+        }
+    }
+
+    @Override
+    public boolean replace(long attemptId, AttemptState expected, AttemptState state) {
+        byte[] expectedBytes = expected.toBytes();
+        byte[] bytes = state.toBytes();
+        return locked(attemptId, () -> {
+            if (!Arrays.equals(read(attemptId), expectedBytes)) {
+                return false;
+            }
+            write(attemptId, bytes);
+            return true;
+        });
+    }
+
+    @Override
+    public void remove(long attemptId) {
+        locked(attemptId, () -> Files.deleteIfExists(file(attemptId)));
+    }
+
+    @Override
+    public boolean remove(long attemptId, AttemptState expected) {
+        byte[] expectedBytes = expected.toBytes();
+        return locked(attemptId, () -> Arrays.equals(read(attemptId), expectedBytes) && Files.deleteIfExists(file(attemptId)));
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path ignored : files) {
+                size++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list attempts in " + directory, e);
+        }
+        return size;
+    }
+
+    @Override
+    public int evictIdle(Duration maxIdle) {
+        FileTime cutoff = FileTime.from(Instant.now().minus(maxIdle));
+        int evicted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    if (Files.getLastModifiedTime(file).compareTo(cutoff) >= 0) {
+                        continue;
+                    }
+                } catch (NoSuchFileException e) {
+                    continue;   // removed by another node or a submit in the meantime
+                }
+                String name = file.getFileName().toString();
+                long attemptId = Long.parseUnsignedLong(name.substring(0, name.length() - SUFFIX.length()), 16);
+                // a save may have landed since the listing, so the idle time is checked again under the lock
+                if (locked(attemptId, () -> isIdle(file, cutoff) && Files.deleteIfExists(file))) {
+                    evicted++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not evict attempts in " + directory, e);
+        }
+        return evicted;
+    }
+
+    private static boolean isIdle(Path file, FileTime cutoff) throws IOException {
+        try {
+            return Files.getLastModifiedTime(file).compareTo(cutoff) < 0;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    // the attempt's bytes, or null if it is not stored
+    private byte[] read(long attemptId) throws IOException {
+        try {
+            return Files.readAllBytes(file(attemptId));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private void write(long attemptId, byte[] bytes) throws IOException {
+        Path tmp = Files.createTempFile(directory, Long.toHexString(attemptId), ".tmp");
+        Files.write(tmp, bytes);
+        Files.move(tmp, file(attemptId), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // runs a compare-and-write or a removal while holding the attempt's stripe in this process and in the lock file
+    private boolean locked(long attemptId, Update update) {
+        int stripe = Long.hashCode(attemptId) & (LOCK_STRIPES - 1);
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock(stripe, 1, false)) {
+            return update.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not update attempt " + attemptId, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private interface Update {
+        boolean run() throws IOException;
+    }
+
+    private Path file(long attemptId) {
+        return directory.resolve(Long.toHexString(attemptId) + SUFFIX);
+    }
+}
@@ -0,0 +1,161 @@
+package com.quiz.store;
+
+import com.quiz.model.AttemptState;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory {@link AttemptStateStore} for a single node.
+ * <p>
+ * Attempts are spread over a fixed number of stripes by id; each stripe is a plain map of encoded
+ * attempts behind its own lock, so concurrent attempts rarely wait on each other and a lookup never
+ * blocks the whole store.
+ */
+public class StripedAttemptStateStore implements AttemptStateStore {
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    /**
+     * Creates a store with four stripes per available processor.
+     */
+    public StripedAttemptStateStore() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param stripeCount number of stripes, rounded up to a power of two
+     */
+    public StripedAttemptStateStore(int stripeCount) {
+        int count = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        mask = count - 1;
+    }
+
+    @Override
+    public AttemptState get(long attemptId) {
+        Stripe stripe = stripe(attemptId);
+        byte[] bytes;
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(attemptId);
+            bytes = entry == null ? null : entry.bytes;
+        } finally {
+            stripe.lock.unlock();
+        }
+        return bytes == null ? null : AttemptState.fromBytes(bytes);
+    }
+
+    @Override
+    public void put(long attemptId, AttemptState state) {
+        Entry entry = new Entry(state.toBytes(), System.currentTimeMillis());   // encode outside the lock
+        Stripe stripe = stripe(attemptId);
+        stripe.lock.lock();
+        try {
+            stripe.entries.put(attemptId, entry);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean replace(long attemptId, AttemptState expected, AttemptState state) {
+        byte[] expectedBytes = expected.toBytes();
+        Entry entry = new Entry(state.toBytes(), System.currentTimeMillis());
+        Stripe stripe = stripe(attemptId);
+        stripe.lock.lock();
+        try {
+            Entry current = stripe.entries.get(attemptId);
+            if (current == null || !Arrays.equals(current.bytes, expectedBytes)) {
+                return false;
+            }
+            stripe.entries.put(attemptId, entry);
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(long attemptId) {
+        Stripe stripe = stripe(attemptId);
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(attemptId);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(long attemptId, AttemptState expected) {
+        byte[] expectedBytes = expected.toBytes();
+        Stripe stripe = stripe(attemptId);
+        stripe.lock.lock();
+        try {
+            Entry current = stripe.entries.get(attemptId);
+            if (current == null || !Arrays.equals(current.bytes, expectedBytes)) {
+                return false;
+            }
+            stripe.entries.remove(attemptId);
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public int evictIdle(Duration maxIdle) {
+        long cutoff = System.currentTimeMillis() - maxIdle.toMillis();
+        int evicted = 0;
+        for (Stripe stripe : stripes) {   // one stripe at a time, the others stay available
+            stripe.lock.lock();
+            try {
+                for (Iterator<Entry> it = stripe.entries.values().iterator(); it.hasNext(); ) {
+                    if (it.next().writtenAt < cutoff) {
+                        it.remove();
+                        evicted++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return evicted;
+    }
+
+    private Stripe stripe(long attemptId) {
+        long h = attemptId * 0x9E3779B97F4A7C15L;   // ids are random, but spread any sequential ones too
+        return stripes[(int) (h >>> 32) & mask];
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Long, Entry> entries = new HashMap<>();
+    }
+
+    private record Entry(byte[] bytes, long writtenAt) {
+    }
+}
@@ -0,0 +1,332 @@
+package com.quiz.store;
+
+import com.quiz.model.AttemptState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link AttemptStateStore} that buffers writes in memory and writes them to a slower store in batches.
+ * <p>
+ * Each put replaces the buffered state of the attempt, so repeated answers to one question, and all
+ * answers given between two flushes, cost a single write to the backing store. Buffered attempts are
+ * written every {@code interval}, or as soon as {@code batchSize} of them are waiting. Reads see the
+ * buffered state first, so a submit always grades every answer given, and a submitted or abandoned
+ * attempt that is removed before its flush is never written at all. Everything still buffered is
+ * written by {@link #close()}.
+ * <p>
+ * The buffer holds at most {@code capacity} attempts. When it is full, a put for an attempt that
+ * is not yet buffered is written straight to the backing store on the caller's thread, so a backing
+ * store that falls behind slows down the requests instead of growing the buffer.
+ * <p>
+ * Every change to the buffered state of an attempt, and its flush, is made under the lock of the
+ * attempt's stripe, so a put cannot slip in between a flush's write and its removal from the buffer,
+ * or between a removal and the check of the buffer. A place in the buffer is reserved before an
+ * attempt is added, so the bound holds however many puts race for the last place.
+ */
+public class WriteBehindAttemptStateStore implements AttemptStateStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindAttemptStateStore.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final AttemptStateStore backing;
+    private final int batchSize;
+    private final int capacity;
+    /**
+     * The buffered state of an attempt.
+     *
+     * @param stored whether the backing store holds some state of the attempt, so that
+     *               {@link #size()} counts it once
+     */
+    private record Buffered(byte[] bytes, boolean stored) {
+    }
+
+    private final Map<Long, Buffered> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger buffered = new AtomicInteger();   // places taken in pending
+    private final AtomicInteger unstored = new AtomicInteger();   // buffered attempts the backing store does not hold
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder writesThrough = new LongAdder();
+
+    /**
+     * @param backing   the store the attempts are written to
+     * @param interval  how often buffered attempts are written
+     * @param batchSize number of buffered attempts that triggers a write before the interval is up
+     * @param capacity  number of attempts the buffer holds before puts are written through
+     */
+    public WriteBehindAttemptStateStore(AttemptStateStore backing, Duration interval, int batchSize, int capacity) {
+        if (batchSize < 1 || capacity < 1) {
+            throw new IllegalArgumentException("batchSize and capacity must be positive, got " + batchSize + " and " + capacity);
+        }
+        this.backing = backing;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "attempt-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = Math.max(1, interval.toMillis());
+        flusher.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public AttemptState get(long attemptId) {
+        Buffered entry = pending.get(attemptId);
+        return entry != null ? AttemptState.fromBytes(entry.bytes()) : backing.get(attemptId);
+    }
+
+    @Override
+    public void put(long attemptId, AttemptState state) {
+        puts.increment();
+        byte[] bytes = state.toBytes();
+        ReentrantLock lock = lock(attemptId);
+        lock.lock();
+        try {
+            Buffered entry = pending.get(attemptId);
+            if (entry != null) {
+                pending.put(attemptId, new Buffered(bytes, entry.stored()));
+            } else if (reserve()) {
+                buffer(attemptId, new Buffered(bytes, backing.get(attemptId) != null));
+            } else {
+                writeThrough(attemptId, state);
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        requestFlushIfFull();
+    }
+
+    @Override
+    public boolean replace(long attemptId, AttemptState expected, AttemptState state) {
+        puts.increment();
+        byte[] expectedBytes = expected.toBytes();
+        byte[] bytes = state.toBytes();
+        ReentrantLock lock = lock(attemptId);
+        lock.lock();
+        try {
+            Buffered entry = pending.get(attemptId);
+            AttemptState stored = entry == null ? backing.get(attemptId) : null;
+            byte[] current = entry != null ? entry.bytes() : stored == null ? null : stored.toBytes();
+            if (!Arrays.equals(current, expectedBytes)) {
+                return false;
+            }
+            if (entry != null) {
+                pending.put(attemptId, new Buffered(bytes, entry.stored()));
+            } else if (reserve()) {
+                buffer(attemptId, new Buffered(bytes, true));
+            } else {
+                writeThrough(attemptId, state);
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        requestFlushIfFull();
+        return true;
+    }
+
+    @Override
+    public void remove(long attemptId) {
+        ReentrantLock lock = lock(attemptId);
+        lock.lock();
+        try {
+            unbuffer(attemptId);
+            backing.remove(attemptId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(long attemptId, AttemptState expected) {
+        byte[] expectedBytes = expected.toBytes();
+        ReentrantLock lock = lock(attemptId);
+        lock.lock();
+        try {
+            Buffered entry = pending.get(attemptId);
+            if (entry == null) {
+                return backing.remove(attemptId, expected);
+            }
+            if (!Arrays.equals(entry.bytes(), expectedBytes)) {
+                return false;
+            }
+            unbuffer(attemptId);
+            if (entry.stored()) {
+                backing.remove(attemptId);   // an older state of it was written
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of attempts in the backing store, plus the buffered attempts it does not hold yet.
+     */
+    @Override
+    public int size() {
+        return backing.size() + unstored.get();
+    }
+
+    @Override
+    public int evictIdle(Duration maxIdle) {
+        return backing.evictIdle(maxIdle);
+    }
+
+    /**
+     * Writes every buffered attempt to the backing store.
+     *
+     * @return the number of attempts written
+     */
+    public int flush() {
+        flushRequested.set(false);
+        int written = 0;
+        for (Long attemptId : pending.keySet()) {
+            if (flush(attemptId)) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Number of attempts waiting to be written.
+     */
+    public int pending() {
+        return buffered.get();
+    }
+
+    /**
+     * Number of puts received.
+     */
+    public long puts() {
+        return puts.sum();
+    }
+
+    /**
+     * Number of writes to the backing store, including puts written through while the buffer was full.
+     */
+    public long writes() {
+        return writes.sum();
+    }
+
+    /**
+     * Number of puts written straight to the backing store because the buffer was full.
+     */
+    public long writesThrough() {
+        return writesThrough.sum();
+    }
+
+    /**
+     * Stops the periodic flush and writes everything still buffered.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private boolean flush(long attemptId) {
+        ReentrantLock lock = lock(attemptId);
+        lock.lock();
+        try {
+            Buffered entry = pending.get(attemptId);
+            if (entry == null) {
+                return false;   // removed since the flush started
+            }
+            backing.put(attemptId, AttemptState.fromBytes(entry.bytes()));
+            writes.increment();
+            unbuffer(attemptId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // called with the attempt's stripe lock held
+    private void writeThrough(long attemptId, AttemptState state) {
+        backing.put(attemptId, state);
+        writes.increment();
+        writesThrough.increment();
+    }
+
+    // takes a place in the buffer for an attempt that is not buffered yet, if one is free
+    private boolean reserve() {
+        int taken;
+        do {
+            taken = buffered.get();
+            if (taken >= capacity) {
+                return false;
+            }
+        } while (!buffered.compareAndSet(taken, taken + 1));
+        return true;
+    }
+
+    // called with the attempt's stripe lock held, after reserve()
+    private void buffer(long attemptId, Buffered entry) {
+        pending.put(attemptId, entry);
+        if (!entry.stored()) {
+            unstored.incrementAndGet();
+        }
+    }
+
+    // called with the attempt's stripe lock held
+    private void unbuffer(long attemptId) {
+        Buffered entry = pending.remove(attemptId);
+        if (entry != null) {
+            buffered.decrementAndGet();
+            if (!entry.stored()) {
+                unstored.decrementAndGet();
+            }
+        }
+    }
+
+    private void requestFlushIfFull() {
+        if (buffered.get() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // closing; close() writes what is buffered
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not write buffered quiz attempts, {} waiting", buffered.get(), e);   // retried on the next flush
+        }
+    }
+
+    private ReentrantLock lock(long attemptId) {
+        return locks[Long.hashCode(attemptId) & (LOCK_STRIPES - 1)];
+    }
+}
@@ -0,0 +1,95 @@
+package com.quiz.quiz_app;
+
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.Grade;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
+import com.quiz.service.AnswerGrader;
+import com.quiz.service.QuizShuffler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the primitive grading path in {@link AnswerGrader}.
+ */
+class AnswerGraderTest {
+
+    @Test
+    void testGrade_ShouldScoreAndMarkEveryQuestion() {
+        // 130 questions span three mask words
+        byte[] key = new byte[130];
+        byte[] answers = AnswerGrader.newAnswerSheet(130);
+        for (int i = 0; i < key.length; i++) {
+            key[i] = (byte) (i % 4);
+            if (i % 3 == 0) {
+                answers[i] = key[i];             // correct
+            } else if (i % 3 == 1) {
+                answers[i] = (byte) ((i + 1) % 4);  // wrong
+            }                                    // otherwise unanswered
+        }
+
+        Grade grade = AnswerGrader.grade(key, answers);
+
+        assertThat(grade.getScore()).isEqualTo(44);
+        assertThat(grade.getTotalQuestions()).isEqualTo(130);
+        assertThat(grade.getCorrectMask()).hasSize(3);
+        assertThat(grade.isCorrect(129)).isTrue();
+        assertThat(grade.isCorrect(128)).isFalse();
+        assertThat(grade.isCorrect(127)).isFalse();
+        assertThat(AnswerGrader.answeredCount(answers)).isEqualTo(87);
+    }
+
+    @Test
+    void testGrade_WithReusedMask_ShouldOverwritePreviousResult() {
+        byte[] key = {0, 1, 2};
+        long[] mask = AnswerGrader.newMask(3);
+
+        assertThat(AnswerGrader.grade(key, new byte[]{0, 1, 2}, mask)).isEqualTo(3);
+        assertThat(AnswerGrader.grade(key, new byte[]{0, -1, 1}, mask)).isEqualTo(1);
+        assertThat(mask[0]).isEqualTo(1L);
+    }
+
+    @Test
+    void testGrade_WithMismatchedSheet_ShouldFail() {
+        assertThatThrownBy(() -> AnswerGrader.grade(new byte[3], new byte[2]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testShuffledLetters_ShouldGradeAgainstCatalogAnswerKey() {
+        List<Question> questions = new ArrayList<>();
+        for (int id = 1; id <= 5; id++) {
+            questions.add(new Question(id, "Q" + id, Arrays.asList("w", "x", "y", "z"), "y"));
+        }
+        Quiz quiz = new Quiz(1, "Quiz", "Description", questions);
+        QuizCatalog catalog = QuizCatalog.of(List.of(quiz));
+        QuizPermutation shuffle = QuizShuffler.permutation(quiz, 7);
+
+        // the candidate picks the letter shown for "y" on every question
+        byte[] answers = AnswerGrader.newAnswerSheet(5);
+        for (int position = 0; position < 5; position++) {
+            Question shown = shuffle.question(quiz, position);
+            int questionPosition = shuffle.questionIndex(position);
+            answers[questionPosition] = (byte) shuffle.originalOption(questionPosition,
+                    shown.getCorrectAnswer().charAt(0) - 'A');
+        }
+
+        Grade grade = AnswerGrader.grade(catalog.answerKey(0), answers);
+        Map<Integer, String> letters = shuffle.letters(quiz, answers);
+
+        assertThat(grade.getScore()).isEqualTo(5);
+        assertThat(letters).hasSize(5);
+        assertThat(shuffle.originalOption(0, 4)).isEqualTo(-1);
+        for (Question shown : shuffle.apply(quiz).getQuestions()) {
+            assertThat(letters.get(shown.getId())).isEqualTo(shown.getCorrectAnswer());
+        }
+    }
+}
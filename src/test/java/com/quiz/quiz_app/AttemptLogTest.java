@@ -0,0 +1,323 @@
+package com.quiz.quiz_app;
+
+import com.quiz.model.AttemptRecord;
+import com.quiz.store.AttemptLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link AttemptLog}: concurrent appends, segment rotation, recovery from a torn
+ * write at the end of the log, and rollback of commits that fail.
+ */
+class AttemptLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static AttemptRecord record(long attemptId) {
+        return new AttemptRecord(attemptId, 3, -42L, 1_000L, 2_000L, (int) (attemptId % 5), new byte[]{0, -1, 2, 1, 3});
+    }
+
+    private List<AttemptRecord> replay() throws IOException {
+        List<AttemptRecord> records = new ArrayList<>();
+        AttemptLog.replay(directory, records::add);
+        return records;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void testConcurrentAppends_ShouldAllBeReadBackInGroups() throws Exception {
+        try (AttemptLog log = AttemptLog.open(directory, 1 << 20, false);
+             ExecutorService submitters = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long id = 1; id <= 1_000; id++) {
+                long attemptId = id;
+                submitters.submit(() -> log.append(record(attemptId)));
+            }
+            submitters.shutdown();
+            submitters.close();
+
+            assertThat(log.records()).isEqualTo(1_000);
+            assertThat(log.commits()).isBetween(1L, 1_000L);
+        }
+
+        List<AttemptRecord> records = replay();
+        assertThat(records).hasSize(1_000);
+        assertThat(records).extracting(AttemptRecord::getAttemptId).doesNotHaveDuplicates();
+        assertThat(records.get(0).getAnswers()).containsExactly(0, -1, 2, 1, 3);
+    }
+
+    @Test
+    void testSmallSegments_ShouldRotateAndKeepOrder() throws IOException {
+        try (AttemptLog log = AttemptLog.open(directory, 256, true)) {
+            for (long id = 1; id <= 50; id++) {
+                log.append(record(id));
+            }
+        }
+
+        assertThat(segmentCount()).isGreaterThan(1);
+        assertThat(replay()).extracting(AttemptRecord::getAttemptId)
+                .containsExactlyElementsOf(Stream.iterate(1L, id -> id + 1).limit(50).toList());
+    }
+
+    @Test
+    void testTornWrite_ShouldBeTruncatedOnOpen() throws IOException {
+        try (AttemptLog log = AttemptLog.open(directory, 1 << 20, true)) {
+            log.append(record(1));
+            log.append(record(2));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        long goodSize = Files.size(segment);
+        // half a frame, as a crash in the middle of a write leaves it
+        Files.write(segment, new byte[]{0, 0, 0, 47, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        assertThat(replay()).hasSize(2);   // readers stop at the torn frame
+
+        try (AttemptLog log = AttemptLog.open(directory, 1 << 20, true)) {
+            assertThat(Files.size(segment)).isEqualTo(goodSize);
+            log.append(record(3));
+        }
+        assertThat(replay()).extracting(AttemptRecord::getAttemptId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void testFailedRotation_ShouldRollBackTheFramesWrittenBeforeIt() throws Exception {
+        int frameBytes = 8 + record(1).byteSize();
+        AtomicBoolean failNewSegments = new AtomicBoolean();
+        List<FailingChannel> channels = new CopyOnWriteArrayList<>();
+        AttemptLog.SegmentOpener opener = (segment, options) -> {
+            FailingChannel channel = new FailingChannel(FileChannel.open(segment, options));
+            // a new segment is created, but its header cannot be written
+            channel.failWrites = failNewSegments.get() && Set.of(options).contains(StandardOpenOption.CREATE_NEW);
+            channels.add(channel);
+            return channel;
+        };
+        List<Long> committed = new ArrayList<>();
+        ExecutorService submitters = Executors.newFixedThreadPool(3);
+        // room for three frames per segment
+        try (AttemptLog log = AttemptLog.open(directory, 4 + 3L * frameBytes, false, opener)) {
+            log.append(record(1));
+            committed.add(1L);
+            failNewSegments.set(true);
+
+            // while the writer is held in the commit of 2, records 3 and 4 queue up as one batch: 3 is
+            // written to the first segment, then 4 starts a new segment, which fails
+            CountDownLatch release = new CountDownLatch(1);
+            channels.get(0).hold = release;
+            Future<?> second = submitters.submit(() -> log.append(record(2)));
+            Thread.sleep(50);
+            List<Future<?>> batch = List.of(submitters.submit(() -> log.append(record(3))),
+                    submitters.submit(() -> log.append(record(4))));
+            Thread.sleep(100);
+            channels.get(0).hold = null;
+            release.countDown();
+            second.get();
+            committed.add(2L);
+            int failed = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    batch.get(i).get();
+                    committed.add(3L + i);
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(UncheckedIOException.class);
+                    failed++;
+                }
+            }
+            assertThat(failed).isPositive();
+
+            failNewSegments.set(false);
+            log.append(record(5));
+            committed.add(5L);
+        } finally {
+            submitters.shutdown();
+        }
+
+        // nothing of a failed append is left behind, and the log goes on after the last commit
+        assertThat(replay()).extracting(AttemptRecord::getAttemptId)
+                .containsExactlyInAnyOrderElementsOf(committed)
+                .endsWith(5L);
+    }
+
+    @Test
+    void testFailedRollback_ShouldRejectAppendsUntilReopened() throws IOException {
+        List<FailingChannel> channels = new ArrayList<>();
+        AttemptLog.SegmentOpener opener = (segment, options) -> {
+            FailingChannel channel = new FailingChannel(FileChannel.open(segment, options));
+            channels.add(channel);
+            return channel;
+        };
+        try (AttemptLog log = AttemptLog.open(directory, 1 << 20, false, opener)) {
+            log.append(record(1));
+            channels.get(0).failWrites = true;
+            channels.get(0).failTruncate = true;
+
+            assertThatThrownBy(() -> log.append(record(2)))
+                    .isInstanceOf(UncheckedIOException.class)
+                    .satisfies(e -> assertThat(e.getCause().getSuppressed()).hasSize(1));
+
+            // the disk is back, but the log no longer knows where its last good frame ends
+            channels.get(0).failWrites = false;
+            assertThatThrownBy(() -> log.append(record(3))).isInstanceOf(IllegalStateException.class);
+        }
+
+        // reopening cuts the torn frame off, as after a crash
+        try (AttemptLog log = AttemptLog.open(directory, 1 << 20, false)) {
+            log.append(record(4));
+        }
+        assertThat(replay()).extracting(AttemptRecord::getAttemptId).containsExactly(1L, 4L);
+    }
+
+    /**
+     * A segment channel whose writes can be held or made to fail halfway, and whose truncation can
+     * fail, as a slow, full or failing disk would.
+     */
+    private static final class FailingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        volatile boolean failWrites;
+        volatile boolean failTruncate;
+        volatile CountDownLatch hold;
+
+        FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            CountDownLatch latch = hold;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+            if (failWrites) {
+                ByteBuffer half = src.duplicate();
+                half.limit(half.position() + half.remaining() / 2);
+                delegate.write(half, position);
+                throw new IOException("No space left on device");
+            }
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (failTruncate) {
+                throw new IOException("Input/output error");
+            }
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.quiz.quiz_app;
+
+import com.quiz.model.AttemptState;
+import com.quiz.store.AttemptStateStore;
+import com.quiz.store.FileAttemptStateStore;
+import com.quiz.store.StripedAttemptStateStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the {@link AttemptState} encoding and both {@link AttemptStateStore} implementations.
+ */
+class AttemptStateStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static AttemptState state() {
+        return new AttemptState(3, 7L, -42L, 1_000L, 2, new byte[]{0, -1, 3, 1});
+    }
+
+    private List<AttemptStateStore> stores() throws IOException {
+        return List.of(new StripedAttemptStateStore(4), new FileAttemptStateStore(directory));
+    }
+
+    @Test
+    void testEncoding_ShouldRoundTripInFewBytes() {
+        byte[] bytes = state().toBytes();
+
+        AttemptState decoded = AttemptState.fromBytes(bytes);
+
+        assertThat(bytes).hasSize(AttemptState.HEADER_BYTES + 4);
+        assertThat(decoded.getQuizId()).isEqualTo(3);
+        assertThat(decoded.getCatalogVersion()).isEqualTo(7L);
+        assertThat(decoded.getSeed()).isEqualTo(-42L);
+        assertThat(decoded.getStartedAt()).isEqualTo(1_000L);
+        assertThat(decoded.getCurrentIndex()).isEqualTo(2);
+        assertThat(decoded.getAnswers()).containsExactly(0, -1, 3, 1);
+    }
+
+    @Test
+    void testEncoding_WithTruncatedBytes_ShouldFail() {
+        byte[] bytes = state().toBytes();
+
+        assertThatThrownBy(() -> AttemptState.fromBytes(Arrays.copyOf(bytes, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testStores_ShouldKeepChangesOnlyOncePutBack() throws IOException {
+        for (AttemptStateStore store : stores()) {
+            store.put(1L, state());
+
+            AttemptState loaded = store.get(1L);
+            loaded.getAnswers()[1] = 2;
+            assertThat(store.get(1L).getAnswers()[1]).isEqualTo((byte) -1);
+
+            loaded.setCurrentIndex(3);
+            store.put(1L, loaded);
+            assertThat(store.get(1L).getAnswers()[1]).isEqualTo((byte) 2);
+            assertThat(store.get(1L).getCurrentIndex()).isEqualTo(3);
+            assertThat(store.size()).isEqualTo(1);
+
+            store.remove(1L);
+            assertThat(store.get(1L)).isNull();
+            assertThat(store.size()).isZero();
+        }
+    }
+
+    @Test
+    void testEvictIdle_ShouldRemoveOnlyIdleAttempts() throws IOException {
+        for (AttemptStateStore store : stores()) {
+            store.put(1L, state());
+            store.put(2L, state());
+            store.put(-3L, state());   // ids are random, so negative ones are stored too
+
+            assertThat(store.evictIdle(Duration.ofMinutes(5))).isZero();
+            assertThat(store.evictIdle(Duration.ofMillis(-1_000))).isEqualTo(3);
+            assertThat(store.size()).isZero();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.quiz.quiz_app;
+
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.exception.QuizException;
+import com.quiz.model.QuizResult;
+import com.quiz.render.PageCache;
+import com.quiz.render.QuizFragments;
+import com.quiz.service.AttemptService;
+import com.quiz.service.CatalogReloadService;
+import com.quiz.service.QuizLoader;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link CatalogReloadService} against a catalog file in a temporary directory, and for
+ * attempts that span a reload.
+ */
+@SpringBootTest
+class CatalogReloadServiceTest {
+
+    private static final Path CATALOG_FILE = createCatalogFile();
+
+    @Autowired
+    private QuizLoader quizLoader;
+
+    @Autowired
+    private PageCache pageCache;
+
+    @Autowired
+    private CatalogReloadService reloadService;
+
+    @Autowired
+    private AttemptService attemptService;
+
+    @DynamicPropertySource
+    static void catalogProperties(DynamicPropertyRegistry registry) {
+        registry.add("quiz.catalog.reload.enabled", () -> "true");
+        registry.add("quiz.catalog.location", CATALOG_FILE::toString);
+        registry.add("quiz.catalog.retained-versions", () -> "1");
+    }
+
+    private static Path createCatalogFile() {
+        try {
+            Path file = Files.createTempDirectory("quiz-catalog").resolve("catalog.json");
+            Files.writeString(file, catalogJson("First title"));
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String catalogJson(String title) {
+        return """
+                {"quizzes": [{"id": 5, "title": "%s", "description": "d", "questions": [
+                  {"id": 1, "question": "2 + 2?", "options": ["3", "4"], "correctAnswer": "4"}
+                ]}]}
+                """.formatted(title);
+    }
+
+    @Test
+    void testReload_ShouldSwapInNewSnapshotAndKeepOldOneIntact() throws IOException {
+        // Given the external catalog loaded at startup
+        QuizCatalog before = quizLoader.getCatalog();
+        assertThat(before.getQuiz(5)).isNotNull();
+
+        // When the file changes and is reloaded
+        Files.writeString(CATALOG_FILE, catalogJson("Second title"));
+        boolean swapped = reloadService.reload();
+
+        // Then a new version is live, and the old snapshot still shows the old data
+        assertThat(swapped).isTrue();
+        QuizCatalog after = quizLoader.getCatalog();
+        assertThat(after.getVersion()).isNotEqualTo(before.getVersion());
+        assertThat(after.getQuiz(5).getTitle()).isEqualTo("Second title");
+        assertThat(before.getQuiz(5).getTitle()).isNotEqualTo("Second title");
+        assertThat(reloadService.getLastSwapEpochMillis()).isPositive();
+    }
+
+    @Test
+    void testReload_WithInvalidCatalog_ShouldKeepCurrentSnapshot() throws IOException {
+        QuizCatalog before = quizLoader.getCatalog();
+
+        // correct answer is not among the options
+        Files.writeString(CATALOG_FILE, catalogJson("Broken").replace("\"correctAnswer\": \"4\"", "\"correctAnswer\": \"5\""));
+        boolean swapped = reloadService.reload();
+
+        assertThat(swapped).isFalse();
+        assertThat(quizLoader.getCatalog()).isSameAs(before);
+
+        Files.writeString(CATALOG_FILE, "{ not json");
+        assertThat(reloadService.reload()).isFalse();
+        assertThat(quizLoader.getCatalog()).isSameAs(before);
+    }
+
+    @Test
+    void testReload_WithChangedAnswer_ShouldGradeTheAttemptOnTheVersionItStartedWith() throws IOException {
+        Files.writeString(CATALOG_FILE, catalogJson("Before"));
+        assertThat(reloadService.reload()).isTrue();
+        AttemptService.Attempt started = attemptService.start(5);
+        attemptService.recordAnswer(started, 1, letterOf(started, 1));   // "4", correct in this version
+        attemptService.save(started);
+
+        // same number of questions, but now "3" is the correct answer
+        Files.writeString(CATALOG_FILE, catalogJson("After").replace("\"correctAnswer\": \"4\"", "\"correctAnswer\": \"3\""));
+        assertThat(reloadService.reload()).isTrue();
+
+        AttemptService.Attempt loaded = attemptService.load(started.id());
+        assertThat(loaded.catalog()).isSameAs(started.catalog());
+        assertThat(loaded.quiz().getTitle()).isEqualTo("Before");
+        QuizResult result = attemptService.submit(loaded);
+        assertThat(result.getScore()).isEqualTo(1);
+    }
+
+    @Test
+    void testReload_PastTheRetainedVersions_ShouldEndTheAttempt() throws IOException {
+        AttemptService.Attempt started = attemptService.start(5);
+        attemptService.recordAnswer(started, 1, letterOf(started, 1));
+        attemptService.save(started);
+
+        // one replaced version is kept, so the attempt's version is dropped by the second reload
+        Files.writeString(CATALOG_FILE, catalogJson("Once"));
+        assertThat(reloadService.reload()).isTrue();
+        assertThat(attemptService.load(started.id()).catalog().getVersion()).isEqualTo(started.catalog().getVersion());
+        Files.writeString(CATALOG_FILE, catalogJson("Twice"));
+        assertThat(reloadService.reload()).isTrue();
+
+        assertThat(quizLoader.getCatalog(started.catalog().getVersion())).isNull();
+        assertThatThrownBy(() -> attemptService.load(started.id()))
+                .isInstanceOfSatisfying(QuizException.class, e -> {
+                    assertThat(e.getErrorTitle()).isEqualTo("Quiz Updated");
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT);
+                });
+        // the state is left for nodes that still keep the version, so a retry reads the same way
+        assertThatThrownBy(() -> attemptService.load(started.id()))
+                .isInstanceOfSatisfying(QuizException.class, e -> assertThat(e.getErrorTitle()).isEqualTo("Quiz Updated"));
+    }
+
+    @Test
+    void testReload_WithTheSameContent_ShouldKeepTheVersion() throws IOException {
+        Files.writeString(CATALOG_FILE, catalogJson("Before"));
+        reloadService.reload();
+        long before = quizLoader.getCatalog().getVersion();
+        Files.writeString(CATALOG_FILE, catalogJson("Changed"));
+        assertThat(reloadService.reload()).isTrue();
+        long changed = quizLoader.getCatalog().getVersion();
+
+        // a node that loads the same content, or this one after a restart, derives the same version
+        assertThat(QuizCatalog.of(quizLoader.getCatalog().getQuizzes()).getVersion()).isEqualTo(changed);
+        assertThat(changed).isNotEqualTo(before);
+
+        // reloading back to the earlier content makes its version current again, not retired twice
+        Files.writeString(CATALOG_FILE, catalogJson("Before"));
+        assertThat(reloadService.reload()).isTrue();
+        assertThat(quizLoader.getCatalog().getVersion()).isEqualTo(before);
+        assertThat(quizLoader.getCatalog(changed)).isNotNull();
+    }
+
+    @Test
+    void testFragments_ForARetainedVersion_ShouldNotEvictTheLiveCatalogs() throws IOException {
+        Files.writeString(CATALOG_FILE, catalogJson("Pinned"));
+        assertThat(reloadService.reload()).isTrue();
+        QuizCatalog pinned = quizLoader.getCatalog();
+        Files.writeString(CATALOG_FILE, catalogJson("Live"));
+        assertThat(reloadService.reload()).isTrue();
+        QuizCatalog live = quizLoader.getCatalog();
+
+        QuizFragments liveFragments = pageCache.fragments(live, 5);
+        QuizFragments pinnedFragments = pageCache.fragments(pinned, 5);
+
+        // requests for the two versions alternate, and each keeps its own cached fragments
+        assertThat(pageCache.fragments(live, 5)).isSameAs(liveFragments);
+        assertThat(pageCache.fragments(pinned, 5)).isSameAs(pinnedFragments);
+        assertThat(pinnedFragments.title()).isEqualTo("Pinned");
+        assertThat(liveFragments.title()).isEqualTo("Live");
+    }
+
+    // the letter the attempt shows for the given option of its first question
+    private static String letterOf(AttemptService.Attempt attempt, int option) {
+        char letter = 'A';
+        while (attempt.shuffle().originalOption(0, letter - 'A') != option) {
+            letter++;
+        }
+        return String.valueOf(letter);
+    }
+}
@@ -0,0 +1,132 @@
+package com.quiz.quiz_app;
+
+import com.quiz.catalog.CatalogSearchIndex;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.service.QuizLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CatalogSearchIndex}.
+ */
+class CatalogSearchIndexTest {
+
+    private static Quiz quiz(int id, String title, String description, String questionText, String tag) {
+        Question question = new Question(1, questionText, Arrays.asList("A", "B"), "A");
+        question.setTag(tag);
+        return new Quiz(id, title, description, new ArrayList<>(List.of(question)));
+    }
+
+    private static QuizCatalog catalog() {
+        return QuizCatalog.of(List.of(
+                quiz(1, "Java Basics", "Variables and loops in Java", "What does a for loop do?", "Java"),
+                quiz(2, "Networking", "Routing and switching", "Which layer does a router work at?", "routing"),
+                quiz(3, "Spring Boot", "Dependency injection with Java", "What does @Autowired inject?", "java"),
+                quiz(4, "Network Security", "Firewalls", "What does a firewall filter?", "security")));
+    }
+
+    private static List<Integer> ids(CatalogSearchIndex.Page page) {
+        return page.quizzes().stream().map(Quiz::getId).toList();
+    }
+
+    @Test
+    void testTerms_ShouldLowerCaseAndDropShortRuns() {
+        assertThat(CatalogSearchIndex.terms("What's TCP/IP, a 2-way protocol?"))
+                .containsExactly("what", "tcp", "ip", "way", "protocol");
+        assertThat(CatalogSearchIndex.terms("x".repeat(40))).containsExactly("x".repeat(CatalogSearchIndex.MAX_TERM_LENGTH));
+    }
+
+    @Test
+    void testSearch_ShouldMatchEveryTermTitleHitsFirst() {
+        CatalogSearchIndex index = CatalogSearchIndex.of(catalog());
+
+        assertThat(ids(index.search("java ", List.of(), 1, 10))).containsExactly(1, 3);
+        assertThat(ids(index.search("java injection", List.of(), 1, 10))).containsExactly(3);
+        assertThat(ids(index.search("loop java", List.of(), 1, 10))).containsExactly(1);
+        assertThat(ids(index.search("firewall routing", List.of(), 1, 10))).isEmpty();
+        // "Java Basics" holds "java" in its title, "Spring Boot" only in its description
+        assertThat(ids(index.search("java", List.of(), 1, 10))).containsExactly(1, 3);
+        assertThat(ids(index.search("inject", List.of(), 1, 10))).containsExactly(3);
+    }
+
+    @Test
+    void testSearch_ShouldMatchTheLastTermAsAPrefixWhileTyping() {
+        CatalogSearchIndex index = CatalogSearchIndex.of(catalog());
+
+        // "network" and "networking" are both titles, so both quizzes rank as title hits
+        assertThat(ids(index.search("netw", List.of(), 1, 10))).containsExactly(2, 4);
+        assertThat(ids(index.search("network ", List.of(), 1, 10))).containsExactly(4);
+        assertThat(ids(index.search("fire", List.of(), 1, 10))).containsExactly(4);
+        assertThat(ids(index.search("fire ", List.of(), 1, 10))).isEmpty();
+    }
+
+    @Test
+    void testSearch_ShouldFilterByTag() {
+        CatalogSearchIndex index = CatalogSearchIndex.of(catalog());
+
+        assertThat(ids(index.search("", List.of("java"), 1, 10))).containsExactly(1, 3);
+        assertThat(ids(index.search("spring", List.of("JAVA"), 1, 10))).containsExactly(3);
+        assertThat(ids(index.search("", List.of("java", "routing"), 1, 10))).isEmpty();
+        assertThat(ids(index.search("", List.of("unknown"), 1, 10))).isEmpty();
+        assertThat(index.tags()).containsExactly(
+                new CatalogSearchIndex.TagCount("java", 2),
+                new CatalogSearchIndex.TagCount("routing", 1),
+                new CatalogSearchIndex.TagCount("security", 1));
+    }
+
+    @Test
+    void testSearch_ShouldPageTheResults() {
+        List<Quiz> quizzes = new ArrayList<>();
+        for (int id = 1; id <= 45; id++) {
+            quizzes.add(quiz(id, "Quiz " + id, "Practice set", "Question?", null));
+        }
+        CatalogSearchIndex index = CatalogSearchIndex.of(QuizCatalog.of(quizzes));
+
+        CatalogSearchIndex.Page second = index.search("practice", List.of(), 2, 20);
+        assertThat(second.total()).isEqualTo(45);
+        assertThat(second.pages()).isEqualTo(3);
+        assertThat(ids(second)).hasSize(20).startsWith(21).endsWith(40);
+        assertThat(second.hasPrevious()).isTrue();
+        assertThat(second.hasNext()).isTrue();
+        assertThat(ids(index.search("", List.of(), 3, 20))).containsExactly(41, 42, 43, 44, 45);
+        assertThat(index.search("", List.of(), 9, 20).quizzes()).isEmpty();
+        assertThat(index.search("", List.of(), 1, 1000).pageSize()).isEqualTo(CatalogSearchIndex.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void testUpdate_ShouldReindexOnlyChangedQuizzes() {
+        CatalogSearchIndex first = CatalogSearchIndex.of(catalog());
+        List<Quiz> changed = new ArrayList<>(catalog().getQuizzes());
+        changed.set(1, quiz(2, "Networking", "Routing and switching", "What does BGP exchange?", "routing"));
+        changed.add(quiz(5, "Kotlin", "Coroutines on the JVM", "What is a coroutine?", "kotlin"));
+
+        CatalogSearchIndex second = CatalogSearchIndex.update(first, QuizCatalog.of(changed, 2));
+
+        assertThat(second.reusedCount()).isEqualTo(3);
+        assertThat(ids(second.search("bgp", List.of(), 1, 10))).containsExactly(2);
+        assertThat(ids(second.search("router", List.of(), 1, 10))).isEmpty();
+        assertThat(ids(second.search("coroutine", List.of(), 1, 10))).containsExactly(5);
+        assertThat(ids(second.search("java", List.of(), 1, 10))).containsExactly(1, 3);
+        assertThat(ids(first.search("router", List.of(), 1, 10))).containsExactly(2);
+        assertThat(second.memoryBytes()).isGreaterThan(first.memoryBytes());
+    }
+
+    @Test
+    void testQuizLoader_ShouldIndexEveryPublishedCatalog() {
+        QuizLoader loader = new QuizLoader();
+        loader.publish(catalog());
+
+        CatalogSearchIndex index = loader.getSearchIndex();
+
+        assertThat(index.catalog()).isSameAs(loader.getCatalog());
+        assertThat(ids(index.search("spring", List.of(), 1, 10))).containsExactly(3);
+        assertThat(loader.getSearchIndex()).isSameAs(index);
+    }
+}
@@ -0,0 +1,115 @@
+package com.quiz.quiz_app;
+
+import com.quiz.catalog.CatalogSnapshot;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.service.QuizLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the binary {@link CatalogSnapshot} format.
+ */
+class CatalogSnapshotTest {
+
+    private static List<Quiz> sampleQuizzes() {
+        Question q1 = new Question(1, "What is the capital of Brazil?", Arrays.asList("Rio", "São Paulo", "Brasília"), "Brasília");
+        Question q2 = new Question(2, "Is water wet?", Arrays.asList("Yes", "No"), "Yes");
+        Question q3 = new Question(7, "Is fire cold?", Arrays.asList("Yes", "No"), "No");
+        return List.of(
+                new Quiz(3, "Geography", "Capitals", List.of(q1)),
+                new Quiz(9, "Yes or no", null, List.of(q2, q3)));
+    }
+
+    @Test
+    void testRoundTrip_ShouldRestoreEveryQuiz(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(sampleQuizzes(), file);
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+        List<Quiz> quizzes = snapshot.toQuizzes();
+
+        assertThat(snapshot.quizCount()).isEqualTo(2);
+        assertThat(snapshot.quizId(1)).isEqualTo(9);
+        assertThat(snapshot.questionCount(1)).isEqualTo(2);
+        assertThat(quizzes.get(0).getTitle()).isEqualTo("Geography");
+        assertThat(quizzes.get(1).getDescription()).isNull();
+
+        Question brazil = quizzes.get(0).getQuestions().get(0);
+        assertThat(brazil.getOptions()).containsExactly("Rio", "São Paulo", "Brasília");
+        assertThat(brazil.getCorrectAnswer()).isEqualTo("Brasília");
+        assertThat(quizzes.get(1).getQuestions().get(1).getId()).isEqualTo(7);
+        assertThat(quizzes.get(1).getQuestions().get(1).getCorrectAnswer()).isEqualTo("No");
+    }
+
+    @Test
+    void testSnapshot_ShouldStoreAndShareRepeatedStringsOnce() throws IOException {
+        CatalogSnapshot snapshot = CatalogSnapshot.wrap(CatalogSnapshot.toBytes(sampleQuizzes()));
+
+        // "Yes" and "No" appear twice but are stored once
+        assertThat(snapshot.stringCount()).isEqualTo(11);
+
+        List<Question> questions = snapshot.toQuizzes().get(1).getQuestions();
+        assertThat(questions.get(0).getOptions().get(0)).isSameAs(questions.get(1).getOptions().get(0));
+    }
+
+    @Test
+    void testOpen_WithCorruptFile_ShouldFail(@TempDir Path directory) throws IOException {
+        byte[] bytes = CatalogSnapshot.toBytes(sampleQuizzes());
+        Path truncated = directory.resolve("truncated.snapshot");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        Path json = directory.resolve("catalog.json");
+        Files.writeString(json, "{\"quizzes\": []}");
+
+        assertThatThrownBy(() -> CatalogSnapshot.open(truncated)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> CatalogSnapshot.open(json)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testWrap_WithCorruptCountsOrReferences_ShouldFailWithIOException() {
+        byte[] bytes = CatalogSnapshot.toBytes(sampleQuizzes());
+        ByteBuffer layout = ByteBuffer.wrap(bytes);
+        int stringCount = layout.getInt(8);
+        int questionsStart = 24 + (stringCount + 1) * Integer.BYTES + layout.getInt(12) * 32;
+
+        byte[] overflowingCount = bytes.clone();
+        ByteBuffer.wrap(overflowingCount).putInt(12, 0x1000_0000);   // quiz table size overflows an int
+        byte[] truncatedTables = Arrays.copyOf(bytes, questionsStart + 10);
+        byte[] badOffset = bytes.clone();
+        ByteBuffer.wrap(badOffset).putInt(24 + Integer.BYTES, Integer.MAX_VALUE);
+        byte[] badOptions = bytes.clone();
+        ByteBuffer.wrap(badOptions).putInt(questionsStart + 8, 1_000);
+        byte[] badReference = bytes.clone();
+        ByteBuffer.wrap(badReference).putInt(questionsStart + 4, stringCount);
+
+        for (byte[] corrupt : List.of(overflowingCount, truncatedTables, badOffset, badOptions, badReference)) {
+            assertThatThrownBy(() -> CatalogSnapshot.wrap(corrupt))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageStartingWith("Truncated or corrupt catalog snapshot");
+        }
+        assertThatThrownBy(() -> CatalogSnapshot.wrap(Arrays.copyOf(bytes, 20))).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testQuizLoader_ShouldLoadFromSnapshotAndFallBackToJson(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(sampleQuizzes(), file);
+
+        QuizLoader fromSnapshot = new QuizLoader(file.toString());
+        assertThat(fromSnapshot.getAllQuizzes()).extracting("id").containsExactly(3, 9);
+
+        QuizLoader fallback = new QuizLoader(directory.resolve("missing.snapshot").toString());
+        assertThat(fallback.getAllQuizzes()).isNotEmpty();
+        assertThat(fallback.getQuizById(3)).isNull();
+    }
+}
@@ -0,0 +1,166 @@
+package com.quiz.quiz_app;
+
+import com.quiz.catalog.CatalogSnapshot;
+import com.quiz.catalog.CatalogValidator;
+import com.quiz.catalog.ItemBank;
+import com.quiz.catalog.QuestionSampler;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the adaptive question choice of {@link ItemBank}.
+ */
+class ItemBankTest {
+
+    // questions with difficulties spread over -3..3 and discriminations 0.5..2; "A" is always correct
+    private static Quiz bank(int size, int testLength) {
+        SplittableRandom random = new SplittableRandom(7);
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Question question = new Question(i + 1, "Q" + i, Arrays.asList("A", "B", "C"), "A");
+            question.setDifficulty(-3 + 6.0 * i / (size - 1));
+            question.setDiscrimination(0.5 + random.nextDouble() * 1.5);
+            questions.add(question);
+        }
+        Quiz quiz = new Quiz(1, "Adaptive", null, questions);
+        quiz.setAdaptive(true);
+        quiz.setSampleSize(testLength);
+        return quiz;
+    }
+
+    // answers as a candidate of the given ability would, and returns the run
+    private static ItemBank.Run take(ItemBank bank, Quiz quiz, long seed, double ability, byte[] answers) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ItemBank.Run run = bank.start(seed);
+        for (int i = 0; run.selectNext(); i++) {
+            Question question = quiz.getQuestions().get(run.items()[i]);
+            double p = 1 / (1 + Math.exp(-question.getDiscrimination() * (ability - question.getDifficulty())));
+            boolean correct = random.nextDouble() < p;
+            answers[i] = (byte) (correct ? 0 : 1);
+            run.record(correct);
+        }
+        return run;
+    }
+
+    @Test
+    void testFirstQuestion_ShouldBeNearTheAverageAbility() {
+        Quiz quiz = bank(1001, 20);
+        ItemBank bank = ItemBank.of(quiz);
+
+        for (long seed = 0; seed < 50; seed++) {
+            ItemBank.Run run = bank.start(seed);
+            assertThat(run.selectNext()).isTrue();
+            assertThat(quiz.getQuestions().get(run.items()[0]).getDifficulty()).isBetween(-0.2, 0.2);
+        }
+    }
+
+    @Test
+    void testAnswers_ShouldMoveTheAbilityAndTheNextQuestion() {
+        Quiz quiz = bank(1001, 20);
+        ItemBank bank = ItemBank.of(quiz);
+        ItemBank.Run strong = bank.start(1);
+        ItemBank.Run weak = bank.start(1);
+
+        for (int i = 0; i < 5; i++) {
+            strong.selectNext();
+            strong.record(true);
+            weak.selectNext();
+            weak.record(false);
+        }
+        strong.selectNext();
+        weak.selectNext();
+
+        assertThat(strong.ability()).isGreaterThan(1);
+        assertThat(weak.ability()).isLessThan(-1);
+        assertThat(quiz.getQuestions().get(strong.items()[5]).getDifficulty()).isGreaterThan(1);
+        assertThat(quiz.getQuestions().get(weak.items()[5]).getDifficulty()).isLessThan(-1);
+    }
+
+    @Test
+    void testTest_ShouldAskDistinctQuestionsAndEstimateTheAbility() {
+        Quiz quiz = bank(2000, 30);
+        ItemBank bank = ItemBank.of(quiz);
+
+        double squaredError = 0;
+        for (long seed = 0; seed < 100; seed++) {
+            double ability = -2 + seed * 0.04;
+            ItemBank.Run run = take(bank, quiz, seed, ability, new byte[30]);
+
+            assertThat(run.count()).isEqualTo(30);
+            assertThat(Arrays.stream(run.items()).distinct().count()).isEqualTo(30);
+            assertThat(run.selectNext()).isFalse();
+            squaredError += (run.ability() - ability) * (run.ability() - ability);
+        }
+        assertThat(Math.sqrt(squaredError / 100)).isLessThan(0.4);
+    }
+
+    @Test
+    void testReplay_ShouldRebuildTheQuestionsFromSeedAndAnswers() {
+        Quiz quiz = bank(500, 15);
+        ItemBank bank = ItemBank.of(quiz);
+        byte[] key = QuizCatalog.of(List.of(quiz)).answerKey(0);
+        byte[] answers = new byte[15];
+        ItemBank.Run taken = take(bank, quiz, 3, 0.5, answers);
+
+        ItemBank.Run replayed = bank.replay(3, answers, key);
+        assertThat(replayed.items()).containsExactly(taken.items());
+        assertThat(replayed.ability()).isEqualTo(taken.ability());
+
+        // halfway through: the answered questions and the one waiting for an answer
+        byte[] half = answers.clone();
+        Arrays.fill(half, 7, 15, (byte) -1);
+        assertThat(bank.replay(3, half, key).items()).containsExactly(Arrays.copyOf(taken.items(), 8));
+    }
+
+    @Test
+    void testRun_ShouldNotChooseBeforeTheLastQuestionIsAnswered() {
+        ItemBank.Run run = ItemBank.of(bank(100, 10)).start(1);
+        run.selectNext();
+
+        assertThatThrownBy(run::selectNext).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testCatalog_ShouldBuildItemBanksForAdaptiveQuizzesOnly() throws IOException {
+        Quiz adaptive = bank(100, 10);
+        adaptive.getQuestions().get(0).setDiscrimination(null);
+        Quiz plain = bank(100, 10);
+        plain.setId(2);
+        plain.setAdaptive(false);
+
+        QuizCatalog catalog = QuizCatalog.of(CatalogSnapshot.wrap(CatalogSnapshot.toBytes(List.of(adaptive, plain))).toQuizzes());
+
+        assertThat(catalog.getQuiz(1).isAdaptive()).isTrue();
+        assertThat(catalog.getQuiz(1).getQuestions().get(0).getDiscrimination()).isNull();
+        assertThat(catalog.getQuiz(1).getQuestions().get(1).getDiscrimination())
+                .isEqualTo(adaptive.getQuestions().get(1).getDiscrimination());
+        assertThat(catalog.itemBank(0).testLength()).isEqualTo(10);
+        assertThat(catalog.itemBank(0).size()).isEqualTo(100);
+        assertThat(catalog.sampler(0)).isNull();
+        assertThat(catalog.itemBank(1)).isNull();
+        assertThat(catalog.sampler(1)).isNotNull();
+    }
+
+    @Test
+    void testValidator_ShouldRejectBadItemParameters() {
+        Quiz stratified = bank(10, 5);
+        stratified.setStratifyBy(QuestionSampler.STRATIFY_BY_TAG);
+        Quiz flat = bank(10, 5);
+        flat.getQuestions().get(3).setDiscrimination(0.0);
+
+        assertThat(CatalogValidator.validate(bank(10, 5))).isEmpty();
+        assertThat(CatalogValidator.validate(stratified)).anyMatch(problem -> problem.contains("adaptive"));
+        assertThat(CatalogValidator.validate(flat)).anyMatch(problem -> problem.contains("discrimination"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.quiz.quiz_app;
+
+import com.quiz.analytics.Leaderboard;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link Leaderboard}: top-K order, rank and percentile queries, and concurrent
+ * recording checked against sorting every result.
+ */
+class LeaderboardTest {
+
+    @Test
+    void testTop_ShouldRankByScoreThenTimeTaken() {
+        Leaderboard board = new Leaderboard(10, 3);
+        board.record(new Leaderboard.Entry(1, 7, 90_000, 1_000));
+        board.record(new Leaderboard.Entry(2, 9, 120_000, 2_000));
+        board.record(new Leaderboard.Entry(3, 9, 60_000, 3_000));
+        board.record(new Leaderboard.Entry(4, 3, 10_000, 4_000));
+        board.record(new Leaderboard.Entry(5, 8, 10_000, 5_000));
+
+        assertThat(board.top(10)).extracting(Leaderboard.Entry::attemptId).containsExactly(3L, 2L, 5L);
+        assertThat(board.top(1)).extracting(Leaderboard.Entry::attemptId).containsExactly(3L);
+        assertThat(board.results()).isEqualTo(5);
+    }
+
+    @Test
+    void testStanding_ShouldCountHigherAndLowerScores() {
+        Leaderboard board = new Leaderboard(5, 10);
+        int[] scores = {0, 2, 2, 3, 5};
+        for (int i = 0; i < scores.length; i++) {
+            board.record(new Leaderboard.Entry(i, scores[i], 1_000, i));
+        }
+
+        Leaderboard.Standing standing = board.standing(2);
+        assertThat(standing.rank()).isEqualTo(3);         // 3 and 5 are higher
+        assertThat(standing.percentile()).isEqualTo(20.0); // 0 is lower
+        assertThat(board.standing(5).rank()).isEqualTo(1);
+        assertThat(new Leaderboard(5, 10).standing(3).results()).isZero();
+    }
+
+    @Test
+    void testConcurrentRecording_ShouldMatchSortedResults() {
+        Leaderboard board = new Leaderboard(20, 50);
+        Random random = new Random(42);
+        List<Leaderboard.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            entries.add(new Leaderboard.Entry(i, random.nextInt(21), random.nextInt(600_000), i));
+        }
+
+        try (ExecutorService submitters = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Leaderboard.Entry entry : entries) {
+                submitters.submit(() -> board.record(entry));
+            }
+        }
+
+        Collections.sort(entries, Leaderboard.BEST_FIRST);
+        assertThat(board.top(50)).containsExactlyElementsOf(entries.subList(0, 50));
+        long above = entries.stream().filter(entry -> entry.score() > 12).count();
+        long below = entries.stream().filter(entry -> entry.score() < 12).count();
+        assertThat(board.standing(12).rank()).isEqualTo(above + 1);
+        assertThat(board.standing(12).percentile()).isEqualTo(below * 100.0 / entries.size());
+    }
+}
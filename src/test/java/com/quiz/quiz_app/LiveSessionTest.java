@@ -0,0 +1,325 @@
+package com.quiz.quiz_app;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.exception.QuizException;
+import com.quiz.live.LiveSession;
+import com.quiz.live.LiveSessions;
+import com.quiz.live.LiveSubscriber;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for live sessions: one serialized frame fanned out to every subscriber, slow subscribers
+ * skipping to the latest frame, lock-free answer counting, the limits and expiry of sessions, and
+ * the live session API.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class LiveSessionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LiveSessions liveSessions;
+
+    private static LiveSession session(int questionCount) {
+        return session(questionCount, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    private static LiveSession session(int questionCount, int maxParticipants, int maxSubscribers) {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < questionCount; i++) {
+            questions.add(new Question(i + 1, "Question " + i, Arrays.asList("A", "B", "C", "D"), "B"));
+        }
+        byte[] answerKey = new byte[questionCount];
+        Arrays.fill(answerKey, (byte) 1);
+        return new LiveSession(1, 2, new Quiz(1, "Live", "Live quiz", questions), answerKey, new ObjectMapper(),
+                maxParticipants, maxSubscribers);
+    }
+
+    private static void awaitDelivered(LiveSubscriber subscriber, long seq) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (subscriber.delivered() != seq && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(subscriber.delivered()).isEqualTo(seq);
+    }
+
+    @Test
+    void testBroadcast_ShouldSendTheSameFrameToEverySubscriber() throws Exception {
+        LiveSession session = session(3);
+        List<Queue<byte[]>> received = new ArrayList<>();
+        CountDownLatch lobby = new CountDownLatch(100);
+        CountDownLatch open = new CountDownLatch(200);
+        for (int i = 0; i < 100; i++) {
+            Queue<byte[]> frames = new ConcurrentLinkedQueue<>();
+            received.add(frames);
+            session.subscribe(frame -> {
+                frames.add(frame);
+                lobby.countDown();
+                open.countDown();
+            });
+        }
+        assertThat(lobby.await(5, TimeUnit.SECONDS)).isTrue();
+
+        LiveSession.Frame frame = session.next();
+
+        assertThat(open.await(5, TimeUnit.SECONDS)).isTrue();
+        for (Queue<byte[]> frames : received) {
+            assertThat(frames).hasSize(2);
+            assertThat(frames).last().isSameAs(frame.bytes());
+        }
+        String event = new String(frame.bytes(), StandardCharsets.UTF_8);
+        assertThat(event).startsWith("id: 2\nevent: state\ndata: {").endsWith("}\n\n");
+        JsonNode state = objectMapper.readTree(event.substring(event.indexOf('{')));
+        assertThat(state.get("phase").asText()).isEqualTo("OPEN");
+        assertThat(state.get("question").get("question").asText()).isEqualTo("Question 0");
+        assertThat(state.get("correctAnswer").isNull()).isTrue();
+    }
+
+    @Test
+    void testSlowSubscriber_ShouldSkipToTheLatestFrame() throws Exception {
+        LiveSession session = session(3);
+        Semaphore unblock = new Semaphore(0);
+        Queue<byte[]> slowFrames = new ConcurrentLinkedQueue<>();
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        LiveSubscriber slow = session.subscribe(frame -> {
+            slowFrames.add(frame);
+            slowStarted.countDown();
+            unblock.acquireUninterruptibly();
+        });
+        Queue<byte[]> fastFrames = new ConcurrentLinkedQueue<>();
+        LiveSubscriber fast = session.subscribe(fastFrames::add);
+        assertThat(slowStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitDelivered(fast, 1);
+
+        // the slow subscriber is still writing the lobby frame while three more are published
+        awaitDelivered(fast, session.next().seq());
+        awaitDelivered(fast, session.reveal().seq());
+        LiveSession.Frame latest = session.next();
+        awaitDelivered(fast, latest.seq());
+        unblock.release(10);
+
+        awaitDelivered(slow, latest.seq());
+        assertThat(fastFrames).hasSize(4);
+        assertThat(slowFrames).hasSize(2);
+        assertThat(slowFrames).last().isSameAs(latest.bytes());
+        assertThat(slow.skipped()).isEqualTo(2);
+        assertThat(fast.skipped()).isZero();
+    }
+
+    @Test
+    void testAnswers_ShouldCountOncePerParticipantWhileTheQuestionIsOpen() throws Exception {
+        LiveSession session = session(2);
+        long[] participants = new long[1000];
+        for (int i = 0; i < participants.length; i++) {
+            participants[i] = session.join();
+        }
+        assertThat(session.answer(participants[0], 0, 1)).isFalse();
+
+        int question = session.next().question();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            pool.submit(() -> {
+                for (int i = thread; i < participants.length; i += 8) {
+                    session.answer(participants[i], question, i % 4);
+                    session.answer(participants[i], question, 0);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        LiveSession.Tally tally = session.tally();
+        assertThat(tally.answers()).isEqualTo(1000);
+        assertThat(tally.counts()).containsExactly(250, 250, 250, 250);
+        assertThat(session.score(participants[1])).isEqualTo(1);
+        assertThat(session.score(participants[0])).isZero();
+
+        session.reveal();
+        assertThat(session.answer(participants[0], question, 1)).isFalse();
+        session.next();
+        assertThat(session.answer(participants[0], question, 1)).isFalse();
+        assertThatThrownBy(() -> session.answer(participants[0], question + 1, 9)).isInstanceOf(QuizException.class);
+        assertThatThrownBy(() -> session.answer(42, question + 1, 0)).isSameAs(QuizException.PARTICIPANT_NOT_FOUND);
+    }
+
+    @Test
+    void testEnd_ShouldSendTheLastFrameAndCompleteTheStreams() throws Exception {
+        LiveSession session = session(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        Queue<byte[]> frames = new ConcurrentLinkedQueue<>();
+        LiveSubscriber subscriber = session.subscribe(new LiveSubscriber.Sink() {
+            @Override
+            public void send(byte[] frame) {
+                frames.add(frame);
+            }
+
+            @Override
+            public void complete() {
+                completed.countDown();
+            }
+        });
+
+        session.next();
+        LiveSession.Frame last = session.next();
+
+        assertThat(last.phase()).isEqualTo(LiveSession.Phase.ENDED);
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(frames).last().isSameAs(last.bytes());
+        assertThat(subscriber.isClosed()).isTrue();
+        assertThat(session.subscriberCount()).isZero();
+    }
+
+    @Test
+    void testParticipantLimit_ShouldTurnAwayJoinsPastIt() throws Exception {
+        LiveSession session = session(1, 100, Integer.MAX_VALUE);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        Queue<Long> joined = new ConcurrentLinkedQueue<>();
+        Queue<Throwable> refused = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < 150; i++) {
+            pool.submit(() -> {
+                try {
+                    joined.add(session.join());
+                } catch (QuizException e) {
+                    refused.add(e);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(joined).hasSize(100);
+        assertThat(session.participantCount()).isEqualTo(100);
+        assertThat(refused).hasSize(50).allMatch(e -> e == QuizException.LIVE_SESSION_FULL);
+        assertThat(QuizException.LIVE_SESSION_FULL.getStatus().value()).isEqualTo(503);
+    }
+
+    @Test
+    void testSubscriberLimit_ShouldFreeAPlaceWhenAStreamCloses() throws Exception {
+        LiveSession session = session(1, Integer.MAX_VALUE, 2);
+        LiveSubscriber first = session.subscribe(frame -> { });
+        session.subscribe(frame -> { });
+
+        assertThatThrownBy(() -> session.subscribe(frame -> { })).isSameAs(QuizException.TOO_MANY_SUBSCRIBERS);
+
+        first.close();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (session.subscriberCount() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(session.subscriberCount()).isEqualTo(1);
+        assertThat(session.subscribe(frame -> { }).isClosed()).isFalse();
+        assertThatThrownBy(() -> session.subscribe(frame -> { })).isSameAs(QuizException.TOO_MANY_SUBSCRIBERS);
+    }
+
+    @Test
+    void testExpire_ShouldEndIdleAndOldSessions() throws Exception {
+        LiveSession idle = liveSessions.create(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        idle.subscribe(new LiveSubscriber.Sink() {
+            @Override
+            public void send(byte[] frame) {
+            }
+
+            @Override
+            public void complete() {
+                completed.countDown();
+            }
+        });
+
+        assertThat(liveSessions.expire(Duration.ofMinutes(30), Duration.ofHours(12))).isZero();
+        assertThat(liveSessions.get(idle.id())).isSameAs(idle);
+
+        Thread.sleep(20);
+        idle.join();   // a new participant counts as activity
+        assertThat(liveSessions.expire(Duration.ofMillis(10), Duration.ofHours(12))).isZero();
+        Thread.sleep(20);
+        assertThat(liveSessions.expire(Duration.ofMillis(10), Duration.ofHours(12))).isEqualTo(1);
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(idle.frame().phase()).isEqualTo(LiveSession.Phase.ENDED);
+        assertThatThrownBy(() -> liveSessions.get(idle.id())).isSameAs(QuizException.LIVE_SESSION_NOT_FOUND);
+
+        LiveSession old = liveSessions.create(1);
+        old.next();
+        assertThat(liveSessions.expire(Duration.ofMinutes(30), Duration.ZERO)).isEqualTo(1);
+        assertThatThrownBy(() -> liveSessions.get(old.id())).isSameAs(QuizException.LIVE_SESSION_NOT_FOUND);
+    }
+
+    @Test
+    void testLiveApi_ShouldRunASessionForThePresenter() throws Exception {
+        JsonNode created = objectMapper.readTree(mockMvc.perform(post("/api/live/sessions")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"quizId\": 1}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString());
+        String sessionId = created.get("sessionId").asText();
+        String presenterKey = created.get("presenterKey").asText();
+        String participantId = objectMapper.readTree(mockMvc.perform(post("/api/live/sessions/" + sessionId + "/participants"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()).get("participantId").asText();
+        MvcResult events = mockMvc.perform(get("/api/live/sessions/" + sessionId + "/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String answer = "{\"participantId\": \"" + participantId + "\", \"questionIndex\": 0, \"answer\": \"A\"}";
+
+        mockMvc.perform(post("/api/live/sessions/" + sessionId + "/next")).andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/live/sessions/" + sessionId + "/next").header("X-Presenter-Key", presenterKey))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.phase").value("OPEN"))
+                .andExpect(jsonPath("$.participants").value(1));
+        mockMvc.perform(post("/api/live/sessions/" + sessionId + "/answers")
+                        .contentType(MediaType.APPLICATION_JSON).content(answer))
+                .andExpect(jsonPath("$.accepted").value(true));
+        mockMvc.perform(post("/api/live/sessions/" + sessionId + "/answers")
+                        .contentType(MediaType.APPLICATION_JSON).content(answer))
+                .andExpect(jsonPath("$.accepted").value(false));
+        mockMvc.perform(get("/api/live/sessions/" + sessionId + "/tally").header("X-Presenter-Key", presenterKey))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.answers").value(1));
+        mockMvc.perform(post("/api/live/sessions/" + sessionId + "/end").header("X-Presenter-Key", presenterKey))
+                .andExpect(jsonPath("$.phase").value("ENDED"));
+        events.getAsyncResult(5000);
+        assertThat(events.getResponse().getContentType()).startsWith("text/event-stream");
+        assertThat(events.getResponse().getContentAsString())
+                .startsWith("id: 1\nevent: state\ndata: ")
+                .contains("\"phase\":\"LOBBY\"", "\"phase\":\"ENDED\"");
+
+        mockMvc.perform(post("/api/live/sessions/" + sessionId + "/participants")).andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/live/sessions").contentType(MediaType.APPLICATION_JSON).content("{\"quizId\": 999}"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,160 @@
+package com.quiz.quiz_app;
+
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
+import com.quiz.render.QuizFragments;
+import com.quiz.render.RenderedPage;
+import com.quiz.service.QuizShuffler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the rendered-output cache: the home pages and JSON catalog served once per catalog
+ * version, pre-compressed and with conditional GET support, and the question page built from
+ * cached fragments.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PageCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testHomePage_ShouldBeServedWithValidators() throws Exception {
+        MockHttpServletResponse first = mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        MockHttpServletResponse second = mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertThat(first.getHeader("ETag")).startsWith("\"");
+        assertThat(first.getHeader("Last-Modified")).isNotNull();
+        assertThat(first.getContentAsString()).contains("Countries -&gt; Capitals Quiz", "/quiz/start/1");
+        assertThat(second.getHeader("ETag")).isEqualTo(first.getHeader("ETag"));
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+    }
+
+    @Test
+    void testConditionalGet_ShouldReturnNotModified() throws Exception {
+        MockHttpServletResponse page = mockMvc.perform(get("/")).andReturn().getResponse();
+
+        MockHttpServletResponse byEtag = mockMvc.perform(get("/").header("If-None-Match", page.getHeader("ETag")))
+                .andExpect(status().isNotModified())
+                .andReturn().getResponse();
+        mockMvc.perform(get("/").header("If-Modified-Since", page.getHeader("Last-Modified")))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/").header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk());
+
+        assertThat(byEtag.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void testHomePage_ShouldListTheQuizzesAfterTheCursor() throws Exception {
+        String afterFirst = mockMvc.perform(get("/").param("after", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        // a cursor that is no longer in the catalog starts over
+        String unknown = mockMvc.perform(get("/").param("after", "999"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(afterFirst).doesNotContain("/quiz/start/1").contains("First page");
+        assertThat(unknown).contains("/quiz/start/1").doesNotContain("First page");
+    }
+
+    @Test
+    void testQuestionPage_ShouldUseEscapedFragments() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+        mockMvc.perform(get("/quiz/start/1").session(session)).andExpect(status().is3xxRedirection());
+
+        String page = mockMvc.perform(get("/quiz/question").session(session))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(page).contains("Countries -&gt; Capitals Quiz", "What is the capital of");
+    }
+
+    @Test
+    void testFragments_ShouldFollowTheAttemptsOptionOrder() {
+        Quiz quiz = new Quiz(1, "A & B", "Description", List.of(
+                new Question(1, "Is 1 < 2?", Arrays.asList("yes", "no", "<maybe>"), "yes"),
+                new Question(2, "Pick one", Arrays.asList("x", "y"), "x")));
+        QuizFragments fragments = QuizFragments.of(quiz);
+        QuizPermutation shuffle = QuizShuffler.permutation(quiz, 7);
+
+        assertThat(fragments.title()).isEqualTo("A &amp; B");
+        for (int display = 0; display < shuffle.size(); display++) {
+            Question shown = shuffle.question(quiz, display);
+            assertThat(fragments.stem(shuffle.questionIndex(display)))
+                    .isEqualTo(shown.getQuestion().replace("<", "&lt;"));
+            assertThat(fragments.options(shuffle.questionIndex(display), shuffle.originalOptions(display)))
+                    .containsExactlyElementsOf(shown.getOptions().stream()
+                            .map(option -> option.replace("<", "&lt;").replace(">", "&gt;")).toList());
+        }
+    }
+
+    @Test
+    void testGzipAccepted_ShouldServePrecompressedBody() throws Exception {
+        MockHttpServletResponse plain = mockMvc.perform(get("/api/quiz/catalog/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        MockHttpServletResponse gzip = mockMvc.perform(get("/api/quiz/catalog/1").header("Accept-Encoding", "gzip, br"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertThat(plain.getHeader("Content-Encoding")).isNull();
+        assertThat(gzip.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(gzip.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(gzip.getHeader("ETag")).isNotEqualTo(plain.getHeader("ETag"));
+        assertThat(gunzip(gzip.getContentAsByteArray())).isEqualTo(plain.getContentAsByteArray());
+
+        mockMvc.perform(get("/api/quiz/catalog/1").header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", gzip.getHeader("ETag")))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testQuizPreview_ShouldLeaveOutAnswers() throws Exception {
+        String preview = mockMvc.perform(get("/api/quiz/catalog/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(preview).contains("What is the capital of France?").doesNotContain("correctAnswer");
+        mockMvc.perform(get("/api/quiz/catalog/999")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testAcceptEncoding_ShouldHonourQualities() {
+        assertThat(RenderedPage.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(RenderedPage.acceptsGzip("br;q=1.0, gzip;q=0.8")).isTrue();
+        assertThat(RenderedPage.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(RenderedPage.acceptsGzip("*")).isTrue();
+        assertThat(RenderedPage.acceptsGzip("identity")).isFalse();
+        assertThat(RenderedPage.acceptsGzip(null)).isFalse();
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
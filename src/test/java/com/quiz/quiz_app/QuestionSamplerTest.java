@@ -0,0 +1,147 @@
+package com.quiz.quiz_app;
+
+import com.quiz.catalog.CatalogSnapshot;
+import com.quiz.catalog.CatalogValidator;
+import com.quiz.catalog.QuestionSampler;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link QuestionSampler} and the sampling settings of the catalog.
+ */
+class QuestionSamplerTest {
+
+    // 100 questions: tags a (50), b (30) and c (20); difficulty -1, 0, 1 in turn
+    private static Quiz pool(int sampleSize, String stratifyBy) {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Question question = new Question(i + 1, "Q" + i, Arrays.asList("A", "B", "C"), i % 2 == 0 ? "A" : "C");
+            question.setTag(i < 50 ? "a" : i < 80 ? "b" : "c");
+            question.setDifficulty(i % 3 - 1.0);
+            questions.add(question);
+        }
+        Quiz quiz = new Quiz(1, "Pool", null, questions);
+        quiz.setSampleSize(sampleSize);
+        quiz.setStratifyBy(stratifyBy);
+        return quiz;
+    }
+
+    @Test
+    void testSample_ShouldHoldDistinctPositionsInCatalogOrder() {
+        QuestionSampler sampler = QuestionSampler.of(pool(10, null));
+
+        for (long seed = 0; seed < 1000; seed++) {
+            int[] sample = sampler.sample(seed);
+            assertThat(sample).hasSize(10);
+            assertThat(sample).isSorted();
+            assertThat(Arrays.stream(sample).distinct().count()).isEqualTo(10);
+            assertThat(sample[0]).isGreaterThanOrEqualTo(0);
+            assertThat(sample[9]).isLessThan(100);
+        }
+    }
+
+    @Test
+    void testSample_ShouldBeRebuiltFromTheSeed() {
+        QuestionSampler sampler = QuestionSampler.of(pool(10, null));
+        QuestionSampler rebuilt = QuestionSampler.of(pool(10, null));
+
+        assertThat(rebuilt.sample(42)).containsExactly(sampler.sample(42));
+        assertThat(sampler.sample(43)).isNotEqualTo(sampler.sample(42));
+    }
+
+    @Test
+    void testSample_ShouldPickEveryQuestionEquallyOften() {
+        QuestionSampler sampler = QuestionSampler.of(pool(10, null));
+        int[] picks = new int[100];
+        for (long seed = 0; seed < 20_000; seed++) {
+            for (int position : sampler.sample(seed)) {
+                picks[position]++;
+            }
+        }
+
+        // each question is expected 2,000 times; a standard deviation is about 42
+        assertThat(Arrays.stream(picks).min().getAsInt()).isGreaterThan(1800);
+        assertThat(Arrays.stream(picks).max().getAsInt()).isLessThan(2200);
+    }
+
+    @Test
+    void testStratifiedSample_ShouldGiveEachTagItsShare() {
+        QuestionSampler sampler = QuestionSampler.of(pool(10, QuestionSampler.STRATIFY_BY_TAG));
+
+        for (long seed = 0; seed < 1000; seed++) {
+            int[] perTag = new int[3];
+            for (int position : sampler.sample(seed)) {
+                perTag[position < 50 ? 0 : position < 80 ? 1 : 2]++;
+            }
+            assertThat(perTag).containsExactly(5, 3, 2);
+        }
+    }
+
+    @Test
+    void testStratifiedSample_ShouldRoundSharesByLargestRemainder() {
+        // difficulty levels of 34, 33 and 33 questions share 7 picks as 3, 2, 2
+        QuestionSampler sampler = QuestionSampler.of(pool(7, QuestionSampler.STRATIFY_BY_DIFFICULTY));
+
+        int[] perLevel = new int[3];
+        for (int position : sampler.sample(7)) {
+            perLevel[position % 3]++;
+        }
+        assertThat(perLevel).containsExactly(3, 2, 2);
+    }
+
+    @Test
+    void testQuizWithoutSample_ShouldHaveNoSampler() {
+        assertThat(QuestionSampler.of(pool(0, null))).isNull();
+        assertThat(QuestionSampler.of(pool(100, null))).isNull();
+        assertThat(QuestionSampler.of(pool(500, null))).isNull();
+        assertThat(pool(500, null).getQuestionsPerAttempt()).isEqualTo(100);
+        assertThat(QuizCatalog.of(List.of(pool(0, null))).sampler(0)).isNull();
+    }
+
+    @Test
+    void testCatalog_ShouldGatherTheAnswerKeyOfASample() {
+        QuizCatalog catalog = QuizCatalog.of(List.of(pool(10, null)));
+        int[] sample = catalog.sampler(0).sample(1);
+
+        byte[] key = catalog.answerKey(0, sample);
+
+        assertThat(key).hasSize(10);
+        for (int i = 0; i < sample.length; i++) {
+            assertThat(key[i]).isEqualTo((byte) (sample[i] % 2 == 0 ? 0 : 2));
+        }
+    }
+
+    @Test
+    void testSnapshot_ShouldKeepSamplingSettings() throws IOException {
+        Quiz quiz = pool(10, QuestionSampler.STRATIFY_BY_TAG);
+        quiz.getQuestions().get(0).setDifficulty(null);
+
+        Quiz restored = CatalogSnapshot.wrap(CatalogSnapshot.toBytes(List.of(quiz))).toQuizzes().get(0);
+
+        assertThat(restored.getSampleSize()).isEqualTo(10);
+        assertThat(restored.getStratifyBy()).isEqualTo("tag");
+        assertThat(restored.getQuestions().get(60).getTag()).isEqualTo("b");
+        assertThat(restored.getQuestions().get(0).getDifficulty()).isNull();
+        assertThat(restored.getQuestions().get(2).getDifficulty()).isEqualTo(1.0);
+        assertThat(QuestionSampler.of(restored).sample(5)).containsExactly(QuestionSampler.of(quiz).sample(5));
+    }
+
+    @Test
+    void testValidator_ShouldRejectBadSamplingSettings() {
+        Quiz negative = pool(-1, null);
+        Quiz unknown = pool(10, "colour");
+
+        assertThat(CatalogValidator.validate(pool(10, QuestionSampler.STRATIFY_BY_DIFFICULTY))).isEmpty();
+        assertThat(CatalogValidator.validate(negative)).anyMatch(problem -> problem.contains("sample size"));
+        assertThat(CatalogValidator.validate(unknown)).anyMatch(problem -> problem.contains("stratified"));
+    }
+}
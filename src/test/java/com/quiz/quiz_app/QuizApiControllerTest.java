@@ -0,0 +1,199 @@
+package com.quiz.quiz_app;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.analytics.QuizAnalytics;
+import com.quiz.exception.QuizException;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.service.AnswerGrader;
+import com.quiz.service.AttemptService;
+import com.quiz.service.QuizLoader;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the JSON quiz API: a whole attempt through batched answers, navigation, errors
+ * returned as JSON, and requests for one attempt that arrive at the same time.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class QuizApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QuizLoader quizLoader;
+
+    @Autowired
+    private AttemptService attemptService;
+
+    @Autowired
+    private QuizAnalytics analytics;
+
+    @Test
+    void testBatchedAnswers_ShouldGradeWholeQuiz() throws Exception {
+        JsonNode attempt = start(1);
+        String id = attempt.get("attemptId").asText();
+        assertThat(attempt.get("currentIndex").asInt()).isZero();
+        assertThat(attempt.get("question").has("correctAnswer")).isFalse();
+
+        // the shown options are shuffled, so find the letter of each correct option from the catalog
+        Quiz quiz = quizLoader.getQuizById(1);
+        List<Map<String, Object>> answers = new ArrayList<>();
+        for (int index = 0; index < quiz.getQuestions().size(); index++) {
+            JsonNode shown = objectMapper.readTree(mockMvc.perform(put("/api/quiz/attempts/" + id + "/position")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"index\":" + index + "}"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString()).get("question");
+            Question original = quiz.getQuestions().stream()
+                    .filter(q -> q.getId() == shown.get("id").asInt()).findFirst().orElseThrow();
+            int option = 0;
+            while (!shown.get("options").get(option).asText().equals(original.getCorrectAnswer())) {
+                option++;
+            }
+            answers.add(Map.of("questionId", original.getId(), "answer", String.valueOf((char) ('A' + option))));
+        }
+
+        mockMvc.perform(post("/api/quiz/attempts/" + id + "/answers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("answers", answers))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.answered").value(quiz.getQuestions().size()))
+                .andExpect(jsonPath("$.currentIndex").value(quiz.getQuestions().size() - 1));
+
+        mockMvc.perform(post("/api/quiz/attempts/" + id + "/submit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.score").value(quiz.getQuestions().size()))
+                .andExpect(jsonPath("$.questions[0].correct").value(true));
+
+        // the attempt ends with the submit
+        mockMvc.perform(get("/api/quiz/attempts/" + id))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorTitle").value("Session Expired"));
+    }
+
+    @Test
+    void testBatchWithInvalidAnswer_ShouldRecordNothing() throws Exception {
+        String id = start(1).get("attemptId").asText();
+        int questionId = quizLoader.getQuizById(1).getQuestions().get(0).getId();
+        String batch = "{\"answers\":[{\"questionId\":" + questionId + ",\"answer\":\"A\"},"
+                + "{\"questionId\":" + questionId + ",\"answer\":\"Z\"}]}";
+
+        mockMvc.perform(post("/api/quiz/attempts/" + id + "/answers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorTitle").value("Invalid Answer"));
+
+        mockMvc.perform(get("/api/quiz/attempts/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.answered").value(0));
+    }
+
+    @Test
+    void testUnknownQuizAndAttempt_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(post("/api/quiz/attempts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quizId\":99999}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorTitle").value("Quiz Not Found"));
+
+        mockMvc.perform(get("/api/quiz/attempts/not-an-id"))
+                .andExpect(status().isNotFound());
+    }
+
+    private JsonNode start(int quizId) throws Exception {
+        String body = mockMvc.perform(post("/api/quiz/attempts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quizId\":" + quizId + "}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    @Test
+    void testConcurrentAnswers_ShouldAllBeKept() throws Exception {
+        String id = start(1).get("attemptId").asText();
+        List<Question> questions = quizLoader.getQuizById(1).getQuestions();
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(questions.size());
+        List<Future<?>> sent = new ArrayList<>();
+        for (Question question : questions) {
+            sent.add(pool.submit(() -> {
+                ready.await();
+                return mockMvc.perform(post("/api/quiz/attempts/" + id + "/answers")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"answers\":[{\"questionId\":" + question.getId() + ",\"answer\":\"A\"}]}"))
+                        .andExpect(status().isOk());
+            }));
+        }
+        ready.countDown();
+        for (Future<?> request : sent) {
+            request.get();
+        }
+        pool.shutdown();
+
+        mockMvc.perform(get("/api/quiz/attempts/" + id))
+                .andExpect(jsonPath("$.answered").value(questions.size()));
+    }
+
+    @Test
+    void testStaleSave_ShouldNotUndoAnotherRequest() {
+        long id = attemptService.start(1).id();
+        List<Question> questions = quizLoader.getQuizById(1).getQuestions();
+        AttemptService.Attempt first = attemptService.load(id);
+        AttemptService.Attempt second = attemptService.load(id);
+
+        attemptService.recordAnswer(first, questions.get(0).getId(), "A");
+        attemptService.save(first);
+        attemptService.recordAnswer(second, questions.get(1).getId(), "A");
+
+        assertThatThrownBy(() -> attemptService.save(second)).isSameAs(QuizException.ATTEMPT_CHANGED);
+        AttemptService.Attempt updated = attemptService.update(id,
+                attempt -> attemptService.recordAnswer(attempt, questions.get(1).getId(), "A"));
+        assertThat(attemptService.load(id).state().getAnswers()).isEqualTo(updated.state().getAnswers());
+        assertThat(AnswerGrader.answeredCount(updated.state().getAnswers())).isEqualTo(2);
+    }
+
+    @Test
+    void testConcurrentSubmits_ShouldGradeAndCountOnce() {
+        long id = attemptService.start(1).id();
+        AttemptService.Attempt answered = attemptService.load(id);
+        attemptService.recordAnswer(answered, quizLoader.getQuizById(1).getQuestions().get(0).getId(), "A");
+        attemptService.save(answered);
+        AttemptService.Attempt first = attemptService.load(id);
+        AttemptService.Attempt second = attemptService.load(id);
+        long before = analytics.snapshot(1).attempts();
+
+        attemptService.submit(first);
+
+        assertThatThrownBy(() -> attemptService.submit(second)).isSameAs(QuizException.SESSION_EXPIRED);
+        assertThat(analytics.snapshot(1).attempts()).isEqualTo(before + 1);
+    }
+}
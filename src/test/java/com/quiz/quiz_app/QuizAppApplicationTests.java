@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import com.quiz.model.Question;
 import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
 import com.quiz.model.QuizResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -225,4 +226,58 @@ class QuizAppApplicationTests {
         // Empty test - just verifies Spring context starts without errors
         // If Spring configuration is broken, this test will fail
     }
-}
\ No newline at end of file
+
+    /**
+     * TEST 6: Verifies that permute() keeps every question and option of the quiz.
+     * <p>
+     * How it works:
+     * 1. Creates a permutation (the compact shuffle an attempt keeps in its session)
+     * 2. Applies it to the original quiz to get the shuffled form
+     * 3. Verifies each question can also be read on its own at its display position
+     * 4. Verifies the original quiz was not modified
+     */
+    @Test
+    void testPermute_ShouldMapQuestionsAndOptionsWithoutCopying() {
+        QuizPermutation shuffle = quizService.permute(sampleQuiz);
+        Quiz shuffled = shuffle.apply(sampleQuiz);
+
+        assertThat(shuffle.getQuizId()).isEqualTo(101);
+        assertThat(shuffle.size()).isEqualTo(2);
+        assertThat(shuffled.getQuestions()).extracting(Question::getId).containsExactlyInAnyOrder(1, 2);
+
+        for (int position = 0; position < shuffle.size(); position++) {
+            Question single = shuffle.question(sampleQuiz, position);
+            Question inQuiz = shuffled.getQuestions().get(position);
+            Question original = sampleQuiz.getQuestions().get(shuffle.questionIndex(position));
+
+            assertThat(single.getId()).isEqualTo(inQuiz.getId()).isEqualTo(original.getId());
+            assertThat(single.getOptions()).isEqualTo(inQuiz.getOptions())
+                    .containsExactlyInAnyOrderElementsOf(original.getOptions());
+            // the letter points at the original correct answer
+            int letterIndex = single.getCorrectAnswer().charAt(0) - 'A';
+            assertThat(single.getOptions().get(letterIndex)).isEqualTo(original.getCorrectAnswer());
+        }
+
+        // original data is untouched
+        assertThat(sampleQuiz.getQuestions().get(0).getCorrectAnswer()).isEqualTo("Paris");
+        assertThat(sampleQuiz.getQuestions().get(0).getOptions()).containsExactly("Paris", "London", "Berlin", "Madrid");
+    }
+
+    /**
+     * TEST 7: Verifies that a quiz graded through a permutation gets the full score for correct letters.
+     */
+    @Test
+    void testEvaluateQuiz_WithPermutation_AllCorrectAnswers_ShouldReturnFullScore() {
+        QuizPermutation shuffle = quizService.permute(sampleQuiz);
+
+        Map<Integer, String> userAnswers = new HashMap<>();
+        for (int position = 0; position < shuffle.size(); position++) {
+            Question question = shuffle.question(sampleQuiz, position);
+            userAnswers.put(question.getId(), question.getCorrectAnswer());
+        }
+
+        QuizResult result = quizService.evaluateQuiz(shuffle.apply(sampleQuiz), userAnswers);
+
+        assertThat(result.getScore()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,78 @@
+package com.quiz.quiz_app;
+
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link QuizCatalog} id indexes.
+ */
+class QuizCatalogTest {
+
+    private static Quiz quiz(int id, int... questionIds) {
+        List<Question> questions = new ArrayList<>();
+        for (int questionId : questionIds) {
+            questions.add(new Question(questionId, "Q" + questionId, Arrays.asList("A", "B"), "A"));
+        }
+        return new Quiz(id, "Quiz " + id, "Description", questions);
+    }
+
+    @Test
+    void testLookups_ShouldResolveQuizzesAndQuestionsById() {
+        // Given a catalog with non-sequential ids
+        QuizCatalog catalog = QuizCatalog.of(Arrays.asList(quiz(7, 3, 1), quiz(42, 10, 20, 30)));
+
+        // Then quizzes and questions are found by id
+        assertThat(catalog.getQuiz(42).getTitle()).isEqualTo("Quiz 42");
+        assertThat(catalog.slotOf(7)).isZero();
+        assertThat(catalog.indexOfQuestion(42, 30)).isEqualTo(2);
+        assertThat(catalog.getQuestion(7, 1).getQuestion()).isEqualTo("Q1");
+
+        // And missing ids resolve to null / -1
+        assertThat(catalog.getQuiz(8)).isNull();
+        assertThat(catalog.containsQuestion(7, 10)).isFalse();
+        assertThat(catalog.getQuestion(99, 1)).isNull();
+    }
+
+    @Test
+    void testDuplicateIds_ShouldResolveToFirstOccurrence() {
+        Quiz first = quiz(1, 5, 5);
+        QuizCatalog catalog = QuizCatalog.of(Arrays.asList(first, quiz(1, 6)));
+
+        assertThat(catalog.getQuiz(1)).isSameAs(first);
+        assertThat(catalog.indexOfQuestion(1, 5)).isZero();
+    }
+
+    @Test
+    void testLargeCatalog_ShouldIndexEveryQuiz() {
+        List<Quiz> quizzes = new ArrayList<>();
+        for (int id = 1; id <= 100_000; id++) {
+            quizzes.add(new Quiz(id * 3, "Quiz", "Description", null));
+        }
+        QuizCatalog catalog = QuizCatalog.of(quizzes);
+
+        for (int id = 1; id <= 100_000; id++) {
+            assertThat(catalog.slotOf(id * 3)).isEqualTo(id - 1);
+        }
+        assertThat(catalog.slotOf(4)).isEqualTo(-1);
+    }
+
+    @Test
+    void testCatalog_ShouldBeReadOnly() {
+        List<Quiz> source = new ArrayList<>(List.of(quiz(1, 1)));
+        QuizCatalog catalog = QuizCatalog.of(source);
+        source.add(quiz(2, 1));
+
+        assertThat(catalog.size()).isEqualTo(1);
+        assertThatThrownBy(() -> catalog.getQuizzes().add(quiz(3, 1)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,51 @@
+package com.quiz.quiz_app;
+
+import com.quiz.exception.QuizException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link QuizException}: expected errors carry no stack trace and the shared
+ * instances cannot be changed by the code that catches them, and every error carries its API status.
+ */
+class QuizExceptionTest {
+
+    @Test
+    void testNewException_ShouldHaveNoStackTrace() {
+        QuizException ex = new QuizException("Invalid Question", "The question ID is invalid.", "Question ID: 0");
+
+        assertThat(ex.getStackTrace()).isEmpty();
+        assertThat(ex.getErrorTitle()).isEqualTo("Invalid Question");
+        assertThat(ex.getMessage()).isEqualTo("The question ID is invalid.");
+        assertThat(ex.getErrorDetails()).isEqualTo("Question ID: 0");
+        assertThat(new QuizException("Broken").getErrorTitle()).isEqualTo("Quiz Error");
+    }
+
+    @Test
+    void testStatus_ShouldBeSetWhereTheErrorIsDeclared() {
+        assertThat(new QuizException("Invalid Question", "The question ID is invalid.", "Question ID: 0").getStatus())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(QuizException.SESSION_EXPIRED.getStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(QuizException.NOT_THE_PRESENTER.getStatus()).isEqualTo(HttpStatus.FORBIDDEN);
+        QuizException notFound = QuizException.quizNotFound(42);
+        assertThat(notFound.getStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(notFound.getErrorTitle()).isEqualTo("Quiz Not Found");
+        assertThat(notFound.getErrorDetails()).contains("42");
+    }
+
+    @Test
+    void testSharedInstance_ShouldNotKeepCauseOrSuppressed() {
+        QuizException shared = QuizException.SESSION_EXPIRED;
+        shared.addSuppressed(new IllegalStateException("from one request"));
+        shared.setStackTrace(new StackTraceElement[]{new StackTraceElement("A", "b", "A.java", 1)});
+
+        assertThat(shared.getSuppressed()).isEmpty();
+        assertThat(shared.getStackTrace()).isEmpty();
+        assertThatThrownBy(() -> shared.initCause(new RuntimeException()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(shared.getCause()).isNull();
+    }
+}
@@ -1,5 +1,6 @@
 package com.quiz.quiz_app;
 
+import com.quiz.catalog.QuizCatalog;
 import com.quiz.model.Quiz;
 import com.quiz.service.QuizLoader;
 import org.junit.jupiter.api.Test;
@@ -58,7 +59,7 @@ class QuizLoaderTest {
 
             }
         };
-        ReflectionTestUtils.setField(loader, "quizzes", Arrays.asList(quiz1, quiz2));
+        ReflectionTestUtils.setField(loader, "catalog", QuizCatalog.of(Arrays.asList(quiz1, quiz2)));
 
         // When
         Quiz result = loader.getQuizById(2);
@@ -79,7 +80,7 @@ class QuizLoaderTest {
 
             }
         };
-        ReflectionTestUtils.setField(loader, "quizzes", Collections.singletonList(quiz));
+        ReflectionTestUtils.setField(loader, "catalog", QuizCatalog.of(Collections.singletonList(quiz)));
 
         Quiz result = loader.getQuizById(99);
 
@@ -92,7 +93,7 @@ class QuizLoaderTest {
         QuizLoader loader = new QuizLoader();
 
         // ✅ Then modify its private field
-        ReflectionTestUtils.setField(loader, "quizzes", Collections.emptyList());
+        ReflectionTestUtils.setField(loader, "catalog", QuizCatalog.empty());
 
         // Now test behavior
         List<Quiz> quizzes = loader.getAllQuizzes();
@@ -0,0 +1,67 @@
+package com.quiz.quiz_app;
+
+import com.quiz.controller.QuizApiController;
+import com.quiz.metrics.QuizMetrics;
+import com.quiz.metrics.QuizMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Unit tests for the meters published by {@link QuizMetrics}.
+ */
+class QuizMetricsTest {
+
+    @Test
+    void testRecordedValues_ShouldBeTaggedAndShareMeters() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        QuizMetrics metrics = new QuizMetrics(registry);
+
+        metrics.recordEndpoint("QuizController.submitQuiz", true, 1_000);
+        metrics.recordEndpoint("QuizController.submitQuiz", true, 3_000);
+        metrics.recordEndpoint("QuizController.submitQuiz", false, 2_000);
+        metrics.recordError("Session Expired");
+        metrics.recordError("Session Expired");
+        metrics.recordLookup(false);
+        metrics.recordAttemptState(43);
+
+        assertThat(registry.get("quiz.endpoint").tag("endpoint", "QuizController.submitQuiz").tag("outcome", "success").timer().count())
+                .isEqualTo(2);
+        assertThat(registry.get("quiz.endpoint").tag("outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(registry.get("quiz.errors").tag("title", "Session Expired").counter().count()).isEqualTo(2);
+        assertThat(registry.get("quiz.catalog.lookups").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(registry.get("quiz.attempt.state.bytes").summary().totalAmount()).isEqualTo(43);
+    }
+
+    @Test
+    void testInterceptor_ShouldTagTheControllerAndMethod() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        QuizMetricsInterceptor interceptor = new QuizMetricsInterceptor(new QuizMetrics(registry));
+        HandlerMethod submit = new HandlerMethod(new QuizApiController(),
+                QuizApiController.class.getMethod("submit", String.class, QuizApiController.AnswerBatch.class));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, submit);
+        interceptor.postHandle(request, response, submit, null);
+        interceptor.afterCompletion(request, response, submit, null);
+
+        assertThat(registry.get("quiz.endpoint").tag("endpoint", "QuizApiController.submit")
+                .tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testNone_ShouldAcceptRecordingsWithoutRegistry() {
+        assertThatCode(() -> {
+            QuizMetrics.NONE.recordShuffle(1_000);
+            QuizMetrics.NONE.recordRender("home", 1_000);
+            QuizMetrics.NONE.recordUnexpectedError(new IllegalStateException());
+        }).doesNotThrowAnyException();
+    }
+}
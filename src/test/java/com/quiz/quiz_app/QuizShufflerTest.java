@@ -0,0 +1,106 @@
+package com.quiz.quiz_app;
+
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.model.QuizPermutation;
+import com.quiz.service.QuizShuffler;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the seeded {@link QuizShuffler}.
+ */
+class QuizShufflerTest {
+
+    private static Quiz quiz() {
+        return new Quiz(1, "Quiz", "Description", List.of(
+                new Question(1, "Q1", Arrays.asList("a", "b", "c", "d"), "a"),
+                new Question(2, "Q2", Arrays.asList("yes", "no"), "no"),
+                new Question(3, "Q3", Arrays.asList("same", "same", "other"), "other")));
+    }
+
+    private static List<String> shown(Quiz quiz, QuizPermutation shuffle) {
+        return shuffle.apply(quiz).getQuestions().stream()
+                .map(question -> question.getId() + ":" + question.getOptions() + ":" + question.getCorrectAnswer())
+                .toList();
+    }
+
+    @Test
+    void testSameSeed_ShouldAlwaysGiveSameOrder() {
+        Quiz quiz = quiz();
+        for (long seed = -50; seed < 50; seed++) {
+            QuizPermutation first = QuizShuffler.permutation(quiz, seed);
+            QuizPermutation second = QuizShuffler.permutation(quiz, seed);
+
+            assertThat(second.getSeed()).isEqualTo(seed);
+            assertThat(shown(quiz, second)).isEqualTo(shown(quiz, first));
+        }
+    }
+
+    @Test
+    void testDifferentSeeds_ShouldReachEveryQuestionOrder() {
+        Quiz quiz = quiz();
+        Set<String> orders = new HashSet<>();
+        for (long seed = 0; seed < 1000; seed++) {
+            QuizPermutation shuffle = QuizShuffler.permutation(quiz, seed);
+            orders.add("" + shuffle.questionIndex(0) + shuffle.questionIndex(1) + shuffle.questionIndex(2));
+        }
+
+        assertThat(orders).hasSize(6);   // 3! question orders
+    }
+
+    @Test
+    void testDuplicateOptions_ShouldBeKept() {
+        Quiz quiz = quiz();
+        for (long seed = 0; seed < 20; seed++) {
+            Question third = QuizShuffler.permutation(quiz, seed).apply(quiz).getQuestions().stream()
+                    .filter(question -> question.getId() == 3)
+                    .findFirst()
+                    .orElseThrow();
+
+            assertThat(third.getOptions()).containsExactlyInAnyOrder("same", "same", "other");
+            assertThat(third.getOptions().get(third.getCorrectAnswer().charAt(0) - 'A')).isEqualTo("other");
+        }
+    }
+
+    @Test
+    void testMappingBack_ShouldInvertTheDisplayOrder() {
+        Quiz quiz = quiz();
+        for (long seed = 0; seed < 20; seed++) {
+            QuizPermutation shuffle = QuizShuffler.permutation(quiz, seed);
+            for (int d = 0; d < shuffle.size(); d++) {
+                int position = shuffle.questionIndex(d);
+                int[] options = shuffle.originalOptions(d);
+
+                assertThat(shuffle.displayPosition(position)).isEqualTo(d);
+                for (int o = 0; o < options.length; o++) {
+                    assertThat(shuffle.originalOption(position, o)).isEqualTo(options[o]);
+                }
+                assertThat(shuffle.originalOption(position, options.length)).isEqualTo(-1);
+            }
+            assertThat(shuffle.displayPosition(3)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void testOptionsOnly_ShouldKeepQuestionOrderAndEarlierOptionsWhenQuestionsAreAppended() {
+        Quiz full = quiz();
+        Quiz firstTwo = new Quiz(1, "Quiz", "Description", full.getQuestions().subList(0, 2));
+        for (long seed = 0; seed < 100; seed++) {
+            QuizPermutation shorter = QuizShuffler.permutation(firstTwo, seed, false);
+            QuizPermutation longer = QuizShuffler.permutation(full, seed, false);
+
+            assertThat(longer.questionIndex(0)).isZero();
+            assertThat(longer.questionIndex(2)).isEqualTo(2);
+            for (int position = 0; position < 2; position++) {
+                assertThat(longer.originalOptions(position)).containsExactly(shorter.originalOptions(position));
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.quiz.quiz_app;
+
+import com.quiz.analytics.QuizStats;
+import com.quiz.analytics.QuizStatsSnapshot;
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.service.AnswerGrader;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for {@link QuizStats}: the counters of recorded attempts, concurrent recording, and
+ * detecting a quiz whose questions changed.
+ */
+class QuizStatsTest {
+
+    private static Quiz quiz() {
+        return new Quiz(1, "Capitals", "Description", List.of(
+                new Question(1, "Brazil?", Arrays.asList("Rio", "São Paulo", "Brasília"), "Brasília"),
+                new Question(2, "Japan?", Arrays.asList("Tokyo", "Osaka"), "Tokyo")));
+    }
+
+    private static void record(QuizStats stats, byte[] key, byte... answers) {
+        var grade = AnswerGrader.grade(key, answers);
+        stats.record(answers, grade, grade.getScore() == answers.length);
+    }
+
+    @Test
+    void testRecordedAttempts_ShouldBeCountedPerScoreAndOption() {
+        Quiz quiz = quiz();
+        byte[] key = QuizCatalog.of(List.of(quiz)).answerKey(0);
+        QuizStats stats = new QuizStats(quiz);
+
+        record(stats, key, (byte) 2, (byte) 0);    // both correct
+        record(stats, key, (byte) 0, (byte) 0);    // second correct
+        record(stats, key, (byte) 0, (byte) -1);   // none correct, second unanswered
+        QuizStatsSnapshot snapshot = stats.snapshot();
+
+        assertThat(snapshot.attempts()).isEqualTo(3);
+        assertThat(snapshot.passRate()).isEqualTo(1.0 / 3);
+        assertThat(snapshot.averageScore()).isEqualTo(1.0);
+        assertThat(snapshot.scoreHistogram()).containsExactly(1, 1, 1);
+
+        QuizStatsSnapshot.QuestionStats first = snapshot.questions().get(0);
+        assertThat(first.selections()).containsExactly(2, 0, 1);
+        assertThat(first.difficulty()).isCloseTo(2.0 / 3, within(1e-9));
+        QuizStatsSnapshot.QuestionStats second = snapshot.questions().get(1);
+        assertThat(second.selections()).containsExactly(2, 0);
+        assertThat(second.unanswered()).isEqualTo(1);
+    }
+
+    @Test
+    void testConcurrentRecording_ShouldLoseNoAttempts() {
+        Quiz quiz = quiz();
+        byte[] key = QuizCatalog.of(List.of(quiz)).answerKey(0);
+        QuizStats stats = new QuizStats(quiz);
+
+        try (ExecutorService submitters = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10_000; i++) {
+                byte first = (byte) (i % 3);
+                submitters.submit(() -> record(stats, key, first, (byte) 0));
+            }
+        }
+
+        QuizStatsSnapshot snapshot = stats.snapshot();
+        assertThat(snapshot.attempts()).isEqualTo(10_000);
+        assertThat(Arrays.stream(snapshot.scoreHistogram()).sum()).isEqualTo(10_000);
+        assertThat(snapshot.questions().get(0).selections()).containsExactly(3_334, 3_333, 3_333);
+    }
+
+    @Test
+    void testChangedQuiz_ShouldNotMatch() {
+        QuizStats stats = new QuizStats(quiz());
+
+        Quiz sameShape = quiz();
+        Quiz moreOptions = new Quiz(1, "Capitals", "Description", List.of(
+                new Question(1, "Brazil?", Arrays.asList("Rio", "São Paulo", "Brasília", "Recife"), "Brasília"),
+                new Question(2, "Japan?", Arrays.asList("Tokyo", "Osaka"), "Tokyo")));
+
+        Quiz otherAnswer = new Quiz(1, "Capitals", "Description", List.of(
+                new Question(1, "Brazil?", Arrays.asList("Rio", "São Paulo", "Brasília"), "Rio"),
+                new Question(2, "Japan?", Arrays.asList("Tokyo", "Osaka"), "Tokyo")));
+        Quiz otherOption = new Quiz(1, "Capitals", "Description", List.of(
+                new Question(1, "Brazil?", Arrays.asList("Rio", "São Paulo", "Brasília"), "Brasília"),
+                new Question(2, "Japan?", Arrays.asList("Tokyo", "Kyoto"), "Tokyo")));
+
+        assertThat(stats.matches(sameShape)).isTrue();
+        assertThat(stats.matches(sameShape)).isTrue();
+        assertThat(stats.matches(moreOptions)).isFalse();
+        assertThat(stats.matches(otherAnswer)).isFalse();   // same counts, different content
+        assertThat(stats.matches(otherOption)).isFalse();
+        assertThat(new QuizStats(quiz()).snapshot().questions().get(0).difficulty()).isZero();
+    }
+
+    @Test
+    void testEmptySnapshot_ShouldMatchTheSnapshotOfUnusedStats() {
+        Quiz quiz = quiz();
+        QuizStatsSnapshot empty = QuizStatsSnapshot.empty(quiz);
+        QuizStatsSnapshot unused = new QuizStats(quiz).snapshot();
+
+        assertThat(empty.totalQuestions()).isEqualTo(unused.totalQuestions());
+        assertThat(empty.attempts()).isZero();
+        assertThat(empty.scoreHistogram()).isEqualTo(unused.scoreHistogram());
+        assertThat(empty.questions()).hasSameSizeAs(unused.questions());
+        for (int q = 0; q < empty.questions().size(); q++) {
+            QuizStatsSnapshot.QuestionStats expected = unused.questions().get(q);
+            QuizStatsSnapshot.QuestionStats actual = empty.questions().get(q);
+            assertThat(actual.questionId()).isEqualTo(expected.questionId());
+            assertThat(actual.options()).isEqualTo(expected.options());
+            assertThat(actual.selections()).isEqualTo(expected.selections());
+            assertThat(actual.correctRate()).isZero();
+            assertThat(actual.difficulty()).isZero();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.quiz.quiz_app;
+
+import com.quiz.catalog.QuizCatalog;
+import com.quiz.model.AttemptRecord;
+import com.quiz.model.Question;
+import com.quiz.model.Quiz;
+import com.quiz.service.RegradeEngine;
+import com.quiz.service.RegradeReport;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RegradeEngine} and the {@link AttemptRecord} stream it reads and writes.
+ */
+class RegradeEngineTest {
+
+    // Q2 was originally keyed as "a" and later corrected to "b"
+    private static final QuizCatalog FIXED = QuizCatalog.of(List.of(new Quiz(1, "Quiz", "Description", List.of(
+            new Question(1, "Q1", Arrays.asList("a", "b", "c"), "a"),
+            new Question(2, "Q2", Arrays.asList("a", "b", "c"), "b")))));
+
+    private static byte[] write(List<AttemptRecord> records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (AttemptRecord record : records) {
+            record.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<AttemptRecord> read(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        List<AttemptRecord> records = new ArrayList<>();
+        AttemptRecord record;
+        while ((record = AttemptRecord.read(in)) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static AttemptRecord attempt(long id, int quizId, int score, byte... answers) {
+        return new AttemptRecord(id, quizId, 42L, 1_000L, 2_000L, score, answers);
+    }
+
+    @Test
+    void testAttemptRecord_ShouldRoundTrip() throws IOException {
+        AttemptRecord record = new AttemptRecord(7L, 3, -5L, 100L, 200L, 2, new byte[]{0, -1, 2});
+
+        List<AttemptRecord> read = read(write(List.of(record)));
+
+        assertThat(read).hasSize(1);
+        assertThat(read.get(0).getAttemptId()).isEqualTo(7L);
+        assertThat(read.get(0).getSeed()).isEqualTo(-5L);
+        assertThat(read.get(0).getSubmittedAt()).isEqualTo(200L);
+        assertThat(read.get(0).getAnswers()).containsExactly(0, -1, 2);
+        assertThat(write(List.of(record))).hasSize(record.byteSize());
+    }
+
+    @Test
+    void testRegrade_ShouldCorrectScoresAndReportChanges() throws IOException {
+        byte[] input = write(List.of(
+                attempt(1, 1, 2, (byte) 0, (byte) 0),    // graded with the old key: now 1
+                attempt(2, 1, 1, (byte) 0, (byte) 1),    // graded with the old key: now 2
+                attempt(3, 1, 1, (byte) 0, (byte) 2),    // unchanged
+                attempt(4, 9, 5, (byte) 0),              // quiz no longer in the catalog
+                attempt(5, 1, 0, (byte) 0)));            // sheet does not match the quiz
+        ByteArrayOutputStream corrected = new ByteArrayOutputStream();
+        StringWriter diff = new StringWriter();
+
+        RegradeReport report = new RegradeEngine().regrade(FIXED, new ByteArrayInputStream(input), corrected, diff);
+
+        assertThat(report.getTotal()).isEqualTo(5);
+        assertThat(report.getRegraded()).isEqualTo(3);
+        assertThat(report.getRaised()).isEqualTo(1);
+        assertThat(report.getLowered()).isEqualTo(1);
+        assertThat(report.getSkipped()).isEqualTo(2);
+        assertThat(read(corrected.toByteArray())).extracting(AttemptRecord::getScore).containsExactly(1, 2, 1, 5, 0);
+        assertThat(diff.toString()).isEqualTo("attemptId,quizId,oldScore,newScore\n1,1,2,1\n2,1,1,2\n");
+    }
+
+    @Test
+    void testRegrade_AcrossManyChunks_ShouldKeepInputOrder() throws IOException {
+        List<AttemptRecord> attempts = new ArrayList<>();
+        for (int id = 0; id < 10_000; id++) {
+            attempts.add(attempt(id, 1, 0, (byte) (id % 3), (byte) 1));
+        }
+        ByteArrayOutputStream corrected = new ByteArrayOutputStream();
+        RegradeReport report;
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            report = new RegradeEngine(pool, 3_000).regrade(FIXED, 1, new ByteArrayInputStream(write(attempts)),
+                    corrected, new StringWriter());
+        }
+
+        List<AttemptRecord> read = read(corrected.toByteArray());
+        assertThat(report.getTotal()).isEqualTo(10_000);
+        assertThat(read).extracting(AttemptRecord::getAttemptId)
+                .containsExactlyElementsOf(attempts.stream().map(AttemptRecord::getAttemptId).toList());
+        for (AttemptRecord record : read) {
+            assertThat(record.getScore()).isEqualTo(record.getAttemptId() % 3 == 0 ? 2 : 1);
+        }
+    }
+}
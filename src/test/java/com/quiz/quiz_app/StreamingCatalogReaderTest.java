@@ -0,0 +1,115 @@
+package com.quiz.quiz_app;
+
+import com.quiz.catalog.CatalogLoadResult;
+import com.quiz.catalog.StreamingCatalogReader;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link StreamingCatalogReader}.
+ */
+class StreamingCatalogReaderTest {
+
+    private static String quizJson(int id) {
+        return """
+                {"id": %d, "title": "Quiz %d", "description": "d", "questions": [
+                  {"id": 1, "question": "2 + 2?", "options": ["3", "4"], "correctAnswer": "4"},
+                  {"id": 2, "question": "3 + 3?", "options": ["6", "7"], "correctAnswer": "6"}
+                ]}""".formatted(id, id);
+    }
+
+    private static CatalogLoadResult read(String json) throws IOException {
+        return StreamingCatalogReader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testRead_ShouldBuildQuizzesAndQuestions() throws IOException {
+        CatalogLoadResult result = read("{\"version\": {\"ignored\": true}, \"quizzes\": [" + quizJson(1) + "," + quizJson(2) + "]}");
+
+        assertThat(result.getRejectedCount()).isZero();
+        assertThat(result.getQuizzes()).hasSize(2);
+        assertThat(result.getQuizzes().get(1).getTitle()).isEqualTo("Quiz 2");
+        assertThat(result.getQuizzes().get(0).getQuestions().get(1).getOptions()).containsExactly("6", "7");
+        assertThat(result.getBytesRead()).isPositive();
+    }
+
+    @Test
+    void testRead_WithBadRecords_ShouldSkipOnlyThoseRecords() throws IOException {
+        String json = "{\"quizzes\": ["
+                + quizJson(1) + ","
+                + "{\"id\": \"two\", \"title\": \"wrong id type\", \"questions\": [{\"nested\": [1, 2]}]},"
+                + "[\"not\", \"an\", \"object\"],"
+                + quizJson(3).replace("\"correctAnswer\": \"6\"", "\"correctAnswer\": \"8\"") + ","
+                + quizJson(1) + ","
+                + quizJson(4)
+                + "]}";
+
+        CatalogLoadResult result = read(json);
+
+        assertThat(result.getQuizzes()).extracting("id").containsExactly(1, 4);
+        assertThat(result.getRejectedCount()).isEqualTo(4);
+        assertThat(result.getRejections()).anyMatch(problem -> problem.contains("not an int"))
+                .anyMatch(problem -> problem.contains("correct answer is not one of its options"))
+                .anyMatch(problem -> problem.contains("Duplicate quiz id 1"));
+    }
+
+    @Test
+    void testRead_WithTheCorrectAnswerInTwoOptions_ShouldRejectTheQuiz() throws IOException {
+        String repeatedWrong = quizJson(2).replace("[\"3\", \"4\"]", "[\"3\", \"4\", \"3\"]");
+        String repeatedCorrect = quizJson(3).replace("[\"6\", \"7\"]", "[\"7\", \"6\", \"6\"]");
+
+        CatalogLoadResult result = read("{\"quizzes\": [" + quizJson(1) + "," + repeatedWrong + "," + repeatedCorrect + "]}");
+
+        assertThat(result.getQuizzes()).extracting("id").containsExactly(1, 2);
+        assertThat(result.getRejections()).singleElement().asString()
+                .contains("Quiz 3: question 2 correct answer is more than one of its options");
+    }
+
+    @Test
+    void testRead_WithBrokenJson_ShouldFail() {
+        assertThatThrownBy(() -> read("{\"quizzes\": [" + quizJson(1) + ", {\"id\": "))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> read("[]"))
+                .isInstanceOf(JsonParseException.class);
+    }
+
+    @Test
+    void testReadShards_ShouldMergeInShardOrderAndReportProgress(@TempDir Path directory) throws IOException {
+        List<Path> shards = new ArrayList<>();
+        for (int shard = 0; shard < 4; shard++) {
+            StringBuilder json = new StringBuilder("{\"quizzes\": [");
+            for (int i = 0; i < 1500; i++) {
+                json.append(i == 0 ? "" : ",").append(quizJson(shard * 1500 + i + 1));
+            }
+            Path file = directory.resolve("shard-" + shard + ".json");
+            Files.writeString(file, json.append("]}"));
+            shards.add(file);
+        }
+        List<String> progress = new ArrayList<>();
+
+        CatalogLoadResult result = StreamingCatalogReader.readShards(shards, 4,
+                (source, bytesRead, totalBytes, accepted, rejected) -> {
+                    synchronized (progress) {
+                        progress.add(source);
+                    }
+                });
+
+        assertThat(result.getAcceptedCount()).isEqualTo(6000);
+        for (int i = 0; i < 6000; i++) {
+            assertThat(result.getQuizzes().get(i).getId()).isEqualTo(i + 1);
+        }
+        assertThat(progress).contains("shard-0.json", "shard-3.json");
+    }
+}
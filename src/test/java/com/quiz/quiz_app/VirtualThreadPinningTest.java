@@ -0,0 +1,81 @@
+package com.quiz.quiz_app;
+
+import com.quiz.model.AttemptState;
+import com.quiz.service.AnswerGrader;
+import com.quiz.store.AttemptStateStore;
+import com.quiz.store.FileAttemptStateStore;
+import com.quiz.store.StripedAttemptStateStore;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with the JDK's {@code jdk.VirtualThreadPinned} event that the attempt stores can be used
+ * from many virtual threads without pinning them to their carriers.
+ */
+class VirtualThreadPinningTest {
+
+    private static final Object MONITOR = new Object();
+
+    @TempDir
+    Path directory;
+
+    private List<RecordedEvent> pinnedEvents(Runnable task) throws Exception {
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(5)).withStackTrace();
+            recording.start();
+            try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 200; i++) {
+                    threads.submit(task);
+                }
+            }
+            recording.stop();
+            Path dump = directory.resolve("pinning.jfr");
+            recording.dump(dump);
+            return RecordingFile.readAllEvents(dump);
+        }
+    }
+
+    @Test
+    void testBlockingInsideSynchronized_ShouldBeReportedAsPinned() throws Exception {
+        List<RecordedEvent> events = pinnedEvents(() -> {
+            synchronized (MONITOR) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        assertThat(events).isNotEmpty();
+    }
+
+    @Test
+    void testAttemptStores_ShouldNotPinVirtualThreads() throws Exception {
+        for (AttemptStateStore store : List.of(new StripedAttemptStateStore(2), new FileAttemptStateStore(directory))) {
+            List<RecordedEvent> events = pinnedEvents(() -> {
+                long id = Thread.currentThread().threadId();
+                store.put(id, new AttemptState(1, 1L, id, 0L, 0, AnswerGrader.newAnswerSheet(20)));
+                for (int i = 0; i < 20; i++) {
+                    AttemptState state = store.get(id);
+                    state.getAnswers()[i] = 1;
+                    store.put(id, state);
+                }
+                store.remove(id);
+            });
+
+            assertThat(events).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.quiz.quiz_app;
+
+import com.quiz.model.AttemptState;
+import com.quiz.store.StripedAttemptStateStore;
+import com.quiz.store.WriteBehindAttemptStateStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link WriteBehindAttemptStateStore}: coalescing, reads of buffered attempts,
+ * removal before a flush, writing through when the buffer is full, and counting buffered attempts.
+ */
+class WriteBehindAttemptStateStoreTest {
+
+    /**
+     * Backing store that counts its writes.
+     */
+    private static class CountingStore extends StripedAttemptStateStore {
+
+        final AtomicInteger writes = new AtomicInteger();
+
+        CountingStore() {
+            super(4);
+        }
+
+        @Override
+        public void put(long attemptId, AttemptState state) {
+            writes.incrementAndGet();
+            super.put(attemptId, state);
+        }
+    }
+
+    private final CountingStore backing = new CountingStore();
+    // long interval: the tests flush explicitly
+    private final WriteBehindAttemptStateStore store =
+            new WriteBehindAttemptStateStore(backing, Duration.ofHours(1), 100, 2);
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private static AttemptState state(int answer) {
+        return new AttemptState(3, 7L, 42L, 1_000L, 0, new byte[]{(byte) answer, -1, -1});
+    }
+
+    @Test
+    void testRepeatedAnswers_ShouldBeWrittenOnce() {
+        for (int answer = 0; answer < 4; answer++) {
+            store.put(1L, state(answer));
+        }
+
+        assertThat(backing.writes).hasValue(0);
+        assertThat(store.get(1L).getAnswers()[0]).isEqualTo((byte) 3);   // reads see the buffered state
+
+        assertThat(store.flush()).isEqualTo(1);
+        assertThat(backing.writes).hasValue(1);
+        assertThat(backing.get(1L).getAnswers()[0]).isEqualTo((byte) 3);
+        assertThat(store.pending()).isZero();
+        assertThat(store.puts()).isEqualTo(4);
+        assertThat(store.writes()).isEqualTo(1);
+    }
+
+    @Test
+    void testRemoveBeforeFlush_ShouldNeverWrite() {
+        store.put(1L, state(2));
+        store.remove(1L);
+
+        assertThat(store.flush()).isZero();
+        assertThat(store.get(1L)).isNull();
+        assertThat(backing.writes).hasValue(0);
+    }
+
+    @Test
+    void testFullBuffer_ShouldWriteNewAttemptsThrough() {
+        store.put(1L, state(0));
+        store.put(2L, state(0));
+        store.put(3L, state(1));   // buffer holds 2 attempts
+        store.put(1L, state(2));   // already buffered, stays buffered
+
+        assertThat(store.writesThrough()).isEqualTo(1);
+        assertThat(backing.get(3L).getAnswers()[0]).isEqualTo((byte) 1);
+        assertThat(store.pending()).isEqualTo(2);
+    }
+
+    @Test
+    void testClose_ShouldWriteEverythingBuffered() {
+        store.put(1L, state(1));
+        store.put(2L, state(2));
+
+        store.close();
+
+        assertThat(backing.get(1L).getAnswers()[0]).isEqualTo((byte) 1);
+        assertThat(backing.get(2L).getAnswers()[0]).isEqualTo((byte) 2);
+    }
+
+    @Test
+    void testSize_ShouldCountBufferedAttemptsOnce() {
+        store.put(1L, state(0));
+        assertThat(store.size()).isEqualTo(1);
+
+        store.flush();
+        store.put(1L, state(1));   // buffered again, over the state written
+        store.put(2L, state(0));
+        assertThat(store.size()).isEqualTo(2);
+
+        store.remove(1L);
+        assertThat(store.size()).isEqualTo(1);
+        store.flush();
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(backing.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testConcurrentPuts_ShouldNotOverfillTheBuffer() throws InterruptedException {
+        try (WriteBehindAttemptStateStore bounded =
+                     new WriteBehindAttemptStateStore(new CountingStore(), Duration.ofHours(1), 1_000, 50)) {
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            for (int t = 0; t < 8; t++) {
+                long first = t * 100L;
+                pool.submit(() -> {
+                    for (long id = first; id < first + 100; id++) {
+                        bounded.put(id, state(1));
+                    }
+                });
+            }
+            pool.shutdown();
+            assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(bounded.pending()).isEqualTo(50);
+            assertThat(bounded.writesThrough()).isEqualTo(750);
+            assertThat(bounded.size()).isEqualTo(800);
+            assertThat(bounded.flush()).isEqualTo(50);
+            assertThat(bounded.size()).isEqualTo(800);
+        }
+    }
+}